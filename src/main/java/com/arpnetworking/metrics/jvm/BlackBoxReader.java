@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the history recorded by a {@link BlackBoxRecorder}, for example
+ * after the process which recorded it died. Run it with the path of the
+ * file to dump the history, one line per metric value:
+ *
+ * <pre>
+ * java -cp jvm-extra.jar com.arpnetworking.metrics.jvm.BlackBoxReader /var/run/app/jvm.blackbox
+ * </pre>
+ *
+ * A block which cannot be decoded, for example because the file was
+ * corrupted, is skipped from the first sample which cannot be decoded.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class BlackBoxReader {
+
+    /**
+     * Dump the history in a file to standard out.
+     *
+     * @param args the path of the file
+     * @throws IOException if the file cannot be read or is not a black box
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: BlackBoxReader <path>");
+            return;
+        }
+        open(Path.of(args[0])).dump(System.out);
+    }
+
+    /**
+     * Read a black box file.
+     *
+     * @param path the path of the file
+     * @return a reader of the file
+     * @throws IOException if the file cannot be read or is not a black box
+     */
+    public static BlackBoxReader open(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < BlackBoxRecorder.HEADER_SIZE
+                || buffer.getInt(BlackBoxRecorder.MAGIC_OFFSET) != BlackBoxRecorder.MAGIC
+                || buffer.getInt(BlackBoxRecorder.VERSION_OFFSET) != BlackBoxRecorder.VERSION) {
+            throw new IOException(String.format("Not a black box file; path=%s", path));
+        }
+        final int blockSize = buffer.getInt(BlackBoxRecorder.BLOCK_SIZE_OFFSET);
+        final int blockCount = buffer.getInt(BlackBoxRecorder.BLOCK_COUNT_OFFSET);
+        if (blockSize < BlackBoxRecorder.BLOCK_HEADER_SIZE
+                || blockCount < 0
+                || BlackBoxRecorder.HEADER_SIZE + (long) blockSize * blockCount != buffer.capacity()) {
+            throw new IOException(String.format("Black box file has an invalid geometry; path=%s", path));
+        }
+        return new BlackBoxReader(buffer, blockSize, blockCount);
+    }
+
+    /**
+     * Decode the recorded snapshots.
+     *
+     * @return the recorded snapshots, oldest first
+     */
+    public List<JvmSnapshot> read() {
+        final List<Integer> blocks = new ArrayList<>();
+        for (int i = 0; i < _blockCount; ++i) {
+            if (getBlockLong(i, BlackBoxRecorder.BLOCK_SEQUENCE_OFFSET) > 0) {
+                blocks.add(i);
+            }
+        }
+        blocks.sort(Comparator.comparingLong(block -> getBlockLong(block, BlackBoxRecorder.BLOCK_SEQUENCE_OFFSET)));
+        final List<JvmSnapshot> snapshots = new ArrayList<>();
+        for (final int block : blocks) {
+            decodeBlock(block, snapshots);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Write the recorded snapshots as text, one line per metric value with
+     * its timestamp, name and value and for timers the unit.
+     *
+     * @param out the stream to write to
+     */
+    public void dump(final PrintStream out) {
+        for (final JvmSnapshot snapshot : read()) {
+            final Instant timestamp = Instant.ofEpochMilli(snapshot.getTimestamp());
+            for (int i = 0; i < snapshot.size(); ++i) {
+                if (!snapshot.isPresent(i)) {
+                    continue;
+                }
+                final String name = snapshot.getName(i);
+                final JvmSnapshot.Kind kind = snapshot.getKind(i);
+                if (kind == JvmSnapshot.Kind.DOUBLE_GAUGE) {
+                    out.println(String.format("%s %s %s", timestamp, name, snapshot.getDouble(i)));
+                } else if (kind == JvmSnapshot.Kind.TIMER) {
+                    out.println(String.format("%s %s %d %s", timestamp, name, snapshot.getLong(i), snapshot.getUnit(i)));
+                } else {
+                    out.println(String.format("%s %s %d", timestamp, name, snapshot.getLong(i)));
+                }
+            }
+        }
+    }
+
+    private void decodeBlock(final int block, final List<JvmSnapshot> snapshots) {
+        final int offset = BlackBoxRecorder.blockOffset(block, _blockSize);
+        final int samples = _buffer.getInt(offset + BlackBoxRecorder.BLOCK_SAMPLES_OFFSET);
+        final int used = Math.min(
+                Math.max(0, _buffer.getInt(offset + BlackBoxRecorder.BLOCK_USED_OFFSET)),
+                _blockSize - BlackBoxRecorder.BLOCK_HEADER_SIZE);
+        final BitReader reader = new BitReader(_buffer, offset + BlackBoxRecorder.BLOCK_HEADER_SIZE, used);
+        final State state = new State();
+        try {
+            for (int sample = 0; sample < samples; ++sample) {
+                reader.alignToByte();
+                snapshots.add(decode(reader, state));
+            }
+        } catch (final IndexOutOfBoundsException e) {
+            LOGGER.warn(String.format("Skipping undecodable black box samples; block=%d", block), e);
+        }
+    }
+
+    private static JvmSnapshot decode(final BitReader reader, final State state) {
+        if (state._samples == 0) {
+            state._timestamp = reader.read(Long.SIZE);
+        } else {
+            state._delta += decodeDeltaOfDelta(reader);
+            state._timestamp += state._delta;
+        }
+        ++state._samples;
+
+        if (reader.read(1) != 0) {
+            final int size = (int) reader.read(Integer.SIZE);
+            // Each metric takes at least one bit
+            if (Integer.toUnsignedLong(size) > reader.remaining()) {
+                throw new IndexOutOfBoundsException(String.format("Invalid metric count; size=%d", size));
+            }
+            state.resize(size);
+            for (int i = state._size; i < size; ++i) {
+                final byte[] name = new byte[(int) reader.read(BlackBoxRecorder.NAME_LENGTH_BITS)];
+                for (int j = 0; j < name.length; ++j) {
+                    name[j] = (byte) reader.read(Byte.SIZE);
+                }
+                state._names[i] = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(name)).toString();
+            }
+            state._size = size;
+        }
+
+        final JvmSnapshot snapshot = new JvmSnapshot();
+        snapshot.reset(state._names, state._size);
+        snapshot.setTimestamp(state._timestamp);
+        for (int i = 0; i < state._size; ++i) {
+            if (reader.read(1) == 0) {
+                continue;
+            }
+            if (reader.read(1) != 0) {
+                state._kinds[i] = KINDS[(int) reader.read(BlackBoxRecorder.KIND_BITS)];
+                state._units[i] = state._kinds[i] == JvmSnapshot.Kind.TIMER
+                        ? UNITS[(int) reader.read(BlackBoxRecorder.UNIT_BITS)]
+                        : null;
+            }
+            final long bits = decodeValue(reader, state, i);
+            if (state._kinds[i] == JvmSnapshot.Kind.DOUBLE_GAUGE) {
+                snapshot.setDouble(i, Double.longBitsToDouble(bits));
+            } else {
+                snapshot.setLong(i, state._kinds[i], bits, state._units[i]);
+            }
+        }
+        return snapshot;
+    }
+
+    private static long decodeDeltaOfDelta(final BitReader reader) {
+        final int[] widths = BlackBoxRecorder.DELTA_OF_DELTA_BITS;
+        int ones = 0;
+        while (ones <= widths.length && reader.read(1) != 0) {
+            ++ones;
+        }
+        if (ones == 0) {
+            return 0;
+        }
+        final int width = ones > widths.length ? Long.SIZE : widths[ones - 1];
+        // Sign extend the two's complement value
+        return reader.read(width) << (Long.SIZE - width) >> (Long.SIZE - width);
+    }
+
+    private static long decodeValue(final BitReader reader, final State state, final int index) {
+        if (reader.read(1) == 0) {
+            return state._values[index];
+        }
+        if (reader.read(1) != 0) {
+            final int leading = (int) reader.read(BlackBoxRecorder.LEADING_ZEROS_BITS);
+            final int length = (int) reader.read(BlackBoxRecorder.LENGTH_BITS);
+            state._leading[index] = leading;
+            state._trailing[index] = Long.SIZE - leading - (length == 0 ? Long.SIZE : length);
+        }
+        final int trailing = state._trailing[index];
+        final long xor = reader.read(Long.SIZE - state._leading[index] - trailing) << trailing;
+        state._values[index] ^= xor;
+        return state._values[index];
+    }
+
+    private long getBlockLong(final int block, final int field) {
+        return _buffer.getLong(BlackBoxRecorder.blockOffset(block, _blockSize) + field);
+    }
+
+    private BlackBoxReader(final ByteBuffer buffer, final int blockSize, final int blockCount) {
+        _buffer = buffer;
+        _blockSize = blockSize;
+        _blockCount = blockCount;
+    }
+
+    private final ByteBuffer _buffer;
+    private final int _blockSize;
+    private final int _blockCount;
+
+    private static final JvmSnapshot.Kind[] KINDS = JvmSnapshot.Kind.values();
+    private static final TimeUnit[] UNITS = TimeUnit.values();
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlackBoxReader.class);
+
+    private static final class State {
+
+        private void resize(final int size) {
+            // Snapshots already decoded keep their own names array
+            _names = Arrays.copyOf(_names, size);
+            _kinds = Arrays.copyOf(_kinds, size);
+            _units = Arrays.copyOf(_units, size);
+            _values = Arrays.copyOf(_values, size);
+            _leading = Arrays.copyOf(_leading, size);
+            _trailing = Arrays.copyOf(_trailing, size);
+        }
+
+        private long _samples;
+        private long _timestamp;
+        private long _delta;
+        private int _size;
+        private String[] _names = new String[0];
+        private JvmSnapshot.Kind[] _kinds = new JvmSnapshot.Kind[0];
+        private TimeUnit[] _units = new TimeUnit[0];
+        private long[] _values = new long[0];
+        private int[] _leading = new int[0];
+        private int[] _trailing = new int[0];
+    }
+
+    private static final class BitReader {
+
+        private long read(final int bits) {
+            if (bits > remaining()) {
+                throw new IndexOutOfBoundsException(String.format(
+                        "Read beyond the block; bits=%d, remaining=%d",
+                        bits,
+                        remaining()));
+            }
+            long value = 0;
+            for (int i = 0; i < bits; ++i) {
+                final int bit = _buffer.get(_offset + (int) (_bit >>> 3)) >>> (7 - (int) (_bit & 7)) & 1;
+                value = value << 1 | bit;
+                ++_bit;
+            }
+            return value;
+        }
+
+        private long remaining() {
+            return _limit - _bit;
+        }
+
+        private void alignToByte() {
+            _bit = (_bit + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+        }
+
+        private BitReader(final ByteBuffer buffer, final int offset, final int length) {
+            _buffer = buffer;
+            _offset = offset;
+            _limit = (long) length * Byte.SIZE;
+        }
+
+        private final ByteBuffer _buffer;
+        private final int _offset;
+        private final long _limit;
+        private long _bit;
+    }
+}
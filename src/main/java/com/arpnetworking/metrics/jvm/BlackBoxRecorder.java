@@ -0,0 +1,523 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records each {@link JvmSnapshot} of a {@link JvmMetricsRunnable} into a
+ * fixed size, memory mapped ring of blocks so that the last minutes or hours
+ * of metrics survive the process dying, for example from running out of
+ * memory or being killed; read them back with {@link BlackBoxReader}.
+ * Written pages belong to the operating system, so they survive the process
+ * but not the host.
+ *
+ * Samples are compressed in the style of Gorilla: timestamps as the delta
+ * of their delta and values as the XOR of their bits with the previous
+ * value of the same metric, so that an unchanged value takes one bit. Each
+ * block is decoded independently: it carries the metric names it uses and
+ * its compression state starts afresh. When a sample does not fit in the
+ * current block the next block, the oldest, is overwritten. A block's
+ * sample count is updated after the sample's bytes so a crash mid write
+ * loses at most that sample.
+ *
+ * An existing file with the same geometry is appended to, so the history
+ * before a restart is kept until it is overwritten.
+ *
+ * <pre>
+ * file:  int magic, int version, int block size, int block count, block[block count]
+ * block: long sequence, int sample count, int used bytes, byte[block size - 16] samples
+ * </pre>
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class BlackBoxRecorder implements AutoCloseable {
+
+    /**
+     * The path of the file.
+     *
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return _path;
+    }
+
+    /**
+     * Stop recording and flush the file to the storage device.
+     */
+    @Override
+    public synchronized void close() {
+        if (!_closed) {
+            _closed = true;
+            _buffer.force();
+        }
+    }
+
+    /* package private */ synchronized void record(final JvmSnapshot snapshot) {
+        if (_closed) {
+            return;
+        }
+        if (tryEncode(snapshot)) {
+            return;
+        }
+        // An empty block is not given up for one which would be no larger
+        if (_committed._samples > 0) {
+            startBlock();
+            if (tryEncode(snapshot)) {
+                return;
+            }
+        }
+        LOGGER.warn(String.format(
+                "Snapshot does not fit in a black box block; path=%s, blockSize=%d, size=%d",
+                _path,
+                _blockSize,
+                snapshot.size()));
+    }
+
+    private boolean tryEncode(final JvmSnapshot snapshot) {
+        final int offset = blockOffset(_block);
+        final int used = _buffer.getInt(offset + BLOCK_USED_OFFSET);
+        _working.copyFrom(_committed);
+        _writer.reset(_blockSize - BLOCK_HEADER_SIZE - used);
+        encode(snapshot, _working, _writer);
+        if (_writer.isOverflowed()) {
+            return false;
+        }
+        _buffer.put(offset + BLOCK_HEADER_SIZE + used, _writer.getBytes(), 0, _writer.getLength());
+        _buffer.putInt(offset + BLOCK_USED_OFFSET, used + _writer.getLength());
+        _buffer.putInt(offset + BLOCK_SAMPLES_OFFSET, _buffer.getInt(offset + BLOCK_SAMPLES_OFFSET) + 1);
+        final State committed = _committed;
+        _committed = _working;
+        _working = committed;
+        return true;
+    }
+
+    private void startBlock() {
+        _block = (_block + 1) % _blockCount;
+        final int offset = blockOffset(_block);
+        // Emptied before it is renumbered so a crash never exposes stale samples
+        _buffer.putInt(offset + BLOCK_SAMPLES_OFFSET, 0);
+        _buffer.putInt(offset + BLOCK_USED_OFFSET, 0);
+        _buffer.putLong(offset + BLOCK_SEQUENCE_OFFSET, ++_sequence);
+        _committed.clear();
+    }
+
+    private static void encode(final JvmSnapshot snapshot, final State state, final BitWriter writer) {
+        final long timestamp = snapshot.getTimestamp();
+        if (state._samples == 0) {
+            writer.write(timestamp, Long.SIZE);
+        } else {
+            final long delta = timestamp - state._timestamp;
+            encodeDeltaOfDelta(delta - state._delta, writer);
+            state._delta = delta;
+        }
+        state._timestamp = timestamp;
+        ++state._samples;
+        encodeNames(snapshot, state, writer);
+        for (int i = 0; i < snapshot.size(); ++i) {
+            encodeMetric(snapshot, i, state, writer);
+        }
+    }
+
+    private static void encodeNames(final JvmSnapshot snapshot, final State state, final BitWriter writer) {
+        final int size = snapshot.size();
+        if (size == state._size) {
+            writer.write(0, 1);
+            return;
+        }
+        // Only the names of metrics new to the block are written
+        writer.write(1, 1);
+        writer.write(size, Integer.SIZE);
+        state.ensureCapacity(size);
+        for (int i = state._size; i < size; ++i) {
+            final byte[] name = snapshot.getName(i).getBytes(StandardCharsets.UTF_8);
+            final int length = Math.min(name.length, MAX_NAME_BYTES);
+            writer.write(length, NAME_LENGTH_BITS);
+            for (int j = 0; j < length; ++j) {
+                writer.write(name[j], Byte.SIZE);
+            }
+        }
+        state._size = size;
+    }
+
+    private static void encodeMetric(final JvmSnapshot snapshot, final int index, final State state, final BitWriter writer) {
+        if (!snapshot.isPresent(index)) {
+            writer.write(0, 1);
+            return;
+        }
+        final JvmSnapshot.Kind kind = snapshot.getKind(index);
+        final byte kindCode = (byte) (kind.ordinal() + 1);
+        final byte unitCode = (byte) (kind == JvmSnapshot.Kind.TIMER ? snapshot.getUnit(index).ordinal() + 1 : 0);
+        if (kindCode == state._kinds[index] && unitCode == state._units[index]) {
+            writer.write(SAME_KIND, 2);
+        } else {
+            writer.write(NEW_KIND, 2);
+            writer.write(kind.ordinal(), KIND_BITS);
+            if (unitCode != 0) {
+                writer.write(unitCode - 1, UNIT_BITS);
+            }
+            state._kinds[index] = kindCode;
+            state._units[index] = unitCode;
+        }
+        final long bits = kind == JvmSnapshot.Kind.DOUBLE_GAUGE
+                ? Double.doubleToRawLongBits(snapshot.getDouble(index))
+                : snapshot.getLong(index);
+        encodeValue(bits, state, index, writer);
+    }
+
+    private static void encodeDeltaOfDelta(final long deltaOfDelta, final BitWriter writer) {
+        if (deltaOfDelta == 0) {
+            writer.write(0, 1);
+            return;
+        }
+        for (int i = 0; i < DELTA_OF_DELTA_BITS.length; ++i) {
+            final long bound = 1L << (DELTA_OF_DELTA_BITS[i] - 1);
+            if (deltaOfDelta >= -bound && deltaOfDelta < bound) {
+                // A prefix of i + 1 ones and a zero selects the width
+                writer.write((1L << (i + 2)) - 2, i + 2);
+                writer.write(deltaOfDelta, DELTA_OF_DELTA_BITS[i]);
+                return;
+            }
+        }
+        writer.write((1L << (DELTA_OF_DELTA_BITS.length + 1)) - 1, DELTA_OF_DELTA_BITS.length + 1);
+        writer.write(deltaOfDelta, Long.SIZE);
+    }
+
+    private static void encodeValue(final long bits, final State state, final int index, final BitWriter writer) {
+        final long xor = bits ^ state._values[index];
+        state._values[index] = bits;
+        if (xor == 0) {
+            writer.write(0, 1);
+            return;
+        }
+        final int leading = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+        final int trailing = Long.numberOfTrailingZeros(xor);
+        final int previousLeading = state._leading[index];
+        final int previousTrailing = state._trailing[index];
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            // The meaningful bits fit in the previous window
+            writer.write(SAME_WINDOW, 2);
+            writer.write(xor >>> previousTrailing, Long.SIZE - previousLeading - previousTrailing);
+        } else {
+            final int length = Long.SIZE - leading - trailing;
+            writer.write(NEW_WINDOW, 2);
+            writer.write(leading, LEADING_ZEROS_BITS);
+            // A length of 64 does not fit in six bits and is written as zero
+            writer.write(length, LENGTH_BITS);
+            writer.write(xor >>> trailing, length);
+            state._leading[index] = (byte) leading;
+            state._trailing[index] = (byte) trailing;
+        }
+    }
+
+    /* package private */ static int blockOffset(final int block, final int blockSize) {
+        return HEADER_SIZE + block * blockSize;
+    }
+
+    private int blockOffset(final int block) {
+        return blockOffset(block, _blockSize);
+    }
+
+    private BlackBoxRecorder(final Path path, final int blockSize, final int blockCount, final MappedByteBuffer buffer) {
+        _path = path;
+        _blockSize = blockSize;
+        _blockCount = blockCount;
+        _buffer = buffer;
+        _writer = new BitWriter(blockSize - BLOCK_HEADER_SIZE);
+        // Continue after the latest block of an existing file
+        int latest = -1;
+        for (int i = 0; i < blockCount; ++i) {
+            final long sequence = buffer.getLong(blockOffset(i) + BLOCK_SEQUENCE_OFFSET);
+            if (sequence > _sequence) {
+                _sequence = sequence;
+                latest = i;
+            }
+        }
+        _block = latest;
+        startBlock();
+    }
+
+    private final Path _path;
+    private final int _blockSize;
+    private final int _blockCount;
+    private final MappedByteBuffer _buffer;
+    private final BitWriter _writer;
+    private State _committed = new State();
+    private State _working = new State();
+    private int _block;
+    private long _sequence;
+    private boolean _closed;
+
+    /* package private */ static final int MAGIC = 0x4a564d42;
+    /* package private */ static final int VERSION = 1;
+    /* package private */ static final int MAGIC_OFFSET = 0;
+    /* package private */ static final int VERSION_OFFSET = 4;
+    /* package private */ static final int BLOCK_SIZE_OFFSET = 8;
+    /* package private */ static final int BLOCK_COUNT_OFFSET = 12;
+    /* package private */ static final int HEADER_SIZE = 16;
+    /* package private */ static final int BLOCK_SEQUENCE_OFFSET = 0;
+    /* package private */ static final int BLOCK_SAMPLES_OFFSET = 8;
+    /* package private */ static final int BLOCK_USED_OFFSET = 12;
+    /* package private */ static final int BLOCK_HEADER_SIZE = 16;
+    /* package private */ static final int NAME_LENGTH_BITS = 16;
+    /* package private */ static final int MAX_NAME_BYTES = (1 << NAME_LENGTH_BITS) - 1;
+    /* package private */ static final int KIND_BITS = 2;
+    /* package private */ static final int UNIT_BITS = 3;
+    /* package private */ static final int SAME_KIND = 0b10;
+    /* package private */ static final int NEW_KIND = 0b11;
+    /* package private */ static final int SAME_WINDOW = 0b10;
+    /* package private */ static final int NEW_WINDOW = 0b11;
+    /* package private */ static final int LEADING_ZEROS_BITS = 5;
+    /* package private */ static final int MAX_LEADING_ZEROS = (1 << LEADING_ZEROS_BITS) - 1;
+    /* package private */ static final int LENGTH_BITS = 6;
+    /* package private */ static final int[] DELTA_OF_DELTA_BITS = {7, 9, 12};
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlackBoxRecorder.class);
+
+    /**
+     * The compression state of a block: the previous timestamp and delta and
+     * for each metric its kind, unit, value and window of meaningful bits.
+     */
+    private static final class State {
+
+        private void clear() {
+            _samples = 0;
+            _timestamp = 0;
+            _delta = 0;
+            _size = 0;
+            Arrays.fill(_kinds, (byte) 0);
+            Arrays.fill(_units, (byte) 0);
+            Arrays.fill(_values, 0);
+            Arrays.fill(_leading, (byte) -1);
+            Arrays.fill(_trailing, (byte) 0);
+        }
+
+        private void ensureCapacity(final int size) {
+            if (_kinds.length < size) {
+                final int capacity = Math.max(size, _kinds.length * 2);
+                final int previous = _leading.length;
+                _kinds = Arrays.copyOf(_kinds, capacity);
+                _units = Arrays.copyOf(_units, capacity);
+                _values = Arrays.copyOf(_values, capacity);
+                _leading = Arrays.copyOf(_leading, capacity);
+                _trailing = Arrays.copyOf(_trailing, capacity);
+                Arrays.fill(_leading, previous, capacity, (byte) -1);
+            }
+        }
+
+        private void copyFrom(final State other) {
+            final int length = other._kinds.length;
+            ensureCapacity(length);
+            System.arraycopy(other._kinds, 0, _kinds, 0, length);
+            System.arraycopy(other._units, 0, _units, 0, length);
+            System.arraycopy(other._values, 0, _values, 0, length);
+            System.arraycopy(other._leading, 0, _leading, 0, length);
+            System.arraycopy(other._trailing, 0, _trailing, 0, length);
+            // Metrics beyond the other state's capacity have no state yet
+            Arrays.fill(_kinds, length, _kinds.length, (byte) 0);
+            Arrays.fill(_units, length, _units.length, (byte) 0);
+            Arrays.fill(_values, length, _values.length, 0);
+            Arrays.fill(_leading, length, _leading.length, (byte) -1);
+            Arrays.fill(_trailing, length, _trailing.length, (byte) 0);
+            _samples = other._samples;
+            _timestamp = other._timestamp;
+            _delta = other._delta;
+            _size = other._size;
+        }
+
+        private long _samples;
+        private long _timestamp;
+        private long _delta;
+        private int _size;
+        private byte[] _kinds = new byte[0];
+        private byte[] _units = new byte[0];
+        private long[] _values = new long[0];
+        private byte[] _leading = new byte[0];
+        private byte[] _trailing = new byte[0];
+    }
+
+    private static final class BitWriter {
+
+        private void reset(final int capacity) {
+            Arrays.fill(_bytes, 0, getLength(), (byte) 0);
+            _capacity = capacity;
+            _bits = 0;
+            _overflowed = false;
+        }
+
+        private void write(final long value, final int bits) {
+            if (_bits + bits > (long) _capacity * Byte.SIZE) {
+                _overflowed = true;
+                return;
+            }
+            for (int i = bits - 1; i >= 0; --i) {
+                if ((value >>> i & 1) != 0) {
+                    _bytes[_bits >>> 3] |= (byte) (0x80 >>> (_bits & 7));
+                }
+                ++_bits;
+            }
+        }
+
+        private boolean isOverflowed() {
+            return _overflowed;
+        }
+
+        private byte[] getBytes() {
+            return _bytes;
+        }
+
+        private int getLength() {
+            // Each sample starts on a byte boundary
+            return (_bits + Byte.SIZE - 1) / Byte.SIZE;
+        }
+
+        private BitWriter(final int maxCapacity) {
+            _bytes = new byte[maxCapacity];
+        }
+
+        private final byte[] _bytes;
+        private int _capacity;
+        private int _bits;
+        private boolean _overflowed;
+    }
+
+    /**
+     * Builder for {@link BlackBoxRecorder}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Opens or creates the file and builds an instance of
+         * {@link BlackBoxRecorder} which records into it.
+         *
+         * @return An instance of {@link BlackBoxRecorder}.
+         * @throws IOException if the file cannot be opened
+         */
+        public BlackBoxRecorder build() throws IOException {
+            if (_path == null) {
+                throw new IllegalArgumentException("Path cannot be null.");
+            }
+            if (_blockSize == null) {
+                _blockSize = DEFAULT_BLOCK_SIZE;
+                LOGGER.debug(String.format("Defaulted null block size; blockSize=%s", _blockSize));
+            }
+            if (_blockCount == null) {
+                _blockCount = DEFAULT_BLOCK_COUNT;
+                LOGGER.debug(String.format("Defaulted null block count; blockCount=%s", _blockCount));
+            }
+            if (_blockSize < MIN_BLOCK_SIZE || _blockSize > MAX_BLOCK_SIZE) {
+                throw new IllegalArgumentException(String.format(
+                        "Block size must be between %d and %d; blockSize=%s",
+                        MIN_BLOCK_SIZE,
+                        MAX_BLOCK_SIZE,
+                        _blockSize));
+            }
+            if (_blockCount < 2 || (long) _blockCount * _blockSize > MAX_FILE_SIZE) {
+                throw new IllegalArgumentException(String.format(
+                        "Block count must be at least 2 and the file at most %d bytes; blockCount=%s",
+                        MAX_FILE_SIZE,
+                        _blockCount));
+            }
+            final MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(
+                    _path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                final int size = blockOffset(_blockCount, _blockSize);
+                final long existingSize = channel.size();
+                if (existingSize > size) {
+                    channel.truncate(size);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (existingSize != size
+                        || buffer.getInt(MAGIC_OFFSET) != MAGIC
+                        || buffer.getInt(VERSION_OFFSET) != VERSION
+                        || buffer.getInt(BLOCK_SIZE_OFFSET) != _blockSize
+                        || buffer.getInt(BLOCK_COUNT_OFFSET) != _blockCount) {
+                    // Not a file with this geometry so start afresh
+                    LOGGER.info(String.format("Creating black box file; path=%s", _path));
+                    for (int i = 0; i < _blockCount; ++i) {
+                        buffer.put(blockOffset(i, _blockSize), new byte[BLOCK_HEADER_SIZE]);
+                    }
+                    buffer.putInt(MAGIC_OFFSET, MAGIC);
+                    buffer.putInt(VERSION_OFFSET, VERSION);
+                    buffer.putInt(BLOCK_SIZE_OFFSET, _blockSize);
+                    buffer.putInt(BLOCK_COUNT_OFFSET, _blockCount);
+                }
+            }
+            return new BlackBoxRecorder(_path, _blockSize, _blockCount, buffer);
+        }
+
+        /**
+         * Set the path of the file. Required. Cannot be null.
+         *
+         * @param value The path.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setPath(final Path value) {
+            _path = value;
+            return this;
+        }
+
+        /**
+         * Set the size of each block in bytes. A block must hold at least
+         * one snapshot including its metric names. Optional. Defaults to
+         * 65536. Cannot be null. Must be between 1024 and 16777216.
+         *
+         * @param value The block size.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setBlockSize(final Integer value) {
+            _blockSize = value;
+            return this;
+        }
+
+        /**
+         * Set the number of blocks in the ring. Optional. Defaults to 64.
+         * Cannot be null. Must be at least 2 and the file at most 1 GiB.
+         *
+         * @param value The block count.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setBlockCount(final Integer value) {
+            _blockCount = value;
+            return this;
+        }
+
+        private Path _path;
+        private Integer _blockSize = DEFAULT_BLOCK_SIZE;
+        private Integer _blockCount = DEFAULT_BLOCK_COUNT;
+
+        private static final Integer DEFAULT_BLOCK_SIZE = 65536;
+        private static final Integer DEFAULT_BLOCK_COUNT = 64;
+        private static final int MIN_BLOCK_SIZE = 1024;
+        private static final int MAX_BLOCK_SIZE = 1 << 24;
+        private static final long MAX_FILE_SIZE = 1L << 30;
+    }
+}
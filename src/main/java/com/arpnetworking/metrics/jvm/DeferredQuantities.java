@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The counters and timers of a {@link Metrics} implementation which only
+ * records values directly. Each is applied to the {@link Metrics} instance
+ * through {@link Metrics#incrementCounter(String, long)} and
+ * {@link Metrics#setTimer(String, long, TimeUnit)}: a timer when it is
+ * stopped or closed and a counter when {@link #close()} is called, which the
+ * {@link Metrics} instance does as it closes. Timers still running then are
+ * discarded.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class DeferredQuantities {
+
+    /**
+     * Create a counter which is applied on {@link #close()}.
+     *
+     * @param name the name of the counter
+     * @return a new {@link Counter}
+     */
+    /* package private */ synchronized Counter createCounter(final String name) {
+        final DeferredCounter counter = new DeferredCounter(name);
+        _counters.add(counter);
+        return counter;
+    }
+
+    /**
+     * Create and start a timer which is applied when it is stopped.
+     *
+     * @param name the name of the timer
+     * @return a new running {@link Timer}
+     */
+    /* package private */ Timer createTimer(final String name) {
+        return new DeferredTimer(name);
+    }
+
+    /**
+     * Start the timer of a name.
+     *
+     * @param name the name of the timer
+     */
+    /* package private */ synchronized void startTimer(final String name) {
+        if (_timers.putIfAbsent(name, _nanoTime.getAsLong()) != null) {
+            LOGGER.warn(String.format("Timer already started; name=%s", name));
+        }
+    }
+
+    /**
+     * Stop the timer of a name started with {@link #startTimer(String)} and
+     * apply it.
+     *
+     * @param name the name of the timer
+     */
+    /* package private */ void stopTimer(final String name) {
+        final Long start;
+        synchronized (this) {
+            start = _timers.remove(name);
+        }
+        if (start == null) {
+            LOGGER.warn(String.format("Timer not started; name=%s", name));
+            return;
+        }
+        _metrics.setTimer(name, _nanoTime.getAsLong() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Apply the counters. Counters changed afterwards are not applied again.
+     */
+    /* package private */ void close() {
+        final List<DeferredCounter> counters;
+        synchronized (this) {
+            counters = new ArrayList<>(_counters);
+            _counters.clear();
+        }
+        for (final DeferredCounter counter : counters) {
+            _metrics.incrementCounter(counter._name, counter._value.get());
+        }
+    }
+
+    /* package private */ DeferredQuantities(final Metrics metrics, final LongSupplier nanoTime) {
+        _metrics = metrics;
+        _nanoTime = nanoTime;
+    }
+
+    /* package private */ DeferredQuantities(final Metrics metrics) {
+        this(metrics, System::nanoTime);
+    }
+
+    private final Metrics _metrics;
+    private final LongSupplier _nanoTime;
+    private final List<DeferredCounter> _counters = new ArrayList<>();
+    private final Map<String, Long> _timers = new TreeMap<>();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeferredQuantities.class);
+
+    private static final class DeferredCounter implements Counter {
+
+        @Override
+        public void increment() {
+            increment(1);
+        }
+
+        @Override
+        public void decrement() {
+            decrement(1);
+        }
+
+        @Override
+        public void increment(final long value) {
+            _value.addAndGet(value);
+        }
+
+        @Override
+        public void decrement(final long value) {
+            _value.addAndGet(-value);
+        }
+
+        @Override
+        public Number getValue() {
+            return _value.get();
+        }
+
+        private DeferredCounter(final String name) {
+            _name = name;
+        }
+
+        private final String _name;
+        private final AtomicLong _value = new AtomicLong();
+    }
+
+    private final class DeferredTimer implements Timer {
+
+        @Override
+        public void stop() {
+            final long elapsed;
+            synchronized (this) {
+                if (!isRunning()) {
+                    return;
+                }
+                _elapsed = _nanoTime.getAsLong() - _start;
+                _stopped = true;
+                elapsed = _elapsed;
+            }
+            _metrics.setTimer(_name, elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void close() {
+            stop();
+        }
+
+        @Override
+        public synchronized void abort() {
+            _aborted = true;
+        }
+
+        @Override
+        public synchronized boolean isRunning() {
+            return !_stopped && !_aborted;
+        }
+
+        @Override
+        public synchronized boolean isAborted() {
+            return _aborted;
+        }
+
+        @Override
+        public synchronized Number getValue() {
+            return _stopped ? _elapsed : _nanoTime.getAsLong() - _start;
+        }
+
+        private DeferredTimer(final String name) {
+            _name = name;
+            _start = _nanoTime.getAsLong();
+        }
+
+        private final String _name;
+        private final long _start;
+        private long _elapsed;
+        private boolean _stopped;
+        private boolean _aborted;
+    }
+}
@@ -17,19 +17,31 @@ package com.arpnetworking.metrics.jvm;
 
 import com.arpnetworking.metrics.Metrics;
 import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.jvm.collectors.DeltaTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An implementation of {@link Runnable} that collects all metrics for
- * registered {@link ExecutorService} instances each time its run.
+ * registered {@link ExecutorService} instances each time its run. For
+ * executors which count completed tasks the number completed since the
+ * previous sample is emitted as {@code completed_tasks_delta}.
+ *
+ * If more executors are registered than may be sampled per run the
+ * executors are sampled in round-robin order so the cost of each run is
+ * bounded. In that case the active threads, queued tasks and thread pool
+ * size of the latest sample of every executor are also summed and emitted
+ * under {@code executor_services_rollup} each run.
  *
  * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
  */
@@ -39,16 +51,100 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
 
     @Override
     protected void collectMetrics(final Metrics metrics) {
-        for (final Map.Entry<String, ExecutorService> entry : _executorServices.entrySet()) {
-            final String name = entry.getKey();
-            final ExecutorService executorService = entry.getValue();
-            if (executorService instanceof ForkJoinPool) {
-                processForkJoinPool(metrics, name, (ForkJoinPool) executorService);
-            }
-            if (executorService instanceof ThreadPoolExecutor) {
-                // NOTE: That a ScheduledThreadPoolExecutor is a ThreadPoolExecutor
-                processThreadPoolExecutor(metrics, name, (ThreadPoolExecutor) executorService);
+        if (_names.length <= _executorsPerRun) {
+            for (int i = 0; i < _names.length; ++i) {
+                process(metrics, i);
             }
+        } else {
+            collectSample(metrics);
+        }
+    }
+
+    private synchronized void collectSample(final Metrics metrics) {
+        for (int i = 0; i < _executorsPerRun; ++i) {
+            final int index = _cursor;
+            _cursor = (_cursor + 1) % _names.length;
+            process(metrics, index);
+            observe(index, _executorServices[index]);
+        }
+        for (int i = 0; i < ROLLUP_METRICS.length; ++i) {
+            metrics.setGauge(
+                    String.join(
+                            "/",
+                            ROLLUP_NAMESPACE,
+                            ROLLUP_METRICS[i]),
+                    _rollupTotals[i]);
+        }
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        ROLLUP_NAMESPACE,
+                        "executors"),
+                _names.length);
+    }
+
+    private void process(final Metrics metrics, final int index) {
+        final String name = _names[index];
+        final ExecutorService executorService = _executorServices[index];
+        if (executorService instanceof ForkJoinPool) {
+            processForkJoinPool(metrics, name, (ForkJoinPool) executorService);
+        }
+        if (executorService instanceof ThreadPoolExecutor) {
+            processThreadPoolExecutor(metrics, name, (ThreadPoolExecutor) executorService);
+        }
+        if (executorService instanceof ScheduledThreadPoolExecutor) {
+            processScheduledThreadPoolExecutor(metrics, name, (ScheduledThreadPoolExecutor) executorService);
+        }
+        if (executorService instanceof TaskTrackingExecutorService) {
+            processTaskTrackingExecutorService(metrics, name, (TaskTrackingExecutorService) executorService);
+        }
+        final long completedTasksDelta = _completedTasks[index].update(getCompletedTaskCount(executorService));
+        if (completedTasksDelta != DeltaTracker.UNDEFINED) {
+            metrics.incrementCounter(
+                    String.join(
+                            "/",
+                            ROOT_NAMESPACE,
+                            name,
+                            "completed_tasks_delta"),
+                    completedTasksDelta);
+        }
+    }
+
+    private static long getCompletedTaskCount(final ExecutorService executorService) {
+        if (executorService instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executorService).getCompletedTaskCount();
+        } else if (executorService instanceof TaskTrackingExecutorService) {
+            return ((TaskTrackingExecutorService) executorService).getCompletedTaskCount();
+        }
+        // A fork join pool does not count completed tasks
+        return -1;
+    }
+
+    private void observe(final int index, final ExecutorService executorService) {
+        // Reused across executors and ticks; only called under the lock
+        final long[] observation = _observation;
+        if (executorService instanceof ForkJoinPool) {
+            final ForkJoinPool pool = (ForkJoinPool) executorService;
+            observation[0] = pool.getActiveThreadCount();
+            observation[1] = pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+            observation[2] = pool.getPoolSize();
+        } else if (executorService instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor pool = (ThreadPoolExecutor) executorService;
+            observation[0] = pool.getActiveCount();
+            observation[1] = pool.getQueue().size();
+            observation[2] = pool.getPoolSize();
+        } else {
+            // Each running task of a thread-per-task executor has its own thread
+            final TaskTrackingExecutorService tracking = (TaskTrackingExecutorService) executorService;
+            final long running = tracking.getRunningTaskCount();
+            observation[0] = running;
+            observation[1] = tracking.getSubmittedTaskCount() - running - tracking.getCompletedTaskCount();
+            observation[2] = running;
+        }
+        for (int i = 0; i < ROLLUP_METRICS.length; ++i) {
+            final int offset = index * ROLLUP_METRICS.length + i;
+            _rollupTotals[i] += observation[i] - _rollupObservations[offset];
+            _rollupObservations[offset] = observation[i];
         }
     }
 
@@ -121,6 +217,14 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
      *     <li>thread_pool_size</li>
      * </ul>
      *
+     * If a {@link RejectionTrackingHandler} is installed on the executor
+     * it also includes metrics for:
+     * <ul>
+     *     <li>rejected_tasks</li>
+     *     <li>saturated_time</li>
+     *     <li>saturation_ratio <i>(of the time since the last sample)</i></li>
+     * </ul>
+     *
      * @param metrics this unit of work's {@link Metrics} instance
      * @param name the name of the executor service
      * @param executorService the {@link ForkJoinPool} instance to sample
@@ -164,6 +268,153 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
                         prefix,
                         "thread_pool_size"),
                 executorService.getPoolSize());
+
+        if (executorService.getRejectedExecutionHandler() instanceof RejectionTrackingHandler) {
+            final RejectionTrackingHandler.Snapshot rejections =
+                    ((RejectionTrackingHandler) executorService.getRejectedExecutionHandler()).drain(executorService);
+            metrics.incrementCounter(
+                    String.join(
+                            "/",
+                            prefix,
+                            "rejected_tasks"),
+                    rejections.getRejections());
+            metrics.setTimer(
+                    String.join(
+                            "/",
+                            prefix,
+                            "saturated_time"),
+                    rejections.getSaturatedNanos(),
+                    TimeUnit.NANOSECONDS);
+            metrics.setGauge(
+                    String.join(
+                            "/",
+                            prefix,
+                            "saturation_ratio"),
+                    rejections.getSaturationRatio());
+        }
+    }
+
+    /**
+     * Generate samples for a {@link ScheduledThreadPoolExecutor}. These are
+     * in addition to those generated for it as a {@link ThreadPoolExecutor}.
+     *
+     * Includes metrics for:
+     * <ul>
+     *     <li>overdue_tasks <i>(delayed tasks whose trigger time has passed)</i></li>
+     * </ul>
+     *
+     * If the executor is a {@link LagTrackingScheduledThreadPoolExecutor}
+     * the lateness of task executions started since the last sample is
+     * also included:
+     * <ul>
+     *     <li>scheduled_executions</li>
+     *     <li>scheduling_lag_median</li>
+     *     <li>scheduling_lag_p99</li>
+     *     <li>scheduling_lag_max</li>
+     * </ul>
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     * @param name the name of the executor service
+     * @param executorService the {@link ScheduledThreadPoolExecutor} instance to sample
+     */
+    protected void processScheduledThreadPoolExecutor(
+            final Metrics metrics,
+            final String name,
+            final ScheduledThreadPoolExecutor executorService) {
+
+        final String prefix = String.join(
+                "/",
+                ROOT_NAMESPACE,
+                name);
+        long overdueTasks = 0;
+        for (final Runnable task : executorService.getQueue()) {
+            if (((Delayed) task).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                ++overdueTasks;
+            }
+        }
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "overdue_tasks"),
+                overdueTasks);
+
+        if (executorService instanceof LagTrackingScheduledThreadPoolExecutor) {
+            final LatencyHistogram.Snapshot lag =
+                    ((LagTrackingScheduledThreadPoolExecutor) executorService).drainSchedulingLag();
+            metrics.incrementCounter(
+                    String.join(
+                            "/",
+                            prefix,
+                            "scheduled_executions"),
+                    lag.getCount());
+            if (lag.getCount() > 0) {
+                metrics.setTimer(
+                        String.join(
+                                "/",
+                                prefix,
+                                "scheduling_lag_median"),
+                        lag.getMedian(),
+                        TimeUnit.NANOSECONDS);
+                metrics.setTimer(
+                        String.join(
+                                "/",
+                                prefix,
+                                "scheduling_lag_p99"),
+                        lag.getP99(),
+                        TimeUnit.NANOSECONDS);
+                metrics.setTimer(
+                        String.join(
+                                "/",
+                                prefix,
+                                "scheduling_lag_max"),
+                        lag.getMax(),
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Generate samples for a {@link TaskTrackingExecutorService}.
+     *
+     * Includes metrics for:
+     * <ul>
+     *     <li>submitted_tasks <i>(for all time)</i></li>
+     *     <li>running_tasks</li>
+     *     <li>completed_tasks <i>(for all time)</i></li>
+     * </ul>
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     * @param name the name of the executor service
+     * @param executorService the {@link TaskTrackingExecutorService} instance to sample
+     */
+    protected void processTaskTrackingExecutorService(
+            final Metrics metrics,
+            final String name,
+            final TaskTrackingExecutorService executorService) {
+
+        final String prefix = String.join(
+                "/",
+                ROOT_NAMESPACE,
+                name);
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "submitted_tasks"),
+                executorService.getSubmittedTaskCount());
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "running_tasks"),
+                executorService.getRunningTaskCount());
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "completed_tasks"),
+                executorService.getCompletedTaskCount());
     }
 
     /**
@@ -173,12 +424,31 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
      */
     protected ExecutorServiceMetricsRunnable(final Builder builder) {
         super(builder._metricsFactory, builder._swallowException, LOGGER);
-        _executorServices = builder._executorServices;
+        _names = builder._executorServices.keySet().toArray(new String[0]);
+        _executorServices = new ExecutorService[_names.length];
+        for (int i = 0; i < _names.length; ++i) {
+            _executorServices[i] = builder._executorServices.get(_names[i]);
+        }
+        _executorsPerRun = builder._executorsPerRun;
+        _rollupObservations = new long[_names.length * ROLLUP_METRICS.length];
+        _completedTasks = new DeltaTracker[_names.length];
+        for (int i = 0; i < _names.length; ++i) {
+            _completedTasks[i] = new DeltaTracker();
+        }
     }
 
-    private final Map<String, ExecutorService> _executorServices;
+    private final String[] _names;
+    private final ExecutorService[] _executorServices;
+    private final int _executorsPerRun;
+    private final long[] _rollupObservations;
+    private final DeltaTracker[] _completedTasks;
+    private final long[] _rollupTotals = new long[ROLLUP_METRICS.length];
+    private final long[] _observation = new long[ROLLUP_METRICS.length];
+    private int _cursor;
 
     private static final String ROOT_NAMESPACE = "executor_services";
+    private static final String ROLLUP_NAMESPACE = "executor_services_rollup";
+    private static final String[] ROLLUP_METRICS = {"active_threads", "queued_tasks", "thread_pool_size"};
     private static final Logger LOGGER = LoggerFactory.getLogger(JvmMetricsRunnable.class);
 
     /**
@@ -201,20 +471,29 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
             }
             if (_swallowException == null) {
                 _swallowException = DEFAULT_SWALLOW_EXCEPTION;
-                LOGGER.info(String.format("Defaulted null swallow exception; swallowException=%s", _swallowException));
+                LOGGER.debug(String.format("Defaulted null swallow exception; swallowException=%s", _swallowException));
             }
             if (_executorServices == null) {
                 _executorServices = DEFAULT_EXECUTOR_SERVICES;
-                LOGGER.info(String.format("Defaulted null executor services; executorServices=%s", _executorServices));
+                LOGGER.debug(String.format("Defaulted null executor services; executorServices=%s", _executorServices));
             }
             for (final ExecutorService executorService : _executorServices.values()) {
                 // NOTE: That a ScheduledThreadPoolExecutor is a ThreadPoolExecutor
                 if (!(executorService instanceof ForkJoinPool)
-                        && !(executorService instanceof ThreadPoolExecutor)) {
+                        && !(executorService instanceof ThreadPoolExecutor)
+                        && !(executorService instanceof TaskTrackingExecutorService)) {
                     throw new IllegalArgumentException(
-                            "Unsupported ExecutorService type: " + executorService.getClass().getName());
+                            "Unsupported ExecutorService type: " + executorService.getClass().getName()
+                                    + "; wrap it with TaskTrackingExecutorService to track its tasks");
                 }
             }
+            if (_executorsPerRun == null) {
+                _executorsPerRun = DEFAULT_EXECUTORS_PER_RUN;
+                LOGGER.debug(String.format("Defaulted null executors per run; executorsPerRun=%s", _executorsPerRun));
+            }
+            if (_executorsPerRun < 1) {
+                throw new IllegalArgumentException("Executors per run must be at least 1; executorsPerRun=" + _executorsPerRun);
+            }
             return new ExecutorServiceMetricsRunnable(this);
         }
 
@@ -247,7 +526,10 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
 
         /**
          * Set the {@link ExecutorService} instances by name. Optional.
-         * Defaults to an empty {@link Map}. Cannot be null.
+         * Defaults to an empty {@link Map}. Cannot be null. Each instance
+         * must be a {@link ForkJoinPool}, a {@link ThreadPoolExecutor} or a
+         * {@link TaskTrackingExecutorService}; the latter is how thread-per-task
+         * executors, such as those for virtual threads, are supported.
          *
          * @param value The {@link ExecutorService} instances by name.
          * @return This {@link Builder} instance.
@@ -259,11 +541,28 @@ public class ExecutorServiceMetricsRunnable extends AbstractMetricsRunnable {
             return this;
         }
 
+        /**
+         * Set the maximum number of executors sampled each run. Optional.
+         * Defaults to all executors. Cannot be null. Must be at least 1. When
+         * more executors are registered they are sampled in round-robin order
+         * and the latest observation of every executor is also summed under
+         * {@code executor_services_rollup} each run.
+         *
+         * @param value The maximum number of executors sampled each run.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setExecutorsPerRun(final Integer value) {
+            _executorsPerRun = value;
+            return this;
+        }
+
         private MetricsFactory _metricsFactory;
         private Boolean _swallowException = DEFAULT_SWALLOW_EXCEPTION;
         private Map<String, ExecutorService> _executorServices = DEFAULT_EXECUTOR_SERVICES;
+        private Integer _executorsPerRun = DEFAULT_EXECUTORS_PER_RUN;
 
         private static final Boolean DEFAULT_SWALLOW_EXCEPTION = true;
         private static final Map<String, ExecutorService> DEFAULT_EXECUTOR_SERVICES = Collections.emptyMap();
+        private static final Integer DEFAULT_EXECUTORS_PER_RUN = Integer.MAX_VALUE;
     }
 }
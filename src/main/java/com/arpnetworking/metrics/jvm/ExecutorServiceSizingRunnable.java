@@ -0,0 +1,490 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * An implementation of {@link Runnable} that resizes registered
+ * {@link ExecutorService} instances each time its run. It is intended to be
+ * scheduled alongside {@link ExecutorServiceMetricsRunnable}.
+ *
+ * The number of threads demanded by a {@link ThreadPoolExecutor} is estimated
+ * with Little's law from the observed throughput, busy threads and queue
+ * growth, plus the threads required to drain the queue within the target
+ * queue wait. The desired size is the demand divided by the target
+ * utilization and bounded by the minimum and maximum pool size. The demand
+ * of a {@link ForkJoinPool} is its active threads plus its queued
+ * submissions since it does not expose its throughput.
+ *
+ * An executor is only resized when the desired size differs from its current
+ * size by more than the hysteresis fraction of the current size. Resizing a
+ * {@link ForkJoinPool} requires JDK 19 or later; the builder rejects a
+ * {@link ForkJoinPool} on earlier releases as well as the common pool, whose
+ * parallelism cannot be changed. A failure to resize one executor does not
+ * prevent the others from being resized.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class ExecutorServiceSizingRunnable extends AbstractMetricsRunnable {
+// CHECKSTYLE.ON: FinalClass
+
+    @Override
+    protected void collectMetrics(final Metrics metrics) {
+        final long nanoTime = _nanoTime.getAsLong();
+        RuntimeException failure = null;
+        for (final Map.Entry<String, ExecutorService> entry : _executorServices.entrySet()) {
+            final String name = entry.getKey();
+            final ExecutorService executorService = entry.getValue();
+            try {
+                if (executorService instanceof ThreadPoolExecutor) {
+                    sizeThreadPoolExecutor(metrics, name, (ThreadPoolExecutor) executorService, nanoTime);
+                } else {
+                    sizeForkJoinPool(metrics, name, (ForkJoinPool) executorService);
+                }
+                // CHECKSTYLE.OFF: IllegalCatch - Isolate the executors from each other
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Resize a {@link ThreadPoolExecutor}. The core pool size is adjusted and
+     * the maximum pool size is raised as necessary; the maximum pool size of
+     * a fixed size executor is kept equal to its core pool size. The first
+     * sample of each executor only establishes its baseline throughput.
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     * @param name the name of the executor service
+     * @param executorService the {@link ThreadPoolExecutor} instance to resize
+     * @param nanoTime the time of this sample in nanoseconds
+     */
+    protected void sizeThreadPoolExecutor(
+            final Metrics metrics,
+            final String name,
+            final ThreadPoolExecutor executorService,
+            final long nanoTime) {
+
+        final long completed = executorService.getCompletedTaskCount();
+        final int queued = executorService.getQueue().size();
+        final Sample previous = _samples.put(name, new Sample(nanoTime, completed, queued));
+        if (previous == null) {
+            return;
+        }
+
+        final double elapsedSeconds = Math.max(1, nanoTime - previous._nanoTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        final double throughput = (completed - previous._completed) / elapsedSeconds;
+        final int active = executorService.getActiveCount();
+        double demand = active;
+        if (throughput > 0) {
+            // Little's law: the service time is the busy threads over the throughput
+            final double serviceTime = active / throughput;
+            final double arrivalRate = Math.max(0, throughput + (queued - previous._queued) / elapsedSeconds);
+            demand = arrivalRate * serviceTime + queued * serviceTime / _targetQueueWaitSeconds;
+        }
+
+        final int current = executorService.getCorePoolSize();
+        final int desired = desiredSize(demand);
+        int size = current;
+        if (isOutsideHysteresis(current, desired)) {
+            final boolean fixed = executorService.getMaximumPoolSize() == current;
+            if (desired > executorService.getMaximumPoolSize()) {
+                executorService.setMaximumPoolSize(desired);
+            }
+            executorService.setCorePoolSize(desired);
+            if (fixed) {
+                executorService.setMaximumPoolSize(desired);
+            }
+            size = desired;
+        }
+        recordDecision(metrics, name, demand, desired, current, size);
+    }
+
+    /**
+     * Resize a {@link ForkJoinPool} by adjusting its parallelism.
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     * @param name the name of the executor service
+     * @param executorService the {@link ForkJoinPool} instance to resize
+     */
+    protected void sizeForkJoinPool(
+            final Metrics metrics,
+            final String name,
+            final ForkJoinPool executorService) {
+
+        final double demand = executorService.getActiveThreadCount() + executorService.getQueuedSubmissionCount();
+        final int current = executorService.getParallelism();
+        final int desired = desiredSize(demand);
+        int size = current;
+        if (isOutsideHysteresis(current, desired)) {
+            try {
+                _setParallelism.invoke(executorService, desired);
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to set parallelism of " + name, e);
+            }
+            size = desired;
+        }
+        recordDecision(metrics, name, demand, desired, current, size);
+    }
+
+    /**
+     * Protected constructor.
+     *
+     * @param builder instance of {@link Builder}
+     */
+    protected ExecutorServiceSizingRunnable(final Builder builder) {
+        super(builder._metricsFactory, builder._swallowException, LOGGER);
+        _executorServices = builder._executorServices;
+        _minimumPoolSize = builder._minimumPoolSize;
+        _maximumPoolSize = builder._maximumPoolSize;
+        _targetUtilization = builder._targetUtilization;
+        _targetQueueWaitSeconds = builder._targetQueueWait.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        _hysteresis = builder._hysteresis;
+        _nanoTime = builder._nanoTime;
+        _setParallelism = builder._setParallelism.orElse(null);
+    }
+
+    private int desiredSize(final double demand) {
+        final int desired = (int) Math.min(Integer.MAX_VALUE, Math.ceil(demand / _targetUtilization));
+        return Math.min(_maximumPoolSize, Math.max(_minimumPoolSize, desired));
+    }
+
+    private boolean isOutsideHysteresis(final int current, final int desired) {
+        return Math.abs(desired - current) > _hysteresis * current;
+    }
+
+    private void recordDecision(
+            final Metrics metrics,
+            final String name,
+            final double demand,
+            final int desired,
+            final int previous,
+            final int size) {
+
+        final String prefix = String.join(
+                "/",
+                ROOT_NAMESPACE,
+                name,
+                "sizing");
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "demand"),
+                demand);
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "desired_size"),
+                desired);
+        metrics.setGauge(
+                String.join(
+                        "/",
+                        prefix,
+                        "size"),
+                size);
+        metrics.incrementCounter(
+                String.join(
+                        "/",
+                        prefix,
+                        "increases"),
+                size > previous ? 1 : 0);
+        metrics.incrementCounter(
+                String.join(
+                        "/",
+                        prefix,
+                        "decreases"),
+                size < previous ? 1 : 0);
+    }
+
+    private final Map<String, ExecutorService> _executorServices;
+    private final int _minimumPoolSize;
+    private final int _maximumPoolSize;
+    private final double _targetUtilization;
+    private final double _targetQueueWaitSeconds;
+    private final double _hysteresis;
+    private final LongSupplier _nanoTime;
+    @Nullable
+    private final Method _setParallelism;
+    private final ConcurrentMap<String, Sample> _samples = new ConcurrentHashMap<>();
+
+    private static final String ROOT_NAMESPACE = "executor_services";
+    private static final Optional<Method> SET_PARALLELISM = ReflectionUtil.findMethod(ForkJoinPool.class, "setParallelism", int.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorServiceSizingRunnable.class);
+
+    private static final class Sample {
+
+        private Sample(final long nanoTime, final long completed, final int queued) {
+            _nanoTime = nanoTime;
+            _completed = completed;
+            _queued = queued;
+        }
+
+        private final long _nanoTime;
+        private final long _completed;
+        private final int _queued;
+    }
+
+    /**
+     * Builder for {@link ExecutorServiceSizingRunnable}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    // CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+    public static class Builder {
+        // CHECKSTYLE.ON: FinalClass
+
+        /**
+         * Builds an instance of {@link ExecutorServiceSizingRunnable}.
+         *
+         * @return An instance of {@link ExecutorServiceSizingRunnable}.
+         */
+        public ExecutorServiceSizingRunnable build() {
+            if (_metricsFactory == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            defaultNulls();
+            for (final ExecutorService executorService : _executorServices.values()) {
+                validateExecutorService(executorService);
+            }
+            if (_minimumPoolSize < 1 || _maximumPoolSize < _minimumPoolSize) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid pool size bounds; minimumPoolSize=%d, maximumPoolSize=%d",
+                        _minimumPoolSize,
+                        _maximumPoolSize));
+            }
+            if (!(_targetUtilization > 0 && _targetUtilization <= 1)) {
+                throw new IllegalArgumentException("Target utilization must be in (0, 1]; targetUtilization=" + _targetUtilization);
+            }
+            if (_targetQueueWait.isNegative() || _targetQueueWait.isZero()) {
+                throw new IllegalArgumentException("Target queue wait must be positive; targetQueueWait=" + _targetQueueWait);
+            }
+            if (!(_hysteresis >= 0)) {
+                throw new IllegalArgumentException("Hysteresis cannot be negative; hysteresis=" + _hysteresis);
+            }
+            return new ExecutorServiceSizingRunnable(this);
+        }
+
+        private void validateExecutorService(final ExecutorService executorService) {
+            if (executorService instanceof ForkJoinPool) {
+                if (_setParallelism.isEmpty()) {
+                    throw new IllegalArgumentException("Resizing a ForkJoinPool requires JDK 19 or later.");
+                }
+                if (executorService == ForkJoinPool.commonPool()) {
+                    throw new IllegalArgumentException("The common ForkJoinPool cannot be resized.");
+                }
+            } else if (!(executorService instanceof ThreadPoolExecutor)) {
+                throw new IllegalArgumentException(
+                        "Unsupported ExecutorService type: " + executorService.getClass().getName());
+            }
+        }
+
+        private void defaultNulls() {
+            if (_swallowException == null) {
+                _swallowException = DEFAULT_SWALLOW_EXCEPTION;
+                LOGGER.debug(String.format("Defaulted null swallow exception; swallowException=%s", _swallowException));
+            }
+            if (_executorServices == null) {
+                _executorServices = DEFAULT_EXECUTOR_SERVICES;
+                LOGGER.debug(String.format("Defaulted null executor services; executorServices=%s", _executorServices));
+            }
+            if (_minimumPoolSize == null) {
+                _minimumPoolSize = DEFAULT_MINIMUM_POOL_SIZE;
+                LOGGER.debug(String.format("Defaulted null minimum pool size; minimumPoolSize=%s", _minimumPoolSize));
+            }
+            if (_maximumPoolSize == null) {
+                _maximumPoolSize = DEFAULT_MAXIMUM_POOL_SIZE;
+                LOGGER.debug(String.format("Defaulted null maximum pool size; maximumPoolSize=%s", _maximumPoolSize));
+            }
+            if (_targetUtilization == null) {
+                _targetUtilization = DEFAULT_TARGET_UTILIZATION;
+                LOGGER.debug(String.format("Defaulted null target utilization; targetUtilization=%s", _targetUtilization));
+            }
+            if (_targetQueueWait == null) {
+                _targetQueueWait = DEFAULT_TARGET_QUEUE_WAIT;
+                LOGGER.debug(String.format("Defaulted null target queue wait; targetQueueWait=%s", _targetQueueWait));
+            }
+            if (_hysteresis == null) {
+                _hysteresis = DEFAULT_HYSTERESIS;
+                LOGGER.debug(String.format("Defaulted null hysteresis; hysteresis=%s", _hysteresis));
+            }
+        }
+
+        /**
+         * Set the {@link MetricsFactory} instance. Required. Cannot be
+         * null.
+         *
+         * @param value The value for the {@link MetricsFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMetricsFactory(final MetricsFactory value) {
+            _metricsFactory = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if any exception caught during the process
+         * of resizing should be logged and swallowed. Optional. Defaults to
+         * true. Cannot be null. True indicates that the exception will be
+         * logged and swallowed false indicates it will be rethrown as a
+         * {@code RuntimeException}.
+         *
+         * @param value The value for the {@link Boolean} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSwallowException(final Boolean value) {
+            _swallowException = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link ExecutorService} instances to resize by name.
+         * Optional. Defaults to an empty {@link Map}. Cannot be null. Each
+         * instance must be a {@link ForkJoinPool} or a {@link ThreadPoolExecutor}.
+         * A {@link ForkJoinPool} requires JDK 19 or later and cannot be the
+         * common pool.
+         *
+         * @param value The {@link ExecutorService} instances by name.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setExecutorServices(final Map<String, ExecutorService> value) {
+            // CHECKSTYLE.OFF: IllegalInstantiation - No Guava here
+            _executorServices = value == null ? null : Collections.unmodifiableMap(new HashMap<>(value));
+            // CHECKSTYLE.ON: IllegalInstantiation
+            return this;
+        }
+
+        /**
+         * Set the minimum pool size. Optional. Defaults to 1. Cannot be
+         * null. Must be at least 1.
+         *
+         * @param value The minimum pool size.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMinimumPoolSize(final Integer value) {
+            _minimumPoolSize = value;
+            return this;
+        }
+
+        /**
+         * Set the maximum pool size. Optional. Defaults to 256. Cannot be
+         * null. Must be at least the minimum pool size.
+         *
+         * @param value The maximum pool size.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMaximumPoolSize(final Integer value) {
+            _maximumPoolSize = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of the pool which should be busy. Optional.
+         * Defaults to 0.75. Cannot be null. Must be greater than zero and at
+         * most one.
+         *
+         * @param value The target utilization.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setTargetUtilization(final Double value) {
+            _targetUtilization = value;
+            return this;
+        }
+
+        /**
+         * Set the time within which queued tasks should start. Optional.
+         * Defaults to 100 milliseconds. Cannot be null. Must be positive.
+         *
+         * @param value The target queue wait.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setTargetQueueWait(final Duration value) {
+            _targetQueueWait = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of the current size by which the desired size must
+         * differ before an executor is resized. Optional. Defaults to 0.1.
+         * Cannot be null. Cannot be negative.
+         *
+         * @param value The hysteresis.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setHysteresis(final Double value) {
+            _hysteresis = value;
+            return this;
+        }
+
+        /* package private */ Builder setNanoTime(final LongSupplier value) {
+            _nanoTime = value;
+            return this;
+        }
+
+        /* package private */ Builder setSetParallelism(final Optional<Method> value) {
+            _setParallelism = value;
+            return this;
+        }
+
+        private MetricsFactory _metricsFactory;
+        private Boolean _swallowException = DEFAULT_SWALLOW_EXCEPTION;
+        private Map<String, ExecutorService> _executorServices = DEFAULT_EXECUTOR_SERVICES;
+        private Integer _minimumPoolSize = DEFAULT_MINIMUM_POOL_SIZE;
+        private Integer _maximumPoolSize = DEFAULT_MAXIMUM_POOL_SIZE;
+        private Double _targetUtilization = DEFAULT_TARGET_UTILIZATION;
+        private Duration _targetQueueWait = DEFAULT_TARGET_QUEUE_WAIT;
+        private Double _hysteresis = DEFAULT_HYSTERESIS;
+        private LongSupplier _nanoTime = System::nanoTime;
+        private Optional<Method> _setParallelism = SET_PARALLELISM;
+
+        private static final Boolean DEFAULT_SWALLOW_EXCEPTION = true;
+        private static final Map<String, ExecutorService> DEFAULT_EXECUTOR_SERVICES = Collections.emptyMap();
+        private static final Integer DEFAULT_MINIMUM_POOL_SIZE = 1;
+        private static final Integer DEFAULT_MAXIMUM_POOL_SIZE = 256;
+        private static final Double DEFAULT_TARGET_UTILIZATION = 0.75;
+        private static final Duration DEFAULT_TARGET_QUEUE_WAIT = Duration.ofMillis(100);
+        private static final Double DEFAULT_HYSTERESIS = 0.1;
+    }
+}
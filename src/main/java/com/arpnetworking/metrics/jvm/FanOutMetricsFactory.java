@@ -0,0 +1,333 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A {@link MetricsFactory} which writes each unit of work to several
+ * {@link MetricsFactory} sinks. Use it as the {@link MetricsFactory} of a
+ * runnable such as {@link JvmMetricsRunnable} to collect once and publish the
+ * same values to every sink.
+ *
+ * The {@link Metrics} instances it creates record each value and, when
+ * closed, hand the recording to each sink on that sink's own daemon thread
+ * where it is replayed into a {@link Metrics} instance of the sink which is
+ * then closed. A slow or failing sink therefore delays neither the
+ * collection nor the other sinks. Each sink queues a bounded number of
+ * recordings; further recordings for a sink which falls behind are dropped.
+ *
+ * The {@link Metrics} API does not accept timestamps, so each sink stamps
+ * the unit of work with the time it is replayed and not the open and close
+ * time of the original unit of work. To bound that skew a recording which
+ * waited in the queue of a sink for longer than the maximum delay is dropped
+ * instead of being replayed.
+ *
+ * Counters and timers created, started or stopped through the
+ * {@link Metrics} instances are recorded as the values they amount to: a
+ * timer when it is stopped and a counter when the {@link Metrics} instance
+ * is closed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class FanOutMetricsFactory implements MetricsFactory, AutoCloseable {
+
+    @Override
+    public Metrics create() {
+        return new RecordingMetrics(this);
+    }
+
+    /**
+     * Stop publishing to the sinks once the queued recordings are published.
+     */
+    @Override
+    public void close() {
+        for (final ThreadPoolExecutor sink : _sinks) {
+            sink.shutdown();
+        }
+    }
+
+    private void publish(final List<Consumer<Metrics>> recording, final long closeNanos) {
+        for (int i = 0; i < _sinks.size(); ++i) {
+            final MetricsFactory metricsFactory = _metricsFactories.get(i);
+            _sinks.get(i).execute(() -> replay(metricsFactory, recording, closeNanos));
+        }
+    }
+
+    private void replay(final MetricsFactory metricsFactory, final List<Consumer<Metrics>> recording, final long closeNanos) {
+        final long delayNanos = System.nanoTime() - closeNanos;
+        if (delayNanos > _maximumDelayNanos) {
+            LOGGER.warn(String.format(
+                    "Recording delayed too long; recording dropped; metricsFactory=%s, delay=%s",
+                    metricsFactory,
+                    Duration.ofNanos(delayNanos)));
+            return;
+        }
+        try {
+            final Metrics metrics = metricsFactory.create();
+            for (final Consumer<Metrics> operation : recording) {
+                operation.accept(metrics);
+            }
+            metrics.close();
+            // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LOGGER.warn(String.format("Publishing to sink failed; metricsFactory=%s", metricsFactory), e);
+        }
+    }
+
+    private FanOutMetricsFactory(final Builder builder) {
+        _metricsFactories = new ArrayList<>(builder._metricsFactories);
+        _maximumDelayNanos = builder._maximumDelay.toNanos();
+        for (int i = 0; i < _metricsFactories.size(); ++i) {
+            final String name = "jvm-metrics-sink-" + i;
+            final MetricsFactory metricsFactory = _metricsFactories.get(i);
+            _sinks.add(new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(builder._queueCapacity),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> LOGGER.warn(String.format(
+                            "Sink queue full or closed; recording dropped; metricsFactory=%s",
+                            metricsFactory))));
+        }
+    }
+
+    private final List<MetricsFactory> _metricsFactories;
+    private final List<ThreadPoolExecutor> _sinks = new ArrayList<>();
+    private final long _maximumDelayNanos;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOutMetricsFactory.class);
+
+    private static final class RecordingMetrics implements Metrics {
+
+        @Override
+        public Counter createCounter(final String name) {
+            return _quantities.createCounter(name);
+        }
+
+        @Override
+        public void incrementCounter(final String name) {
+            incrementCounter(name, 1);
+        }
+
+        @Override
+        public void incrementCounter(final String name, final long value) {
+            record(metrics -> metrics.incrementCounter(name, value));
+        }
+
+        @Override
+        public void decrementCounter(final String name) {
+            decrementCounter(name, 1);
+        }
+
+        @Override
+        public void decrementCounter(final String name, final long value) {
+            record(metrics -> metrics.decrementCounter(name, value));
+        }
+
+        @Override
+        public void resetCounter(final String name) {
+            record(metrics -> metrics.resetCounter(name));
+        }
+
+        @Override
+        public Timer createTimer(final String name) {
+            return _quantities.createTimer(name);
+        }
+
+        @Override
+        public void startTimer(final String name) {
+            _quantities.startTimer(name);
+        }
+
+        @Override
+        public void stopTimer(final String name) {
+            _quantities.stopTimer(name);
+        }
+
+        @Override
+        public void setTimer(final String name, final long duration, final TimeUnit unit) {
+            record(metrics -> metrics.setTimer(name, duration, unit));
+        }
+
+        @Override
+        public void setGauge(final String name, final double value) {
+            record(metrics -> metrics.setGauge(name, value));
+        }
+
+        @Override
+        public void setGauge(final String name, final long value) {
+            record(metrics -> metrics.setGauge(name, value));
+        }
+
+        @Override
+        public void addAnnotation(final String key, final String value) {
+            record(metrics -> metrics.addAnnotation(key, value));
+        }
+
+        @Override
+        public void addAnnotations(final Map<String, String> map) {
+            final Map<String, String> copy = Map.copyOf(map);
+            record(metrics -> metrics.addAnnotations(copy));
+        }
+
+        @Override
+        public synchronized boolean isOpen() {
+            return _closeTime == null;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (_closeTime != null) {
+                return;
+            }
+            _quantities.close();
+            _closeTime = Instant.now();
+            _factory.publish(_recording, System.nanoTime());
+        }
+
+        @Override
+        public Instant getOpenTime() {
+            return _openTime;
+        }
+
+        @Override
+        public synchronized Instant getCloseTime() {
+            return _closeTime;
+        }
+
+        private synchronized void record(final Consumer<Metrics> operation) {
+            // Values recorded after close are not published
+            if (_closeTime == null) {
+                _recording.add(operation);
+            }
+        }
+
+        private RecordingMetrics(final FanOutMetricsFactory factory) {
+            _factory = factory;
+        }
+
+        private final FanOutMetricsFactory _factory;
+        private final List<Consumer<Metrics>> _recording = new ArrayList<>();
+        private final DeferredQuantities _quantities = new DeferredQuantities(this);
+        private final Instant _openTime = Instant.now();
+        private Instant _closeTime;
+    }
+
+    /**
+     * Builder for {@link FanOutMetricsFactory}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link FanOutMetricsFactory}.
+         *
+         * @return An instance of {@link FanOutMetricsFactory}.
+         */
+        public FanOutMetricsFactory build() {
+            if (_metricsFactories.isEmpty()) {
+                throw new IllegalArgumentException("At least one MetricsFactory is required.");
+            }
+            if (_queueCapacity == null) {
+                _queueCapacity = DEFAULT_QUEUE_CAPACITY;
+                LOGGER.debug(String.format("Defaulted null queue capacity; queueCapacity=%s", _queueCapacity));
+            }
+            if (_queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be positive; queueCapacity=" + _queueCapacity);
+            }
+            if (_maximumDelay == null) {
+                _maximumDelay = DEFAULT_MAXIMUM_DELAY;
+                LOGGER.debug(String.format("Defaulted null maximum delay; maximumDelay=%s", _maximumDelay));
+            }
+            if (_maximumDelay.isNegative() || _maximumDelay.isZero()) {
+                throw new IllegalArgumentException("Maximum delay must be positive; maximumDelay=" + _maximumDelay);
+            }
+            return new FanOutMetricsFactory(this);
+        }
+
+        /**
+         * Add a {@link MetricsFactory} sink. At least one is required.
+         *
+         * @param value The {@link MetricsFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder addMetricsFactory(final MetricsFactory value) {
+            if (value == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            _metricsFactories.add(value);
+            return this;
+        }
+
+        /**
+         * Set the number of recordings queued for each sink before further
+         * recordings for it are dropped. Optional. Defaults to 16. Cannot be
+         * null. Must be positive.
+         *
+         * @param value The queue capacity of each sink.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setQueueCapacity(final Integer value) {
+            _queueCapacity = value;
+            return this;
+        }
+
+        /**
+         * Set the longest a recording may wait in the queue of a sink. A
+         * recording which waited longer is dropped instead of being stamped
+         * by the sink with a time this far from the original unit of work.
+         * Optional. Defaults to 10 seconds. Cannot be null. Must be positive.
+         *
+         * @param value The maximum delay of a recording.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMaximumDelay(final Duration value) {
+            _maximumDelay = value;
+            return this;
+        }
+
+        private final List<MetricsFactory> _metricsFactories = new ArrayList<>();
+        private Integer _queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private Duration _maximumDelay = DEFAULT_MAXIMUM_DELAY;
+
+        private static final Integer DEFAULT_QUEUE_CAPACITY = 16;
+        private static final Duration DEFAULT_MAXIMUM_DELAY = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples gauges at a rate well above the reporting rate so that spikes
+ * between reports are visible without reporting every sample. Each gauge is
+ * sampled on a single daemon thread into a fixed size ring buffer of
+ * primitives; once full the oldest samples are overwritten.
+ *
+ * Each time the samples are emitted, usually by {@link JvmMetricsRunnable},
+ * the minimum, maximum, mean and 99th percentile of the samples taken since
+ * the previous emit are recorded as gauges under the name of the gauge, for
+ * example {@code jvm/heap_memory/used/max}. Nothing is recorded for a gauge
+ * without samples.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class GaugeSampler implements AutoCloseable {
+
+    /**
+     * Start sampling. Has no effect if already started or closed.
+     */
+    public synchronized void start() {
+        if (_started) {
+            return;
+        }
+        _started = true;
+        try {
+            _executor.scheduleAtFixedRate(this::sample, _periodNanos, _periodNanos, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Sampler closed; sampling not started", e);
+        }
+    }
+
+    /**
+     * Stop sampling and release the sampler thread.
+     */
+    @Override
+    public void close() {
+        _executor.shutdownNow();
+    }
+
+    /**
+     * Record the summaries of the samples taken since the last emit.
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     */
+    public synchronized void emit(final Metrics metrics) {
+        for (final Ring ring : _rings) {
+            final int count = ring.drain(_scratch);
+            if (count == 0) {
+                continue;
+            }
+            Arrays.sort(_scratch, 0, count);
+            long sum = 0;
+            for (int i = 0; i < count; ++i) {
+                sum += _scratch[i];
+            }
+            metrics.setGauge(ring._minName, _scratch[0]);
+            metrics.setGauge(ring._maxName, _scratch[count - 1]);
+            metrics.setGauge(ring._meanName, (double) sum / count);
+            metrics.setGauge(ring._p99Name, _scratch[(int) Math.ceil(0.99 * count) - 1]);
+        }
+    }
+
+    /* package private */ void sample() {
+        for (final Ring ring : _rings) {
+            // A failing gauge must not cancel the sampling of the others
+            try {
+                ring.add(ring._gauge.getAsLong());
+                // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                LOGGER.warn(String.format("Sampling gauge failed; gauge=%s", ring._name), e);
+            }
+        }
+    }
+
+    private GaugeSampler(final Builder builder) {
+        final ManagementFactory managementFactory = builder._managementFactory;
+        if (builder._sampleHeapMemoryUsed) {
+            _rings.add(new Ring(HEAP_MEMORY_USED, () -> managementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                    builder._capacity));
+        }
+        if (builder._sampleThreadCount) {
+            _rings.add(new Ring(THREAD_COUNT, () -> managementFactory.getThreadMXBean().getThreadCount(), builder._capacity));
+        }
+        for (final Registration registration : builder._registrations) {
+            _rings.add(new Ring(registration._name, registration._gauge, builder._capacity));
+        }
+        _periodNanos = builder._samplePeriod.toNanos();
+        _scratch = new long[builder._capacity];
+        _executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jvm-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final List<Ring> _rings = new ArrayList<>();
+    private final long _periodNanos;
+    private final long[] _scratch;
+    private final ScheduledExecutorService _executor;
+    private boolean _started;
+
+    private static final String HEAP_MEMORY_USED = String.join(
+            "/",
+            JvmMetricsCollector.ROOT_NAMESPACE,
+            "heap_memory",
+            "used");
+    private static final String THREAD_COUNT = String.join(
+            "/",
+            JvmMetricsCollector.ROOT_NAMESPACE,
+            "threads",
+            "thread_count");
+    private static final Logger LOGGER = LoggerFactory.getLogger(GaugeSampler.class);
+
+    private static final class Ring {
+
+        private synchronized void add(final long value) {
+            _samples[_next] = value;
+            _next = (_next + 1) % _samples.length;
+            _size = Math.min(_size + 1, _samples.length);
+        }
+
+        private synchronized int drain(final long[] destination) {
+            final int size = _size;
+            System.arraycopy(_samples, 0, destination, 0, size);
+            _size = 0;
+            _next = 0;
+            return size;
+        }
+
+        private Ring(final String name, final LongSupplier gauge, final int capacity) {
+            _name = name;
+            _gauge = gauge;
+            _samples = new long[capacity];
+            _minName = String.join("/", name, "min");
+            _maxName = String.join("/", name, "max");
+            _meanName = String.join("/", name, "mean");
+            _p99Name = String.join("/", name, "p99");
+        }
+
+        private final String _name;
+        private final LongSupplier _gauge;
+        private final long[] _samples;
+        private final String _minName;
+        private final String _maxName;
+        private final String _meanName;
+        private final String _p99Name;
+        private int _next;
+        private int _size;
+    }
+
+    private static final class Registration {
+
+        private Registration(final String name, final LongSupplier gauge) {
+            _name = name;
+            _gauge = gauge;
+        }
+
+        private final String _name;
+        private final LongSupplier _gauge;
+    }
+
+    /**
+     * Builder for {@link GaugeSampler}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link GaugeSampler}. The sampler does not
+         * sample until it is started.
+         *
+         * @return An instance of {@link GaugeSampler}.
+         */
+        public GaugeSampler build() {
+            if (_managementFactory == null) {
+                _managementFactory = ManagementFactoryHolder.DEFAULT_MANAGEMENT_FACTORY;
+                LOGGER.debug(String.format(
+                        "Defaulted null management factory; managementFactory=%s",
+                        _managementFactory));
+            }
+            if (_samplePeriod == null) {
+                _samplePeriod = DEFAULT_SAMPLE_PERIOD;
+                LOGGER.debug(String.format("Defaulted null sample period; samplePeriod=%s", _samplePeriod));
+            }
+            if (_capacity == null) {
+                _capacity = DEFAULT_CAPACITY;
+                LOGGER.debug(String.format("Defaulted null capacity; capacity=%s", _capacity));
+            }
+            if (_sampleHeapMemoryUsed == null) {
+                _sampleHeapMemoryUsed = DEFAULT_SAMPLE_HEAP_MEMORY_USED;
+                LOGGER.debug(String.format(
+                        "Defaulted null sample heap memory used; sampleHeapMemoryUsed=%s",
+                        _sampleHeapMemoryUsed));
+            }
+            if (_sampleThreadCount == null) {
+                _sampleThreadCount = DEFAULT_SAMPLE_THREAD_COUNT;
+                LOGGER.debug(String.format("Defaulted null sample thread count; sampleThreadCount=%s", _sampleThreadCount));
+            }
+            if (_samplePeriod.isNegative() || _samplePeriod.isZero()) {
+                throw new IllegalArgumentException("Sample period must be positive; samplePeriod=" + _samplePeriod);
+            }
+            if (_capacity < 1) {
+                throw new IllegalArgumentException("Capacity must be positive; capacity=" + _capacity);
+            }
+            return new GaugeSampler(this);
+        }
+
+        /**
+         * Set the {@link ManagementFactory} instance used by the heap memory
+         * and thread count gauges. Optional. Defaults to the platform
+         * management factory. Cannot be null.
+         *
+         * @param value The value for the {@link ManagementFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setManagementFactory(final ManagementFactory value) {
+            _managementFactory = value;
+            return this;
+        }
+
+        /**
+         * Set the period between samples. Optional. Defaults to 100
+         * milliseconds. Cannot be null. Must be positive.
+         *
+         * @param value The sample period.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSamplePeriod(final Duration value) {
+            _samplePeriod = value;
+            return this;
+        }
+
+        /**
+         * Set the number of samples retained for each gauge between emits.
+         * Optional. Defaults to 1024. Cannot be null. Must be positive.
+         *
+         * @param value The capacity of each ring buffer.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCapacity(final Integer value) {
+            _capacity = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if heap memory used should be sampled as
+         * {@code jvm/heap_memory/used}. Optional. Defaults to false. Cannot
+         * be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSampleHeapMemoryUsed(final Boolean value) {
+            _sampleHeapMemoryUsed = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if the live thread count should be sampled
+         * as {@code jvm/threads/thread_count}. Optional. Defaults to false.
+         * Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSampleThreadCount(final Boolean value) {
+            _sampleThreadCount = value;
+            return this;
+        }
+
+        /**
+         * Add a gauge to sample, such as the queue depth of an executor.
+         *
+         * @param name The name of the gauge under which its summaries are recorded.
+         * @param gauge The gauge to sample; called on the sampler thread.
+         * @return This {@link Builder} instance.
+         */
+        public Builder addGauge(final String name, final LongSupplier gauge) {
+            if (name == null || gauge == null) {
+                throw new IllegalArgumentException("Name and gauge cannot be null.");
+            }
+            _registrations.add(new Registration(name, gauge));
+            return this;
+        }
+
+        private ManagementFactory _managementFactory;
+        private Duration _samplePeriod = DEFAULT_SAMPLE_PERIOD;
+        private Integer _capacity = DEFAULT_CAPACITY;
+        private Boolean _sampleHeapMemoryUsed = DEFAULT_SAMPLE_HEAP_MEMORY_USED;
+        private Boolean _sampleThreadCount = DEFAULT_SAMPLE_THREAD_COUNT;
+        private final List<Registration> _registrations = new ArrayList<>();
+
+        private static final Duration DEFAULT_SAMPLE_PERIOD = Duration.ofMillis(100);
+        private static final Integer DEFAULT_CAPACITY = 1024;
+        private static final Boolean DEFAULT_SAMPLE_HEAP_MEMORY_USED = false;
+        private static final Boolean DEFAULT_SAMPLE_THREAD_COUNT = false;
+
+        private static final class ManagementFactoryHolder {
+            // Created once on first use
+            private static final ManagementFactory DEFAULT_MANAGEMENT_FACTORY = ManagementFactoryDefault.newInstance();
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.jvm.collectors.BufferPoolMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.FileDescriptorMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.GarbageCollectionMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.HeapMemoryMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.PoolMemoryMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.ThreadMetricsCollector;
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Collects metrics for every JVM on the host from a single process instead
+ * of running a {@link JvmMetricsRunnable} in each of them.
+ *
+ * Each interval the monitor lists the {@code hsperfdata_<user>} directory,
+ * where each JVM of the user publishes a file named by its process id, to
+ * discover its targets. A new target gets its own instances of the
+ * collectors and is attached to lazily on a worker thread; the Attach API
+ * starts the local management agent of the target, and the collectors run
+ * against a {@link RemoteManagementFactory} connected to it. Targets whose
+ * file disappears are closed. A target which cannot be attached to, for
+ * example because it runs as another user, is retried after the retry
+ * interval, and a target whose connection is lost is reconnected on its
+ * next collection.
+ *
+ * Collections run on a bounded pool of workers and a target is skipped
+ * while its previous collection is still running, so a slow target cannot
+ * delay the others or accumulate work. Each collection of a target is a
+ * unit of work annotated with the {@code pid} and the {@code command},
+ * the main class or jar, of the target.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class HostMonitor implements AutoCloseable {
+
+    /**
+     * Serve the metrics of every JVM on the host to Prometheus until the
+     * process is stopped.
+     *
+     * @param args the port to serve on, by default {@code 9404}, and the
+     * directory to discover targets in
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length > 2) {
+            throw new IllegalArgumentException("Usage: HostMonitor [port [directory]]");
+        }
+        final int port = Arrays.stream(args).findFirst().map(Integer::parseInt).orElse(DEFAULT_PORT);
+        final Path directory = Arrays.stream(args).skip(1).findFirst().map(Path::of).orElse(Builder.DEFAULT_DIRECTORY);
+        // Stop serving the series of a target a few intervals after it exits
+        final PrometheusExporter exporter = new PrometheusExporter.Builder()
+                .setAddress(new InetSocketAddress(port))
+                .setExpiry(Builder.DEFAULT_INTERVAL.multipliedBy(EXPIRY_INTERVALS))
+                .build();
+        exporter.start();
+        final HostMonitor monitor = new Builder()
+                .setMetricsFactory(exporter)
+                .setDirectory(directory)
+                .build();
+        monitor.start();
+        // The server thread of the exporter keeps the process running
+        Runtime.getRuntime().addShutdownHook(new Thread(monitor::close, "jvm-metrics-host-monitor-shutdown"));
+        Runtime.getRuntime().addShutdownHook(new Thread(exporter::close, "jvm-metrics-prometheus-exporter-shutdown"));
+    }
+
+    /**
+     * Start monitoring. Has no effect if already started or closed.
+     */
+    public synchronized void start() {
+        if (_started) {
+            return;
+        }
+        _started = true;
+        try {
+            _scheduler.scheduleAtFixedRate(this::tick, 0, _intervalNanos, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Monitor closed; not started", e);
+        }
+    }
+
+    /**
+     * Stop monitoring and disconnect from all targets.
+     */
+    @Override
+    public synchronized void close() {
+        _scheduler.shutdownNow();
+        for (final Target target : _targets.values()) {
+            submit(target::close);
+        }
+        _targets.clear();
+        _workers.shutdown();
+    }
+
+    /**
+     * Discover the targets and schedule a collection of each target which
+     * is not still collecting.
+     */
+    /* package private */ synchronized void tick() {
+        final Set<Long> pids = discover();
+        final Iterator<Map.Entry<Long, Target>> iterator = _targets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Target target = iterator.next().getValue();
+            if (!pids.contains(target._pid)) {
+                iterator.remove();
+                // Closing may wait for an attach in progress
+                submit(target::close);
+            }
+        }
+        for (final Long pid : pids) {
+            final Target target = _targets.computeIfAbsent(pid, this::createTarget);
+            if (target._collecting.compareAndSet(false, true)) {
+                submit(() -> collect(target));
+            }
+        }
+    }
+
+    /**
+     * Attach to a JVM on the host, starting its local management agent if
+     * it is not already running.
+     *
+     * @param pid the process id of the JVM
+     * @param hsperfdata the counters of the JVM, if available
+     * @return a {@link RemoteManagementFactory} connected to the JVM
+     * @throws IOException if the JVM cannot be attached to or connected to
+     */
+    /* package private */ static RemoteManagementFactory attach(final long pid, final Optional<Hsperfdata> hsperfdata)
+            throws IOException {
+        final String address;
+        try {
+            final VirtualMachine machine = VirtualMachine.attach(Long.toString(pid));
+            try {
+                address = machine.startLocalManagementAgent();
+            } finally {
+                machine.detach();
+            }
+        } catch (final AttachNotSupportedException e) {
+            throw new IOException(String.format("Unable to attach; pid=%d", pid), e);
+        }
+        final RemoteManagementFactory.Builder builder = new RemoteManagementFactory.Builder()
+                .setServiceUrl(new JMXServiceURL(address));
+        hsperfdata.ifPresent(builder::setHsperfdata);
+        return builder.build();
+    }
+
+    private Set<Long> discover() {
+        final Set<Long> pids = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(_directory)) {
+            for (final Path file : files) {
+                final String name = _directory.relativize(file).toString();
+                if (name.chars().allMatch(Character::isDigit)) {
+                    pids.add(Long.parseLong(name));
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.debug(String.format("Unable to list targets; directory=%s", _directory), e);
+        }
+        pids.remove(SELF);
+        return pids;
+    }
+
+    private Target createTarget(final Long pid) {
+        final List<Registration> collectors = new ArrayList<>();
+        for (final Map.Entry<String, Supplier<JvmMetricsCollector>> entry : _collectors.entrySet()) {
+            collectors.add(new Registration(entry.getKey(), entry.getValue().get()));
+        }
+        return new Target(pid, Hsperfdata.openIfPresent(_directory.resolve(pid.toString())), collectors);
+    }
+
+    private void collect(final Target target) {
+        try {
+            final Optional<RemoteManagementFactory> managementFactory = target.connect(_connector, _retryIntervalNanos);
+            if (managementFactory.isPresent()) {
+                collect(target, managementFactory.get());
+            }
+        } finally {
+            target._collecting.set(false);
+        }
+    }
+
+    private void collect(final Target target, final RemoteManagementFactory managementFactory) {
+        try (Metrics metrics = _metricsFactory.create()) {
+            metrics.addAnnotation("pid", Long.toString(target._pid));
+            target._command.ifPresent(command -> metrics.addAnnotation("command", command));
+            for (final Registration registration : target._collectors) {
+                try {
+                    registration._collector.collect(metrics, managementFactory);
+                    // CHECKSTYLE.OFF: IllegalCatch - Isolate the collectors and targets from each other
+                } catch (final RuntimeException e) {
+                    // CHECKSTYLE.ON: IllegalCatch
+                    if (isConnectionLost(e)) {
+                        LOGGER.info(String.format("Connection lost; pid=%d", target._pid), e);
+                        target.disconnect();
+                        break;
+                    }
+                    LOGGER.warn(String.format("Collector failed; pid=%d, collector=%s", target._pid, registration._name), e);
+                }
+            }
+        }
+    }
+
+    /* package private */ void submit(final Runnable runnable) {
+        try {
+            _workers.execute(runnable);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Monitor closed; task not run", e);
+        }
+    }
+
+    private static boolean isConnectionLost(final Throwable throwable) {
+        // Proxies wrap the IOException of a lost connection
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HostMonitor(final Builder builder) {
+        _metricsFactory = builder._metricsFactory;
+        _directory = builder._directory;
+        _intervalNanos = builder._interval.toNanos();
+        _retryIntervalNanos = builder._retryInterval.toNanos();
+        _connector = builder._connector;
+        _collectors = builder._collectors.isEmpty() ? DEFAULT_COLLECTORS : new LinkedHashMap<>(builder._collectors);
+        _scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jvm-metrics-host-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _workers = Executors.newFixedThreadPool(builder._parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "jvm-metrics-host-monitor-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final MetricsFactory _metricsFactory;
+    private final Path _directory;
+    private final long _intervalNanos;
+    private final long _retryIntervalNanos;
+    private final Connector _connector;
+    private final Map<String, Supplier<JvmMetricsCollector>> _collectors;
+    private final ScheduledExecutorService _scheduler;
+    private final ExecutorService _workers;
+    private final Map<Long, Target> _targets = new TreeMap<>();
+    private boolean _started;
+
+    private static final int DEFAULT_PORT = 9404;
+    private static final int EXPIRY_INTERVALS = 3;
+    private static final long SELF = ProcessHandle.current().pid();
+    private static final Map<String, Supplier<JvmMetricsCollector>> DEFAULT_COLLECTORS = createDefaultCollectors();
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostMonitor.class);
+
+    private static Map<String, Supplier<JvmMetricsCollector>> createDefaultCollectors() {
+        final Map<String, Supplier<JvmMetricsCollector>> collectors = new LinkedHashMap<>();
+        collectors.put("heap_memory", HeapMemoryMetricsCollector::newInstance);
+        collectors.put("pool_memory", PoolMemoryMetricsCollector::newInstance);
+        collectors.put("garbage_collection", GarbageCollectionMetricsCollector::newInstance);
+        collectors.put("thread", ThreadMetricsCollector::newInstance);
+        collectors.put("buffer_pool", BufferPoolMetricsCollector::newInstance);
+        collectors.put("file_descriptor", FileDescriptorMetricsCollector::newInstance);
+        return collectors;
+    }
+
+    /**
+     * Connects to a target.
+     */
+    /* package private */ interface Connector {
+
+        /**
+         * Connect to a target.
+         *
+         * @param pid the process id of the target
+         * @param hsperfdata the counters of the target, if available
+         * @return a {@link RemoteManagementFactory} connected to the target
+         * @throws IOException if the target cannot be connected to
+         */
+        RemoteManagementFactory connect(long pid, Optional<Hsperfdata> hsperfdata) throws IOException;
+    }
+
+    private static final class Registration {
+
+        private Registration(final String name, final JvmMetricsCollector collector) {
+            _name = name;
+            _collector = collector;
+        }
+
+        private final String _name;
+        private final JvmMetricsCollector _collector;
+    }
+
+    /* package private */ static final class Target {
+
+        /* package private */ synchronized Optional<RemoteManagementFactory> connect(
+                final Connector connector,
+                final long retryIntervalNanos) {
+            if (_managementFactory != null) {
+                return Optional.of(_managementFactory);
+            }
+            final long now = System.nanoTime();
+            if (_closed || now - _nextAttemptNanos < 0) {
+                return Optional.empty();
+            }
+            try {
+                _managementFactory = connector.connect(_pid, _hsperfdata);
+                LOGGER.info(String.format("Connected; pid=%d", _pid));
+                return Optional.of(_managementFactory);
+            } catch (final IOException e) {
+                LOGGER.info(String.format("Unable to connect; pid=%d", _pid), e);
+                _nextAttemptNanos = now + retryIntervalNanos;
+                return Optional.empty();
+            }
+        }
+
+        /* package private */ synchronized void disconnect() {
+            if (_managementFactory != null) {
+                try {
+                    _managementFactory.close();
+                } catch (final IOException e) {
+                    LOGGER.debug(String.format("Unable to disconnect cleanly; pid=%d", _pid), e);
+                }
+                _managementFactory = null;
+            }
+        }
+
+        /* package private */ synchronized void close() {
+            _closed = true;
+            disconnect();
+        }
+
+        /* package private */ Target(final long pid, final Optional<Hsperfdata> hsperfdata, final List<Registration> collectors) {
+            _pid = pid;
+            _hsperfdata = hsperfdata;
+            _collectors = collectors;
+            // For example "org.example.Main --port 80" or "/opt/service.jar"
+            _command = hsperfdata.flatMap(counters -> counters.findString("sun.rt.javaCommand"))
+                    .map(command -> command.split(" ", 2)[0]);
+            _nextAttemptNanos = System.nanoTime();
+        }
+
+        private final long _pid;
+        private final Optional<Hsperfdata> _hsperfdata;
+        private final Optional<String> _command;
+        private final List<Registration> _collectors;
+        private final AtomicBoolean _collecting = new AtomicBoolean();
+        private RemoteManagementFactory _managementFactory;
+        private long _nextAttemptNanos;
+        private boolean _closed;
+    }
+
+    /**
+     * Builder for {@link HostMonitor}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link HostMonitor}. The monitor does not
+         * collect until it is started.
+         *
+         * @return An instance of {@link HostMonitor}.
+         */
+        public HostMonitor build() {
+            if (_metricsFactory == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            if (_directory == null) {
+                _directory = DEFAULT_DIRECTORY;
+                LOGGER.debug(String.format("Defaulted null directory; directory=%s", _directory));
+            }
+            if (_interval == null) {
+                _interval = DEFAULT_INTERVAL;
+                LOGGER.debug(String.format("Defaulted null interval; interval=%s", _interval));
+            }
+            if (_retryInterval == null) {
+                _retryInterval = DEFAULT_RETRY_INTERVAL;
+                LOGGER.debug(String.format("Defaulted null retry interval; retryInterval=%s", _retryInterval));
+            }
+            if (_parallelism == null) {
+                _parallelism = DEFAULT_PARALLELISM;
+                LOGGER.debug(String.format("Defaulted null parallelism; parallelism=%s", _parallelism));
+            }
+            if (_interval.isNegative() || _interval.isZero()) {
+                throw new IllegalArgumentException("Interval must be positive; interval=" + _interval);
+            }
+            if (_retryInterval.isNegative()) {
+                throw new IllegalArgumentException("Retry interval cannot be negative; retryInterval=" + _retryInterval);
+            }
+            if (_parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive; parallelism=" + _parallelism);
+            }
+            return new HostMonitor(this);
+        }
+
+        /**
+         * Set the {@link MetricsFactory} instance. Required. Cannot be
+         * null.
+         *
+         * @param value The value for the {@link MetricsFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMetricsFactory(final MetricsFactory value) {
+            _metricsFactory = value;
+            return this;
+        }
+
+        /**
+         * Set the directory to discover targets in. Optional. Defaults to the
+         * {@code hsperfdata_<user>} directory of the current user. Cannot be
+         * null.
+         *
+         * @param value The directory to discover targets in.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setDirectory(final Path value) {
+            _directory = value;
+            return this;
+        }
+
+        /**
+         * Set the interval between collections. Optional. Defaults to ten
+         * seconds. Cannot be null. Must be positive.
+         *
+         * @param value The interval between collections.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setInterval(final Duration value) {
+            _interval = value;
+            return this;
+        }
+
+        /**
+         * Set the interval before retrying a target which cannot be
+         * connected to. Optional. Defaults to one minute. Cannot be null.
+         * Cannot be negative.
+         *
+         * @param value The interval before retrying a target.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setRetryInterval(final Duration value) {
+            _retryInterval = value;
+            return this;
+        }
+
+        /**
+         * Set the number of targets collected concurrently. Optional.
+         * Defaults to four. Cannot be null. Must be positive.
+         *
+         * @param value The number of targets collected concurrently.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setParallelism(final Integer value) {
+            _parallelism = value;
+            return this;
+        }
+
+        /**
+         * Add a collector to run against each target. Optional. Defaults to
+         * the heap memory, pool memory, garbage collection, thread, buffer
+         * pool and file descriptor collectors if none are added.
+         *
+         * @param name The name of the collector used in logs.
+         * @param factory Creates an instance of the collector for each target.
+         * @return This {@link Builder} instance.
+         */
+        public Builder addCollector(final String name, final Supplier<JvmMetricsCollector> factory) {
+            if (name == null || factory == null) {
+                throw new IllegalArgumentException("Name and factory cannot be null.");
+            }
+            _collectors.put(name, factory);
+            return this;
+        }
+
+        /* package private */ Builder setConnector(final Connector value) {
+            _connector = value;
+            return this;
+        }
+
+        private MetricsFactory _metricsFactory;
+        private Path _directory = DEFAULT_DIRECTORY;
+        private Duration _interval = DEFAULT_INTERVAL;
+        private Duration _retryInterval = DEFAULT_RETRY_INTERVAL;
+        private Integer _parallelism = DEFAULT_PARALLELISM;
+        private Connector _connector = HostMonitor::attach;
+        private final Map<String, Supplier<JvmMetricsCollector>> _collectors = new LinkedHashMap<>();
+
+        private static final Path DEFAULT_DIRECTORY = Hsperfdata.getPath(SELF).getParent();
+        private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+        private static final Duration DEFAULT_RETRY_INTERVAL = Duration.ofMinutes(1);
+        private static final Integer DEFAULT_PARALLELISM = 4;
+    }
+}
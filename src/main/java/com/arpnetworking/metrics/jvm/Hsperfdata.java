@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the performance counters which HotSpot publishes in its memory
+ * mapped {@code hsperfdata_<user>/<pid>} file, the same counters that
+ * {@code jstat} reads. These include counters which no MXBean exposes, such
+ * as the number of safepoints and the time spent in and reaching them, as
+ * well as garbage collection counts and times.
+ *
+ * The file is mapped read-only once and its entries are resolved to offsets
+ * when it is opened, so reading a counter is a single memory read. Counters
+ * which the JVM creates after the file is opened are not found; they are
+ * created while the JVM starts, before application code runs. The file is
+ * not published if the JVM runs with {@code -XX:-UsePerfData} or
+ * {@code -XX:+PerfDisableSharedMem}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class Hsperfdata {
+
+    /**
+     * The path of the file of a JVM run by the current user. HotSpot writes
+     * the file under {@code /tmp} regardless of {@code java.io.tmpdir}
+     * except on Windows and macOS, where it uses the temporary directory of
+     * the user which {@code java.io.tmpdir} defaults to.
+     *
+     * @param pid the process id of the JVM
+     * @return the path of its file
+     */
+    public static Path getPath(final long pid) {
+        return Path.of(
+                getTemporaryDirectory(System.getProperty("os.name"), System.getProperty("java.io.tmpdir")),
+                "hsperfdata_" + System.getProperty("user.name"),
+                Long.toString(pid));
+    }
+
+    /* package private */ static String getTemporaryDirectory(final String osName, final String tmpdir) {
+        // As os::get_temp_directory in HotSpot
+        if (osName.startsWith("Windows") || osName.startsWith("Mac")) {
+            return tmpdir;
+        }
+        return "/tmp";
+    }
+
+    /**
+     * Map the file of the current JVM.
+     *
+     * @return the counters of the current JVM or empty if they are not
+     * published
+     */
+    public static Optional<Hsperfdata> openCurrent() {
+        return openIfPresent(getPath(ProcessHandle.current().pid()));
+    }
+
+    /**
+     * Map a hsperfdata file for reading.
+     *
+     * @param path the path of the file
+     * @return a reader of the file
+     * @throws IOException if the file cannot be mapped or is not a hsperfdata
+     * file
+     */
+    public static Hsperfdata open(final Path path) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < PROLOGUE_SIZE) {
+                throw new IOException(String.format("Not a hsperfdata file; path=%s", path));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        // The magic is written in big endian and followed by the byte order of the rest
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.get(MAJOR_VERSION_OFFSET) != MAJOR_VERSION) {
+            throw new IOException(String.format("Not a hsperfdata file; path=%s", path));
+        }
+        buffer.order(buffer.get(BYTE_ORDER_OFFSET) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        final Map<String, Entry> entries = new TreeMap<>();
+        try {
+            int offset = buffer.getInt(ENTRY_OFFSET_OFFSET);
+            final int count = buffer.getInt(NUM_ENTRIES_OFFSET);
+            for (int i = 0; i < count; ++i) {
+                final Entry entry = readEntry(buffer, offset);
+                entries.put(entry._name, entry);
+                offset += buffer.getInt(offset + ENTRY_LENGTH_OFFSET);
+            }
+        } catch (final IndexOutOfBoundsException e) {
+            throw new IOException(String.format("Corrupt hsperfdata file; path=%s", path), e);
+        }
+        final Entry frequency = entries.get(FREQUENCY);
+        if (frequency == null || frequency._type != TYPE_LONG || buffer.getLong(frequency._offset) <= 0) {
+            throw new IOException(String.format("Hsperfdata file has no tick frequency; path=%s", path));
+        }
+        return new Hsperfdata(buffer, entries, buffer.getLong(frequency._offset));
+    }
+
+    /**
+     * Find a counter.
+     *
+     * @param name the name of the counter, for example
+     * {@code sun.rt.safepoints}
+     * @return the counter or empty if there is no long valued entry with the
+     * name
+     */
+    public Optional<Counter> findCounter(final String name) {
+        final Entry entry = _entries.get(name);
+        if (entry == null || entry._type != TYPE_LONG) {
+            return Optional.empty();
+        }
+        return Optional.of(new Counter(_buffer, entry._offset));
+    }
+
+    /**
+     * Find a string.
+     *
+     * @param name the name of the string, for example
+     * {@code sun.gc.collector.0.name}
+     * @return the current value of the string or empty if there is no string
+     * entry with the name
+     */
+    public Optional<String> findString(final String name) {
+        final Entry entry = _entries.get(name);
+        if (entry == null || entry._type != TYPE_BYTE || entry._units != UNITS_STRING) {
+            return Optional.empty();
+        }
+        int length = 0;
+        while (length < entry._length && _buffer.get(entry._offset + length) != 0) {
+            ++length;
+        }
+        return Optional.of(StandardCharsets.UTF_8.decode(_buffer.slice(entry._offset, length)).toString());
+    }
+
+    /**
+     * Convert a value in ticks, the unit of time counters, to nanoseconds.
+     *
+     * @param ticks the value in ticks
+     * @return the value in nanoseconds
+     */
+    public long toNanos(final long ticks) {
+        return Math.round(ticks * _nanosPerTick);
+    }
+
+    /**
+     * The garbage collectors of the JVM with their counters resolved. Their
+     * names are those of the collector implementations, for example
+     * {@code G1 stop-the-world full collections}, which differ from the names
+     * of the {@link java.lang.management.GarbageCollectorMXBean}s.
+     *
+     * @return the garbage collectors
+     */
+    public List<GarbageCollector> getGarbageCollectors() {
+        return _garbageCollectors;
+    }
+
+    private static Entry readEntry(final ByteBuffer buffer, final int offset) {
+        final int nameOffset = offset + buffer.getInt(offset + NAME_OFFSET_OFFSET);
+        int nameLength = 0;
+        while (buffer.get(nameOffset + nameLength) != 0) {
+            ++nameLength;
+        }
+        final String name = StandardCharsets.US_ASCII.decode(buffer.slice(nameOffset, nameLength)).toString();
+        final int dataOffset = offset + buffer.getInt(offset + DATA_OFFSET_OFFSET);
+        final int length = buffer.getInt(offset + VECTOR_LENGTH_OFFSET);
+        // Reading the last byte of the data checks its bounds once
+        buffer.get(dataOffset + Math.max(length, Long.BYTES) - 1);
+        return new Entry(
+                name,
+                buffer.get(offset + DATA_TYPE_OFFSET),
+                buffer.get(offset + DATA_UNITS_OFFSET),
+                dataOffset,
+                length);
+    }
+
+    /* package private */ static Optional<Hsperfdata> openIfPresent(final Path path) {
+        try {
+            return Optional.of(open(path));
+        } catch (final IOException e) {
+            LOGGER.info(String.format("Hsperfdata is not available; path=%s", path), e);
+            return Optional.empty();
+        }
+    }
+
+    private List<GarbageCollector> resolveGarbageCollectors() {
+        final List<GarbageCollector> collectors = new ArrayList<>();
+        while (true) {
+            final String prefix = "sun.gc.collector." + collectors.size() + ".";
+            final Optional<String> name = findString(prefix + "name");
+            final Optional<Counter> invocations = findCounter(prefix + "invocations");
+            final Optional<Counter> time = findCounter(prefix + "time");
+            if (name.isEmpty() || invocations.isEmpty() || time.isEmpty()) {
+                return collectors;
+            }
+            collectors.add(new GarbageCollector(name.get(), invocations.get(), time.get(), this));
+        }
+    }
+
+    private Hsperfdata(final ByteBuffer buffer, final Map<String, Entry> entries, final long frequency) {
+        _buffer = buffer;
+        _entries = entries;
+        _nanosPerTick = (double) TimeUnit.SECONDS.toNanos(1) / frequency;
+        _garbageCollectors = List.copyOf(resolveGarbageCollectors());
+    }
+
+    private final ByteBuffer _buffer;
+    private final Map<String, Entry> _entries;
+    private final double _nanosPerTick;
+    private final List<GarbageCollector> _garbageCollectors;
+
+    /* package private */ static final int MAGIC = 0xcafec0c0;
+    /* package private */ static final byte MAJOR_VERSION = 2;
+    /* package private */ static final int MAGIC_OFFSET = 0;
+    /* package private */ static final int BYTE_ORDER_OFFSET = 4;
+    /* package private */ static final int MAJOR_VERSION_OFFSET = 5;
+    /* package private */ static final int ENTRY_OFFSET_OFFSET = 24;
+    /* package private */ static final int NUM_ENTRIES_OFFSET = 28;
+    /* package private */ static final int PROLOGUE_SIZE = 32;
+    /* package private */ static final int ENTRY_LENGTH_OFFSET = 0;
+    /* package private */ static final int NAME_OFFSET_OFFSET = 4;
+    /* package private */ static final int VECTOR_LENGTH_OFFSET = 8;
+    /* package private */ static final int DATA_TYPE_OFFSET = 12;
+    /* package private */ static final int DATA_UNITS_OFFSET = 14;
+    /* package private */ static final int DATA_OFFSET_OFFSET = 16;
+    /* package private */ static final byte TYPE_LONG = 'J';
+    /* package private */ static final byte TYPE_BYTE = 'B';
+    /* package private */ static final byte UNITS_STRING = 5;
+    /* package private */ static final String FREQUENCY = "sun.os.hrt.frequency";
+    private static final Logger LOGGER = LoggerFactory.getLogger(Hsperfdata.class);
+
+    /**
+     * A long valued counter resolved to its offset in the file.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Counter {
+
+        /**
+         * The current value of the counter. Time counters are in ticks; see
+         * {@link Hsperfdata#toNanos(long)}.
+         *
+         * @return the current value
+         */
+        public long get() {
+            return _buffer.getLong(_offset);
+        }
+
+        private Counter(final ByteBuffer buffer, final int offset) {
+            _buffer = buffer;
+            _offset = offset;
+        }
+
+        private final ByteBuffer _buffer;
+        private final int _offset;
+    }
+
+    /**
+     * The counters of a garbage collector.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class GarbageCollector {
+
+        /**
+         * The name of the collector.
+         *
+         * @return the name of the collector
+         */
+        public String getName() {
+            return _name;
+        }
+
+        /**
+         * The number of collections.
+         *
+         * @return the number of collections
+         */
+        public long getCollectionCount() {
+            return _invocations.get();
+        }
+
+        /**
+         * The total time spent in collections in milliseconds.
+         *
+         * @return the total time spent in collections in milliseconds
+         */
+        public long getCollectionTime() {
+            return TimeUnit.NANOSECONDS.toMillis(_hsperfdata.toNanos(_time.get()));
+        }
+
+        private GarbageCollector(final String name, final Counter invocations, final Counter time, final Hsperfdata hsperfdata) {
+            _name = name;
+            _invocations = invocations;
+            _time = time;
+            _hsperfdata = hsperfdata;
+        }
+
+        private final String _name;
+        private final Counter _invocations;
+        private final Counter _time;
+        private final Hsperfdata _hsperfdata;
+    }
+
+    private static final class Entry {
+
+        private Entry(final String name, final byte type, final byte units, final int offset, final int length) {
+            _name = name;
+            _type = type;
+            _units = units;
+            _offset = offset;
+            _length = length;
+        }
+
+        private final String _name;
+        private final byte _type;
+        private final byte _units;
+        private final int _offset;
+        private final int _length;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Decorates a {@link JvmMetricsCollector} to measure its own cost and to
+ * protect the other collectors from it. Each collection records the wall
+ * time and the bytes allocated by the collector under
+ * {@code jvm/collector/<name>}. The allocations are read from the local
+ * platform {@link ThreadMXBean} rather than from the {@link ManagementFactory}
+ * being collected, which may be remote or a replay and would neither measure
+ * the collecting thread nor do so cheaply.
+ *
+ * A collection fails if the collector throws or exceeds its time budget.
+ * After {@link #FAILURE_THRESHOLD} consecutive failures the circuit opens
+ * and the collector is skipped for {@link #OPEN_NANOS}; the next collection
+ * is a trial which either closes the circuit or reopens it. A collector
+ * blocked in an MXBean call cannot be interrupted, so the budget only
+ * prevents further collections from blocking the others.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class InstrumentedCollector {
+
+    /**
+     * Collect metrics unless the circuit is open. Exceptions from the
+     * collector are rethrown after its measurements are recorded.
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     * @param managementFactory the {@link ManagementFactory} instance
+     */
+    /* package private */ synchronized void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final long start = _nanoTime.getAsLong();
+        if (_open && start - _openUntil < 0) {
+            metrics.incrementCounter(_skippedName, 1);
+            return;
+        }
+        metrics.incrementCounter(_skippedName, 0);
+
+        final ThreadMXBean threadMXBean = _threadMXBean.get();
+        final long allocatedBefore = getCurrentThreadAllocatedBytes(threadMXBean);
+        RuntimeException failure = null;
+        try {
+            _collector.collect(metrics, managementFactory);
+            // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            failure = e;
+        }
+        final long elapsed = _nanoTime.getAsLong() - start;
+        final long allocatedAfter = getCurrentThreadAllocatedBytes(threadMXBean);
+
+        metrics.setTimer(_timeName, elapsed, TimeUnit.NANOSECONDS);
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            metrics.setGauge(_allocatedName, allocatedAfter - allocatedBefore);
+        }
+        final boolean failed = failure != null || elapsed > _budgetNanos;
+        metrics.incrementCounter(_failuresName, failed ? 1 : 0);
+        if (failed) {
+            if (++_consecutiveFailures >= FAILURE_THRESHOLD) {
+                _open = true;
+                _openUntil = start + elapsed + OPEN_NANOS;
+            }
+        } else {
+            _consecutiveFailures = 0;
+            _open = false;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /* package private */ InstrumentedCollector(
+            final String name,
+            final JvmMetricsCollector collector,
+            final long budgetNanos,
+            final LongSupplier nanoTime,
+            final Supplier<ThreadMXBean> threadMXBean) {
+        _collector = collector;
+        _budgetNanos = budgetNanos;
+        _nanoTime = nanoTime;
+        _threadMXBean = threadMXBean;
+        final String prefix = String.join("/", ROOT_NAMESPACE, name);
+        _timeName = String.join("/", prefix, "time");
+        _allocatedName = String.join("/", prefix, "allocated_bytes");
+        _failuresName = String.join("/", prefix, "failures");
+        _skippedName = String.join("/", prefix, "skipped");
+    }
+
+    /* package private */ InstrumentedCollector(
+            final String name,
+            final JvmMetricsCollector collector,
+            final long budgetNanos) {
+        this(name, collector, budgetNanos, System::nanoTime, () -> ThreadMXBeanHolder.THREAD_MX_BEAN);
+    }
+
+    private static long getCurrentThreadAllocatedBytes(final ThreadMXBean threadMXBean) {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private final JvmMetricsCollector _collector;
+    private final long _budgetNanos;
+    private final LongSupplier _nanoTime;
+    private final Supplier<ThreadMXBean> _threadMXBean;
+    private final String _timeName;
+    private final String _allocatedName;
+    private final String _failuresName;
+    private final String _skippedName;
+    private int _consecutiveFailures;
+    private boolean _open;
+    private long _openUntil;
+
+    /* package private */ static final int FAILURE_THRESHOLD = 3;
+    /* package private */ static final long OPEN_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String ROOT_NAMESPACE = "jvm/collector";
+
+    private static final class ThreadMXBeanHolder {
+        // Obtained once on first use so that building does not load the platform beans
+        private static final ThreadMXBean THREAD_MX_BEAN = java.lang.management.ManagementFactory.getThreadMXBean();
+    }
+}
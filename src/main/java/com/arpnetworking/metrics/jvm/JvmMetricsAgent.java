@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.MetricsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Java agent which collects JVM metrics without changes to the application.
+ * Add it to the command line with
+ * {@code -javaagent:jvm-extra.jar=<options>} or load it into a running JVM
+ * through the Attach API. The dependencies of this library must be on the
+ * class path of the application.
+ *
+ * The options are comma separated {@code key=value} pairs:
+ * <ul>
+ *     <li>{@code config} a properties file with further options; options in
+ *     the arguments take precedence</li>
+ *     <li>{@code delay} the ISO-8601 duration to wait before initializing,
+ *     by default {@code PT10S} when loaded at startup and none when loaded
+ *     into a running JVM</li>
+ *     <li>{@code interval} the ISO-8601 duration between collections, by
+ *     default {@code PT10S}</li>
+ *     <li>{@code metricsFactory} the class name of a {@link MetricsFactory}
+ *     with a public no-argument constructor; by default the metrics are
+ *     served to Prometheus</li>
+ *     <li>{@code port} the port to serve Prometheus on, by default
+ *     {@code 9404}</li>
+ *     <li>{@code governOverhead} and each {@code collectX} toggle of
+ *     {@link JvmMetricsRunnable.Builder}, for example
+ *     {@code collectThreadMetrics=false}</li>
+ * </ul>
+ *
+ * The agent only starts a daemon thread while the application starts. The
+ * options, the logger, the MXBeans and the collectors are initialized by
+ * that thread after the delay, so the agent neither slows down nor changes
+ * the order of the initialization of the application. The
+ * {@link JvmMetricsRunnable} runs on its own daemon thread at the interval
+ * and the first run is delayed by a random phase offset within the interval
+ * so that many hosts started together do not all publish at the same time.
+ * Each collector is isolated by the runnable, so a failing collector does not
+ * stop the others. Invalid options and any other failure to start are logged
+ * and the agent does not collect.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmMetricsAgent implements AutoCloseable {
+
+    /**
+     * Entry point when loaded with {@code -javaagent}.
+     *
+     * @param args the options
+     */
+    public static void premain(@Nullable final String args) {
+        start(args, DEFAULT_STARTUP_DELAY);
+    }
+
+    /**
+     * Entry point when loaded into a running JVM.
+     *
+     * @param args the options
+     */
+    public static void agentmain(@Nullable final String args) {
+        start(args, Duration.ZERO);
+    }
+
+    /**
+     * Stop collecting.
+     */
+    @Override
+    public void close() {
+        _executor.shutdownNow();
+        _exporter.ifPresent(PrometheusExporter::close);
+    }
+
+    /* package private */ Optional<PrometheusExporter> getExporter() {
+        return _exporter;
+    }
+
+    /* package private */ static Thread start(@Nullable final String args, final Duration defaultDelay) {
+        final Thread thread = new Thread(() -> run(args, defaultDelay), "jvm-metrics-agent");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /* package private */ static Optional<JvmMetricsAgent> run(@Nullable final String args, final Duration defaultDelay) {
+        try {
+            final Map<String, String> options = parse(args);
+            final Duration delay = getDuration(options, "delay", defaultDelay);
+            Thread.sleep(delay.toMillis());
+            final JvmMetricsAgent agent = create(options);
+            LoggerHolder.LOGGER.info(String.format("JVM metrics agent started; options=%s", options));
+            return Optional.of(agent);
+            // CHECKSTYLE.OFF: IllegalCatch - The agent must not fail the application
+        } catch (final IOException | RuntimeException | LinkageError e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LoggerHolder.LOGGER.error(String.format("JVM metrics agent not started; args=%s", args), e);
+            return Optional.empty();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /* package private */ static Map<String, String> parse(@Nullable final String args) throws IOException {
+        final Map<String, String> arguments = new TreeMap<>();
+        if (args != null && !args.isEmpty()) {
+            for (final String argument : args.split(",")) {
+                final String[] keyValue = argument.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Option must be key=value; option=" + argument);
+                }
+                arguments.put(keyValue[0].trim(), keyValue[1].trim());
+            }
+        }
+        final Map<String, String> options = new TreeMap<>();
+        final String config = arguments.get("config");
+        if (config != null) {
+            final Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(Path.of(config), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (final String key : properties.stringPropertyNames()) {
+                options.put(key, properties.getProperty(key).trim());
+            }
+        }
+        options.putAll(arguments);
+        for (final String key : options.keySet()) {
+            if (!OPTIONS.contains(key) && !TogglesHolder.TOGGLES.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option; option=" + key);
+            }
+        }
+        return options;
+    }
+
+    private static JvmMetricsAgent create(final Map<String, String> options) throws IOException {
+        final Duration interval = getDuration(options, "interval", DEFAULT_INTERVAL);
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive; interval=" + interval);
+        }
+        final MetricsFactory metricsFactory;
+        final Optional<PrometheusExporter> exporter;
+        final String metricsFactoryClass = options.get("metricsFactory");
+        if (metricsFactoryClass != null) {
+            metricsFactory = createMetricsFactory(metricsFactoryClass);
+            exporter = Optional.empty();
+        } else {
+            final PrometheusExporter prometheusExporter = new PrometheusExporter.Builder()
+                    .setAddress(new InetSocketAddress(getInteger(options, "port", DEFAULT_PORT)))
+                    .build();
+            prometheusExporter.start();
+            metricsFactory = prometheusExporter;
+            exporter = Optional.of(prometheusExporter);
+        }
+        // A run which threw would cancel its schedule
+        final JvmMetricsRunnable.Builder builder = new JvmMetricsRunnable.Builder()
+                .setMetricsFactory(metricsFactory)
+                .setSwallowException(true);
+        for (final Map.Entry<String, BiConsumer<JvmMetricsRunnable.Builder, Boolean>> toggle : TogglesHolder.TOGGLES.entrySet()) {
+            final String value = options.get(toggle.getKey());
+            if (value != null) {
+                toggle.getValue().accept(builder, getBoolean(toggle.getKey(), value));
+            }
+        }
+        return new JvmMetricsAgent(builder.build(), interval, exporter);
+    }
+
+    private static MetricsFactory createMetricsFactory(final String className) {
+        try {
+            return Class.forName(className)
+                    .asSubclass(MetricsFactory.class)
+                    .getConstructor()
+                    .newInstance();
+        } catch (final ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unable to create metrics factory; metricsFactory=" + className, e);
+        }
+    }
+
+    private static Duration getDuration(final Map<String, String> options, final String key, final Duration defaultValue) {
+        final String value = options.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Duration.parse(value);
+        } catch (final DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Option must be an ISO-8601 duration; %s=%s", key, value), e);
+        }
+    }
+
+    private static int getInteger(final Map<String, String> options, final String key, final int defaultValue) {
+        final String value = options.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static boolean getBoolean(final String key, final String value) {
+        if (!"true".equals(value) && !"false".equals(value)) {
+            throw new IllegalArgumentException(String.format("Option must be true or false; %s=%s", key, value));
+        }
+        return "true".equals(value);
+    }
+
+    private JvmMetricsAgent(
+            final JvmMetricsRunnable runnable,
+            final Duration interval,
+            final Optional<PrometheusExporter> exporter) {
+        _exporter = exporter;
+        _executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "jvm-metrics-agent-collector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long intervalNanos = interval.toNanos();
+        _executor.scheduleAtFixedRate(
+                runnable,
+                ThreadLocalRandom.current().nextLong(intervalNanos),
+                intervalNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    private final ScheduledExecutorService _executor;
+    private final Optional<PrometheusExporter> _exporter;
+
+    private static final Duration DEFAULT_STARTUP_DELAY = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+    private static final int DEFAULT_PORT = 9404;
+    private static final Set<String> OPTIONS = Set.of("config", "delay", "interval", "metricsFactory", "port");
+
+    // Only the agent thread initializes the holders, so premain neither binds
+    // the logger nor loads the collection classes
+    private static final class LoggerHolder {
+        // Created once on first use
+        private static final Logger LOGGER = LoggerFactory.getLogger(JvmMetricsAgent.class);
+    }
+
+    private static final class TogglesHolder {
+        // Created once on first use
+        private static final Map<String, BiConsumer<JvmMetricsRunnable.Builder, Boolean>> TOGGLES = createToggles();
+
+        private static Map<String, BiConsumer<JvmMetricsRunnable.Builder, Boolean>> createToggles() {
+            final Map<String, BiConsumer<JvmMetricsRunnable.Builder, Boolean>> toggles = new TreeMap<>();
+            toggles.put("governOverhead", JvmMetricsRunnable.Builder::setGovernOverhead);
+            toggles.put("collectHeapMemoryMetrics", JvmMetricsRunnable.Builder::setCollectHeapMemoryMetrics);
+            toggles.put("collectPoolMemoryMetrics", JvmMetricsRunnable.Builder::setCollectPoolMemoryMetrics);
+            toggles.put("collectThreadMetrics", JvmMetricsRunnable.Builder::setCollectThreadMetrics);
+            toggles.put("collectGarbageCollectionMetrics", JvmMetricsRunnable.Builder::setCollectGarbageCollectionMetrics);
+            toggles.put("collectBufferPoolMetrics", JvmMetricsRunnable.Builder::setCollectBufferPoolMetrics);
+            toggles.put("collectFileDescriptorMetrics", JvmMetricsRunnable.Builder::setCollectFileDescriptorMetrics);
+            toggles.put("collectClassLoadingMetrics", JvmMetricsRunnable.Builder::setCollectClassLoadingMetrics);
+            toggles.put("collectCpuMetrics", JvmMetricsRunnable.Builder::setCollectCpuMetrics);
+            toggles.put("collectVirtualThreadMetrics", JvmMetricsRunnable.Builder::setCollectVirtualThreadMetrics);
+            toggles.put(
+                    "collectGarbageCollectionOverheadMetrics",
+                    JvmMetricsRunnable.Builder::setCollectGarbageCollectionOverheadMetrics);
+            toggles.put("collectSafepointMetrics", JvmMetricsRunnable.Builder::setCollectSafepointMetrics);
+            toggles.put(
+                    "collectGarbageCollectionMetricsFromHsperfdata",
+                    JvmMetricsRunnable.Builder::setCollectGarbageCollectionMetricsFromHsperfdata);
+            return toggles;
+        }
+    }
+}
@@ -18,27 +18,41 @@ package com.arpnetworking.metrics.jvm;
 import com.arpnetworking.metrics.Metrics;
 import com.arpnetworking.metrics.MetricsFactory;
 import com.arpnetworking.metrics.jvm.collectors.BufferPoolMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.ClassLoadingMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.CpuMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.FileDescriptorMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.GarbageCollectionMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.GarbageCollectionOverheadMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.HeapMemoryMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.PoolMemoryMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.SafepointMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.ThreadMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.VirtualThreadMetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.management.BufferPoolMXBean;
-import java.lang.management.GarbageCollectorMXBean;
-import java.lang.management.MemoryMXBean;
-import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.OperatingSystemMXBean;
-import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 
 /**
  * An implementation of {@link Runnable} that collects all JVM metrics
- * each time its run.
+ * each time its run. The cost of each collector is measured under
+ * {@code jvm/collector/<name>} and a collector which keeps failing or
+ * exceeding its time budget is temporarily skipped. Optionally, collectors
+ * are shed by priority while the process is under load as decided by an
+ * {@link OverheadGovernor}.
+ *
+ * Each collection is recorded into a {@link JvmSnapshot} which is then
+ * emitted to the unit of work's {@link Metrics} instance; the latest
+ * snapshot is also available to other readers. Optionally, each run updates
+ * a {@link MemoryPressureMonitor}, writes its snapshot to a
+ * {@link SharedMetricsFile} and records it in a {@link BlackBoxRecorder}.
  *
  * @author Deepika Misra (deepika at groupon dot com)
  */
@@ -46,39 +60,226 @@ import java.util.List;
 public class JvmMetricsRunnable extends AbstractMetricsRunnable {
 // CHECKSTYLE.ON: FinalClass
 
+    /**
+     * The values of the latest collection. Readable from any thread without
+     * locking; see {@link JvmSnapshot} for how long it remains unchanged.
+     *
+     * @return the latest {@link JvmSnapshot}
+     */
+    public JvmSnapshot getLatestSnapshot() {
+        return _recorder.getLatest();
+    }
+
     @Override
-    protected void collectMetrics(final Metrics metrics) {
-        for (final JvmMetricsCollector collector : _collectorsEnabled) {
-            collector.collect(metrics, _managementFactory);
+    protected synchronized void collectMetrics(final Metrics metrics) {
+        // Collectors fill a snapshot which is then emitted to the metrics
+        _recorder.begin(metrics);
+        try {
+            collectSnapshot(_recorder);
+        } finally {
+            final JvmSnapshot snapshot = _recorder.publish();
+            if (_snapshotPublisher != null) {
+                _snapshotPublisher.publish(snapshot);
+            }
+            if (_sharedMetricsFile != null) {
+                _sharedMetricsFile.update(snapshot);
+            }
+            if (_blackBoxRecorder != null) {
+                _blackBoxRecorder.record(snapshot);
+            }
+            snapshot.emit(metrics);
         }
     }
 
+    private void collectSnapshot(final Metrics metrics) {
+        final long start = System.nanoTime();
+        final OverheadGovernor.Mode mode = _governOverhead ? govern(metrics, start) : OverheadGovernor.Mode.NORMAL;
+        ++_runs;
+        if (_gaugeSampler != null) {
+            _gaugeSampler.emit(metrics);
+        }
+        if (_memoryPressureMonitor != null) {
+            _memoryPressureMonitor.update(metrics, _managementFactory, start);
+        }
+        // A failing collector must not prevent the others from collecting
+        RuntimeException failure = null;
+        for (int i = 0; i < _collectorsEnabled.size(); ++i) {
+            if (!_overheadGovernor.shouldCollect(mode, _priorities.get(i), _runs)) {
+                continue;
+            }
+            try {
+                _collectorsEnabled.get(i).collect(metrics, _managementFactory);
+                // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        _lastStartNanos = start;
+        _lastCostNanos = System.nanoTime() - start;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private OverheadGovernor.Mode govern(final Metrics metrics, final long start) {
+        final double cost = _lastCostNanos / (double) Math.max(1, start - _lastStartNanos);
+        final OverheadGovernor.Mode mode = _overheadGovernor.evaluate(_mode, getProcessCpuLoad(), cost);
+        metrics.setGauge(GOVERNOR_MODE, mode.ordinal());
+        metrics.incrementCounter(GOVERNOR_MODE_CHANGES, mode == _mode ? 0 : 1);
+        if (mode != _mode) {
+            LOGGER.info(String.format("Collection mode changed; from=%s, to=%s", _mode, mode));
+            _mode = mode;
+        }
+        return mode;
+    }
+
+    private double getProcessCpuLoad() {
+        final OperatingSystemMXBean bean = _managementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            // The load is negative if it is not available
+            return Math.max(0, ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuLoad());
+        }
+        return 0;
+    }
+
     private JvmMetricsRunnable(final Builder builder) {
         super(builder._metricsFactory, builder._swallowException, LOGGER);
         _managementFactory = builder._managementFactory;
+        _collectorTimeBudgetNanos = builder._collectorTimeBudget.toNanos();
+        _governOverhead = builder._governOverhead;
+        _overheadGovernor = builder._overheadGovernor;
+        _gaugeSampler = builder._gaugeSampler;
+        _snapshotPublisher = builder._snapshotPublisher;
+        _sharedMetricsFile = builder._sharedMetricsFile;
+        _blackBoxRecorder = builder._blackBoxRecorder;
+        _memoryPressureMonitor = builder._memoryPressureMonitor;
+        enableCollectors(builder);
+    }
+
+    private void enableCollectors(final Builder builder) {
+        // Collectors are created only if enabled, so the classes of disabled collectors are never loaded
         if (builder._collectGarbageCollectionMetrics) {
-            _collectorsEnabled.add(builder._garbageCollectionMetricsCollector);
+            // A collector set on the builder takes precedence over either default
+            enable(
+                    "garbage_collection",
+                    OverheadGovernor.Priority.ESSENTIAL,
+                    builder._garbageCollectionMetricsCollector,
+                    builder._collectGarbageCollectionMetricsFromHsperfdata
+                            ? GarbageCollectionMetricsCollector::newHsperfdataInstance
+                            : GarbageCollectionMetricsCollector::newInstance);
         }
         if (builder._collectHeapMemoryMetrics) {
-            _collectorsEnabled.add(builder._heapMemoryMetricsCollector);
+            enable(
+                    "heap_memory",
+                    OverheadGovernor.Priority.ESSENTIAL,
+                    builder._heapMemoryMetricsCollector,
+                    HeapMemoryMetricsCollector::newInstance);
         }
         if (builder._collectPoolMemoryMetrics) {
-            _collectorsEnabled.add(builder._poolMemoryMetricsCollector);
+            enable(
+                    "pool_memory",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._poolMemoryMetricsCollector,
+                    PoolMemoryMetricsCollector::newInstance);
         }
         if (builder._collectThreadMetrics) {
-            _collectorsEnabled.add(builder._threadMetricsCollector);
+            enable(
+                    "thread",
+                    OverheadGovernor.Priority.OPTIONAL,
+                    builder._threadMetricsCollector,
+                    ThreadMetricsCollector::newInstance);
         }
         if (builder._collectBufferPoolMetrics) {
-            _collectorsEnabled.add(builder._bufferPoolMetricsCollector);
+            enable(
+                    "buffer_pool",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._bufferPoolMetricsCollector,
+                    BufferPoolMetricsCollector::newInstance);
         }
         if (builder._collectFileDescriptorMetrics) {
-            _collectorsEnabled.add(builder._fileDescriptorMetricsCollector);
+            enable(
+                    "file_descriptor",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._fileDescriptorMetricsCollector,
+                    FileDescriptorMetricsCollector::newInstance);
         }
+        enableOptInCollectors(builder);
     }
 
-    private final ManagementFactory _managementFactory;
-    private final List<JvmMetricsCollector> _collectorsEnabled = new ArrayList<>();
+    private void enableOptInCollectors(final Builder builder) {
+        if (builder._collectClassLoadingMetrics) {
+            enable(
+                    "class_loading",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._classLoadingMetricsCollector,
+                    ClassLoadingMetricsCollector::newInstance);
+        }
+        if (builder._collectCpuMetrics) {
+            enable(
+                    "cpu",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._cpuMetricsCollector,
+                    CpuMetricsCollector::newInstance);
+        }
+        if (builder._collectVirtualThreadMetrics) {
+            enable(
+                    "virtual_thread",
+                    OverheadGovernor.Priority.OPTIONAL,
+                    builder._virtualThreadMetricsCollector,
+                    VirtualThreadMetricsCollector::newInstance);
+        }
+        if (builder._collectGarbageCollectionOverheadMetrics) {
+            enable(
+                    "garbage_collection_overhead",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._garbageCollectionOverheadMetricsCollector,
+                    GarbageCollectionOverheadMetricsCollector::newInstance);
+        }
+        if (builder._collectSafepointMetrics) {
+            enable(
+                    "safepoint",
+                    OverheadGovernor.Priority.NORMAL,
+                    builder._safepointMetricsCollector,
+                    SafepointMetricsCollector::newInstance);
+        }
+    }
+
+    private void enable(
+            final String name,
+            final OverheadGovernor.Priority priority,
+            @Nullable final JvmMetricsCollector collector,
+            final Supplier<JvmMetricsCollector> defaultCollector) {
+        _collectorsEnabled.add(new InstrumentedCollector(
+                name,
+                Optional.ofNullable(collector).orElseGet(defaultCollector),
+                _collectorTimeBudgetNanos));
+        _priorities.add(priority);
+    }
 
+    private final ManagementFactory _managementFactory;
+    private final long _collectorTimeBudgetNanos;
+    private final boolean _governOverhead;
+    private final OverheadGovernor _overheadGovernor;
+    private final GaugeSampler _gaugeSampler;
+    private final JvmSnapshotPublisher _snapshotPublisher;
+    private final SharedMetricsFile _sharedMetricsFile;
+    private final BlackBoxRecorder _blackBoxRecorder;
+    private final MemoryPressureMonitor _memoryPressureMonitor;
+    private final JvmSnapshotRecorder _recorder = new JvmSnapshotRecorder();
+    private final List<InstrumentedCollector> _collectorsEnabled = new ArrayList<>();
+    private final List<OverheadGovernor.Priority> _priorities = new ArrayList<>();
+    private OverheadGovernor.Mode _mode = OverheadGovernor.Mode.NORMAL;
+    private long _runs;
+    private long _lastStartNanos = System.nanoTime();
+    private long _lastCostNanos;
+
+    private static final String GOVERNOR_MODE = "jvm/governor/mode";
+    private static final String GOVERNOR_MODE_CHANGES = "jvm/governor/mode_changes";
     private static final Logger LOGGER = LoggerFactory.getLogger(JvmMetricsRunnable.class);
 
     /**
@@ -100,98 +301,128 @@ public class JvmMetricsRunnable extends AbstractMetricsRunnable {
                 throw new IllegalArgumentException("MetricsFactory cannot be null.");
             }
             if (_managementFactory == null) {
-                _managementFactory = DEFAULT_MANAGEMENT_FACTORY;
-                LOGGER.info(String.format(
+                _managementFactory = ManagementFactoryHolder.DEFAULT_MANAGEMENT_FACTORY;
+                LOGGER.debug(String.format(
                         "Defaulted null management factory; managementFactory=%s",
                         _managementFactory));
             }
             if (_swallowException == null) {
                 _swallowException = DEFAULT_SWALLOW_EXCEPTION;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null swallow exception; swallowException=%s",
                         _swallowException));
             }
+            if (_collectorTimeBudget == null) {
+                _collectorTimeBudget = DEFAULT_COLLECTOR_TIME_BUDGET;
+                LOGGER.debug(String.format(
+                        "Defaulted null collector time budget; collectorTimeBudget=%s",
+                        _collectorTimeBudget));
+            }
+            if (_collectorTimeBudget.isNegative() || _collectorTimeBudget.isZero()) {
+                throw new IllegalArgumentException("Collector time budget must be positive.");
+            }
             // TODO(ville): The collection/collector pattern should be formalized.
             defaultCollection();
-            defaultCollectors();
+            defaultProcess();
+            defaultHsperfdata();
+            defaultOverheadGovernor();
             return new JvmMetricsRunnable(this);
         }
 
         private void defaultCollection() {
+            if (_governOverhead == null) {
+                _governOverhead = DEFAULT_GOVERN_OVERHEAD;
+                LOGGER.debug(String.format(
+                        "Defaulted null govern overhead; governOverhead=%s",
+                        _governOverhead));
+            }
             if (_collectPoolMemoryMetrics == null) {
                 _collectPoolMemoryMetrics = DEFAULT_COLLECT_POOL_MEMORY_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect pool memory metrics; collectPoolMemoryMetrics=%s",
                         _collectPoolMemoryMetrics));
             }
             if (_collectHeapMemoryMetrics == null) {
                 _collectHeapMemoryMetrics = DEFAULT_COLLECT_HEAP_MEMORY_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect heap memory metrics; collectHeapMemoryMetrics=%s",
                         _collectHeapMemoryMetrics));
             }
             if (_collectThreadMetrics == null) {
                 _collectThreadMetrics = DEFAULT_COLLECT_THREAD_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect thread metrics; collectThreadMetrics=%s",
                         _collectThreadMetrics));
             }
             if (_collectGarbageCollectionMetrics == null) {
                 _collectGarbageCollectionMetrics = DEFAULT_COLLECT_GC_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect garbage collection metrics; collectGarbageCollectionMetrics=%s",
                         _collectGarbageCollectionMetrics));
             }
             if (_collectBufferPoolMetrics == null) {
                 _collectBufferPoolMetrics = DEFAULT_COLLECT_BUFFER_POOL_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect buffer pool metrics; collectBufferPoolMetrics=%s",
                         _collectBufferPoolMetrics));
             }
             if (_collectFileDescriptorMetrics == null) {
                 _collectFileDescriptorMetrics = DEFAULT_COLLECT_FILE_DESCRIPTOR_METRICS;
-                LOGGER.info(String.format(
+                LOGGER.debug(String.format(
                         "Defaulted null collect file descriptor metrics; collectFileDescriptorMetrics=%s",
                         _collectFileDescriptorMetrics));
             }
+            if (_collectVirtualThreadMetrics == null) {
+                _collectVirtualThreadMetrics = DEFAULT_COLLECT_VIRTUAL_THREAD_METRICS;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect virtual thread metrics; collectVirtualThreadMetrics=%s",
+                        _collectVirtualThreadMetrics));
+            }
+            if (_collectGarbageCollectionOverheadMetrics == null) {
+                _collectGarbageCollectionOverheadMetrics = DEFAULT_COLLECT_GC_OVERHEAD_METRICS;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect garbage collection overhead metrics; collectGarbageCollectionOverheadMetrics=%s",
+                        _collectGarbageCollectionOverheadMetrics));
+            }
         }
 
-        private void defaultCollectors() {
-            if (_poolMemoryMetricsCollector == null) {
-                _poolMemoryMetricsCollector = DEFAULT_POOL_MEMORY_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null pool memory metrics collector; poolMemoryMetricsCollector=%s",
-                        _poolMemoryMetricsCollector));
+        private void defaultProcess() {
+            if (_collectClassLoadingMetrics == null) {
+                _collectClassLoadingMetrics = DEFAULT_COLLECT_CLASS_LOADING_METRICS;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect class loading metrics; collectClassLoadingMetrics=%s",
+                        _collectClassLoadingMetrics));
             }
-            if (_heapMemoryMetricsCollector == null) {
-                _heapMemoryMetricsCollector = DEFAULT_HEAP_MEMORY_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null heap memory metrics collector; heapMemoryMetricsCollector=%s",
-                        _heapMemoryMetricsCollector));
+            if (_collectCpuMetrics == null) {
+                _collectCpuMetrics = DEFAULT_COLLECT_CPU_METRICS;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect cpu metrics; collectCpuMetrics=%s",
+                        _collectCpuMetrics));
             }
-            if (_threadMetricsCollector == null) {
-                _threadMetricsCollector = DEFAULT_THREAD_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null thread metrics collector; threadMetricsCollector=%s",
-                        _threadMetricsCollector));
-            }
-            if (_garbageCollectionMetricsCollector == null) {
-                _garbageCollectionMetricsCollector = DEFAULT_GC_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null garbage collector metrics collector; garbageCollectionMetricsCollector=%s",
-                        _garbageCollectionMetricsCollector));
+        }
+
+        private void defaultHsperfdata() {
+            if (_collectSafepointMetrics == null) {
+                _collectSafepointMetrics = DEFAULT_COLLECT_SAFEPOINT_METRICS;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect safepoint metrics; collectSafepointMetrics=%s",
+                        _collectSafepointMetrics));
             }
-            if (_bufferPoolMetricsCollector == null) {
-                _bufferPoolMetricsCollector = DEFAULT_BUFFER_POOL_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null buffer pool metrics collector; bufferPoolMetricsCollector=%s",
-                        _bufferPoolMetricsCollector));
+            if (_collectGarbageCollectionMetricsFromHsperfdata == null) {
+                _collectGarbageCollectionMetricsFromHsperfdata = DEFAULT_COLLECT_GC_METRICS_FROM_HSPERFDATA;
+                LOGGER.debug(String.format(
+                        "Defaulted null collect garbage collection metrics from hsperfdata; "
+                                + "collectGarbageCollectionMetricsFromHsperfdata=%s",
+                        _collectGarbageCollectionMetricsFromHsperfdata));
             }
-            if (_fileDescriptorMetricsCollector == null) {
-                _fileDescriptorMetricsCollector = DEFAULT_FILE_DESCRIPTOR_METRICS_COLLECTOR;
-                LOGGER.info(String.format(
-                        "Defaulted null file descriptor metrics collector; fileDescriptorMetricsCollector=%s",
-                        _fileDescriptorMetricsCollector));
+        }
+
+        private void defaultOverheadGovernor() {
+            if (_overheadGovernor == null) {
+                _overheadGovernor = OverheadGovernorHolder.DEFAULT_OVERHEAD_GOVERNOR;
+                LOGGER.debug(String.format(
+                        "Defaulted null overhead governor; overheadGovernor=%s",
+                        _overheadGovernor));
             }
         }
 
@@ -221,6 +452,109 @@ public class JvmMetricsRunnable extends AbstractMetricsRunnable {
             return this;
         }
 
+        /**
+         * Set the time each collector may take to collect. Optional.
+         * Defaults to one second. Cannot be null. Must be positive. A
+         * collector that repeatedly fails or exceeds its budget is skipped
+         * for a minute before it is tried again.
+         *
+         * @param value The time budget of each collector.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectorTimeBudget(final Duration value) {
+            _collectorTimeBudget = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if collectors should be shed while the
+         * process is under load. Optional. Defaults to false. Cannot be null.
+         * Garbage collection and heap memory metrics are always collected,
+         * thread and virtual thread metrics are shed first and the other
+         * metrics are shed next.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setGovernOverhead(final Boolean value) {
+            _governOverhead = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link OverheadGovernor} which decides when collectors are
+         * shed if overhead is governed. Optional. Defaults to an
+         * {@link OverheadGovernor} with default settings. Cannot be null.
+         *
+         * @param value An {@link OverheadGovernor} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setOverheadGovernor(final OverheadGovernor value) {
+            _overheadGovernor = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link GaugeSampler} whose summaries are recorded each
+         * run. The sampler must be started separately. Optional. Defaults
+         * to no sampler.
+         *
+         * @param value A {@link GaugeSampler} instance or null.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setGaugeSampler(final GaugeSampler value) {
+            _gaugeSampler = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link JvmSnapshotPublisher} to which the snapshot of each
+         * run is published. Optional. Defaults to no publisher.
+         *
+         * @param value A {@link JvmSnapshotPublisher} instance or null.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSnapshotPublisher(final JvmSnapshotPublisher value) {
+            _snapshotPublisher = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link SharedMetricsFile} to which the snapshot of each run
+         * is written. Optional. Defaults to no file.
+         *
+         * @param value A {@link SharedMetricsFile} instance or null.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSharedMetricsFile(final SharedMetricsFile value) {
+            _sharedMetricsFile = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link BlackBoxRecorder} in which the snapshot of each run
+         * is recorded. Optional. Defaults to no recorder.
+         *
+         * @param value A {@link BlackBoxRecorder} instance or null.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setBlackBoxRecorder(final BlackBoxRecorder value) {
+            _blackBoxRecorder = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link MemoryPressureMonitor} which is updated each run.
+         * Optional. Defaults to no monitor.
+         *
+         * @param value A {@link MemoryPressureMonitor} instance or null.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMemoryPressureMonitor(final MemoryPressureMonitor value) {
+            _memoryPressureMonitor = value;
+            return this;
+        }
+
         /**
          * Set the flag indicating if Heap Memory metrics should be collected.
          * A true value indicates that these metrics need to be collected.
@@ -300,15 +634,97 @@ public class JvmMetricsRunnable extends AbstractMetricsRunnable {
         }
 
         /**
-         * Set the {@link ManagementFactory} instance. Optional. Defaults
-         * to an instance of {@link ManagementFactoryDefault}. Cannot be
-         * null. This is for testing purposes only and should never be used by
-         * clients.
+         * Set the flag indicating if Class Loading metrics should be
+         * collected. A true value indicates that these metrics need to be
+         * collected. Optional. Defaults to false. Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectClassLoadingMetrics(final Boolean value) {
+            _collectClassLoadingMetrics = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if CPU metrics should be collected. A true
+         * value indicates that these metrics need to be collected. Optional.
+         * Defaults to false. Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectCpuMetrics(final Boolean value) {
+            _collectCpuMetrics = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if Virtual Thread metrics should be
+         * collected. A true value indicates that these metrics need to be
+         * collected. Optional. Defaults to false. Cannot be null. Enabling
+         * this starts a JFR event stream for virtual thread pinned events.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectVirtualThreadMetrics(final Boolean value) {
+            _collectVirtualThreadMetrics = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if Garbage Collection overhead metrics
+         * should be collected. A true value indicates that these metrics
+         * need to be collected. Optional. Defaults to false. Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectGarbageCollectionOverheadMetrics(final Boolean value) {
+            _collectGarbageCollectionOverheadMetrics = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if safepoint metrics should be collected.
+         * These are read from {@link Hsperfdata} and are not collected if it
+         * is not published. A true value indicates that these metrics need to
+         * be collected. Optional. Defaults to false. Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectSafepointMetrics(final Boolean value) {
+            _collectSafepointMetrics = value;
+            return this;
+        }
+
+        /**
+         * Set the flag indicating if Garbage Collection metrics should be
+         * read from {@link Hsperfdata} when it is published instead of from
+         * the Java Management API. The collectors are then named after their
+         * implementation, which changes the metric names. Optional. Defaults
+         * to false. Cannot be null.
+         *
+         * @param value A {@link Boolean} value.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectGarbageCollectionMetricsFromHsperfdata(final Boolean value) {
+            _collectGarbageCollectionMetricsFromHsperfdata = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link ManagementFactory} instance, for example a
+         * {@link RemoteManagementFactory} or a
+         * {@link SimulatedManagementFactory}. Optional. Defaults to the
+         * platform management factory. Cannot be null.
          *
          * @param value The value for the {@link ManagementFactory} instance.
          * @return This {@link Builder} instance.
          */
-        /* package private */ Builder setManagementFactory(final ManagementFactory value) {
+        public Builder setManagementFactory(final ManagementFactory value) {
             _managementFactory = value;
             return this;
         }
@@ -357,8 +773,9 @@ public class JvmMetricsRunnable extends AbstractMetricsRunnable {
 
         /**
          * Set the {@link GarbageCollectionMetricsCollector}. Defaults to
-         * an instance of {@link GarbageCollectionMetricsCollector}.
-         * Cannot be null. This is for testing purposes only and should never
+         * an instance of {@link GarbageCollectionMetricsCollector} which
+         * reads {@link Hsperfdata} if that is enabled; a collector set here
+         * is used either way. Cannot be null. This is for testing purposes only and should never
          * be used by clients.
          *
          * @param value A {@link GarbageCollectionMetricsCollector} instance.
@@ -397,96 +814,134 @@ public class JvmMetricsRunnable extends AbstractMetricsRunnable {
             return this;
         }
 
+        /**
+         * Set the {@link ClassLoadingMetricsCollector}. Defaults to an
+         * instance of {@link ClassLoadingMetricsCollector}. Cannot be null.
+         * This is for testing purposes only and should never be used by
+         * clients.
+         *
+         * @param value A {@link ClassLoadingMetricsCollector} instance.
+         * @return This {@link Builder} instance.
+         */
+        /* package private */ Builder setClassLoadingMetricsCollector(final JvmMetricsCollector value) {
+            _classLoadingMetricsCollector = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link CpuMetricsCollector}. Defaults to an instance of
+         * {@link CpuMetricsCollector}. Cannot be null. This is for testing
+         * purposes only and should never be used by clients.
+         *
+         * @param value A {@link CpuMetricsCollector} instance.
+         * @return This {@link Builder} instance.
+         */
+        /* package private */ Builder setCpuMetricsCollector(final JvmMetricsCollector value) {
+            _cpuMetricsCollector = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link VirtualThreadMetricsCollector}. Defaults to
+         * an instance of {@link VirtualThreadMetricsCollector}. Cannot
+         * be null. This is for testing purposes only and should never be used
+         * by clients.
+         *
+         * @param value A {@link VirtualThreadMetricsCollector} instance.
+         * @return This {@link Builder} instance.
+         */
+        /* package private */ Builder setVirtualThreadMetricsCollector(final JvmMetricsCollector value) {
+            _virtualThreadMetricsCollector = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link GarbageCollectionOverheadMetricsCollector}. Defaults
+         * to an instance of {@link GarbageCollectionOverheadMetricsCollector}.
+         * Cannot be null. This is for testing purposes only and should never
+         * be used by clients.
+         *
+         * @param value A {@link GarbageCollectionOverheadMetricsCollector} instance.
+         * @return This {@link Builder} instance.
+         */
+        /* package private */ Builder setGarbageCollectionOverheadMetricsCollector(final JvmMetricsCollector value) {
+            _garbageCollectionOverheadMetricsCollector = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link SafepointMetricsCollector}. Defaults to an instance
+         * of {@link SafepointMetricsCollector}. Cannot be null. This is for
+         * testing purposes only and should never be used by clients.
+         *
+         * @param value A {@link SafepointMetricsCollector} instance.
+         * @return This {@link Builder} instance.
+         */
+        /* package private */ Builder setSafepointMetricsCollector(final JvmMetricsCollector value) {
+            _safepointMetricsCollector = value;
+            return this;
+        }
+
         private MetricsFactory _metricsFactory;
-        private ManagementFactory _managementFactory = DEFAULT_MANAGEMENT_FACTORY;
+        // Resolved by build so that the defaults are only created when used
+        private ManagementFactory _managementFactory;
         private Boolean _swallowException = DEFAULT_SWALLOW_EXCEPTION;
+        private Duration _collectorTimeBudget = DEFAULT_COLLECTOR_TIME_BUDGET;
+        private Boolean _governOverhead = DEFAULT_GOVERN_OVERHEAD;
+        private OverheadGovernor _overheadGovernor;
+        private GaugeSampler _gaugeSampler;
+        private JvmSnapshotPublisher _snapshotPublisher;
+        private SharedMetricsFile _sharedMetricsFile;
+        private BlackBoxRecorder _blackBoxRecorder;
+        private MemoryPressureMonitor _memoryPressureMonitor;
         private Boolean _collectPoolMemoryMetrics = DEFAULT_COLLECT_POOL_MEMORY_METRICS;
         private Boolean _collectHeapMemoryMetrics = DEFAULT_COLLECT_HEAP_MEMORY_METRICS;
         private Boolean _collectThreadMetrics = DEFAULT_COLLECT_THREAD_METRICS;
         private Boolean _collectGarbageCollectionMetrics = DEFAULT_COLLECT_GC_METRICS;
         private Boolean _collectBufferPoolMetrics = DEFAULT_COLLECT_BUFFER_POOL_METRICS;
         private Boolean _collectFileDescriptorMetrics = DEFAULT_COLLECT_FILE_DESCRIPTOR_METRICS;
-        private JvmMetricsCollector _poolMemoryMetricsCollector = DEFAULT_POOL_MEMORY_METRICS_COLLECTOR;
-        private JvmMetricsCollector _heapMemoryMetricsCollector = DEFAULT_HEAP_MEMORY_METRICS_COLLECTOR;
-        private JvmMetricsCollector _threadMetricsCollector = DEFAULT_THREAD_METRICS_COLLECTOR;
-        private JvmMetricsCollector _garbageCollectionMetricsCollector = DEFAULT_GC_METRICS_COLLECTOR;
-        private JvmMetricsCollector _bufferPoolMetricsCollector = DEFAULT_BUFFER_POOL_METRICS_COLLECTOR;
-        private JvmMetricsCollector _fileDescriptorMetricsCollector = DEFAULT_FILE_DESCRIPTOR_METRICS_COLLECTOR;
-
-        private static final ManagementFactory DEFAULT_MANAGEMENT_FACTORY = ManagementFactoryDefault.newInstance();
+        private Boolean _collectClassLoadingMetrics = DEFAULT_COLLECT_CLASS_LOADING_METRICS;
+        private Boolean _collectCpuMetrics = DEFAULT_COLLECT_CPU_METRICS;
+        private Boolean _collectVirtualThreadMetrics = DEFAULT_COLLECT_VIRTUAL_THREAD_METRICS;
+        private Boolean _collectGarbageCollectionOverheadMetrics = DEFAULT_COLLECT_GC_OVERHEAD_METRICS;
+        private Boolean _collectSafepointMetrics = DEFAULT_COLLECT_SAFEPOINT_METRICS;
+        private Boolean _collectGarbageCollectionMetricsFromHsperfdata = DEFAULT_COLLECT_GC_METRICS_FROM_HSPERFDATA;
+        private JvmMetricsCollector _poolMemoryMetricsCollector;
+        private JvmMetricsCollector _heapMemoryMetricsCollector;
+        private JvmMetricsCollector _threadMetricsCollector;
+        private JvmMetricsCollector _garbageCollectionMetricsCollector;
+        private JvmMetricsCollector _bufferPoolMetricsCollector;
+        private JvmMetricsCollector _fileDescriptorMetricsCollector;
+        private JvmMetricsCollector _classLoadingMetricsCollector;
+        private JvmMetricsCollector _cpuMetricsCollector;
+        private JvmMetricsCollector _virtualThreadMetricsCollector;
+        private JvmMetricsCollector _garbageCollectionOverheadMetricsCollector;
+        private JvmMetricsCollector _safepointMetricsCollector;
+
         private static final Boolean DEFAULT_SWALLOW_EXCEPTION = true;
+        private static final Duration DEFAULT_COLLECTOR_TIME_BUDGET = Duration.ofSeconds(1);
+        private static final Boolean DEFAULT_GOVERN_OVERHEAD = false;
         private static final Boolean DEFAULT_COLLECT_POOL_MEMORY_METRICS = true;
         private static final Boolean DEFAULT_COLLECT_HEAP_MEMORY_METRICS = true;
         private static final Boolean DEFAULT_COLLECT_THREAD_METRICS = true;
         private static final Boolean DEFAULT_COLLECT_GC_METRICS = true;
         private static final Boolean DEFAULT_COLLECT_BUFFER_POOL_METRICS = true;
         private static final Boolean DEFAULT_COLLECT_FILE_DESCRIPTOR_METRICS = true;
-        private static final JvmMetricsCollector DEFAULT_POOL_MEMORY_METRICS_COLLECTOR =
-                PoolMemoryMetricsCollector.newInstance();
-        private static final JvmMetricsCollector DEFAULT_HEAP_MEMORY_METRICS_COLLECTOR =
-                HeapMemoryMetricsCollector.newInstance();
-        private static final JvmMetricsCollector DEFAULT_THREAD_METRICS_COLLECTOR =
-                ThreadMetricsCollector.newInstance();
-        private static final JvmMetricsCollector DEFAULT_GC_METRICS_COLLECTOR =
-                GarbageCollectionMetricsCollector.newInstance();
-        private static final JvmMetricsCollector DEFAULT_BUFFER_POOL_METRICS_COLLECTOR =
-                BufferPoolMetricsCollector.newInstance();
-        private static final JvmMetricsCollector DEFAULT_FILE_DESCRIPTOR_METRICS_COLLECTOR =
-                FileDescriptorMetricsCollector.newInstance();
-
-    }
-
-    /**
-     * An implementation class of {@link ManagementFactory} that is to be
-     * used for getting the actual values for jvm metrics from the java
-     * management API. This class exists to facilitate testing only and the
-     * clients should never have to explicitly instantiate this.
-     *
-     * @author Deepika Misra (deepika at groupon dot com)
-     */
-    /* package private */ static final class ManagementFactoryDefault implements ManagementFactory {
-
-        /**
-         * Creates a new instance of {@link ManagementFactoryDefault}.
-         *
-         * @return An instance of {@link ManagementFactoryDefault}
-         */
-        /* package private */
-        static ManagementFactory newInstance() {
-            return new ManagementFactoryDefault();
-        }
-
-        @Override
-        public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
-            return java.lang.management.ManagementFactory.getGarbageCollectorMXBeans();
-        }
-
-        @Override
-        public MemoryMXBean getMemoryMXBean() {
-            return java.lang.management.ManagementFactory.getMemoryMXBean();
-        }
-
-        @Override
-        public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
-            return java.lang.management.ManagementFactory.getMemoryPoolMXBeans();
-        }
-
-        @Override
-        public ThreadMXBean getThreadMXBean() {
-            return java.lang.management.ManagementFactory.getThreadMXBean();
-        }
-
-        @Override
-        public List<BufferPoolMXBean> getBufferPoolMXBeans() {
-            return java.lang.management.ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
-        }
+        private static final Boolean DEFAULT_COLLECT_CLASS_LOADING_METRICS = false;
+        private static final Boolean DEFAULT_COLLECT_CPU_METRICS = false;
+        private static final Boolean DEFAULT_COLLECT_VIRTUAL_THREAD_METRICS = false;
+        private static final Boolean DEFAULT_COLLECT_GC_OVERHEAD_METRICS = false;
+        private static final Boolean DEFAULT_COLLECT_SAFEPOINT_METRICS = false;
+        private static final Boolean DEFAULT_COLLECT_GC_METRICS_FROM_HSPERFDATA = false;
 
-        @Override
-        public OperatingSystemMXBean getOperatingSystemMXBean() {
-            return java.lang.management.ManagementFactory.getOperatingSystemMXBean();
+        private static final class ManagementFactoryHolder {
+            // Created once on first use
+            private static final ManagementFactory DEFAULT_MANAGEMENT_FACTORY = ManagementFactoryDefault.newInstance();
         }
 
-        private ManagementFactoryDefault() {
+        private static final class OverheadGovernorHolder {
+            // Created once on first use
+            private static final OverheadGovernor DEFAULT_OVERHEAD_GOVERNOR = new OverheadGovernor.Builder().build();
         }
     }
 }
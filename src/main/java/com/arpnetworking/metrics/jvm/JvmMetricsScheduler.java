@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Schedules each registered {@link JvmMetricsCollector} at its own interval
+ * on a single daemon thread. Each collection creates its own {@link Metrics}
+ * instance.
+ *
+ * The first collection of each collector is delayed by a random phase offset
+ * within its interval so that many hosts started together do not all publish
+ * at the same time; subsequent collections keep that phase. A collection is
+ * never overlapped; if it runs past the start of one or more subsequent
+ * intervals those collections are skipped and counted as overruns in
+ * {@code jvm/collector/<name>/overruns} of the next collection. Each
+ * collector is instrumented as by {@link JvmMetricsRunnable} with its
+ * interval as its time budget.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmMetricsScheduler implements AutoCloseable {
+
+    /**
+     * Start collecting. Has no effect if already started or closed.
+     */
+    public synchronized void start() {
+        if (_started) {
+            return;
+        }
+        _started = true;
+        for (final ScheduledCollector collector : _collectors) {
+            final long phase = _phase.applyAsLong(collector._intervalNanos);
+            collector._nextNanos = System.nanoTime() + phase;
+            schedule(collector, phase);
+        }
+    }
+
+    /**
+     * Stop collecting and release the scheduler thread.
+     */
+    @Override
+    public void close() {
+        _executor.shutdownNow();
+    }
+
+    private void schedule(final ScheduledCollector collector, final long delayNanos) {
+        try {
+            _executor.schedule(() -> runAndReschedule(collector), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Scheduler closed; collector not rescheduled", e);
+        }
+    }
+
+    private void runAndReschedule(final ScheduledCollector collector) {
+        collector.run();
+        final long now = System.nanoTime();
+        long next = collector._nextNanos + collector._intervalNanos;
+        while (next - now <= 0) {
+            next += collector._intervalNanos;
+            ++collector._overruns;
+        }
+        collector._nextNanos = next;
+        schedule(collector, next - now);
+    }
+
+    private JvmMetricsScheduler(final Builder builder) {
+        for (final Registration registration : builder._registrations) {
+            _collectors.add(new ScheduledCollector(
+                    builder._metricsFactory,
+                    builder._managementFactory,
+                    registration));
+        }
+        _phase = builder._jitter ? builder._phase : interval -> 0;
+        _executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jvm-metrics-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final List<ScheduledCollector> _collectors = new ArrayList<>();
+    private final LongUnaryOperator _phase;
+    private final ScheduledExecutorService _executor;
+    private boolean _started;
+
+    private static final String ROOT_NAMESPACE = "jvm/collector";
+    private static final Logger LOGGER = LoggerFactory.getLogger(JvmMetricsScheduler.class);
+
+    private static final class ScheduledCollector extends AbstractMetricsRunnable {
+
+        @Override
+        protected void collectMetrics(final Metrics metrics) {
+            final long overruns = _overruns;
+            _overruns = 0;
+            metrics.incrementCounter(_overrunsName, overruns);
+            _collector.collect(metrics, _managementFactory);
+        }
+
+        private ScheduledCollector(
+                final MetricsFactory metricsFactory,
+                final ManagementFactory managementFactory,
+                final Registration registration) {
+            super(metricsFactory, true, LOGGER);
+            _managementFactory = managementFactory;
+            _intervalNanos = registration._interval.toNanos();
+            _collector = new InstrumentedCollector(registration._name, registration._collector, _intervalNanos);
+            _overrunsName = String.join("/", ROOT_NAMESPACE, registration._name, "overruns");
+        }
+
+        private final ManagementFactory _managementFactory;
+        private final InstrumentedCollector _collector;
+        private final long _intervalNanos;
+        private final String _overrunsName;
+        // Only accessed from the scheduler thread after start
+        private long _nextNanos;
+        private long _overruns;
+    }
+
+    private static final class Registration {
+
+        private Registration(final String name, final JvmMetricsCollector collector, final Duration interval) {
+            _name = name;
+            _collector = collector;
+            _interval = interval;
+        }
+
+        private final String _name;
+        private final JvmMetricsCollector _collector;
+        private final Duration _interval;
+    }
+
+    /**
+     * Builder for {@link JvmMetricsScheduler}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link JvmMetricsScheduler}. The scheduler
+         * does not collect until it is started.
+         *
+         * @return An instance of {@link JvmMetricsScheduler}.
+         */
+        public JvmMetricsScheduler build() {
+            if (_metricsFactory == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            if (_managementFactory == null) {
+                _managementFactory = ManagementFactoryHolder.DEFAULT_MANAGEMENT_FACTORY;
+                LOGGER.debug(String.format(
+                        "Defaulted null management factory; managementFactory=%s",
+                        _managementFactory));
+            }
+            if (_jitter == null) {
+                _jitter = DEFAULT_JITTER;
+                LOGGER.debug(String.format("Defaulted null jitter; jitter=%s", _jitter));
+            }
+            return new JvmMetricsScheduler(this);
+        }
+
+        /**
+         * Set the {@link MetricsFactory} instance. Required. Cannot be
+         * null.
+         *
+         * @param value The value for the {@link MetricsFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMetricsFactory(final MetricsFactory value) {
+            _metricsFactory = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link ManagementFactory} instance. Optional. Defaults to
+         * the platform management factory. Cannot be null.
+         *
+         * @param value The value for the {@link ManagementFactory} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setManagementFactory(final ManagementFactory value) {
+            _managementFactory = value;
+            return this;
+        }
+
+        /**
+         * Set whether the first collection of each collector is delayed by a
+         * random phase offset within its interval. Optional. Defaults to
+         * true. Cannot be null.
+         *
+         * @param value Whether to randomize the phase of each collector.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setJitter(final Boolean value) {
+            _jitter = value;
+            return this;
+        }
+
+        /**
+         * Add a {@link JvmMetricsCollector} to collect at an interval.
+         *
+         * @param name The name of the collector used in its metrics.
+         * @param collector The {@link JvmMetricsCollector} instance.
+         * @param interval The interval between collections; must be positive.
+         * @return This {@link Builder} instance.
+         */
+        public Builder addCollector(final String name, final JvmMetricsCollector collector, final Duration interval) {
+            if (name == null || collector == null || interval == null) {
+                throw new IllegalArgumentException("Name, collector and interval cannot be null.");
+            }
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Interval must be positive; interval=" + interval);
+            }
+            _registrations.add(new Registration(name, collector, interval));
+            return this;
+        }
+
+        /* package private */ Builder setPhase(final LongUnaryOperator value) {
+            _phase = value;
+            return this;
+        }
+
+        private MetricsFactory _metricsFactory;
+        private ManagementFactory _managementFactory;
+        private Boolean _jitter = DEFAULT_JITTER;
+        private LongUnaryOperator _phase = interval -> ThreadLocalRandom.current().nextLong(interval);
+        private final List<Registration> _registrations = new ArrayList<>();
+
+        private static final Boolean DEFAULT_JITTER = true;
+
+        private static final class ManagementFactoryHolder {
+            // Created once on first use
+            private static final ManagementFactory DEFAULT_MANAGEMENT_FACTORY = ManagementFactoryDefault.newInstance();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The values of one collection stored in flat primitive arrays. Each metric
+ * has a stable index assigned by the {@link JvmSnapshotRecorder} the first
+ * time it is recorded; indices of metrics not recorded in this collection
+ * are not present.
+ *
+ * A published snapshot is not modified by its recorder until the collection
+ * after the next one begins, at which point its buffers are reused; that is,
+ * it remains unchanged while the next snapshot is filled but not after that
+ * snapshot has been published. Readers which retain a snapshot longer must
+ * {@link #copy()} it. Readers which cannot bound how long they hold it read
+ * {@link #getVersion()} first and discard what they read, or copied, unless
+ * {@link #validate(long)} accepts that version afterwards:
+ *
+ * <pre>{@code
+ * final long version = snapshot.getVersion();
+ * final JvmSnapshot copy = snapshot.copy();
+ * if (snapshot.validate(version)) {
+ *     // The copy is consistent
+ * }
+ * }</pre>
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmSnapshot {
+
+    /**
+     * The version of the values. It changes whenever the recorder reuses the
+     * buffers of the snapshot; copies never change.
+     *
+     * @return the version of the values
+     */
+    public long getVersion() {
+        return _version.get();
+    }
+
+    /**
+     * Whether the values read since {@link #getVersion()} returned a version
+     * are consistent; that is, whether the recorder neither was filling the
+     * snapshot nor has reused it since.
+     *
+     * @param version the version returned before reading the values
+     * @return true if and only if the values read are consistent
+     */
+    public boolean validate(final long version) {
+        return _version.validate(version);
+    }
+
+    /**
+     * The number of metric indices; some may not be present.
+     *
+     * @return the number of metric indices
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * The epoch milliseconds at which the snapshot was published.
+     *
+     * @return the timestamp of the snapshot
+     */
+    public long getTimestamp() {
+        return _timestamp;
+    }
+
+    /**
+     * Find the index of a metric. Indices are stable so look them up once.
+     *
+     * @param name the name of the metric
+     * @return the index of the metric or -1 if it is not known
+     */
+    public int indexOf(final String name) {
+        final String[] names = _names;
+        final int size = Math.min(_size, names.length);
+        for (int i = 0; i < size; ++i) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The name of a metric.
+     *
+     * @param index the index of the metric
+     * @return the name of the metric
+     */
+    public String getName(final int index) {
+        return _names[index];
+    }
+
+    /**
+     * Whether a metric was recorded in this collection.
+     *
+     * @param index the index of the metric
+     * @return true if and only if the metric was recorded
+     */
+    public boolean isPresent(final int index) {
+        return _kinds[index] != null;
+    }
+
+    /**
+     * The kind of a metric.
+     *
+     * @param index the index of the metric
+     * @return the kind of the metric or null if it is not present
+     */
+    public Kind getKind(final int index) {
+        return _kinds[index];
+    }
+
+    /**
+     * The value of a metric as a long; a double gauge is truncated.
+     *
+     * @param index the index of the metric
+     * @return the value of the metric; timers are in {@link #getUnit(int)}
+     */
+    public long getLong(final int index) {
+        return _kinds[index] == Kind.DOUBLE_GAUGE ? (long) _doubles[index] : _longs[index];
+    }
+
+    /**
+     * The value of a metric as a double.
+     *
+     * @param index the index of the metric
+     * @return the value of the metric; timers are in {@link #getUnit(int)}
+     */
+    public double getDouble(final int index) {
+        return _kinds[index] == Kind.DOUBLE_GAUGE ? _doubles[index] : _longs[index];
+    }
+
+    /**
+     * The unit of a timer.
+     *
+     * @param index the index of the metric
+     * @return the unit of the timer or null if the metric is not a timer
+     */
+    public TimeUnit getUnit(final int index) {
+        return _units[index];
+    }
+
+    /**
+     * Record the metrics present in this snapshot.
+     *
+     * @param metrics this unit of work's {@link Metrics} instance
+     */
+    public void emit(final Metrics metrics) {
+        final String[] names = _names;
+        final Kind[] kinds = _kinds;
+        final long[] longs = _longs;
+        final double[] doubles = _doubles;
+        final TimeUnit[] units = _units;
+        final int size = clamp(_size, names, kinds, longs, doubles, units);
+        for (int i = 0; i < size; ++i) {
+            final Kind kind = kinds[i];
+            if (kind == Kind.LONG_GAUGE) {
+                metrics.setGauge(names[i], longs[i]);
+            } else if (kind == Kind.DOUBLE_GAUGE) {
+                metrics.setGauge(names[i], doubles[i]);
+            } else if (kind == Kind.COUNTER) {
+                metrics.incrementCounter(names[i], longs[i]);
+            } else if (kind == Kind.TIMER) {
+                metrics.setTimer(names[i], longs[i], units[i]);
+            }
+        }
+    }
+
+    /**
+     * Create a copy of this snapshot which is never reused.
+     *
+     * @return a copy of this snapshot
+     */
+    public JvmSnapshot copy() {
+        // Read each field once; the recorder may be replacing them
+        final String[] names = _names;
+        final Kind[] kinds = _kinds;
+        final long[] longs = _longs;
+        final double[] doubles = _doubles;
+        final TimeUnit[] units = _units;
+        final int size = clamp(_size, names, kinds, longs, doubles, units);
+        final JvmSnapshot copy = new JvmSnapshot();
+        copy.reset(names, size);
+        System.arraycopy(kinds, 0, copy._kinds, 0, size);
+        System.arraycopy(longs, 0, copy._longs, 0, size);
+        System.arraycopy(doubles, 0, copy._doubles, 0, size);
+        System.arraycopy(units, 0, copy._units, 0, size);
+        copy._timestamp = _timestamp;
+        return copy;
+    }
+
+    /* package private */ void beginUpdate() {
+        _version.begin();
+    }
+
+    /* package private */ void endUpdate() {
+        _version.end();
+    }
+
+    /* package private */ void reset(final String[] names, final int size) {
+        Arrays.fill(_kinds, null);
+        Arrays.fill(_units, null);
+        extend(names, size);
+    }
+
+    /* package private */ void extend(final String[] names, final int size) {
+        // Grow the buffers before publishing the size
+        if (_kinds.length < size) {
+            final int capacity = Math.max(size, _kinds.length * 2);
+            _kinds = Arrays.copyOf(_kinds, capacity);
+            _longs = Arrays.copyOf(_longs, capacity);
+            _doubles = Arrays.copyOf(_doubles, capacity);
+            _units = Arrays.copyOf(_units, capacity);
+        }
+        _names = names;
+        _size = size;
+    }
+
+    /* package private */ void setLong(final int index, final Kind kind, final long value, final TimeUnit unit) {
+        _kinds[index] = kind;
+        _longs[index] = value;
+        _units[index] = unit;
+    }
+
+    /* package private */ void setDouble(final int index, final double value) {
+        _kinds[index] = Kind.DOUBLE_GAUGE;
+        _doubles[index] = value;
+        _units[index] = null;
+    }
+
+    /* package private */ void addCounter(final int index, final long value) {
+        if (_kinds[index] == Kind.COUNTER) {
+            _longs[index] += value;
+        } else {
+            setLong(index, Kind.COUNTER, value, null);
+        }
+    }
+
+    /* package private */ void setTimestamp(final long timestamp) {
+        _timestamp = timestamp;
+    }
+
+    private static int clamp(
+            final int size,
+            final String[] names,
+            final Kind[] kinds,
+            final long[] longs,
+            final double[] doubles,
+            final TimeUnit[] units) {
+        // A racing reader may see a size and buffers from different updates;
+        // what it reads is then discarded by validate
+        return Math.min(
+                Math.min(size, names.length),
+                Math.min(Math.min(kinds.length, longs.length), Math.min(doubles.length, units.length)));
+    }
+
+    private String[] _names = new String[0];
+    private int _size;
+    private final Version _version = new Version();
+    private long _timestamp;
+    private Kind[] _kinds = new Kind[0];
+    private long[] _longs = new long[0];
+    private double[] _doubles = new double[0];
+    private TimeUnit[] _units = new TimeUnit[0];
+
+    /**
+     * The sequence lock guarding the values; odd while they are updated.
+     */
+    private static final class Version {
+
+        private long get() {
+            return _value.getAcquire();
+        }
+
+        private boolean validate(final long version) {
+            VarHandle.loadLoadFence();
+            return ((version ^ _value.getOpaque()) | (version & 1)) == 0;
+        }
+
+        private void begin() {
+            _value.setOpaque(_value.getPlain() + 1);
+            VarHandle.storeStoreFence();
+        }
+
+        private void end() {
+            _value.setRelease(_value.getPlain() + 1);
+        }
+
+        private final AtomicLong _value = new AtomicLong();
+    }
+
+    /**
+     * The kinds of metric.
+     */
+    public enum Kind {
+        /**
+         * A gauge with an integral value.
+         */
+        LONG_GAUGE,
+        /**
+         * A gauge with a floating point value.
+         */
+        DOUBLE_GAUGE,
+        /**
+         * The sum of the counter changes in the collection.
+         */
+        COUNTER,
+        /**
+         * A timer with a duration in a unit.
+         */
+        TIMER
+    }
+}
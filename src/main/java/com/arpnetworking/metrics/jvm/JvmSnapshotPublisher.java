@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes each {@link JvmSnapshot} collected by a {@link JvmMetricsRunnable}
+ * to in-process subscribers such as load shedders and health checks. Set it
+ * on the runnable with {@code setSnapshotPublisher}.
+ *
+ * Each subscriber holds at most one undelivered snapshot: a snapshot which
+ * has not been requested when the next one is published is replaced by it,
+ * so a slow subscriber receives the latest snapshot rather than a backlog.
+ * A new subscriber is first offered the latest snapshot published, if any,
+ * once its {@code onSubscribe} has returned.
+ * Snapshots are delivered on the configured {@link Executor} and are not
+ * copied. A snapshot whose buffers the recorder has reused by the time it
+ * would be delivered is dropped, since a newer snapshot has then been
+ * published in its place. The recorder may still reuse the buffers while
+ * {@code onNext} runs, so a subscriber which reads a snapshot after the next
+ * collection, or which retains it, must either {@link JvmSnapshot#copy()} it
+ * and discard the copy unless {@link JvmSnapshot#validate(long)} accepts the
+ * version read first, or read it promptly.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmSnapshotPublisher implements Flow.Publisher<JvmSnapshot>, AutoCloseable {
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super JvmSnapshot> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null.");
+        }
+        final LatestSubscription subscription = new LatestSubscription(subscriber);
+        subscription._latest.set(_published);
+        _subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        // Signals are held until onSubscribe returns, even if it requests
+        subscription._subscribed = true;
+        if (_closed) {
+            subscription.complete();
+        } else {
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * Complete all subscriptions. Subsequent subscribers are completed
+     * immediately.
+     */
+    @Override
+    public void close() {
+        _closed = true;
+        for (final LatestSubscription subscription : _subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /* package private */ void publish(final JvmSnapshot snapshot) {
+        final Published published = new Published(snapshot, snapshot.getVersion());
+        _published = published;
+        for (final LatestSubscription subscription : _subscriptions) {
+            subscription._latest.set(published);
+            subscription.schedule();
+        }
+    }
+
+    private JvmSnapshotPublisher(final Builder builder) {
+        _executor = builder._executor;
+    }
+
+    private final Executor _executor;
+    private final List<LatestSubscription> _subscriptions = new CopyOnWriteArrayList<>();
+    private volatile Published _published;
+    private volatile boolean _closed;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JvmSnapshotPublisher.class);
+
+    /**
+     * A snapshot and its version when it was published.
+     */
+    private static final class Published {
+
+        private Published(final JvmSnapshot snapshot, final long version) {
+            _snapshot = snapshot;
+            _version = version;
+        }
+
+        private final JvmSnapshot _snapshot;
+        private final long _version;
+    }
+
+    private final class LatestSubscription implements Flow.Subscription, Runnable {
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                _error.compareAndSet(null, new IllegalArgumentException("Request must be positive; n=" + n));
+            } else {
+                _demand.accumulateAndGet(n, LatestSubscription::addCapped);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            _cancelled = true;
+            _subscriptions.remove(this);
+        }
+
+        @Override
+        public void run() {
+            // Only one thread delivers to the subscriber at a time
+            do {
+                deliver();
+            } while (_pending.decrementAndGet() != 0);
+        }
+
+        private void deliver() {
+            if (_cancelled || !_subscribed) {
+                return;
+            }
+            final IllegalArgumentException error = _error.get();
+            if (error != null) {
+                cancel();
+                _subscriber.onError(error);
+            } else if (_completed) {
+                cancel();
+                _subscriber.onComplete();
+            } else if (_demand.get() > 0) {
+                final Published published = _latest.getAndSet(null);
+                // A reused snapshot is stale; a newer one replaces it
+                if (published != null && published._snapshot.validate(published._version)) {
+                    _demand.decrementAndGet();
+                    onNext(published._snapshot);
+                }
+            }
+        }
+
+        private void onNext(final JvmSnapshot snapshot) {
+            try {
+                _subscriber.onNext(snapshot);
+                // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                LOGGER.warn("Subscriber failed; subscription cancelled", e);
+                cancel();
+            }
+        }
+
+        private void complete() {
+            _completed = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (_pending.getAndIncrement() == 0) {
+                _executor.execute(this);
+            }
+        }
+
+        private static long addCapped(final long demand, final long n) {
+            final long sum = demand + n;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+
+        private LatestSubscription(final Flow.Subscriber<? super JvmSnapshot> subscriber) {
+            _subscriber = subscriber;
+        }
+
+        private final Flow.Subscriber<? super JvmSnapshot> _subscriber;
+        private final AtomicReference<Published> _latest = new AtomicReference<>();
+        private final AtomicLong _demand = new AtomicLong();
+        private final AtomicInteger _pending = new AtomicInteger();
+        private final AtomicReference<IllegalArgumentException> _error = new AtomicReference<>();
+        private volatile boolean _subscribed;
+        private volatile boolean _cancelled;
+        private volatile boolean _completed;
+    }
+
+    /**
+     * Builder for {@link JvmSnapshotPublisher}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link JvmSnapshotPublisher}.
+         *
+         * @return An instance of {@link JvmSnapshotPublisher}.
+         */
+        public JvmSnapshotPublisher build() {
+            if (_executor == null) {
+                _executor = ExecutorHolder.EXECUTOR;
+                LOGGER.debug(String.format("Defaulted null executor; executor=%s", _executor));
+            }
+            return new JvmSnapshotPublisher(this);
+        }
+
+        /**
+         * Set the {@link Executor} on which snapshots are delivered to
+         * subscribers. Optional. Defaults to a single daemon thread shared by
+         * all publishers, so that slow subscribers neither delay nor are
+         * delayed by tasks in the common {@link java.util.concurrent.ForkJoinPool}.
+         * Cannot be null.
+         *
+         * @param value The {@link Executor} instance.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setExecutor(final Executor value) {
+            _executor = value;
+            return this;
+        }
+
+        private Executor _executor;
+
+        private static final class ExecutorHolder {
+            // Created once on first use
+            private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "jvm-snapshot-publisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
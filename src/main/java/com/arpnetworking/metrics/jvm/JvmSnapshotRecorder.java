@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.Timer;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Metrics} implementation which collectors record into to fill a
+ * {@link JvmSnapshot}. Gauges, timers and counter changes are stored in the
+ * snapshot; all other calls, such as creating timers or adding annotations,
+ * are passed through to the {@link Metrics} instance given to
+ * {@link #begin(Metrics)}. Within a collection the last value of a gauge or
+ * timer is kept and counter changes are summed.
+ *
+ * Snapshots are double buffered: one is filled while the latest published
+ * snapshot is read without locking by any thread through
+ * {@link #getLatest()}. A buffer's version is odd while it is filled, so
+ * readers can detect that it was reused under them. Recording is expected
+ * from one thread at a time.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class JvmSnapshotRecorder implements Metrics {
+
+    /**
+     * Begin filling a snapshot.
+     *
+     * @param passThrough the {@link Metrics} instance receiving the calls
+     * which are not stored in the snapshot
+     */
+    /* package private */ synchronized void begin(final Metrics passThrough) {
+        _passThrough = passThrough;
+        final JvmSnapshot back = _buffers[_backIndex];
+        back.beginUpdate();
+        back.reset(_names, _count);
+        _back = back;
+    }
+
+    /**
+     * Publish the snapshot being filled as the latest snapshot.
+     *
+     * @return the published snapshot
+     */
+    /* package private */ synchronized JvmSnapshot publish() {
+        final JvmSnapshot published = _back;
+        published.setTimestamp(System.currentTimeMillis());
+        published.endUpdate();
+        _latest = published;
+        _backIndex ^= 1;
+        return published;
+    }
+
+    /**
+     * The latest published snapshot. It is empty until one is published.
+     *
+     * @return the latest published snapshot
+     */
+    /* package private */ JvmSnapshot getLatest() {
+        return _latest;
+    }
+
+    @Override
+    public Counter createCounter(final String name) {
+        return _passThrough.createCounter(name);
+    }
+
+    @Override
+    public void incrementCounter(final String name) {
+        incrementCounter(name, 1);
+    }
+
+    @Override
+    public void incrementCounter(final String name, final long value) {
+        _back.addCounter(indexOf(name), value);
+    }
+
+    @Override
+    public void decrementCounter(final String name) {
+        incrementCounter(name, -1);
+    }
+
+    @Override
+    public void decrementCounter(final String name, final long value) {
+        incrementCounter(name, -value);
+    }
+
+    @Override
+    public void resetCounter(final String name) {
+        _back.setLong(indexOf(name), JvmSnapshot.Kind.COUNTER, 0, null);
+    }
+
+    @Override
+    public Timer createTimer(final String name) {
+        return _passThrough.createTimer(name);
+    }
+
+    @Override
+    public void startTimer(final String name) {
+        _passThrough.startTimer(name);
+    }
+
+    @Override
+    public void stopTimer(final String name) {
+        _passThrough.stopTimer(name);
+    }
+
+    @Override
+    public void setTimer(final String name, final long duration, final TimeUnit unit) {
+        _back.setLong(indexOf(name), JvmSnapshot.Kind.TIMER, duration, unit);
+    }
+
+    @Override
+    public void setGauge(final String name, final double value) {
+        _back.setDouble(indexOf(name), value);
+    }
+
+    @Override
+    public void setGauge(final String name, final long value) {
+        _back.setLong(indexOf(name), JvmSnapshot.Kind.LONG_GAUGE, value, null);
+    }
+
+    @Override
+    public void addAnnotation(final String key, final String value) {
+        _passThrough.addAnnotation(key, value);
+    }
+
+    @Override
+    public void addAnnotations(final Map<String, String> map) {
+        _passThrough.addAnnotations(map);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return _passThrough.isOpen();
+    }
+
+    @Override
+    public void close() {
+        _passThrough.close();
+    }
+
+    @Override
+    public Instant getOpenTime() {
+        return _passThrough.getOpenTime();
+    }
+
+    @Override
+    public Instant getCloseTime() {
+        return _passThrough.getCloseTime();
+    }
+
+    private synchronized int indexOf(final String name) {
+        final Integer index = _indices.get(name);
+        if (index != null) {
+            return index;
+        }
+        if (_count == _names.length) {
+            // Names are only appended so published snapshots keep their array
+            _names = Arrays.copyOf(_names, Math.max(INITIAL_CAPACITY, _names.length * 2));
+        }
+        _names[_count] = name;
+        _indices.put(name, _count);
+        _back.extend(_names, ++_count);
+        return _count - 1;
+    }
+
+    private final JvmSnapshot[] _buffers = {new JvmSnapshot(), new JvmSnapshot()};
+    // CHECKSTYLE.OFF: IllegalInstantiation - No Guava here
+    private final Map<String, Integer> _indices = new HashMap<>();
+    // CHECKSTYLE.ON: IllegalInstantiation
+    private String[] _names = new String[0];
+    private int _count;
+    private int _backIndex;
+    private JvmSnapshot _back = _buffers[0];
+    private Metrics _passThrough;
+    private volatile JvmSnapshot _latest = new JvmSnapshot();
+
+    private static final int INITIAL_CAPACITY = 64;
+}
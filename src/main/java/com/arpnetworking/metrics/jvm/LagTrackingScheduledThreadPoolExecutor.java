@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link ScheduledThreadPoolExecutor} which measures how late each
+ * scheduled task execution starts relative to its intended trigger time.
+ * Periodic tasks are measured on every execution. The lateness is recorded
+ * into a histogram which {@link ExecutorServiceMetricsRunnable} drains each
+ * time it runs.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class LagTrackingScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+
+    /**
+     * Public constructor.
+     *
+     * @param corePoolSize the number of threads to keep in the pool
+     */
+    public LagTrackingScheduledThreadPoolExecutor(final int corePoolSize) {
+        super(corePoolSize);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param corePoolSize the number of threads to keep in the pool
+     * @param threadFactory the factory to use when creating threads
+     */
+    public LagTrackingScheduledThreadPoolExecutor(final int corePoolSize, final ThreadFactory threadFactory) {
+        super(corePoolSize, threadFactory);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param corePoolSize the number of threads to keep in the pool
+     * @param threadFactory the factory to use when creating threads
+     * @param handler the handler for rejected executions
+     */
+    public LagTrackingScheduledThreadPoolExecutor(
+            final int corePoolSize,
+            final ThreadFactory threadFactory,
+            final RejectedExecutionHandler handler) {
+        super(corePoolSize, threadFactory, handler);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(
+            final Runnable runnable,
+            final RunnableScheduledFuture<V> task) {
+        return new LagTrackingTask<>(task);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(
+            final Callable<V> callable,
+            final RunnableScheduledFuture<V> task) {
+        return new LagTrackingTask<>(task);
+    }
+
+    /* package private */ LatencyHistogram.Snapshot drainSchedulingLag() {
+        return _schedulingLag.drain();
+    }
+
+    private final LatencyHistogram _schedulingLag = new LatencyHistogram();
+
+    private final class LagTrackingTask<V> implements RunnableScheduledFuture<V> {
+
+        @Override
+        public void run() {
+            // The remaining delay of a task that is due is zero or negative
+            _schedulingLag.record(-_task.getDelay(TimeUnit.NANOSECONDS));
+            _task.run();
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return _task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return _task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            if (other instanceof LagTrackingScheduledThreadPoolExecutor.LagTrackingTask) {
+                // Compare the underlying tasks to preserve their FIFO tie-breaking
+                return _task.compareTo(((LagTrackingTask<?>) other)._task);
+            }
+            return _task.compareTo(other);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            // Each scheduled task is decorated exactly once and the ordering
+            // only considers two tasks equal if they are the same task
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = _task.cancel(mayInterruptIfRunning);
+            // The underlying task cannot remove itself since the queue holds the decorator
+            if (cancelled && getRemoveOnCancelPolicy()) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return _task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return _task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return _task.get();
+        }
+
+        @Override
+        public V get(final long timeout, final TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return _task.get(timeout, unit);
+        }
+
+        private LagTrackingTask(final RunnableScheduledFuture<V> task) {
+            _task = task;
+        }
+
+        private final RunnableScheduledFuture<V> _task;
+    }
+}
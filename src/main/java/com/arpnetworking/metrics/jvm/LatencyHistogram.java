@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Concurrent log-linear histogram of non-negative nanosecond durations which
+ * is drained once per collection. Each power of two is split into eight
+ * buckets so quantiles are reported with at most 12.5% relative error, and
+ * the maximum is tracked exactly. Recording is lock-free and allocation-free.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class LatencyHistogram {
+
+    /**
+     * Record a duration. Negative durations are recorded as zero.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    /* package private */ void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        _buckets.incrementAndGet(bucketIndex(value));
+        _max.accumulate(value);
+    }
+
+    /**
+     * Drain the recorded durations and reset the histogram.
+     *
+     * @return summary of the durations recorded since the last drain
+     */
+    /* package private */ synchronized Snapshot drain() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            _drainBuffer[i] = _buckets.getAndSet(i, 0);
+            count += _drainBuffer[i];
+        }
+        final long max = _max.getThenReset();
+        return new Snapshot(count, quantile(count, 0.5), quantile(count, 0.99), max);
+    }
+
+    private long quantile(final long count, final double quantile) {
+        final long rank = (long) Math.ceil(quantile * count);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            cumulative += _drainBuffer[i];
+            if (cumulative >= rank && cumulative > 0) {
+                return bucketUpperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    /* package private */ static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /* package private */ static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private final AtomicLongArray _buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAccumulator _max = new LongAccumulator(Math::max, 0);
+    private final long[] _drainBuffer = new long[BUCKET_COUNT];
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    /**
+     * Summary of the durations drained from a {@link LatencyHistogram}.
+     */
+    /* package private */ static final class Snapshot {
+
+        /* package private */ long getCount() {
+            return _count;
+        }
+
+        /* package private */ long getMedian() {
+            return _median;
+        }
+
+        /* package private */ long getP99() {
+            return _p99;
+        }
+
+        /* package private */ long getMax() {
+            return _max;
+        }
+
+        private Snapshot(final long count, final long median, final long p99, final long max) {
+            _count = count;
+            _median = median;
+            _p99 = p99;
+            _max = max;
+        }
+
+        private final long _count;
+        private final long _median;
+        private final long _p99;
+        private final long _max;
+    }
+}
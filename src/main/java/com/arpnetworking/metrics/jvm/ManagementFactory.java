@@ -16,12 +16,15 @@
 package com.arpnetworking.metrics.jvm;
 
 import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.ThreadMXBean;
 import java.util.List;
+import java.util.Optional;
+import javax.management.MBeanServerConnection;
 
 /**
  * This interface defines the various methods to get JVM related data. This interface exists only to facilitate
@@ -72,7 +75,38 @@ public interface ManagementFactory {
      * @return An instance of {@link OperatingSystemMXBean}.
      */
     OperatingSystemMXBean getOperatingSystemMXBean();
-}
 
+    /**
+     * Gets the {@link ClassLoadingMXBean}. Defaults to the platform bean so
+     * that existing implementations need not implement it.
+     *
+     * @return An instance of {@link ClassLoadingMXBean}.
+     */
+    default ClassLoadingMXBean getClassLoadingMXBean() {
+        return java.lang.management.ManagementFactory.getClassLoadingMXBean();
+    }
 
+    /**
+     * Gets the {@link MBeanServerConnection} for MXBeans which have no
+     * interface available at compile time (e.g. those added in newer JDKs).
+     * Defaults to the platform MBean server so that existing implementations
+     * need not implement it.
+     *
+     * @return An instance of {@link MBeanServerConnection}.
+     */
+    default MBeanServerConnection getMBeanServerConnection() {
+        return java.lang.management.ManagementFactory.getPlatformMBeanServer();
+    }
 
+    /**
+     * Gets the {@link Hsperfdata} counters which HotSpot publishes for this
+     * JVM. Defaults to empty so that existing implementations need not
+     * implement it.
+     *
+     * @return An instance of {@link Hsperfdata} or empty if the counters are
+     * not published.
+     */
+    default Optional<Hsperfdata> getHsperfdata() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An implementation class of {@link ManagementFactory} that is to be
+ * used for getting the actual values for jvm metrics from the java
+ * management API. This class exists to facilitate testing only and the
+ * clients should never have to explicitly instantiate this.
+ *
+ * @author Deepika Misra (deepika at groupon dot com)
+ */
+/* package private */ final class ManagementFactoryDefault implements ManagementFactory {
+
+    /**
+     * Creates a new instance of {@link ManagementFactoryDefault}.
+     *
+     * @return An instance of {@link ManagementFactoryDefault}
+     */
+    /* package private */
+    static ManagementFactory newInstance() {
+        return new ManagementFactoryDefault();
+    }
+
+    @Override
+    public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        return java.lang.management.ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    @Override
+    public MemoryMXBean getMemoryMXBean() {
+        return java.lang.management.ManagementFactory.getMemoryMXBean();
+    }
+
+    @Override
+    public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
+        return java.lang.management.ManagementFactory.getMemoryPoolMXBeans();
+    }
+
+    @Override
+    public ThreadMXBean getThreadMXBean() {
+        return java.lang.management.ManagementFactory.getThreadMXBean();
+    }
+
+    @Override
+    public List<BufferPoolMXBean> getBufferPoolMXBeans() {
+        return java.lang.management.ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+    }
+
+    @Override
+    public OperatingSystemMXBean getOperatingSystemMXBean() {
+        return java.lang.management.ManagementFactory.getOperatingSystemMXBean();
+    }
+
+    @Override
+    public Optional<Hsperfdata> getHsperfdata() {
+        return HsperfdataHolder.HSPERFDATA;
+    }
+
+    private ManagementFactoryDefault() {
+    }
+
+    private static final class HsperfdataHolder {
+        // Mapped once on first use
+        private static final Optional<Hsperfdata> HSPERFDATA = Hsperfdata.openCurrent();
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.sun.management.GcInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * The binary format of the traces written by {@link RecordingManagementFactory}
+ * and read by {@link ReplayManagementFactory}.
+ *
+ * A trace is a magic number and a version followed by records. A bean record
+ * names a bean and the interfaces it implements. A call record defines the
+ * number of a distinct call, which is the bean, the method and the arguments,
+ * when it is first made; every subsequent read of that call only writes the
+ * number and the value returned or the exception thrown. Integers are zig-zag
+ * variable length encoded and longs are encoded as the difference from the
+ * previous long of the same call, so counters and slowly changing gauges cost
+ * a few bytes per read.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class ManagementTrace {
+
+    /**
+     * Returns the key of a call. Primitive array arguments, such as thread
+     * identifiers, are represented only by their type.
+     *
+     * @param bean the key of the bean
+     * @param method the method called
+     * @param args the arguments of the call
+     * @return the key of the call
+     */
+    /* package private */ static String key(final String bean, final Method method, @Nullable final Object[] args) {
+        final StringBuilder key = new StringBuilder(bean).append('.').append(method.getName()).append('(');
+        if (args != null) {
+            for (int i = 0; i < args.length; ++i) {
+                if (i > 0) {
+                    key.append(", ");
+                }
+                final Object arg = args[i];
+                if (arg instanceof Object[]) {
+                    key.append(Arrays.toString((Object[]) arg));
+                } else if (arg != null && arg.getClass().isArray()) {
+                    key.append(arg.getClass().getComponentType().getName()).append("[]");
+                } else {
+                    key.append(arg);
+                }
+            }
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * Reads a trace.
+     *
+     * @param stream the trace
+     * @return the beans and the values of each call in order
+     * @throws IOException if the trace cannot be read or is invalid
+     */
+    /* package private */ static Trace read(final InputStream stream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a management trace");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported management trace version; version=%d", version));
+        }
+        final Decoder decoder = new Decoder(in);
+        final Trace trace = new Trace();
+        for (int record = in.read(); record >= 0; record = in.read()) {
+            if (record == BEAN) {
+                final String key = in.readUTF();
+                final List<String> interfaces = new ArrayList<>();
+                for (int i = decoder.readLength(); i > 0; --i) {
+                    interfaces.add(in.readUTF());
+                }
+                trace._beans.put(key, interfaces);
+            } else if (record == DEFINE) {
+                final String key = in.readUTF();
+                decoder.define(key);
+                trace._calls.put(key, new ArrayList<>());
+            } else if (record == CALL) {
+                final int id = decoder.readLength();
+                final String key = decoder.name(id);
+                trace._calls.get(key).add(decoder.readValue(id));
+            } else {
+                throw new IOException(String.format("Unknown record; record=%d", record));
+            }
+        }
+        return trace;
+    }
+
+    private ManagementTrace() {}
+
+    private static final int MAGIC = 0x4A564D54;
+    private static final int VERSION = 1;
+
+    // Records
+    private static final int BEAN = 1;
+    private static final int DEFINE = 2;
+    private static final int CALL = 3;
+
+    // Values
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int STRING = 6;
+    private static final int STRING_ARRAY = 7;
+    private static final int LONG_ARRAY = 8;
+    private static final int MEMORY_USAGE = 9;
+    private static final int ENUM = 10;
+    private static final int OBJECT_NAME = 11;
+    private static final int ATTRIBUTE_LIST = 12;
+    private static final int GC_INFO = 13;
+    private static final int EXCEPTION = 14;
+    private static final int UNSUPPORTED = 15;
+
+    // Only open data may be deserialized from a trace
+    private static final ObjectInputFilter GC_INFO_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=16;javax.management.openmbean.*;java.lang.*;java.util.*;!*");
+
+    /**
+     * The contents of a trace.
+     */
+    /* package private */ static final class Trace {
+
+        /* package private */ Map<String, List<String>> getBeans() {
+            return _beans;
+        }
+
+        /* package private */ Map<String, List<Object>> getCalls() {
+            return _calls;
+        }
+
+        private final Map<String, List<String>> _beans = new TreeMap<>();
+        private final Map<String, List<Object>> _calls = new TreeMap<>();
+    }
+
+    /**
+     * An exception thrown by a recorded call.
+     */
+    /* package private */ static final class Failure {
+
+        /**
+         * Creates an instance of the recorded exception, or an
+         * {@link IllegalStateException} if the exception has no constructor
+         * which accepts a message.
+         *
+         * @return the exception to throw
+         */
+        /* package private */ Throwable toThrowable() {
+            try {
+                return Class.forName(_type).asSubclass(Throwable.class).getConstructor(String.class).newInstance(_message);
+            } catch (final ReflectiveOperationException | ClassCastException e) {
+                return new IllegalStateException(
+                        String.format("Unable to create recorded exception; type=%s, message=%s", _type, _message),
+                        e);
+            }
+        }
+
+        private Failure(final String type, @Nullable final String message) {
+            _type = type;
+            _message = message;
+        }
+
+        private final String _type;
+        private final String _message;
+    }
+
+    /**
+     * A value of a type which the trace does not record.
+     */
+    /* package private */ static final class Unsupported {
+
+        /* package private */ String getType() {
+            return _type;
+        }
+
+        private Unsupported(final String type) {
+            _type = type;
+        }
+
+        private final String _type;
+    }
+
+    /**
+     * Writes a trace. Instances are thread safe.
+     */
+    /* package private */ static final class Writer implements Closeable {
+
+        /* package private */ Writer(final OutputStream stream) throws IOException {
+            _out = new DataOutputStream(new BufferedOutputStream(stream));
+            _out.writeInt(MAGIC);
+            _out.writeByte(VERSION);
+        }
+
+        /* package private */ synchronized void bean(final String key, final List<Class<?>> interfaces) throws IOException {
+            checkOpen();
+            _out.writeByte(BEAN);
+            _out.writeUTF(key);
+            writeVarLong(interfaces.size());
+            for (final Class<?> type : interfaces) {
+                _out.writeUTF(type.getName());
+            }
+        }
+
+        /* package private */ synchronized void call(final String key, @Nullable final Object value) throws IOException {
+            writeValue(start(key), value);
+        }
+
+        /* package private */ synchronized void fail(final String key, final Throwable throwable) throws IOException {
+            start(key);
+            _out.writeByte(EXCEPTION);
+            _out.writeUTF(throwable.getClass().getName());
+            writeNullableString(throwable.getMessage());
+        }
+
+        /* package private */ synchronized void flush() throws IOException {
+            _out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            _closed = true;
+            _out.close();
+        }
+
+        private void checkOpen() throws IOException {
+            // Writes to the buffer would otherwise succeed until it is flushed
+            if (_closed) {
+                throw new IOException("Trace closed");
+            }
+        }
+
+        private int start(final String key) throws IOException {
+            checkOpen();
+            Integer id = _ids.get(key);
+            if (id == null) {
+                id = _ids.size();
+                _ids.put(key, id);
+                _out.writeByte(DEFINE);
+                _out.writeUTF(key);
+                if (id == _previous.length) {
+                    _previous = Arrays.copyOf(_previous, id * 2);
+                }
+            }
+            _out.writeByte(CALL);
+            writeVarLong(id);
+            return id;
+        }
+
+        private void writeValue(final int id, @Nullable final Object value) throws IOException {
+            if (value == null) {
+                _out.writeByte(NULL);
+            } else if (value instanceof Boolean) {
+                _out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Integer) {
+                _out.writeByte(INT);
+                writeVarLong(zigZag((Integer) value));
+            } else if (value instanceof Long) {
+                _out.writeByte(LONG);
+                final long current = (Long) value;
+                writeVarLong(zigZag(current - _previous[id]));
+                _previous[id] = current;
+            } else if (value instanceof Double) {
+                _out.writeByte(DOUBLE);
+                _out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                _out.writeByte(STRING);
+                _out.writeUTF((String) value);
+            } else {
+                writeObject(id, value);
+            }
+        }
+
+        private void writeObject(final int id, final Object value) throws IOException {
+            if (value instanceof String[]) {
+                _out.writeByte(STRING_ARRAY);
+                final String[] strings = (String[]) value;
+                writeVarLong(strings.length);
+                for (final String string : strings) {
+                    writeNullableString(string);
+                }
+            } else if (value instanceof long[]) {
+                _out.writeByte(LONG_ARRAY);
+                final long[] longs = (long[]) value;
+                writeVarLong(longs.length);
+                for (final long element : longs) {
+                    writeVarLong(zigZag(element));
+                }
+            } else if (value instanceof MemoryUsage) {
+                _out.writeByte(MEMORY_USAGE);
+                final MemoryUsage usage = (MemoryUsage) value;
+                writeVarLong(zigZag(usage.getInit()));
+                writeVarLong(zigZag(usage.getUsed()));
+                writeVarLong(zigZag(usage.getCommitted()));
+                writeVarLong(zigZag(usage.getMax()));
+            } else if (value instanceof Enum) {
+                _out.writeByte(ENUM);
+                _out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+                _out.writeUTF(((Enum<?>) value).name());
+            } else {
+                writeManagementObject(id, value);
+            }
+        }
+
+        private void writeManagementObject(final int id, final Object value) throws IOException {
+            if (value instanceof ObjectName) {
+                _out.writeByte(OBJECT_NAME);
+                _out.writeUTF(((ObjectName) value).getCanonicalName());
+            } else if (value instanceof AttributeList) {
+                _out.writeByte(ATTRIBUTE_LIST);
+                final List<Attribute> attributes = ((AttributeList) value).asList();
+                writeVarLong(attributes.size());
+                for (final Attribute attribute : attributes) {
+                    _out.writeUTF(attribute.getName());
+                    writeValue(id, attribute.getValue());
+                }
+            } else if (value instanceof GcInfo) {
+                _out.writeByte(GC_INFO);
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+                    objects.writeObject(((GcInfo) value).toCompositeData(null));
+                }
+                writeVarLong(bytes.size());
+                bytes.writeTo(_out);
+            } else {
+                _out.writeByte(UNSUPPORTED);
+                _out.writeUTF(value.getClass().getName());
+            }
+        }
+
+        private void writeNullableString(@Nullable final String value) throws IOException {
+            _out.writeBoolean(value != null);
+            if (value != null) {
+                _out.writeUTF(value);
+            }
+        }
+
+        private void writeVarLong(final long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                _out.writeByte((int) (remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            _out.writeByte((int) remaining);
+        }
+
+        private static long zigZag(final long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private final DataOutputStream _out;
+        private final Map<String, Integer> _ids = new TreeMap<>();
+        private long[] _previous = new long[64];
+        private boolean _closed;
+    }
+
+    private static final class Decoder {
+
+        private Decoder(final DataInputStream in) {
+            _in = in;
+        }
+
+        private void define(final String key) {
+            _names.add(key);
+            if (_names.size() > _previous.length) {
+                _previous = Arrays.copyOf(_previous, _previous.length * 2);
+            }
+        }
+
+        private String name(final int id) throws IOException {
+            if (id >= _names.size()) {
+                throw new IOException(String.format("Undefined call; id=%d", id));
+            }
+            return _names.get(id);
+        }
+
+        @Nullable
+        private Object readValue(final int id) throws IOException {
+            final int type = _in.readUnsignedByte();
+            switch (type) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case INT:
+                    return (int) unZigZag(readVarLong());
+                case LONG:
+                    _previous[id] += unZigZag(readVarLong());
+                    return _previous[id];
+                case DOUBLE:
+                    return _in.readDouble();
+                case STRING:
+                    return _in.readUTF();
+                case EXCEPTION:
+                    return new Failure(_in.readUTF(), readNullableString());
+                case UNSUPPORTED:
+                    return new Unsupported(_in.readUTF());
+                default:
+                    return readObject(id, type);
+            }
+        }
+
+        private Object readObject(final int id, final int type) throws IOException {
+            switch (type) {
+                case STRING_ARRAY:
+                    final String[] strings = new String[readLength()];
+                    for (int i = 0; i < strings.length; ++i) {
+                        strings[i] = readNullableString();
+                    }
+                    return strings;
+                case LONG_ARRAY:
+                    final long[] longs = new long[readLength()];
+                    for (int i = 0; i < longs.length; ++i) {
+                        longs[i] = unZigZag(readVarLong());
+                    }
+                    return longs;
+                case MEMORY_USAGE:
+                    return new MemoryUsage(
+                            unZigZag(readVarLong()),
+                            unZigZag(readVarLong()),
+                            unZigZag(readVarLong()),
+                            unZigZag(readVarLong()));
+                case ENUM:
+                    return readEnum(_in.readUTF(), _in.readUTF());
+                case OBJECT_NAME:
+                    return readObjectName(_in.readUTF());
+                case ATTRIBUTE_LIST:
+                    final AttributeList attributes = new AttributeList();
+                    for (int i = readLength(); i > 0; --i) {
+                        attributes.add(new Attribute(_in.readUTF(), readValue(id)));
+                    }
+                    return attributes;
+                case GC_INFO:
+                    final byte[] bytes = new byte[readLength()];
+                    _in.readFully(bytes);
+                    return readGcInfo(bytes);
+                default:
+                    throw new IOException(String.format("Unknown value; type=%d", type));
+            }
+        }
+
+        private static Object readEnum(final String type, final String name) throws IOException {
+            try {
+                final Class<?> enumType = Class.forName(type);
+                if (enumType.isEnum()) {
+                    for (final Object constant : enumType.getEnumConstants()) {
+                        if (((Enum<?>) constant).name().equals(name)) {
+                            return constant;
+                        }
+                    }
+                }
+            } catch (final ClassNotFoundException e) {
+                throw new IOException(String.format("Unknown enum; type=%s", type), e);
+            }
+            throw new IOException(String.format("Unknown enum constant; type=%s, name=%s", type, name));
+        }
+
+        private static ObjectName readObjectName(final String name) throws IOException {
+            try {
+                return ObjectName.getInstance(name);
+            } catch (final MalformedObjectNameException e) {
+                throw new IOException(String.format("Invalid object name; name=%s", name), e);
+            }
+        }
+
+        private static GcInfo readGcInfo(final byte[] bytes) throws IOException {
+            try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                objects.setObjectInputFilter(GC_INFO_FILTER);
+                return GcInfo.from((CompositeData) objects.readObject());
+            } catch (final ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+                throw new IOException("Invalid gc info", e);
+            }
+        }
+
+        @Nullable
+        private String readNullableString() throws IOException {
+            return _in.readBoolean() ? _in.readUTF() : null;
+        }
+
+        private int readLength() throws IOException {
+            final long length = readVarLong();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(String.format("Invalid length; length=%d", length));
+            }
+            return (int) length;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = _in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer");
+        }
+
+        private static long unZigZag(final long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private final DataInputStream _in;
+        private final List<String> _names = new ArrayList<>();
+        private long[] _previous = new long[64];
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.collectors.DeltaTracker;
+import com.arpnetworking.metrics.jvm.collectors.GarbageCollectionOverheadMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Signals memory pressure to in-process consumers such as request handlers
+ * which shed load before the collector falls behind. Each run of a
+ * {@link JvmMetricsRunnable} with this monitor set updates the pressure
+ * {@link Level} from the live set after the last collection as a fraction
+ * of the pool maximum, the fraction of time spent in garbage collection
+ * pauses and the allocation rate.
+ *
+ * The level is raised as soon as any signal reaches the threshold of a
+ * higher level and is only lowered once every signal has fallen below the
+ * thresholds of the current level by the hysteresis, a fraction of each
+ * threshold. Reading the level with {@link #getLevel()} is a single volatile
+ * read. {@link Listener}s are notified of each transition on the thread
+ * running the collection.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class MemoryPressureMonitor {
+
+    /**
+     * The current memory pressure level.
+     *
+     * @return the current {@link Level}
+     */
+    public Level getLevel() {
+        return _level;
+    }
+
+    /**
+     * Add a {@link Listener} to be notified of level transitions.
+     *
+     * @param listener the {@link Listener} to add
+     */
+    public void registerListener(final Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        _listeners.add(listener);
+    }
+
+    /**
+     * Remove a {@link Listener}.
+     *
+     * @param listener the {@link Listener} to remove
+     */
+    public void unregisterListener(final Listener listener) {
+        _listeners.remove(listener);
+    }
+
+    /**
+     * Update the level from the current signals and record them.
+     *
+     * @param metrics the {@link Metrics} instance to record into
+     * @param managementFactory the {@link ManagementFactory} to read signals from
+     * @param nowNanos the current {@link System#nanoTime()}
+     */
+    /* package private */ synchronized void update(
+            final Metrics metrics,
+            final ManagementFactory managementFactory,
+            final long nowNanos) {
+        final double elapsedSeconds = Math.max(1, nowNanos - _lastNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        _lastNanos = nowNanos;
+        final double liveSetRatio = getLiveSetRatio(managementFactory.getMemoryPoolMXBeans());
+        final long gcMillis = _gcMillis.update(getCollectionMillis(managementFactory.getGarbageCollectorMXBeans()));
+        final double gcOverhead = gcMillis == DeltaTracker.UNDEFINED ? 0 : gcMillis / (elapsedSeconds * 1000);
+        final double allocationRate = getAllocationRate(managementFactory.getThreadMXBean(), nowNanos);
+
+        final Level level = evaluate(_level, liveSetRatio, gcOverhead, allocationRate);
+        metrics.setGauge(LIVE_SET_RATIO, liveSetRatio);
+        metrics.setGauge(GC_OVERHEAD, gcOverhead);
+        metrics.setGauge(ALLOCATION_RATE, allocationRate);
+        metrics.setGauge(LEVEL, level.ordinal());
+        if (level != _level) {
+            final Level previous = _level;
+            _level = level;
+            LOGGER.info(String.format("Memory pressure changed; from=%s, to=%s", previous, level));
+            notifyListeners(previous, level);
+        }
+    }
+
+    /**
+     * Choose the next level.
+     *
+     * @param current the current level
+     * @param liveSetRatio the live set as a fraction of the pool maximum
+     * @param gcOverhead the fraction of time spent collecting garbage
+     * @param allocationRate the allocation rate in bytes per second
+     * @return the next level
+     */
+    /* package private */ Level evaluate(
+            final Level current,
+            final double liveSetRatio,
+            final double gcOverhead,
+            final double allocationRate) {
+        Level target = Level.NORMAL;
+        if (exceeds(Level.CRITICAL, liveSetRatio, gcOverhead, allocationRate, 1)) {
+            target = Level.CRITICAL;
+        } else if (exceeds(Level.ELEVATED, liveSetRatio, gcOverhead, allocationRate, 1)) {
+            target = Level.ELEVATED;
+        }
+        if (target.compareTo(current) < 0 && exceeds(current, liveSetRatio, gcOverhead, allocationRate, 1 - _hysteresis)) {
+            return current;
+        }
+        return target;
+    }
+
+    private boolean exceeds(
+            final Level level,
+            final double liveSetRatio,
+            final double gcOverhead,
+            final double allocationRate,
+            final double scale) {
+        // Thresholds are indexed from the first level above normal
+        final int index = level.ordinal() - 1;
+        return liveSetRatio >= _liveSetRatioThresholds[index] * scale
+                || gcOverhead >= _gcOverheadThresholds[index] * scale
+                || allocationRate >= _allocationRateThresholds[index] * scale;
+    }
+
+    private void notifyListeners(final Level previous, final Level level) {
+        for (final Listener listener : _listeners) {
+            try {
+                listener.onTransition(previous, level);
+                // CHECKSTYLE.OFF: IllegalCatch - No checked exceptions here
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                LOGGER.warn("Memory pressure listener failed", e);
+            }
+        }
+    }
+
+    private static double getLiveSetRatio(final List<MemoryPoolMXBean> pools) {
+        // The fullest heap pool after collection bounds the live set
+        double ratio = 0;
+        for (final MemoryPoolMXBean pool : pools) {
+            final MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null && usage.getMax() > 0) {
+                ratio = Math.max(ratio, usage.getUsed() / (double) usage.getMax());
+            }
+        }
+        return ratio;
+    }
+
+    private static long getCollectionMillis(final List<GarbageCollectorMXBean> collectors) {
+        long millis = 0;
+        for (final GarbageCollectorMXBean collector : collectors) {
+            // Concurrent cycles do not stop the application; the time is negative if it is not available
+            if (GarbageCollectionOverheadMetricsCollector.isPause(collector)) {
+                millis += Math.max(0, collector.getCollectionTime());
+            }
+        }
+        return millis;
+    }
+
+    private double getAllocationRate(final ThreadMXBean threadMXBean, final long nowNanos) {
+        // Reading the live threads costs time proportional to their number
+        if (_totalAllocatedBytes == null && _allocationSampled && nowNanos - _lastAllocationNanos < _liveThreadSampleIntervalNanos) {
+            return _allocationRate;
+        }
+        _allocationSampled = true;
+        _lastAllocationNanos = nowNanos;
+        final long allocatedBytes = _allocatedBytes.update(getAllocatedBytes(threadMXBean), nowNanos);
+        _allocationRate = allocatedBytes == DeltaTracker.UNDEFINED
+                ? 0
+                : Math.max(0, allocatedBytes) * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, _allocatedBytes.getElapsedNanos());
+        return _allocationRate;
+    }
+
+    private long getAllocatedBytes(final ThreadMXBean threadMXBean) {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        if (_totalAllocatedBytes != null) {
+            try {
+                // Includes the bytes allocated by threads which have since exited
+                return (long) _totalAllocatedBytes.invoke(threadMXBean);
+            } catch (final ReflectiveOperationException e) {
+                // The bean does not support the total; use the live threads from now on
+                _totalAllocatedBytes = null;
+            }
+        }
+        // Before JDK 21 only live threads can be read; the bytes allocated by
+        // threads which exited between runs are lost, understating the rate
+        long bytes = 0;
+        final long[] threadIds = threadMXBean.getAllThreadIds();
+        for (final long allocated : ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(threadIds)) {
+            bytes += Math.max(0, allocated);
+        }
+        return bytes;
+    }
+
+    private MemoryPressureMonitor(final Builder builder) {
+        _liveSetRatioThresholds = new double[]{builder._elevatedLiveSetRatio, builder._criticalLiveSetRatio};
+        _gcOverheadThresholds = new double[]{builder._elevatedGcOverhead, builder._criticalGcOverhead};
+        _allocationRateThresholds = new double[]{builder._elevatedAllocationRate, builder._criticalAllocationRate};
+        _hysteresis = builder._hysteresis;
+        _totalAllocatedBytes = builder._totalAllocatedBytes.orElse(null);
+        _liveThreadSampleIntervalNanos = builder._liveThreadSampleInterval.toNanos();
+    }
+
+    private final double[] _liveSetRatioThresholds;
+    private final double[] _gcOverheadThresholds;
+    private final double[] _allocationRateThresholds;
+    private final double _hysteresis;
+    private final long _liveThreadSampleIntervalNanos;
+    @Nullable
+    private Method _totalAllocatedBytes;
+    private final List<Listener> _listeners = new CopyOnWriteArrayList<>();
+    private final DeltaTracker _gcMillis = new DeltaTracker();
+    private final DeltaTracker _allocatedBytes = new DeltaTracker();
+    private boolean _allocationSampled;
+    private long _lastAllocationNanos;
+    private double _allocationRate;
+    private long _lastNanos = System.nanoTime();
+    private volatile Level _level = Level.NORMAL;
+
+    private static final String LEVEL = "jvm/memory_pressure/level";
+    private static final String LIVE_SET_RATIO = "jvm/memory_pressure/live_set_ratio";
+    private static final String GC_OVERHEAD = "jvm/memory_pressure/gc_overhead";
+    private static final String ALLOCATION_RATE = "jvm/memory_pressure/allocation_rate";
+    private static final Optional<Method> TOTAL_ALLOCATED_BYTES = ReflectionUtil.findMethod(
+            com.sun.management.ThreadMXBean.class,
+            "getTotalThreadAllocatedBytes");
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryPressureMonitor.class);
+
+    /**
+     * The memory pressure levels from least to most severe.
+     */
+    public enum Level {
+        /**
+         * No signal has reached its elevated threshold.
+         */
+        NORMAL,
+        /**
+         * A signal has reached its elevated threshold; optional work should
+         * be shed.
+         */
+        ELEVATED,
+        /**
+         * A signal has reached its critical threshold; all work which can be
+         * shed should be.
+         */
+        CRITICAL
+    }
+
+    /**
+     * Notified of memory pressure level transitions.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called when the level changes.
+         *
+         * @param from the previous level
+         * @param to the new level
+         */
+        void onTransition(Level from, Level to);
+    }
+
+    /**
+     * Builder for {@link MemoryPressureMonitor}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link MemoryPressureMonitor}.
+         *
+         * @return An instance of {@link MemoryPressureMonitor}.
+         */
+        public MemoryPressureMonitor build() {
+            if (_elevatedLiveSetRatio == null) {
+                _elevatedLiveSetRatio = DEFAULT_ELEVATED_LIVE_SET_RATIO;
+                LOGGER.debug(String.format("Defaulted null elevated live set ratio; elevatedLiveSetRatio=%s", _elevatedLiveSetRatio));
+            }
+            if (_criticalLiveSetRatio == null) {
+                _criticalLiveSetRatio = DEFAULT_CRITICAL_LIVE_SET_RATIO;
+                LOGGER.debug(String.format("Defaulted null critical live set ratio; criticalLiveSetRatio=%s", _criticalLiveSetRatio));
+            }
+            if (_elevatedGcOverhead == null) {
+                _elevatedGcOverhead = DEFAULT_ELEVATED_GC_OVERHEAD;
+                LOGGER.debug(String.format("Defaulted null elevated gc overhead; elevatedGcOverhead=%s", _elevatedGcOverhead));
+            }
+            if (_criticalGcOverhead == null) {
+                _criticalGcOverhead = DEFAULT_CRITICAL_GC_OVERHEAD;
+                LOGGER.debug(String.format("Defaulted null critical gc overhead; criticalGcOverhead=%s", _criticalGcOverhead));
+            }
+            if (_elevatedAllocationRate == null) {
+                _elevatedAllocationRate = DEFAULT_ALLOCATION_RATE;
+                LOGGER.debug(String.format("Defaulted null elevated allocation rate; elevatedAllocationRate=%s", _elevatedAllocationRate));
+            }
+            if (_criticalAllocationRate == null) {
+                _criticalAllocationRate = DEFAULT_ALLOCATION_RATE;
+                LOGGER.debug(String.format("Defaulted null critical allocation rate; criticalAllocationRate=%s", _criticalAllocationRate));
+            }
+            if (_hysteresis == null) {
+                _hysteresis = DEFAULT_HYSTERESIS;
+                LOGGER.debug(String.format("Defaulted null hysteresis; hysteresis=%s", _hysteresis));
+            }
+            if (_liveThreadSampleInterval == null) {
+                _liveThreadSampleInterval = DEFAULT_LIVE_THREAD_SAMPLE_INTERVAL;
+                LOGGER.debug(String.format(
+                        "Defaulted null live thread sample interval; liveThreadSampleInterval=%s",
+                        _liveThreadSampleInterval));
+            }
+            if (_liveThreadSampleInterval.isNegative()) {
+                throw new IllegalArgumentException(
+                        "Live thread sample interval cannot be negative; liveThreadSampleInterval=" + _liveThreadSampleInterval);
+            }
+            if (!(_elevatedLiveSetRatio <= _criticalLiveSetRatio)
+                    || !(_elevatedGcOverhead <= _criticalGcOverhead)
+                    || !(_elevatedAllocationRate <= _criticalAllocationRate)
+                    || !(_hysteresis >= 0 && _hysteresis < 1)) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid monitor; liveSetRatio=[%s, %s], gcOverhead=[%s, %s], allocationRate=[%s, %s], hysteresis=%s",
+                        _elevatedLiveSetRatio,
+                        _criticalLiveSetRatio,
+                        _elevatedGcOverhead,
+                        _criticalGcOverhead,
+                        _elevatedAllocationRate,
+                        _criticalAllocationRate,
+                        _hysteresis));
+            }
+            return new MemoryPressureMonitor(this);
+        }
+
+        /**
+         * Set the live set after collection as a fraction of the pool
+         * maximum at which pressure is elevated. Optional. Defaults to 0.75.
+         * Cannot be null. Cannot exceed the critical live set ratio.
+         *
+         * @param value The elevated live set ratio.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setElevatedLiveSetRatio(final Double value) {
+            _elevatedLiveSetRatio = value;
+            return this;
+        }
+
+        /**
+         * Set the live set after collection as a fraction of the pool
+         * maximum at which pressure is critical. Optional. Defaults to 0.9.
+         * Cannot be null.
+         *
+         * @param value The critical live set ratio.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCriticalLiveSetRatio(final Double value) {
+            _criticalLiveSetRatio = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of time spent collecting garbage at which
+         * pressure is elevated. Optional. Defaults to 0.1. Cannot be null.
+         * Cannot exceed the critical GC overhead.
+         *
+         * @param value The elevated GC overhead.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setElevatedGcOverhead(final Double value) {
+            _elevatedGcOverhead = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of time spent collecting garbage at which
+         * pressure is critical. Optional. Defaults to 0.25. Cannot be null.
+         *
+         * @param value The critical GC overhead.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCriticalGcOverhead(final Double value) {
+            _criticalGcOverhead = value;
+            return this;
+        }
+
+        /**
+         * Set the allocation rate in bytes per second at which pressure is
+         * elevated. Optional. Defaults to infinity which disables it.
+         * Cannot be null. Cannot exceed the critical allocation rate.
+         *
+         * @param value The elevated allocation rate.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setElevatedAllocationRate(final Double value) {
+            _elevatedAllocationRate = value;
+            return this;
+        }
+
+        /**
+         * Set the allocation rate in bytes per second at which pressure is
+         * critical. Optional. Defaults to infinity which disables it.
+         * Cannot be null.
+         *
+         * @param value The critical allocation rate.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCriticalAllocationRate(final Double value) {
+            _criticalAllocationRate = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of its threshold by which every signal must fall
+         * before the level is lowered. Optional. Defaults to 0.1. Cannot be
+         * null. Must be at least zero and less than one.
+         *
+         * @param value The hysteresis.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setHysteresis(final Double value) {
+            _hysteresis = value;
+            return this;
+        }
+
+        /**
+         * Set the minimum interval between reads of the bytes allocated by
+         * each live thread, from which the allocation rate is computed when
+         * the JVM does not report the total (before JDK 21). Each read costs
+         * time proportional to the number of threads; between reads the last
+         * allocation rate is reused. Optional. Defaults to 10 seconds. Cannot
+         * be null. Cannot be negative.
+         *
+         * @param value The live thread sample interval.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setLiveThreadSampleInterval(final Duration value) {
+            _liveThreadSampleInterval = value;
+            return this;
+        }
+
+        /* package private */ Builder setTotalAllocatedBytes(final Optional<Method> value) {
+            _totalAllocatedBytes = value;
+            return this;
+        }
+
+        private Double _elevatedLiveSetRatio = DEFAULT_ELEVATED_LIVE_SET_RATIO;
+        private Double _criticalLiveSetRatio = DEFAULT_CRITICAL_LIVE_SET_RATIO;
+        private Double _elevatedGcOverhead = DEFAULT_ELEVATED_GC_OVERHEAD;
+        private Double _criticalGcOverhead = DEFAULT_CRITICAL_GC_OVERHEAD;
+        private Double _elevatedAllocationRate = DEFAULT_ALLOCATION_RATE;
+        private Double _criticalAllocationRate = DEFAULT_ALLOCATION_RATE;
+        private Double _hysteresis = DEFAULT_HYSTERESIS;
+        private Duration _liveThreadSampleInterval = DEFAULT_LIVE_THREAD_SAMPLE_INTERVAL;
+        private Optional<Method> _totalAllocatedBytes = TOTAL_ALLOCATED_BYTES;
+
+        private static final Double DEFAULT_ELEVATED_LIVE_SET_RATIO = 0.75;
+        private static final Double DEFAULT_CRITICAL_LIVE_SET_RATIO = 0.9;
+        private static final Double DEFAULT_ELEVATED_GC_OVERHEAD = 0.1;
+        private static final Double DEFAULT_CRITICAL_GC_OVERHEAD = 0.25;
+        private static final Double DEFAULT_ALLOCATION_RATE = Double.POSITIVE_INFINITY;
+        private static final Double DEFAULT_HYSTERESIS = 0.1;
+        private static final Duration DEFAULT_LIVE_THREAD_SAMPLE_INTERVAL = Duration.ofSeconds(10);
+    }
+}
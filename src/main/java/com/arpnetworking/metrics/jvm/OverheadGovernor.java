@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Policy which sheds collectors from {@link JvmMetricsRunnable} while the
+ * process is under load. The collection {@link Mode} is chosen from the
+ * process CPU load and, optionally, from the fraction of time the runnable
+ * itself spends collecting. A mode is only left once the CPU load falls
+ * below its threshold by the hysteresis.
+ *
+ * In {@link Mode#REDUCED} mode {@link Priority#OPTIONAL} collectors only
+ * collect every {@code intervalMultiplier} runs. In {@link Mode#MINIMAL}
+ * mode {@link Priority#OPTIONAL} collectors do not collect and
+ * {@link Priority#NORMAL} collectors only collect every
+ * {@code intervalMultiplier} runs. {@link Priority#ESSENTIAL} collectors
+ * always collect.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class OverheadGovernor {
+
+    /**
+     * Choose the next collection mode.
+     *
+     * @param current the current mode
+     * @param processCpuLoad the process CPU load between zero and one
+     * @param collectionCost the fraction of time spent collecting
+     * @return the next mode
+     */
+    /* package private */ Mode evaluate(final Mode current, final double processCpuLoad, final double collectionCost) {
+        Mode target = Mode.NORMAL;
+        if (processCpuLoad >= _minimalCpuThreshold) {
+            target = Mode.MINIMAL;
+        } else if (processCpuLoad >= _reducedCpuThreshold || collectionCost > _collectionCostBudget) {
+            target = Mode.REDUCED;
+        }
+        if (target.compareTo(current) < 0) {
+            final double threshold = current == Mode.MINIMAL ? _minimalCpuThreshold : _reducedCpuThreshold;
+            if (processCpuLoad > threshold - _hysteresis) {
+                return current;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Determine whether a collector collects on this run.
+     *
+     * @param mode the current mode
+     * @param priority the priority of the collector
+     * @param run the number of the run
+     * @return true if and only if the collector should collect
+     */
+    /* package private */ boolean shouldCollect(final Mode mode, final Priority priority, final long run) {
+        // Each mode sheds one more priority than the previous mode
+        final int shed = mode.ordinal() + priority.ordinal();
+        if (shed <= Mode.MINIMAL.ordinal()) {
+            return true;
+        } else if (shed == Mode.MINIMAL.ordinal() + 1) {
+            return run % _intervalMultiplier == 0;
+        }
+        return false;
+    }
+
+    private OverheadGovernor(final Builder builder) {
+        _reducedCpuThreshold = builder._reducedCpuThreshold;
+        _minimalCpuThreshold = builder._minimalCpuThreshold;
+        _hysteresis = builder._hysteresis;
+        _collectionCostBudget = builder._collectionCostBudget;
+        _intervalMultiplier = builder._intervalMultiplier;
+    }
+
+    private final double _reducedCpuThreshold;
+    private final double _minimalCpuThreshold;
+    private final double _hysteresis;
+    private final double _collectionCostBudget;
+    private final int _intervalMultiplier;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OverheadGovernor.class);
+
+    /**
+     * The collection modes from least to most shedding.
+     */
+    public enum Mode {
+        /**
+         * All collectors collect.
+         */
+        NORMAL,
+        /**
+         * Optional collectors collect less often.
+         */
+        REDUCED,
+        /**
+         * Optional collectors do not collect and normal collectors collect
+         * less often.
+         */
+        MINIMAL
+    }
+
+    /**
+     * The priorities of collectors from most to least important.
+     */
+    public enum Priority {
+        /**
+         * Always collects.
+         */
+        ESSENTIAL,
+        /**
+         * Collects less often in minimal mode.
+         */
+        NORMAL,
+        /**
+         * Collects less often in reduced mode and not in minimal mode.
+         */
+        OPTIONAL
+    }
+
+    /**
+     * Builder for {@link OverheadGovernor}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link OverheadGovernor}.
+         *
+         * @return An instance of {@link OverheadGovernor}.
+         */
+        public OverheadGovernor build() {
+            if (_reducedCpuThreshold == null) {
+                _reducedCpuThreshold = DEFAULT_REDUCED_CPU_THRESHOLD;
+                LOGGER.debug(String.format("Defaulted null reduced cpu threshold; reducedCpuThreshold=%s", _reducedCpuThreshold));
+            }
+            if (_minimalCpuThreshold == null) {
+                _minimalCpuThreshold = DEFAULT_MINIMAL_CPU_THRESHOLD;
+                LOGGER.debug(String.format("Defaulted null minimal cpu threshold; minimalCpuThreshold=%s", _minimalCpuThreshold));
+            }
+            if (_hysteresis == null) {
+                _hysteresis = DEFAULT_HYSTERESIS;
+                LOGGER.debug(String.format("Defaulted null hysteresis; hysteresis=%s", _hysteresis));
+            }
+            if (_collectionCostBudget == null) {
+                _collectionCostBudget = DEFAULT_COLLECTION_COST_BUDGET;
+                LOGGER.debug(String.format("Defaulted null collection cost budget; collectionCostBudget=%s", _collectionCostBudget));
+            }
+            if (_intervalMultiplier == null) {
+                _intervalMultiplier = DEFAULT_INTERVAL_MULTIPLIER;
+                LOGGER.debug(String.format("Defaulted null interval multiplier; intervalMultiplier=%s", _intervalMultiplier));
+            }
+            if (!(_reducedCpuThreshold <= _minimalCpuThreshold) || !(_hysteresis >= 0) || _intervalMultiplier < 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid governor; reducedCpuThreshold=%s, minimalCpuThreshold=%s, hysteresis=%s, intervalMultiplier=%s",
+                        _reducedCpuThreshold,
+                        _minimalCpuThreshold,
+                        _hysteresis,
+                        _intervalMultiplier));
+            }
+            return new OverheadGovernor(this);
+        }
+
+        /**
+         * Set the process CPU load at which collection is reduced. Optional.
+         * Defaults to 0.8. Cannot be null. Cannot exceed the minimal CPU
+         * threshold.
+         *
+         * @param value The reduced CPU threshold.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setReducedCpuThreshold(final Double value) {
+            _reducedCpuThreshold = value;
+            return this;
+        }
+
+        /**
+         * Set the process CPU load at which collection is minimal. Optional.
+         * Defaults to 0.95. Cannot be null.
+         *
+         * @param value The minimal CPU threshold.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMinimalCpuThreshold(final Double value) {
+            _minimalCpuThreshold = value;
+            return this;
+        }
+
+        /**
+         * Set how far the process CPU load must fall below the threshold of
+         * the current mode before it is left. Optional. Defaults to 0.1.
+         * Cannot be null. Cannot be negative.
+         *
+         * @param value The hysteresis.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setHysteresis(final Double value) {
+            _hysteresis = value;
+            return this;
+        }
+
+        /**
+         * Set the fraction of time the runnable may spend collecting before
+         * collection is reduced regardless of the process CPU load.
+         * Optional. Defaults to 1.0 which disables it. Cannot be null.
+         *
+         * @param value The collection cost budget.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCollectionCostBudget(final Double value) {
+            _collectionCostBudget = value;
+            return this;
+        }
+
+        /**
+         * Set the factor by which the interval of shed collectors is
+         * lengthened. Optional. Defaults to 4. Cannot be null. Must be at
+         * least 1.
+         *
+         * @param value The interval multiplier.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setIntervalMultiplier(final Integer value) {
+            _intervalMultiplier = value;
+            return this;
+        }
+
+        private Double _reducedCpuThreshold = DEFAULT_REDUCED_CPU_THRESHOLD;
+        private Double _minimalCpuThreshold = DEFAULT_MINIMAL_CPU_THRESHOLD;
+        private Double _hysteresis = DEFAULT_HYSTERESIS;
+        private Double _collectionCostBudget = DEFAULT_COLLECTION_COST_BUDGET;
+        private Integer _intervalMultiplier = DEFAULT_INTERVAL_MULTIPLIER;
+
+        private static final Double DEFAULT_REDUCED_CPU_THRESHOLD = 0.8;
+        private static final Double DEFAULT_MINIMAL_CPU_THRESHOLD = 0.95;
+        private static final Double DEFAULT_HYSTERESIS = 0.1;
+        private static final Double DEFAULT_COLLECTION_COST_BUDGET = 1.0;
+        private static final Integer DEFAULT_INTERVAL_MULTIPLIER = 4;
+    }
+}
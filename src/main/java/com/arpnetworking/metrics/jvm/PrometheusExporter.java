@@ -0,0 +1,652 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.Timer;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link MetricsFactory} which serves the latest values recorded into it
+ * in the Prometheus text exposition format over a
+ * {@link com.sun.net.httpserver.HttpServer}. Use it as the
+ * {@link MetricsFactory} of runnables such as {@link JvmMetricsRunnable} and
+ * {@link ExecutorServiceMetricsRunnable}, or as one sink of a
+ * {@link FanOutMetricsFactory} to both push and be scraped.
+ *
+ * Gauges keep their latest value, counter increments are summed into a
+ * {@code _total} counter and timers are summed into a {@code _seconds}
+ * summary. Prometheus counters never decrease, so decrements and negative
+ * increments only declare the counter. Counters and timers created or
+ * started on a unit of work are recorded when they are stopped or the unit
+ * of work is closed. Metric names have characters Prometheus does not allow
+ * replaced with underscores, for example {@code jvm/heap_memory/used} is
+ * served as {@code jvm_heap_memory_used}; names which differ only in such
+ * characters are served as one series. Annotations are served as labels of
+ * the values recorded after they are added to the unit of work, so that for
+ * example several processes can be served from one exporter. With an
+ * expiry, series which are not recorded for that long are no longer served,
+ * for example those of a process which exited.
+ *
+ * The response is encoded, and compressed, once each time a unit of work
+ * is closed so a scrape only writes the latest bytes. Responses carry an
+ * {@code ETag} which changes only when the content does; a scrape with a
+ * matching {@code If-None-Match} receives {@code 304 Not Modified}. A scrape
+ * which accepts {@code gzip} receives the compressed bytes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class PrometheusExporter implements MetricsFactory, AutoCloseable {
+
+    @Override
+    public Metrics create() {
+        return new ExportingMetrics(this);
+    }
+
+    /**
+     * Start serving scrapes.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (_server != null) {
+            throw new IllegalStateException("Exporter already started.");
+        }
+        final HttpServer server = HttpServer.create(_address, 0);
+        server.createContext(_path, this::handle);
+        server.setExecutor(_executor);
+        server.start();
+        _server = server;
+    }
+
+    /**
+     * The address the exporter is bound to, which includes the port chosen
+     * when the configured port is zero.
+     *
+     * @return the bound address or empty if the exporter is not started
+     */
+    public synchronized Optional<InetSocketAddress> getAddress() {
+        return Optional.ofNullable(_server).map(HttpServer::getAddress);
+    }
+
+    /**
+     * Stop serving scrapes.
+     */
+    @Override
+    public synchronized void close() {
+        if (_server != null) {
+            _server.stop(0);
+            _server = null;
+        }
+        _executor.shutdown();
+    }
+
+    private synchronized void setGauge(final String name, final String labels, final long value) {
+        final Series series = getSeries(name, labels, Series.Type.GAUGE);
+        series._isDouble = false;
+        series._long = value;
+    }
+
+    private synchronized void setGauge(final String name, final String labels, final double value) {
+        final Series series = getSeries(name, labels, Series.Type.GAUGE);
+        series._isDouble = true;
+        series._double = value;
+    }
+
+    private synchronized void addToCounter(final String name, final String labels, final long value) {
+        final Series series = getSeries(name, labels, Series.Type.COUNTER);
+        if (value > 0) {
+            series._long += value;
+        } else if (value < 0) {
+            LOGGER.debug(String.format("Ignored counter decrement; name=%s, value=%d", name, value));
+        }
+    }
+
+    private synchronized void addToSummary(final String name, final String labels, final long duration, final TimeUnit unit) {
+        final Series series = getSeries(name, labels, Series.Type.SUMMARY);
+        series._double += unit.toNanos(duration) / NANOS_PER_SECOND;
+        ++series._long;
+    }
+
+    private Series getSeries(final String name, final String labels, final Series.Type type) {
+        final String baseName = toPrometheusName(name);
+        Family family = _families.get(baseName);
+        if (family == null || family._type != type) {
+            // A name recorded as a different type replaces the previous series
+            family = new Family(baseName + type._suffix, type);
+            _families.put(baseName, family);
+        }
+        Series series = family._series.get(labels);
+        if (series == null) {
+            series = new Series(family._name, labels, type);
+            family._series.put(labels, series);
+        }
+        series._recordedNanos = _nanoTime.getAsLong();
+        return series;
+    }
+
+    /* package private */ synchronized void encode() {
+        if (_expiryNanos > 0) {
+            expire();
+        }
+        _text.setLength(0);
+        for (final Family family : _families.values()) {
+            // All series of a name follow its one type line
+            _text.append("# TYPE ").append(family._name).append(' ').append(family._type._name).append('\n');
+            for (final Series series : family._series.values()) {
+                series.appendTo(_text);
+            }
+        }
+        final byte[] plain = _text.toString().getBytes(StandardCharsets.UTF_8);
+        if (Arrays.equals(plain, _encoded._plain)) {
+            return;
+        }
+        _encoded = new Encoded(plain, gzip(plain), "\"" + Long.toHexString(++_version) + "\"");
+    }
+
+    private void expire() {
+        final long nowNanos = _nanoTime.getAsLong();
+        long nextExpiryNanos = nowNanos + _expiryNanos;
+        final Iterator<Family> families = _families.values().iterator();
+        while (families.hasNext()) {
+            final Family family = families.next();
+            final Iterator<Series> series = family._series.values().iterator();
+            while (series.hasNext()) {
+                final long expiryNanos = series.next()._recordedNanos + _expiryNanos;
+                if (nowNanos - expiryNanos >= 0) {
+                    series.remove();
+                } else if (expiryNanos - nextExpiryNanos < 0) {
+                    nextExpiryNanos = expiryNanos;
+                }
+            }
+            if (family._series.isEmpty()) {
+                families.remove();
+            }
+        }
+        _nextExpiryNanos = nextExpiryNanos;
+    }
+
+    private byte[] gzip(final byte[] plain) {
+        // The gzip member is assembled by hand to reuse one deflater; the
+        // encoded arrays are new since scrapes may still be writing the last
+        _compressed.reset();
+        _compressed.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        _deflater.reset();
+        _deflater.setInput(plain);
+        _deflater.finish();
+        while (!_deflater.finished()) {
+            _compressed.write(_deflated, 0, _deflater.deflate(_deflated));
+        }
+        _crc.reset();
+        _crc.update(plain);
+        writeLittleEndian(_crc.getValue());
+        writeLittleEndian(plain.length);
+        return _compressed.toByteArray();
+    }
+
+    private void writeLittleEndian(final long value) {
+        for (int i = 0; i < Integer.BYTES; ++i) {
+            _compressed.write((int) (value >>> (Byte.SIZE * i)));
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        final String method = exchange.getRequestMethod();
+        final Headers responseHeaders = exchange.getResponseHeaders();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            responseHeaders.set("Allow", "GET, HEAD");
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+        if (_expiryNanos > 0 && _nanoTime.getAsLong() - _nextExpiryNanos >= 0) {
+            // Series also expire while nothing is recorded
+            encode();
+        }
+        final Encoded encoded = _encoded;
+        final Headers requestHeaders = exchange.getRequestHeaders();
+        responseHeaders.set("ETag", encoded._etag);
+        responseHeaders.set("Vary", "Accept-Encoding");
+        final String ifNoneMatch = requestHeaders.getFirst("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(encoded._etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        final String acceptEncoding = requestHeaders.getFirst("Accept-Encoding");
+        final boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        final byte[] body = gzip ? encoded._gzip : encoded._plain;
+        responseHeaders.set("Content-Type", CONTENT_TYPE);
+        if (gzip) {
+            responseHeaders.set("Content-Encoding", "gzip");
+        }
+        // A length of zero would send a chunked response; -1 sends no body
+        final boolean sendBody = !"HEAD".equals(method) && body.length > 0;
+        exchange.sendResponseHeaders(200, sendBody ? body.length : -1);
+        if (sendBody) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static String toPrometheusName(final String name) {
+        final StringBuilder builder = new StringBuilder(name.length() + 1);
+        if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+            builder.append('_');
+        }
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            final boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == ':';
+            builder.append(valid ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    private static String toLabels(final Map<String, String> annotations) {
+        if (annotations.isEmpty()) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder("{");
+        for (final Map.Entry<String, String> annotation : annotations.entrySet()) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            final String key = annotation.getKey();
+            if (key.isEmpty() || Character.isDigit(key.charAt(0))) {
+                builder.append('_');
+            }
+            for (int i = 0; i < key.length(); ++i) {
+                final char c = key.charAt(i);
+                final boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+                builder.append(valid ? c : '_');
+            }
+            builder.append("=\"");
+            final String value = annotation.getValue();
+            for (int i = 0; i < value.length(); ++i) {
+                final char c = value.charAt(i);
+                if (c == '\\' || c == '"') {
+                    builder.append('\\').append(c);
+                } else if (c == '\n') {
+                    builder.append("\\n");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private PrometheusExporter(final Builder builder) {
+        _address = builder._address;
+        _path = builder._path;
+        _expiryNanos = builder._expiry.toNanos();
+        _nanoTime = builder._nanoTime;
+        _nextExpiryNanos = _nanoTime.getAsLong() + _expiryNanos;
+    }
+
+    private final InetSocketAddress _address;
+    private final String _path;
+    private final long _expiryNanos;
+    private final LongSupplier _nanoTime;
+    private final ExecutorService _executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "jvm-metrics-prometheus-exporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Keyed by the sanitized name without the suffix of the type; sorted so the output is stable
+    private final Map<String, Family> _families = new TreeMap<>();
+    private final StringBuilder _text = new StringBuilder();
+    private final ByteArrayOutputStream _compressed = new ByteArrayOutputStream();
+    private final Deflater _deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final byte[] _deflated = new byte[DEFLATE_BUFFER_SIZE];
+    private final CRC32 _crc = new CRC32();
+    private long _version;
+    private volatile long _nextExpiryNanos;
+    private volatile Encoded _encoded = new Encoded(new byte[0], new byte[0], "\"0\"");
+    private HttpServer _server;
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    // Magic, deflate, no flags, no modification time, no extra flags, unknown operating system
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int DEFLATE_BUFFER_SIZE = 8192;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    private static final class Encoded {
+
+        private Encoded(final byte[] plain, final byte[] gzip, final String etag) {
+            _plain = plain;
+            _gzip = gzip;
+            _etag = etag;
+        }
+
+        private final byte[] _plain;
+        private final byte[] _gzip;
+        private final String _etag;
+    }
+
+    private static final class Family {
+
+        private Family(final String name, final Series.Type type) {
+            _name = name;
+            _type = type;
+        }
+
+        private final String _name;
+        private final Series.Type _type;
+        // Keyed by the labels
+        private final Map<String, Series> _series = new TreeMap<>();
+    }
+
+    private static final class Series {
+
+        private void appendTo(final StringBuilder text) {
+            if (_type == Type.SUMMARY) {
+                text.append(_name).append("_sum").append(_labels).append(' ');
+                appendDouble(text, _double);
+                text.append('\n').append(_name).append("_count").append(_labels).append(' ').append(_long).append('\n');
+            } else {
+                text.append(_name).append(_labels).append(' ');
+                if (_isDouble) {
+                    appendDouble(text, _double);
+                } else {
+                    text.append(_long);
+                }
+                text.append('\n');
+            }
+        }
+
+        private static void appendDouble(final StringBuilder text, final double value) {
+            if (Double.isNaN(value)) {
+                text.append("NaN");
+            } else if (Double.isInfinite(value)) {
+                text.append(value > 0 ? "+Inf" : "-Inf");
+            } else {
+                text.append(value);
+            }
+        }
+
+        private Series(final String name, final String labels, final Type type) {
+            _name = name;
+            _labels = labels;
+            _type = type;
+        }
+
+        private final String _name;
+        private final String _labels;
+        private final Type _type;
+        private boolean _isDouble;
+        private long _long;
+        private double _double;
+        private long _recordedNanos;
+
+        private enum Type {
+            GAUGE("gauge", ""),
+            COUNTER("counter", "_total"),
+            SUMMARY("summary", "_seconds");
+
+            Type(final String name, final String suffix) {
+                _name = name;
+                _suffix = suffix;
+            }
+
+            private final String _name;
+            private final String _suffix;
+        }
+    }
+
+    private static final class ExportingMetrics implements Metrics {
+
+        @Override
+        public Counter createCounter(final String name) {
+            return _quantities.createCounter(name);
+        }
+
+        @Override
+        public void incrementCounter(final String name) {
+            incrementCounter(name, 1);
+        }
+
+        @Override
+        public void incrementCounter(final String name, final long value) {
+            if (isOpen()) {
+                _exporter.addToCounter(name, _labels, value);
+            }
+        }
+
+        @Override
+        public void decrementCounter(final String name) {
+            incrementCounter(name, -1);
+        }
+
+        @Override
+        public void decrementCounter(final String name, final long value) {
+            incrementCounter(name, -value);
+        }
+
+        @Override
+        public void resetCounter(final String name) {
+            // Prometheus counters are cumulative so a reset only declares the counter
+            incrementCounter(name, 0);
+        }
+
+        @Override
+        public Timer createTimer(final String name) {
+            return _quantities.createTimer(name);
+        }
+
+        @Override
+        public void startTimer(final String name) {
+            _quantities.startTimer(name);
+        }
+
+        @Override
+        public void stopTimer(final String name) {
+            _quantities.stopTimer(name);
+        }
+
+        @Override
+        public void setTimer(final String name, final long duration, final TimeUnit unit) {
+            if (isOpen()) {
+                _exporter.addToSummary(name, _labels, duration, unit);
+            }
+        }
+
+        @Override
+        public void setGauge(final String name, final double value) {
+            if (isOpen()) {
+                _exporter.setGauge(name, _labels, value);
+            }
+        }
+
+        @Override
+        public void setGauge(final String name, final long value) {
+            if (isOpen()) {
+                _exporter.setGauge(name, _labels, value);
+            }
+        }
+
+        @Override
+        public synchronized void addAnnotation(final String key, final String value) {
+            _annotations.put(key, value);
+            _labels = toLabels(_annotations);
+        }
+
+        @Override
+        public synchronized void addAnnotations(final Map<String, String> map) {
+            _annotations.putAll(map);
+            _labels = toLabels(_annotations);
+        }
+
+        @Override
+        public synchronized boolean isOpen() {
+            return _closeTime == null;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (_closeTime != null) {
+                    return;
+                }
+                _quantities.close();
+                _closeTime = Instant.now();
+            }
+            _exporter.encode();
+        }
+
+        @Override
+        public Instant getOpenTime() {
+            return _openTime;
+        }
+
+        @Override
+        public synchronized Instant getCloseTime() {
+            return _closeTime;
+        }
+
+        private ExportingMetrics(final PrometheusExporter exporter) {
+            _exporter = exporter;
+        }
+
+        private final PrometheusExporter _exporter;
+        private final DeferredQuantities _quantities = new DeferredQuantities(this);
+        private final Instant _openTime = Instant.now();
+        private final Map<String, String> _annotations = new TreeMap<>();
+        private volatile String _labels = "";
+        private Instant _closeTime;
+    }
+
+    /**
+     * Builder for {@link PrometheusExporter}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link PrometheusExporter}. The exporter
+         * serves scrapes once started.
+         *
+         * @return An instance of {@link PrometheusExporter}.
+         */
+        public PrometheusExporter build() {
+            if (_address == null) {
+                _address = DEFAULT_ADDRESS;
+                LOGGER.debug(String.format("Defaulted null address; address=%s", _address));
+            }
+            if (_path == null) {
+                _path = DEFAULT_PATH;
+                LOGGER.debug(String.format("Defaulted null path; path=%s", _path));
+            }
+            if (_expiry == null) {
+                _expiry = DEFAULT_EXPIRY;
+                LOGGER.debug(String.format("Defaulted null expiry; expiry=%s", _expiry));
+            }
+            if (!_path.startsWith("/")) {
+                throw new IllegalArgumentException(String.format("Path must start with a slash; path=%s", _path));
+            }
+            if (_expiry.isNegative()) {
+                throw new IllegalArgumentException(String.format("Expiry cannot be negative; expiry=%s", _expiry));
+            }
+            return new PrometheusExporter(this);
+        }
+
+        /**
+         * Set the address to serve scrapes on; a port of zero chooses a free
+         * port. Optional. Defaults to port 9404 on all interfaces. Cannot be
+         * null.
+         *
+         * @param value The address.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setAddress(final InetSocketAddress value) {
+            _address = value;
+            return this;
+        }
+
+        /**
+         * Set the path to serve scrapes on. Optional. Defaults to
+         * {@code /metrics}. Cannot be null. Must start with a slash.
+         *
+         * @param value The path.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setPath(final String value) {
+            _path = value;
+            return this;
+        }
+
+        /**
+         * Set how long a series is served after it was last recorded; for
+         * example the series of a process which exited. It should exceed the
+         * longest interval between recordings of a series. Optional.
+         * Defaults to zero which serves series until the exporter is closed.
+         * Cannot be null. Cannot be negative.
+         *
+         * @param value The expiry.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setExpiry(final Duration value) {
+            _expiry = value;
+            return this;
+        }
+
+        /* package private */ Builder setNanoTime(final LongSupplier value) {
+            _nanoTime = value;
+            return this;
+        }
+
+        private InetSocketAddress _address = DEFAULT_ADDRESS;
+        private String _path = DEFAULT_PATH;
+        private Duration _expiry = DEFAULT_EXPIRY;
+        private LongSupplier _nanoTime = System::nanoTime;
+
+        private static final InetSocketAddress DEFAULT_ADDRESS = new InetSocketAddress(9404);
+        private static final String DEFAULT_PATH = "/metrics";
+        private static final Duration DEFAULT_EXPIRY = Duration.ZERO;
+    }
+}
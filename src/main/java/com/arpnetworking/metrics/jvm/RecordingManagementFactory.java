@@ -0,0 +1,334 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.management.MBeanServerConnection;
+
+/**
+ * A {@link ManagementFactory} which delegates to another and records every
+ * value read from it to a compact binary trace, which a
+ * {@link ReplayManagementFactory} plays back. Record the production JVM
+ * while the behavior of interest, such as a garbage collection storm,
+ * happens and replay it in tests and benchmarks of
+ * {@link JvmMetricsRunnable} and the collectors.
+ *
+ * Each call to a bean, including calls which throw, is appended to the
+ * trace as it is made. The {@link Hsperfdata} counters are passed through
+ * but not recorded. Values of types the trace cannot represent, such as
+ * {@link java.lang.management.ThreadInfo}, are passed through and fail when
+ * replayed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class RecordingManagementFactory implements ManagementFactory, AutoCloseable {
+
+    @Override
+    public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        return recordAll(
+                "getGarbageCollectorMXBeans()",
+                "gc:",
+                _managementFactory.getGarbageCollectorMXBeans(),
+                GarbageCollectorMXBean::getName,
+                List.of(GarbageCollectorMXBean.class, com.sun.management.GarbageCollectorMXBean.class));
+    }
+
+    @Override
+    public MemoryMXBean getMemoryMXBean() {
+        return record("getMemoryMXBean()", "memory", _managementFactory.getMemoryMXBean(), List.of(MemoryMXBean.class));
+    }
+
+    @Override
+    public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
+        return recordAll(
+                "getMemoryPoolMXBeans()",
+                "pool:",
+                _managementFactory.getMemoryPoolMXBeans(),
+                MemoryPoolMXBean::getName,
+                List.of(MemoryPoolMXBean.class));
+    }
+
+    @Override
+    public ThreadMXBean getThreadMXBean() {
+        return record(
+                "getThreadMXBean()",
+                "thread",
+                _managementFactory.getThreadMXBean(),
+                List.of(ThreadMXBean.class, com.sun.management.ThreadMXBean.class));
+    }
+
+    @Override
+    public List<BufferPoolMXBean> getBufferPoolMXBeans() {
+        return recordAll(
+                "getBufferPoolMXBeans()",
+                "buffer:",
+                _managementFactory.getBufferPoolMXBeans(),
+                BufferPoolMXBean::getName,
+                List.of(BufferPoolMXBean.class));
+    }
+
+    @Override
+    public OperatingSystemMXBean getOperatingSystemMXBean() {
+        return record(
+                "getOperatingSystemMXBean()",
+                "os",
+                _managementFactory.getOperatingSystemMXBean(),
+                List.of(
+                        OperatingSystemMXBean.class,
+                        com.sun.management.OperatingSystemMXBean.class,
+                        com.sun.management.UnixOperatingSystemMXBean.class));
+    }
+
+    @Override
+    public ClassLoadingMXBean getClassLoadingMXBean() {
+        return record(
+                "getClassLoadingMXBean()",
+                "class_loading",
+                _managementFactory.getClassLoadingMXBean(),
+                List.of(ClassLoadingMXBean.class));
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServerConnection() {
+        return record(
+                "getMBeanServerConnection()",
+                "connection",
+                _managementFactory.getMBeanServerConnection(),
+                List.of(MBeanServerConnection.class));
+    }
+
+    @Override
+    public Optional<Hsperfdata> getHsperfdata() {
+        return _managementFactory.getHsperfdata();
+    }
+
+    /**
+     * Write the buffered records to the trace.
+     *
+     * @throws IOException if the trace cannot be written
+     */
+    public void flush() throws IOException {
+        _writer.flush();
+    }
+
+    /**
+     * Write the buffered records and close the trace. Subsequent reads fail.
+     *
+     * @throws IOException if the trace cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        _writer.close();
+    }
+
+    private <T> List<T> recordAll(
+            final String call,
+            final String prefix,
+            final List<T> beans,
+            final Function<T, String> name,
+            final List<Class<?>> interfaces) {
+        final List<T> recorders = new ArrayList<>(beans.size());
+        final String[] keys = new String[beans.size()];
+        for (int i = 0; i < keys.length; ++i) {
+            final T bean = beans.get(i);
+            keys[i] = prefix + name.apply(bean);
+            recorders.add(wrap(keys[i], bean, interfaces));
+        }
+        call(FACTORY + call, keys);
+        return recorders;
+    }
+
+    @Nullable
+    private <T> T record(final String call, final String key, @Nullable final T bean, final List<Class<?>> interfaces) {
+        if (bean == null) {
+            call(FACTORY + call, null);
+            return null;
+        }
+        final T recorder = wrap(key, bean, interfaces);
+        call(FACTORY + call, key);
+        return recorder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T wrap(final String key, final T bean, final List<Class<?>> interfaces) {
+        Recorder recorder = _recorders.get(key);
+        if (recorder == null) {
+            final List<Class<?>> implemented = interfaces.stream()
+                    .filter(type -> type.isInstance(bean))
+                    .collect(Collectors.toList());
+            try {
+                _writer.bean(key, implemented);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            recorder = new Recorder(key);
+            recorder._proxy = Proxy.newProxyInstance(
+                    RecordingManagementFactory.class.getClassLoader(),
+                    implemented.toArray(new Class<?>[0]),
+                    recorder);
+            _recorders.put(key, recorder);
+        }
+        // The delegate may replace its beans, for example when it reconnects
+        recorder._bean = bean;
+        return (T) recorder._proxy;
+    }
+
+    private void call(final String key, @Nullable final Object value) {
+        try {
+            _writer.call(key, value);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RecordingManagementFactory(final Builder builder) throws IOException {
+        _managementFactory = builder._managementFactory;
+        _writer = new ManagementTrace.Writer(Files.newOutputStream(builder._path));
+    }
+
+    private final ManagementFactory _managementFactory;
+    private final ManagementTrace.Writer _writer;
+    private final Map<String, Recorder> _recorders = new TreeMap<>();
+
+    private static final String FACTORY = "factory.";
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordingManagementFactory.class);
+
+    /**
+     * Records the calls to a bean.
+     */
+    private final class Recorder implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass().equals(Object.class)) {
+                return method.invoke(this, args);
+            }
+            final String key = key(method, args);
+            final Object value;
+            try {
+                value = method.invoke(_bean, args);
+            } catch (final InvocationTargetException e) {
+                try {
+                    _writer.fail(key, e.getTargetException());
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+                throw e.getTargetException();
+            }
+            call(key, value);
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Recorder{key=" + _key + "}";
+        }
+
+        private String key(final Method method, @Nullable final Object[] args) {
+            if (args == null) {
+                return _keys.computeIfAbsent(method, m -> ManagementTrace.key(_key, m, null));
+            }
+            return ManagementTrace.key(_key, method, args);
+        }
+
+        private Recorder(final String key) {
+            _key = key;
+        }
+
+        private final String _key;
+        private final Map<Method, String> _keys = new ConcurrentHashMap<>();
+        private volatile Object _proxy;
+        private volatile Object _bean;
+    }
+
+    /**
+     * Builder for {@link RecordingManagementFactory}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Creates or truncates the trace and builds an instance of
+         * {@link RecordingManagementFactory} which records into it.
+         *
+         * @return An instance of {@link RecordingManagementFactory}.
+         * @throws IOException if the trace cannot be created
+         */
+        public RecordingManagementFactory build() throws IOException {
+            if (_path == null) {
+                throw new IllegalArgumentException("Path cannot be null.");
+            }
+            if (_managementFactory == null) {
+                _managementFactory = ManagementFactoryDefault.newInstance();
+                LOGGER.debug(String.format("Defaulted null management factory; managementFactory=%s", _managementFactory));
+            }
+            return new RecordingManagementFactory(this);
+        }
+
+        /**
+         * Set the path of the trace. Required. Cannot be null.
+         *
+         * @param value The path of the trace.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setPath(final Path value) {
+            _path = value;
+            return this;
+        }
+
+        /**
+         * Set the management factory to record. Optional. Defaults to the
+         * management factory of this JVM. Cannot be null.
+         *
+         * @param value The management factory to record.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setManagementFactory(final ManagementFactory value) {
+            _managementFactory = value;
+            return this;
+        }
+
+        private Path _path;
+        private ManagementFactory _managementFactory;
+    }
+}
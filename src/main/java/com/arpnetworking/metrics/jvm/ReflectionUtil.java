@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * An utility class for calling methods which are not in the JDK the library
+ * is compiled against.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class ReflectionUtil {
+
+    /**
+     * Finds a public method.
+     *
+     * @param clazz the class declaring or inheriting the method
+     * @param name the name of the method
+     * @param parameterTypes the parameter types of the method
+     * @return the method or empty if the running JDK does not have it
+     */
+    /* package private */ static Optional<Method> findMethod(
+            final Class<?> clazz,
+            final String name,
+            final Class<?>... parameterTypes) {
+        try {
+            return Optional.of(clazz.getMethod(name, parameterTypes));
+        } catch (final NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ReflectionUtil() {}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RejectedExecutionHandler} decorator which counts rejections and
+ * tracks the time its {@link ThreadPoolExecutor} spends saturated before
+ * delegating to the original handler. An executor is saturated when its
+ * queue has no remaining capacity and all {@link ThreadPoolExecutor#getMaximumPoolSize()}
+ * threads are busy.
+ *
+ * Rejections are counted in a striped counter so concurrent submitters do
+ * not contend. Saturation is only observed when a task is rejected and when
+ * {@link ExecutorServiceMetricsRunnable} samples the executor; a saturated
+ * interval starts at a rejection and ends at the last saturated observation
+ * so the reported saturation is a lower bound.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class RejectionTrackingHandler implements RejectedExecutionHandler {
+
+    /**
+     * Installs a {@link RejectionTrackingHandler} on the executor which
+     * decorates its current {@link RejectedExecutionHandler}. Installing
+     * on an executor that already has one returns the existing instance.
+     *
+     * @param executor the {@link ThreadPoolExecutor} to install on
+     * @return the installed {@link RejectionTrackingHandler}
+     */
+    public static RejectionTrackingHandler install(final ThreadPoolExecutor executor) {
+        final RejectedExecutionHandler current = executor.getRejectedExecutionHandler();
+        if (current instanceof RejectionTrackingHandler) {
+            return (RejectionTrackingHandler) current;
+        }
+        final RejectionTrackingHandler handler = new RejectionTrackingHandler(current);
+        executor.setRejectedExecutionHandler(handler);
+        return handler;
+    }
+
+    @Override
+    public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+        _rejections.increment();
+        // Rejections after shutdown are not caused by saturation
+        if (!executor.isShutdown()) {
+            final long now = System.nanoTime();
+            _lastSaturated = now;
+            _saturatedSince.compareAndSet(NOT_SATURATED, now);
+        }
+        _delegate.rejectedExecution(runnable, executor);
+    }
+
+    /**
+     * Gets the number of rejections for all time.
+     *
+     * @return the number of rejections
+     */
+    public long getRejectionCount() {
+        return _rejectionsTotal.sum() + _rejections.sum();
+    }
+
+    /* package private */ synchronized Snapshot drain(final ThreadPoolExecutor executor) {
+        final long now = System.nanoTime();
+        final long elapsed = now - _lastDrain;
+        final long windowStart = _lastDrain;
+        _lastDrain = now;
+
+        long saturated = 0;
+        final long since = _saturatedSince.get();
+        if (since != NOT_SATURATED) {
+            final long start = windowStart + Math.max(0, since - windowStart);
+            if (isSaturated(executor)) {
+                saturated = now - start;
+                _saturatedSince.set(now);
+            } else {
+                saturated = Math.max(0, _lastSaturated - start);
+                _saturatedSince.compareAndSet(since, NOT_SATURATED);
+            }
+        }
+        final long rejections = _rejections.sumThenReset();
+        _rejectionsTotal.add(rejections);
+        return new Snapshot(rejections, Math.min(elapsed, saturated), elapsed);
+    }
+
+    private static boolean isSaturated(final ThreadPoolExecutor executor) {
+        return executor.getQueue().remainingCapacity() == 0
+                && executor.getActiveCount() >= executor.getMaximumPoolSize();
+    }
+
+    private RejectionTrackingHandler(final RejectedExecutionHandler delegate) {
+        _delegate = delegate;
+    }
+
+    private final RejectedExecutionHandler _delegate;
+    private final LongAdder _rejections = new LongAdder();
+    private final LongAdder _rejectionsTotal = new LongAdder();
+    private final AtomicLong _saturatedSince = new AtomicLong(NOT_SATURATED);
+    private volatile long _lastSaturated;
+    private long _lastDrain = System.nanoTime();
+
+    private static final long NOT_SATURATED = Long.MIN_VALUE;
+
+    /**
+     * Rejections and saturation since the previous drain.
+     */
+    /* package private */ static final class Snapshot {
+
+        /* package private */ long getRejections() {
+            return _rejections;
+        }
+
+        /* package private */ long getSaturatedNanos() {
+            return _saturatedNanos;
+        }
+
+        /* package private */ double getSaturationRatio() {
+            return _saturatedNanos / (double) Math.max(1, _elapsedNanos);
+        }
+
+        private Snapshot(final long rejections, final long saturatedNanos, final long elapsedNanos) {
+            _rejections = rejections;
+            _saturatedNanos = saturatedNanos;
+            _elapsedNanos = elapsedNanos;
+        }
+
+        private final long _rejections;
+        private final long _saturatedNanos;
+        private final long _elapsedNanos;
+    }
+}
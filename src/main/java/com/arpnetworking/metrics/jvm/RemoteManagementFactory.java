@@ -0,0 +1,428 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.Query;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * A {@link ManagementFactory} for another JVM, backed by a JMX connection
+ * to its platform MBean server. The MXBean proxies are built once, when
+ * first connecting, so each collection only pays for the remote attribute
+ * reads. Proxies implement the HotSpot extensions of the MXBean interfaces
+ * where the remote JVM provides them, so collectors which use those, such
+ * as the file descriptor collector, work as they do in process.
+ *
+ * Attribute reads are batched. The first read of an MBean reads every
+ * attribute previously read from it with a single {@code getAttributes}
+ * call and the other reads within the maximum age are answered from that
+ * result, so a collection costs about one round trip per MBean instead of
+ * one per attribute. Attributes which the remote JVM fails to read in bulk
+ * are read individually so that their exceptions reach the collector.
+ * Operations, such as dumping threads, are never cached.
+ *
+ * A call which fails with an {@link IOException} drops the connection and
+ * the next call connects again, so the proxies outlive connection failures
+ * as long as the service URL remains valid. The failed call is not retried.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class RemoteManagementFactory implements ManagementFactory, AutoCloseable {
+
+    @Override
+    public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        return _proxies._garbageCollectorMXBeans;
+    }
+
+    @Override
+    public MemoryMXBean getMemoryMXBean() {
+        return _proxies._memoryMXBean;
+    }
+
+    @Override
+    public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
+        return _proxies._memoryPoolMXBeans;
+    }
+
+    @Override
+    public ThreadMXBean getThreadMXBean() {
+        return _proxies._threadMXBean;
+    }
+
+    @Override
+    public List<BufferPoolMXBean> getBufferPoolMXBeans() {
+        return _proxies._bufferPoolMXBeans;
+    }
+
+    @Override
+    public OperatingSystemMXBean getOperatingSystemMXBean() {
+        return _proxies._operatingSystemMXBean;
+    }
+
+    @Override
+    public ClassLoadingMXBean getClassLoadingMXBean() {
+        return _proxies._classLoadingMXBean;
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServerConnection() {
+        return _proxies._connection;
+    }
+
+    @Override
+    public Optional<Hsperfdata> getHsperfdata() {
+        return _hsperfdata;
+    }
+
+    /**
+     * Close the connection. Subsequent calls fail instead of connecting
+     * again.
+     *
+     * @throws IOException if the connection cannot be closed cleanly
+     */
+    @Override
+    public void close() throws IOException {
+        _connection.close();
+    }
+
+    private static OperatingSystemMXBean createOperatingSystemMXBean(final MBeanServerConnection connection) throws IOException {
+        final boolean isUnix = !connection.queryNames(
+                null,
+                Query.isInstanceOf(Query.value(UnixOperatingSystemMXBean.class.getName()))).isEmpty();
+        if (isUnix) {
+            return java.lang.management.ManagementFactory.getPlatformMXBean(connection, UnixOperatingSystemMXBean.class);
+        }
+        return java.lang.management.ManagementFactory.getPlatformMXBean(
+                connection,
+                com.sun.management.OperatingSystemMXBean.class);
+    }
+
+    private RemoteManagementFactory(final Connection connection, final Optional<Hsperfdata> hsperfdata) throws IOException {
+        _connection = connection;
+        _hsperfdata = hsperfdata;
+        _proxies = new Proxies((MBeanServerConnection) Proxy.newProxyInstance(
+                MBeanServerConnection.class.getClassLoader(),
+                new Class<?>[] {MBeanServerConnection.class},
+                connection));
+    }
+
+    private final Connection _connection;
+    private final Optional<Hsperfdata> _hsperfdata;
+    private final Proxies _proxies;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteManagementFactory.class);
+
+    private static final class Proxies {
+
+        private Proxies(final MBeanServerConnection connection) throws IOException {
+            _connection = connection;
+            _garbageCollectorMXBeans = List.copyOf(java.lang.management.ManagementFactory.getPlatformMXBeans(
+                    connection,
+                    com.sun.management.GarbageCollectorMXBean.class));
+            _memoryMXBean = java.lang.management.ManagementFactory.getPlatformMXBean(connection, MemoryMXBean.class);
+            _memoryPoolMXBeans = List.copyOf(java.lang.management.ManagementFactory.getPlatformMXBeans(
+                    connection,
+                    MemoryPoolMXBean.class));
+            _threadMXBean = java.lang.management.ManagementFactory.getPlatformMXBean(
+                    connection,
+                    com.sun.management.ThreadMXBean.class);
+            _bufferPoolMXBeans = List.copyOf(java.lang.management.ManagementFactory.getPlatformMXBeans(
+                    connection,
+                    BufferPoolMXBean.class));
+            _operatingSystemMXBean = createOperatingSystemMXBean(connection);
+            _classLoadingMXBean = java.lang.management.ManagementFactory.getPlatformMXBean(
+                    connection,
+                    ClassLoadingMXBean.class);
+        }
+
+        private final MBeanServerConnection _connection;
+        private final List<GarbageCollectorMXBean> _garbageCollectorMXBeans;
+        private final MemoryMXBean _memoryMXBean;
+        private final List<MemoryPoolMXBean> _memoryPoolMXBeans;
+        private final ThreadMXBean _threadMXBean;
+        private final List<BufferPoolMXBean> _bufferPoolMXBeans;
+        private final OperatingSystemMXBean _operatingSystemMXBean;
+        private final ClassLoadingMXBean _classLoadingMXBean;
+    }
+
+    /**
+     * Implements {@link MBeanServerConnection} over the current connection,
+     * connecting on demand and answering attribute reads from the batches.
+     */
+    /* package private */ static final class Connection implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass().equals(Object.class)) {
+                return method.invoke(this, args);
+            }
+            if (_maxAgeNanos > 0 && method.getName().equals("getAttribute")) {
+                final ObjectName name = (ObjectName) args[0];
+                return _beans.computeIfAbsent(name, Bean::new).getAttribute((String) args[1], this);
+            }
+            final MBeanServerConnection connection = connect();
+            try {
+                return method.invoke(connection, args);
+            } catch (final InvocationTargetException e) {
+                if (e.getTargetException() instanceof IOException) {
+                    disconnect(connection);
+                }
+                throw e.getTargetException();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "RemoteConnection{serviceUrl=" + _serviceUrl + "}";
+        }
+
+        /* package private */ <T> T call(final RemoteCall<T> call) throws JMException, IOException {
+            final MBeanServerConnection connection = connect();
+            try {
+                return call.apply(connection);
+            } catch (final IOException e) {
+                disconnect(connection);
+                throw e;
+            }
+        }
+
+        /* package private */ synchronized MBeanServerConnection connect() throws IOException {
+            if (_closed) {
+                throw new IOException(String.format("Connection closed; serviceUrl=%s", _serviceUrl));
+            }
+            if (_connection == null) {
+                _connector = _connectorFactory.connect(_serviceUrl);
+                _connection = _connector.getMBeanServerConnection();
+            }
+            return _connection;
+        }
+
+        /* package private */ synchronized void disconnect(final MBeanServerConnection connection) {
+            // Another call may have failed and reconnected already
+            if (connection == _connection) {
+                LOGGER.info(String.format("Connection lost; serviceUrl=%s", _serviceUrl));
+                try {
+                    _connector.close();
+                } catch (final IOException e) {
+                    LOGGER.debug(String.format("Unable to close connection cleanly; serviceUrl=%s", _serviceUrl), e);
+                }
+                _connector = null;
+                _connection = null;
+            }
+        }
+
+        /* package private */ synchronized void close() throws IOException {
+            _closed = true;
+            if (_connection != null) {
+                _connection = null;
+                _connector.close();
+            }
+        }
+
+        /* package private */ Connection(
+                final JMXServiceURL serviceUrl,
+                final Duration maxAge,
+                final ConnectorFactory connectorFactory) {
+            _serviceUrl = serviceUrl;
+            _maxAgeNanos = maxAge.toNanos();
+            _connectorFactory = connectorFactory;
+        }
+
+        private final JMXServiceURL _serviceUrl;
+        private final ConnectorFactory _connectorFactory;
+        private final long _maxAgeNanos;
+        private final Map<ObjectName, Bean> _beans = new ConcurrentHashMap<>();
+        private JMXConnector _connector;
+        private MBeanServerConnection _connection;
+        private boolean _closed;
+    }
+
+    /**
+     * The attributes read from an MBean and their latest values.
+     */
+    private static final class Bean {
+
+        private synchronized Object getAttribute(final String attribute, final Connection connection) throws JMException, IOException {
+            if (!_individual.contains(attribute)) {
+                final long now = System.nanoTime();
+                if (!_values.containsKey(attribute) || now - _readNanos > connection._maxAgeNanos) {
+                    _batched.add(attribute);
+                    read(connection);
+                    _readNanos = now;
+                }
+                if (_values.containsKey(attribute)) {
+                    return _values.get(attribute);
+                }
+            }
+            return connection.call(remote -> remote.getAttribute(_name, attribute));
+        }
+
+        private void read(final Connection connection) throws JMException, IOException {
+            final AttributeList attributes = connection.call(remote -> remote.getAttributes(
+                    _name,
+                    _batched.toArray(new String[0])));
+            _values.clear();
+            for (final Attribute attribute : attributes.asList()) {
+                _values.put(attribute.getName(), attribute.getValue());
+            }
+            // Attributes which failed are omitted; read them individually from now on
+            for (final String attribute : new ArrayList<>(_batched)) {
+                if (!_values.containsKey(attribute)) {
+                    _batched.remove(attribute);
+                    _individual.add(attribute);
+                }
+            }
+        }
+
+        private Bean(final ObjectName name) {
+            _name = name;
+        }
+
+        private final ObjectName _name;
+        private final Set<String> _batched = new TreeSet<>();
+        private final Set<String> _individual = new TreeSet<>();
+        private final Map<String, Object> _values = new TreeMap<>();
+        private long _readNanos;
+    }
+
+    /* package private */ interface ConnectorFactory {
+
+        JMXConnector connect(JMXServiceURL serviceUrl) throws IOException;
+    }
+
+    /* package private */ interface RemoteCall<T> {
+
+        T apply(MBeanServerConnection connection) throws JMException, IOException;
+    }
+
+    /**
+     * Builder for {@link RemoteManagementFactory}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Connects to the remote JVM and builds an instance of
+         * {@link RemoteManagementFactory} for it.
+         *
+         * @return An instance of {@link RemoteManagementFactory}.
+         * @throws IOException if the connection cannot be established
+         */
+        public RemoteManagementFactory build() throws IOException {
+            if (_serviceUrl == null) {
+                throw new IllegalArgumentException("ServiceUrl cannot be null.");
+            }
+            if (_maxAge == null) {
+                _maxAge = DEFAULT_MAX_AGE;
+                LOGGER.debug(String.format("Defaulted null max age; maxAge=%s", _maxAge));
+            }
+            if (_maxAge.isNegative()) {
+                throw new IllegalArgumentException("Max age cannot be negative; maxAge=" + _maxAge);
+            }
+            final Connection connection = new Connection(_serviceUrl, _maxAge, JMXConnectorFactory::connect);
+            boolean connected = false;
+            try {
+                final RemoteManagementFactory factory = new RemoteManagementFactory(
+                        connection,
+                        Optional.ofNullable(_hsperfdata));
+                connected = true;
+                return factory;
+            } finally {
+                if (!connected) {
+                    // For example the remote JVM does not register the platform MXBeans
+                    connection.close();
+                }
+            }
+        }
+
+        /**
+         * Set the JMX service URL of the remote JVM. Required. Cannot be
+         * null.
+         *
+         * @param value The service URL.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setServiceUrl(final JMXServiceURL value) {
+            _serviceUrl = value;
+            return this;
+        }
+
+        /**
+         * Set the {@link Hsperfdata} of the remote JVM. Optional. Defaults
+         * to none.
+         *
+         * @param value The {@link Hsperfdata} of the remote JVM.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setHsperfdata(final Hsperfdata value) {
+            _hsperfdata = value;
+            return this;
+        }
+
+        /**
+         * Set how long attribute values read in a batch are used. It should
+         * be shorter than the interval between collections and longer than
+         * a collection. Zero disables batching. Optional. Defaults to one
+         * second. Cannot be null. Cannot be negative.
+         *
+         * @param value The maximum age of attribute values.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMaxAge(final Duration value) {
+            _maxAge = value;
+            return this;
+        }
+
+        private JMXServiceURL _serviceUrl;
+        private Hsperfdata _hsperfdata;
+        private Duration _maxAge = DEFAULT_MAX_AGE;
+
+        private static final Duration DEFAULT_MAX_AGE = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.management.MBeanServerConnection;
+
+/**
+ * A {@link ManagementFactory} which plays back a trace written by a
+ * {@link RecordingManagementFactory}, so that tests and benchmarks of
+ * {@link JvmMetricsRunnable} and the collectors run deterministically
+ * against the behavior of a real JVM.
+ *
+ * Each call returns the values recorded for the same bean, method and
+ * arguments in the order they were recorded, and throws the exceptions
+ * recorded for it; code which reads the beans as the recorded code did
+ * observes exactly what the recorded code observed. Once the values of a
+ * call are exhausted the last value is repeated. Calls which were never
+ * recorded throw {@link IllegalStateException}. The trace is decoded when
+ * the instance is built, so replaying a read costs little more than the
+ * proxy.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class ReplayManagementFactory implements ManagementFactory {
+
+    @Override
+    public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        return replayAll(FACTORY + "getGarbageCollectorMXBeans()");
+    }
+
+    @Override
+    public MemoryMXBean getMemoryMXBean() {
+        return replay(FACTORY + "getMemoryMXBean()");
+    }
+
+    @Override
+    public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
+        return replayAll(FACTORY + "getMemoryPoolMXBeans()");
+    }
+
+    @Override
+    public ThreadMXBean getThreadMXBean() {
+        return replay(FACTORY + "getThreadMXBean()");
+    }
+
+    @Override
+    public List<BufferPoolMXBean> getBufferPoolMXBeans() {
+        return replayAll(FACTORY + "getBufferPoolMXBeans()");
+    }
+
+    @Override
+    public OperatingSystemMXBean getOperatingSystemMXBean() {
+        return replay(FACTORY + "getOperatingSystemMXBean()");
+    }
+
+    @Override
+    public ClassLoadingMXBean getClassLoadingMXBean() {
+        return replay(FACTORY + "getClassLoadingMXBean()");
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServerConnection() {
+        return replay(FACTORY + "getMBeanServerConnection()");
+    }
+
+    @Override
+    public Optional<Hsperfdata> getHsperfdata() {
+        return Optional.empty();
+    }
+
+    /**
+     * Play the trace again from the start, for example before each
+     * iteration of a benchmark.
+     */
+    public synchronized void rewind() {
+        for (final Values values : _calls.values()) {
+            values._next = 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> replayAll(final String call) {
+        return (List<T>) next(values(call));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private <T> T replay(final String call) {
+        return (T) next(values(call));
+    }
+
+    private Values values(final String call) {
+        final Values values = _calls.get(call);
+        if (values == null) {
+            throw new IllegalStateException(String.format("Call was not recorded; call=%s", call));
+        }
+        return values;
+    }
+
+    @Nullable
+    private synchronized Object next(final Values values) {
+        final Object value = values._values[values._next];
+        if (values._next < values._values.length - 1) {
+            ++values._next;
+        }
+        return value;
+    }
+
+    private ReplayManagementFactory(final ManagementTrace.Trace trace) throws IOException {
+        for (final Map.Entry<String, List<String>> bean : trace.getBeans().entrySet()) {
+            final Class<?>[] interfaces = new Class<?>[bean.getValue().size()];
+            for (int i = 0; i < interfaces.length; ++i) {
+                try {
+                    interfaces[i] = Class.forName(bean.getValue().get(i));
+                } catch (final ClassNotFoundException e) {
+                    throw new IOException(String.format("Unknown interface; bean=%s", bean.getKey()), e);
+                }
+            }
+            _beans.put(
+                    bean.getKey(),
+                    Proxy.newProxyInstance(
+                            ReplayManagementFactory.class.getClassLoader(),
+                            interfaces,
+                            new Replayer(bean.getKey())));
+        }
+        for (final Map.Entry<String, List<Object>> call : trace.getCalls().entrySet()) {
+            // A trace which was cut short may define a call without a value
+            if (!call.getValue().isEmpty()) {
+                final Object[] values = call.getValue().toArray();
+                if (call.getKey().startsWith(FACTORY)) {
+                    resolveBeans(values);
+                }
+                _calls.put(call.getKey(), new Values(values));
+            }
+        }
+    }
+
+    private void resolveBeans(final Object[] values) {
+        // The factory calls return the keys of the beans; resolve them once
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] instanceof String[]) {
+                final String[] keys = (String[]) values[i];
+                final List<Object> beans = new ArrayList<>(keys.length);
+                for (final String key : keys) {
+                    beans.add(_beans.get(key));
+                }
+                values[i] = Collections.unmodifiableList(beans);
+            } else if (values[i] != null) {
+                values[i] = _beans.get(values[i]);
+            }
+        }
+    }
+
+    private final Map<String, Object> _beans = new TreeMap<>();
+    private final Map<String, Values> _calls = new TreeMap<>();
+
+    private static final String FACTORY = "factory.";
+
+    /**
+     * The recorded values of a call and the position of the next one.
+     */
+    private static final class Values {
+
+        private Values(final Object[] values) {
+            _values = values;
+        }
+
+        private final Object[] _values;
+        private int _next;
+    }
+
+    /**
+     * Replays the calls to a bean.
+     */
+    private final class Replayer implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass().equals(Object.class)) {
+                return method.invoke(this, args);
+            }
+            final Object value = next(values(method, args));
+            if (value instanceof ManagementTrace.Failure) {
+                throw ((ManagementTrace.Failure) value).toThrowable();
+            }
+            if (value instanceof ManagementTrace.Unsupported) {
+                throw new UnsupportedOperationException(String.format(
+                        "Value was not recorded; bean=%s, method=%s, type=%s",
+                        _key,
+                        method.getName(),
+                        ((ManagementTrace.Unsupported) value).getType()));
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Replayer{key=" + _key + "}";
+        }
+
+        private Values values(final Method method, @Nullable final Object[] args) {
+            if (args != null) {
+                return ReplayManagementFactory.this.values(ManagementTrace.key(_key, method, args));
+            }
+            // Most reads take no arguments; resolve their values once
+            Values values = _values.get(method);
+            if (values == null) {
+                values = ReplayManagementFactory.this.values(ManagementTrace.key(_key, method, null));
+                _values.put(method, values);
+            }
+            return values;
+        }
+
+        private Replayer(final String key) {
+            _key = key;
+        }
+
+        private final String _key;
+        private final Map<Method, Values> _values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Builder for {@link ReplayManagementFactory}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Reads the trace and builds an instance of
+         * {@link ReplayManagementFactory} which plays it back.
+         *
+         * @return An instance of {@link ReplayManagementFactory}.
+         * @throws IOException if the trace cannot be read or is invalid
+         */
+        public ReplayManagementFactory build() throws IOException {
+            if (_path == null) {
+                throw new IllegalArgumentException("Path cannot be null.");
+            }
+            try (InputStream stream = Files.newInputStream(_path)) {
+                return new ReplayManagementFactory(ManagementTrace.read(stream));
+            }
+        }
+
+        /**
+         * Set the path of the trace. Required. Cannot be null.
+         *
+         * @param value The path of the trace.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setPath(final Path value) {
+            _path = value;
+            return this;
+        }
+
+        private Path _path;
+    }
+}
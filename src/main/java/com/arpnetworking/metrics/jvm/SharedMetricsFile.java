@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes each {@link JvmSnapshot} of a {@link JvmMetricsRunnable} into a
+ * fixed layout memory mapped file, in the spirit of {@code hsperfdata}, so
+ * that co-located processes can read the current values with
+ * {@link SharedMetricsFileReader} using plain memory reads instead of JMX.
+ *
+ * The file is a header followed by a fixed number of fixed size slots, one
+ * per snapshot index. A slot's name is written once, when its index first
+ * appears, and its value is overwritten by each snapshot. Updates are
+ * guarded by a sequence lock: the sequence in the header is odd while an
+ * update is in progress and readers retry until they read the same even
+ * sequence before and after copying the values. All values are in native
+ * byte order.
+ *
+ * <pre>
+ * header: int magic, int version, long sequence, int capacity, int count, long timestamp
+ * slot:   long value, byte kind, byte unit, short name length, byte[116] name
+ * </pre>
+ *
+ * The file is created beside its final path and moved into place, so a
+ * reader never maps a partially initialized file, and it is deleted when
+ * closed. Metrics whose index is beyond the capacity, or whose name does not
+ * fit in a slot, are not written.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SharedMetricsFile implements AutoCloseable {
+
+    /**
+     * The path of the file.
+     *
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return _path;
+    }
+
+    /**
+     * Stop writing and delete the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+        try {
+            Files.deleteIfExists(_path);
+        } catch (final IOException e) {
+            LOGGER.warn(String.format("Unable to delete shared metrics file; path=%s", _path), e);
+        }
+    }
+
+    /* package private */ synchronized void update(final JvmSnapshot snapshot) {
+        if (_closed) {
+            return;
+        }
+        final int count = Math.min(snapshot.size(), _capacity);
+        if (snapshot.size() > _capacity && !_capacityExceeded) {
+            _capacityExceeded = true;
+            LOGGER.warn(String.format(
+                    "Shared metrics file capacity exceeded; path=%s, capacity=%d, size=%d",
+                    _path,
+                    _capacity,
+                    snapshot.size()));
+        }
+        final long sequence = (long) LONGS.get(_buffer, SEQUENCE_OFFSET);
+        LONGS.setOpaque(_buffer, SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+        for (int i = _named; i < count; ++i) {
+            storeName(i, snapshot.getName(i));
+        }
+        _named = Math.max(_named, count);
+        for (int i = 0; i < count; ++i) {
+            final int offset = slotOffset(i);
+            final JvmSnapshot.Kind kind = snapshot.getKind(i);
+            if (!snapshot.isPresent(i) || _buffer.getShort(offset + NAME_LENGTH_OFFSET) == 0) {
+                _buffer.put(offset + KIND_OFFSET, (byte) 0);
+            } else {
+                final long value = kind == JvmSnapshot.Kind.DOUBLE_GAUGE
+                        ? Double.doubleToRawLongBits(snapshot.getDouble(i))
+                        : snapshot.getLong(i);
+                _buffer.putLong(offset + VALUE_OFFSET, value);
+                _buffer.put(offset + KIND_OFFSET, (byte) (kind.ordinal() + 1));
+                final boolean isTimer = kind == JvmSnapshot.Kind.TIMER;
+                _buffer.put(offset + UNIT_OFFSET, (byte) (isTimer ? snapshot.getUnit(i).ordinal() + 1 : 0));
+            }
+        }
+        _buffer.putInt(COUNT_OFFSET, count);
+        _buffer.putLong(TIMESTAMP_OFFSET, snapshot.getTimestamp());
+        LONGS.setRelease(_buffer, SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    private void storeName(final int index, final String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        final int offset = slotOffset(index);
+        if (bytes.length == 0 || bytes.length > MAX_NAME_BYTES) {
+            // A zero length marks a slot which is never written
+            LOGGER.warn(String.format("Metric name does not fit in shared metrics file; path=%s, name=%s", _path, name));
+            return;
+        }
+        _buffer.put(offset + NAME_OFFSET, bytes);
+        _buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) bytes.length);
+    }
+
+    /* package private */ static int slotOffset(final int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    private SharedMetricsFile(final Path path, final int capacity, final ByteBuffer buffer) {
+        _path = path;
+        _capacity = capacity;
+        _buffer = buffer;
+    }
+
+    private final Path _path;
+    private final int _capacity;
+    private final ByteBuffer _buffer;
+    private int _named;
+    private boolean _capacityExceeded;
+    private boolean _closed;
+
+    /* package private */ static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    /* package private */ static final int MAGIC = 0x4a564d58;
+    /* package private */ static final int VERSION = 1;
+    /* package private */ static final int MAGIC_OFFSET = 0;
+    /* package private */ static final int VERSION_OFFSET = 4;
+    /* package private */ static final int SEQUENCE_OFFSET = 8;
+    /* package private */ static final int CAPACITY_OFFSET = 16;
+    /* package private */ static final int COUNT_OFFSET = 20;
+    /* package private */ static final int TIMESTAMP_OFFSET = 24;
+    /* package private */ static final int HEADER_SIZE = 32;
+    /* package private */ static final int VALUE_OFFSET = 0;
+    /* package private */ static final int KIND_OFFSET = 8;
+    /* package private */ static final int UNIT_OFFSET = 9;
+    /* package private */ static final int NAME_LENGTH_OFFSET = 10;
+    /* package private */ static final int NAME_OFFSET = 12;
+    /* package private */ static final int SLOT_SIZE = 128;
+    /* package private */ static final int MAX_NAME_BYTES = SLOT_SIZE - NAME_OFFSET;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedMetricsFile.class);
+
+    /**
+     * Builder for {@link SharedMetricsFile}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Creates the file and builds an instance of
+         * {@link SharedMetricsFile} which writes to it. An existing file at
+         * the path is replaced.
+         *
+         * @return An instance of {@link SharedMetricsFile}.
+         * @throws IOException if the file cannot be created
+         */
+        public SharedMetricsFile build() throws IOException {
+            if (_path == null) {
+                throw new IllegalArgumentException("Path cannot be null.");
+            }
+            if (_capacity == null) {
+                _capacity = DEFAULT_CAPACITY;
+                LOGGER.debug(String.format("Defaulted null capacity; capacity=%s", _capacity));
+            }
+            if (_capacity < 1 || _capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException(String.format(
+                        "Capacity must be between 1 and %d; capacity=%s",
+                        MAX_CAPACITY,
+                        _capacity));
+            }
+            final Path temporary = Path.of(_path + ".tmp");
+            final MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(
+                    temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                // The mapping remains valid after the channel is closed
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, slotOffset(_capacity));
+            }
+            buffer.order(ByteOrder.nativeOrder());
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(CAPACITY_OFFSET, _capacity);
+            Files.move(temporary, _path, StandardCopyOption.ATOMIC_MOVE);
+            return new SharedMetricsFile(_path, _capacity, buffer);
+        }
+
+        /**
+         * Set the path of the file. Required. Cannot be null.
+         *
+         * @param value The path.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setPath(final Path value) {
+            _path = value;
+            return this;
+        }
+
+        /**
+         * Set the number of metric slots in the file. Optional. Defaults to
+         * 512. Cannot be null. Must be between 1 and 1048576.
+         *
+         * @param value The number of slots.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setCapacity(final Integer value) {
+            _capacity = value;
+            return this;
+        }
+
+        private Path _path;
+        private Integer _capacity = DEFAULT_CAPACITY;
+
+        private static final Integer DEFAULT_CAPACITY = 512;
+        private static final int MAX_CAPACITY = 1 << 20;
+    }
+}
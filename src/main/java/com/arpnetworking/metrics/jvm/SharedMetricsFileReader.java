@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the values written by a {@link SharedMetricsFile}, typically from
+ * another process on the same host. Each read copies the values out of the
+ * mapped file under its sequence lock into a new {@link JvmSnapshot}; names
+ * are decoded once per slot.
+ *
+ * The reader maps the file once. A writer which restarts replaces the file,
+ * so open a new reader when the file at the path changes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SharedMetricsFileReader {
+
+    /**
+     * Map a shared metrics file for reading.
+     *
+     * @param path the path of the file
+     * @return a reader of the file
+     * @throws IOException if the file cannot be mapped or is not a shared
+     * metrics file
+     */
+    public static SharedMetricsFileReader open(final Path path) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < SharedMetricsFile.HEADER_SIZE) {
+                throw new IOException(String.format("Not a shared metrics file; path=%s", path));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        final int capacity = buffer.getInt(SharedMetricsFile.CAPACITY_OFFSET);
+        if (buffer.getInt(SharedMetricsFile.MAGIC_OFFSET) != SharedMetricsFile.MAGIC
+                || buffer.getInt(SharedMetricsFile.VERSION_OFFSET) != SharedMetricsFile.VERSION
+                || capacity < 0
+                || SharedMetricsFile.slotOffset(capacity) > buffer.capacity()) {
+            throw new IOException(String.format("Not a shared metrics file; path=%s", path));
+        }
+        return new SharedMetricsFileReader(buffer, capacity);
+    }
+
+    /**
+     * Read the latest values. Retries while the writer is updating them.
+     *
+     * @return the latest values or empty if the writer did not finish an
+     * update within the attempts, for example because it died mid update
+     */
+    public synchronized Optional<JvmSnapshot> read() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; ++attempt) {
+            final long before = (long) SharedMetricsFile.LONGS.getAcquire(_buffer, SharedMetricsFile.SEQUENCE_OFFSET);
+            // A torn count is discarded below but must not index beyond the slots
+            final int count = Math.min(Math.max(0, _buffer.getInt(SharedMetricsFile.COUNT_OFFSET)), _capacity);
+            final JvmSnapshot snapshot = new JvmSnapshot();
+            snapshot.reset(_names, count);
+            for (int i = 0; i < count; ++i) {
+                copy(snapshot, i);
+            }
+            snapshot.setTimestamp(_buffer.getLong(SharedMetricsFile.TIMESTAMP_OFFSET));
+            VarHandle.loadLoadFence();
+            final long after = (long) SharedMetricsFile.LONGS.getOpaque(_buffer, SharedMetricsFile.SEQUENCE_OFFSET);
+            // Consistent only if the sequence is unchanged and even
+            if (((before ^ after) | (before & 1)) == 0) {
+                _named = Math.max(_named, count);
+                return Optional.of(snapshot);
+            }
+            Thread.onSpinWait();
+        }
+        return Optional.empty();
+    }
+
+    private void copy(final JvmSnapshot snapshot, final int index) {
+        final int offset = SharedMetricsFile.slotOffset(index);
+        if (index >= _named) {
+            // Names are written once so decoded names beyond those of a
+            // consistent read are only visible to snapshots which include them
+            final int length = Math.min(
+                    Math.max(0, _buffer.getShort(offset + SharedMetricsFile.NAME_LENGTH_OFFSET)),
+                    SharedMetricsFile.MAX_NAME_BYTES);
+            _names[index] = StandardCharsets.UTF_8.decode(_buffer.slice(offset + SharedMetricsFile.NAME_OFFSET, length)).toString();
+        }
+        final int kind = _buffer.get(offset + SharedMetricsFile.KIND_OFFSET);
+        if (kind == 0) {
+            return;
+        }
+        final long value = _buffer.getLong(offset + SharedMetricsFile.VALUE_OFFSET);
+        if (KINDS[kind - 1] == JvmSnapshot.Kind.DOUBLE_GAUGE) {
+            snapshot.setDouble(index, Double.longBitsToDouble(value));
+        } else {
+            final int unit = _buffer.get(offset + SharedMetricsFile.UNIT_OFFSET);
+            snapshot.setLong(index, KINDS[kind - 1], value, unit == 0 ? null : UNITS[unit - 1]);
+        }
+    }
+
+    private SharedMetricsFileReader(final ByteBuffer buffer, final int capacity) {
+        _buffer = buffer;
+        _capacity = capacity;
+        _names = new String[capacity];
+    }
+
+    private final ByteBuffer _buffer;
+    private final int _capacity;
+    private final String[] _names;
+    private int _named;
+
+    private static final int MAX_ATTEMPTS = 1000;
+    private static final JvmSnapshot.Kind[] KINDS = JvmSnapshot.Kind.values();
+    private static final TimeUnit[] UNITS = TimeUnit.values();
+}
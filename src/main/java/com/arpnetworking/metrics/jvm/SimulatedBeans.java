@@ -0,0 +1,423 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.sun.management.GcInfo;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import javax.annotation.Nullable;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+/**
+ * The beans of a {@link SimulatedManagementFactory} whose values the
+ * simulation sets each step. Operations which are not simulated return
+ * neutral values and settings are ignored, so that code written against
+ * the platform beans runs unchanged against the simulation.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+/* package private */ final class SimulatedBeans {
+
+    /**
+     * Creates an {@link ObjectName} from a constant string.
+     *
+     * @param name the string representation of the {@link ObjectName}
+     * @return the {@link ObjectName}
+     * @throws IllegalArgumentException if the name is malformed
+     */
+    /* package private */ static ObjectName createObjectName(final String name) {
+        try {
+            return ObjectName.getInstance(name);
+        } catch (final MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Malformed object name: " + name, e);
+        }
+    }
+
+    /**
+     * Creates open data from constant types and values.
+     *
+     * @param supplier creates the open data
+     * @param <T> the type of the open data
+     * @return the open data
+     * @throws IllegalArgumentException if the values do not match the types
+     */
+    /* package private */ static <T> T createOpenData(final OpenDataSupplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (final OpenDataException e) {
+            throw new IllegalArgumentException("Invalid open data", e);
+        }
+    }
+
+    private SimulatedBeans() {}
+
+    /**
+     * Creates open data which may not match its types.
+     *
+     * @param <T> the type of the open data
+     */
+    /* package private */ interface OpenDataSupplier<T> {
+
+        T get() throws OpenDataException;
+    }
+
+    /**
+     * A collector of the heap pools; the last collection is reported as a
+     * {@link GcInfo} with the usage of each heap pool before and after it.
+     */
+    /* package private */ static final class GarbageCollector implements com.sun.management.GarbageCollectorMXBean {
+
+        @Override
+        public long getCollectionCount() {
+            return _collectionCount;
+        }
+
+        @Override
+        public long getCollectionTime() {
+            return _collectionTime;
+        }
+
+        @Override
+        public String getName() {
+            return _name;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public String[] getMemoryPoolNames() {
+            return _memoryPoolNames.clone();
+        }
+
+        @Override
+        @Nullable
+        public GcInfo getLastGcInfo() {
+            if (_collectionCount == 0) {
+                return null;
+            }
+            // Created on first read of each collection
+            if (_lastGcInfo == null) {
+                _lastGcInfo = createOpenData(() -> GcInfo.from(new CompositeDataSupport(
+                        OpenTypesHolder.GC_INFO,
+                        GC_INFO_ITEMS,
+                        new Object[]{
+                            _collectionCount,
+                            _lastStartMillis,
+                            _lastStartMillis + _lastDurationMillis,
+                            _lastDurationMillis,
+                            toTabularData(_usageBefore),
+                            toTabularData(_usageAfter),
+                        })));
+            }
+            return _lastGcInfo;
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return _objectName;
+        }
+
+        /* package private */ void collect(
+                final long startMillis,
+                final long durationMillis,
+                final MemoryUsage[] usageBefore,
+                final MemoryUsage[] usageAfter) {
+            ++_collectionCount;
+            _collectionTime += durationMillis;
+            _lastStartMillis = startMillis;
+            _lastDurationMillis = durationMillis;
+            _usageBefore = usageBefore;
+            _usageAfter = usageAfter;
+            _lastGcInfo = null;
+        }
+
+        private TabularData toTabularData(final MemoryUsage[] usages) throws OpenDataException {
+            final TabularDataSupport data = new TabularDataSupport(OpenTypesHolder.MEMORY_USAGE_MAP);
+            for (int i = 0; i < usages.length; ++i) {
+                final CompositeData usage = new CompositeDataSupport(
+                        OpenTypesHolder.MEMORY_USAGE,
+                        MEMORY_USAGE_ITEMS,
+                        new Object[]{
+                            usages[i].getCommitted(),
+                            usages[i].getInit(),
+                            usages[i].getMax(),
+                            usages[i].getUsed(),
+                        });
+                data.put(new CompositeDataSupport(
+                        OpenTypesHolder.MEMORY_USAGE_ENTRY,
+                        MEMORY_USAGE_ENTRY_ITEMS,
+                        new Object[]{_memoryPoolNames[i], usage}));
+            }
+            return data;
+        }
+
+        /* package private */ GarbageCollector(final String name, final String[] memoryPoolNames) {
+            _name = name;
+            _memoryPoolNames = memoryPoolNames.clone();
+            _objectName = createObjectName(
+                    java.lang.management.ManagementFactory.GARBAGE_COLLECTOR_MXBEAN_DOMAIN_TYPE + ",name=" + name);
+        }
+
+        private final String _name;
+        private final String[] _memoryPoolNames;
+        private final ObjectName _objectName;
+        private long _collectionCount;
+        private long _collectionTime;
+        private long _lastStartMillis;
+        private long _lastDurationMillis;
+        private MemoryUsage[] _usageBefore;
+        private MemoryUsage[] _usageAfter;
+        @Nullable
+        private GcInfo _lastGcInfo;
+
+        private static final String[] GC_INFO_ITEMS = {
+            "id",
+            "startTime",
+            "endTime",
+            "duration",
+            "memoryUsageBeforeGc",
+            "memoryUsageAfterGc",
+        };
+        private static final String[] MEMORY_USAGE_ITEMS = {"committed", "init", "max", "used"};
+        private static final String[] MEMORY_USAGE_ENTRY_ITEMS = {"key", "value"};
+    }
+
+    /**
+     * A memory pool whose usage the simulation sets each step. Thresholds
+     * are not supported.
+     */
+    /* package private */ static final class MemoryPool implements MemoryPoolMXBean {
+
+        @Override
+        public String getName() {
+            return _name;
+        }
+
+        @Override
+        public MemoryType getType() {
+            return _type;
+        }
+
+        @Override
+        public MemoryUsage getUsage() {
+            return _usage;
+        }
+
+        @Override
+        public MemoryUsage getPeakUsage() {
+            return _peakUsage;
+        }
+
+        @Override
+        public void resetPeakUsage() {
+            _peakUsage = _usage;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public String[] getMemoryManagerNames() {
+            return _memoryManagerNames.clone();
+        }
+
+        @Override
+        public long getUsageThreshold() {
+            return 0;
+        }
+
+        @Override
+        public void setUsageThreshold(final long threshold) {
+            // Thresholds are not supported
+        }
+
+        @Override
+        public boolean isUsageThresholdExceeded() {
+            return false;
+        }
+
+        @Override
+        public long getUsageThresholdCount() {
+            return 0;
+        }
+
+        @Override
+        public boolean isUsageThresholdSupported() {
+            return false;
+        }
+
+        @Override
+        public long getCollectionUsageThreshold() {
+            return 0;
+        }
+
+        @Override
+        public void setCollectionUsageThreshold(final long threshold) {
+            // Thresholds are not supported
+        }
+
+        @Override
+        public boolean isCollectionUsageThresholdExceeded() {
+            return false;
+        }
+
+        @Override
+        public long getCollectionUsageThresholdCount() {
+            return 0;
+        }
+
+        @Override
+        @Nullable
+        public MemoryUsage getCollectionUsage() {
+            // Only reported for heap pools
+            return _type == MemoryType.HEAP ? _usage : null;
+        }
+
+        @Override
+        public boolean isCollectionUsageThresholdSupported() {
+            return false;
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return _objectName;
+        }
+
+        /* package private */ static MemoryUsage createUsage(final long used, final long committed, final long max) {
+            return new MemoryUsage(0, used, Math.max(used, committed), max);
+        }
+
+        /* package private */ void update(final MemoryUsage usage) {
+            _usage = usage;
+            if (usage.getUsed() > _peakUsage.getUsed()) {
+                _peakUsage = usage;
+            }
+        }
+
+        /* package private */ MemoryPool(final String name, final MemoryType type, final String[] memoryManagerNames) {
+            _name = name;
+            _type = type;
+            _memoryManagerNames = memoryManagerNames.clone();
+            _objectName = createObjectName(
+                    java.lang.management.ManagementFactory.MEMORY_POOL_MXBEAN_DOMAIN_TYPE + ",name=" + name);
+        }
+
+        private final String _name;
+        private final MemoryType _type;
+        private final String[] _memoryManagerNames;
+        private final ObjectName _objectName;
+        private MemoryUsage _usage = createUsage(0, 0, -1);
+        private MemoryUsage _peakUsage = _usage;
+    }
+
+    /**
+     * A buffer pool whose buffers the simulation sets each step.
+     */
+    /* package private */ static final class BufferPool implements BufferPoolMXBean {
+
+        @Override
+        public String getName() {
+            return _name;
+        }
+
+        @Override
+        public long getCount() {
+            return _count;
+        }
+
+        @Override
+        public long getTotalCapacity() {
+            return _totalCapacity;
+        }
+
+        @Override
+        public long getMemoryUsed() {
+            return _totalCapacity;
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return _objectName;
+        }
+
+        /* package private */ void update(final long count, final long bufferSize) {
+            _count = count;
+            _totalCapacity = count * bufferSize;
+        }
+
+        /* package private */ BufferPool(final String name) {
+            _name = name;
+            _objectName = createObjectName("java.nio:type=BufferPool,name=" + name);
+        }
+
+        private final String _name;
+        private final ObjectName _objectName;
+        private long _count;
+        private long _totalCapacity;
+    }
+
+    private static final class OpenTypesHolder {
+        // Created once on first use
+        private static final CompositeType MEMORY_USAGE = createOpenData(() -> new CompositeType(
+                MemoryUsage.class.getName(),
+                "Memory usage",
+                GarbageCollector.MEMORY_USAGE_ITEMS,
+                GarbageCollector.MEMORY_USAGE_ITEMS,
+                new OpenType<?>[]{SimpleType.LONG, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG}));
+        private static final CompositeType MEMORY_USAGE_ENTRY = createOpenData(() -> new CompositeType(
+                "Map.Entry<String,MemoryUsage>",
+                "Memory usage of a pool",
+                GarbageCollector.MEMORY_USAGE_ENTRY_ITEMS,
+                GarbageCollector.MEMORY_USAGE_ENTRY_ITEMS,
+                new OpenType<?>[]{SimpleType.STRING, MEMORY_USAGE}));
+        private static final TabularType MEMORY_USAGE_MAP = createOpenData(() -> new TabularType(
+                "Map<String,MemoryUsage>",
+                "Memory usage by pool",
+                MEMORY_USAGE_ENTRY,
+                new String[]{"key"}));
+        private static final CompositeType GC_INFO = createOpenData(() -> new CompositeType(
+                GcInfo.class.getName(),
+                "Garbage collection",
+                GarbageCollector.GC_INFO_ITEMS,
+                GarbageCollector.GC_INFO_ITEMS,
+                new OpenType<?>[]{
+                    SimpleType.LONG,
+                    SimpleType.LONG,
+                    SimpleType.LONG,
+                    SimpleType.LONG,
+                    MEMORY_USAGE_MAP,
+                    MEMORY_USAGE_MAP,
+                }));
+    }
+}
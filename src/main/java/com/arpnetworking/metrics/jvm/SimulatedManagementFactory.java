@@ -0,0 +1,899 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+/**
+ * Synthetic {@link ManagementFactory} for load and scale testing of
+ * collectors and sinks. It simulates a JVM of any shape, for example with
+ * hundreds of memory pools and tens of thousands of threads, whose values
+ * evolve each time {@link #advance()} is called:
+ *
+ * <ul>
+ *     <li>the heap fills at a random allocation rate and is emptied by
+ *     young collections into a sawtooth; promoted bytes accumulate in the
+ *     old generation until an old collection reduces it to a slowly
+ *     growing live set</li>
+ *     <li>the first collector counts young collections, the second old
+ *     collections and any others collect occasionally; each reports the
+ *     usage of the heap pools before and after its last collection</li>
+ *     <li>the threads evenly allocate the bytes which fill the heap</li>
+ *     <li>threads are started and exit around the configured count</li>
+ *     <li>open file descriptors slowly leak</li>
+ *     <li>classes load quickly at first and then slowly, and some are
+ *     unloaded by old collections</li>
+ *     <li>the process consumes CPU time at a random load</li>
+ *     <li>buffer pools grow and shrink</li>
+ * </ul>
+ *
+ * The values are a function of the seed and the number of steps only, so
+ * two instances built alike produce the same sequence. Each step computes
+ * the values once and the beans return them, so reads cost little more
+ * than a field access and benchmarks measure the collectors rather than
+ * the simulator. Hsperfdata is not simulated and the MBean server is empty.
+ * Operations which are not simulated return neutral values, such as -1 for
+ * the CPU time of a thread, and ignore settings. Instances are not thread
+ * safe; advance and read from the same thread.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SimulatedManagementFactory implements ManagementFactory {
+
+    /**
+     * Advance the simulation by one step, typically one collection interval.
+     */
+    public void advance() {
+        ++_steps;
+        advanceHeap();
+        advanceNonHeap();
+        advanceThreads();
+        advanceBufferPools();
+        _openFileDescriptors = Math.min(_maxFileDescriptors, _openFileDescriptors + _random.nextInt(3));
+        _processCpuLoad = 0.05 + 0.3 * _random.nextDouble();
+        _processCpuTime += (long) (_processCpuLoad * AVAILABLE_PROCESSORS * STEP_NANOS);
+        _totalLoadedClassCount += 1 + 16 * Math.max(0, 64 - _steps);
+    }
+
+    /**
+     * The number of times the simulation was advanced.
+     *
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return _steps;
+    }
+
+    @Override
+    public List<GarbageCollectorMXBean> getGarbageCollectorMXBeans() {
+        return _garbageCollectorsView;
+    }
+
+    @Override
+    public MemoryMXBean getMemoryMXBean() {
+        return _beans._memory;
+    }
+
+    @Override
+    public List<MemoryPoolMXBean> getMemoryPoolMXBeans() {
+        return _memoryPoolsView;
+    }
+
+    @Override
+    public ThreadMXBean getThreadMXBean() {
+        return _beans._thread;
+    }
+
+    @Override
+    public List<BufferPoolMXBean> getBufferPoolMXBeans() {
+        return _bufferPoolsView;
+    }
+
+    @Override
+    public OperatingSystemMXBean getOperatingSystemMXBean() {
+        return _beans._operatingSystem;
+    }
+
+    @Override
+    public ClassLoadingMXBean getClassLoadingMXBean() {
+        return _beans._classLoading;
+    }
+
+    @Override
+    public MBeanServerConnection getMBeanServerConnection() {
+        return MBeanServerHolder.MBEAN_SERVER;
+    }
+
+    @Override
+    public Optional<Hsperfdata> getHsperfdata() {
+        return Optional.empty();
+    }
+
+    private void advanceHeap() {
+        final long startMillis = _steps * STEP_MILLIS;
+        final long allocated = (long) (_maxHeap * (0.02 + 0.06 * _random.nextDouble()));
+        _allocatedBytes += allocated;
+        _eden += allocated;
+        if (_eden > _maxHeap * EDEN_FRACTION) {
+            // Young collection; survivors age and are promoted
+            final MemoryUsage[] before = getHeapPoolUsages();
+            _old += _survivor / 2;
+            _survivor = (long) (_eden * 0.05 * _random.nextDouble());
+            _eden = 0;
+            _garbageCollectors.get(0).collect(startMillis, 5 + _random.nextInt(20), before, getHeapPoolUsages());
+        }
+        _liveSet = Math.min((long) (_maxHeap * OLD_FRACTION), _liveSet + _random.nextInt(1024));
+        if (_old > _maxHeap * OLD_FRACTION) {
+            // A single collector collects both generations
+            final MemoryUsage[] before = getHeapPoolUsages();
+            _old = Math.min(_old, _liveSet);
+            _unloadedClassCount += _totalLoadedClassCount / 1000;
+            _garbageCollectors.get(Math.min(1, _garbageCollectors.size() - 1))
+                    .collect(startMillis, 50 + _random.nextInt(200), before, getHeapPoolUsages());
+        }
+        final MemoryUsage[] usages = getHeapPoolUsages();
+        for (int i = 2; i < _garbageCollectors.size(); ++i) {
+            if (_random.nextInt(10) == 0) {
+                // The other collectors reclaim nothing
+                _garbageCollectors.get(i).collect(startMillis, 1 + _random.nextInt(10), usages, usages);
+            }
+        }
+        for (int i = 0; i < HEAP_POOLS; ++i) {
+            _memoryPools.get(i).update(usages[i]);
+        }
+        _heapUsage = new MemoryUsage(_maxHeap / 4, _eden + _survivor + _old, _maxHeap, _maxHeap);
+    }
+
+    private MemoryUsage[] getHeapPoolUsages() {
+        return new MemoryUsage[]{
+            SimulatedBeans.MemoryPool.createUsage(_eden, (long) (_maxHeap * EDEN_FRACTION), -1),
+            SimulatedBeans.MemoryPool.createUsage(_survivor, (long) (_maxHeap * SURVIVOR_FRACTION), -1),
+            SimulatedBeans.MemoryPool.createUsage(
+                    _old,
+                    _maxHeap - (long) (_maxHeap * (EDEN_FRACTION + SURVIVOR_FRACTION)),
+                    _maxHeap),
+        };
+    }
+
+    private void advanceNonHeap() {
+        long used = 0;
+        long committed = 0;
+        for (int i = HEAP_POOLS; i < _memoryPools.size(); ++i) {
+            final SimulatedBeans.MemoryPool pool = _memoryPools.get(i);
+            // Grows quickly while classes load and then plateaus
+            final long poolUsed = Math.min(
+                    NON_HEAP_POOL_CAPACITY,
+                    pool.getUsage().getUsed() + _random.nextInt(4096) * Math.max(1, 64 - _steps));
+            pool.update(SimulatedBeans.MemoryPool.createUsage(poolUsed, NON_HEAP_POOL_CAPACITY, -1));
+            used += poolUsed;
+            committed += NON_HEAP_POOL_CAPACITY;
+        }
+        _nonHeapUsage = new MemoryUsage(0, used, committed, -1);
+    }
+
+    private void advanceThreads() {
+        final int net = _random.nextInt(2 * _threadChurn + 1) - _threadChurn - (_threadCount - _threads) / 8;
+        _totalStartedThreadCount += _threadChurn + Math.max(0, net);
+        _threadCount = Math.max(1, _threadCount + net);
+        _peakThreadCount = Math.max(_peakThreadCount, _threadCount);
+    }
+
+    private void advanceBufferPools() {
+        for (final SimulatedBeans.BufferPool pool : _bufferPools) {
+            pool.update(Math.max(0, pool.getCount() + _random.nextInt(5) - 2), BUFFER_SIZE);
+        }
+    }
+
+    private SimulatedManagementFactory(final Builder builder) {
+        _random = new SplittableRandom(builder._seed);
+        _maxHeap = builder._maxHeap;
+        _threads = builder._threads;
+        _threadChurn = builder._threadChurn;
+        _maxFileDescriptors = builder._maxFileDescriptors;
+        _liveSet = (long) (_maxHeap * LIVE_SET_FRACTION);
+        _threadCount = _threads;
+        _peakThreadCount = _threads;
+        _totalStartedThreadCount = _threads;
+        _openFileDescriptors = Math.min(_maxFileDescriptors, INITIAL_FILE_DESCRIPTORS);
+
+        final String[] heapPoolNames = new String[HEAP_POOLS];
+        for (int i = 0; i < HEAP_POOLS; ++i) {
+            heapPoolNames[i] = name(MEMORY_POOL_NAMES, "Synthetic Pool ", i);
+        }
+        final String[] garbageCollectorNames = new String[builder._garbageCollectors];
+        final List<SimulatedBeans.GarbageCollector> garbageCollectors = new ArrayList<>();
+        for (int i = 0; i < garbageCollectorNames.length; ++i) {
+            garbageCollectorNames[i] = name(GARBAGE_COLLECTOR_NAMES, "Synthetic Collector ", i);
+            garbageCollectors.add(new SimulatedBeans.GarbageCollector(garbageCollectorNames[i], heapPoolNames));
+        }
+        _garbageCollectors = List.copyOf(garbageCollectors);
+        _garbageCollectorsView = List.copyOf(garbageCollectors);
+        final List<SimulatedBeans.MemoryPool> memoryPools = new ArrayList<>();
+        for (int i = 0; i < builder._memoryPools; ++i) {
+            // The collectors manage the heap pools
+            memoryPools.add(new SimulatedBeans.MemoryPool(
+                    name(MEMORY_POOL_NAMES, "Synthetic Pool ", i),
+                    i < HEAP_POOLS ? MemoryType.HEAP : MemoryType.NON_HEAP,
+                    i < HEAP_POOLS ? garbageCollectorNames : new String[0]));
+        }
+        _memoryPools = List.copyOf(memoryPools);
+        _memoryPoolsView = List.copyOf(memoryPools);
+        final List<SimulatedBeans.BufferPool> bufferPools = new ArrayList<>();
+        for (int i = 0; i < builder._bufferPools; ++i) {
+            bufferPools.add(new SimulatedBeans.BufferPool(name(BUFFER_POOL_NAMES, "synthetic ", i)));
+        }
+        _bufferPools = List.copyOf(bufferPools);
+        _bufferPoolsView = List.copyOf(bufferPools);
+        advance();
+    }
+
+    private static String name(final String[] names, final String prefix, final int index) {
+        return index < names.length ? names[index] : prefix + index;
+    }
+
+    private final SplittableRandom _random;
+    private final long _maxHeap;
+    private final int _threads;
+    private final int _threadChurn;
+    private final long _maxFileDescriptors;
+    private final List<SimulatedBeans.GarbageCollector> _garbageCollectors;
+    private final List<GarbageCollectorMXBean> _garbageCollectorsView;
+    private final List<SimulatedBeans.MemoryPool> _memoryPools;
+    private final List<MemoryPoolMXBean> _memoryPoolsView;
+    private final List<SimulatedBeans.BufferPool> _bufferPools;
+    private final List<BufferPoolMXBean> _bufferPoolsView;
+    private final Beans _beans = new Beans();
+    private long _steps;
+    private long _eden;
+    private long _survivor;
+    private long _old;
+    private long _liveSet;
+    private long _allocatedBytes;
+    private MemoryUsage _heapUsage;
+    private MemoryUsage _nonHeapUsage;
+    private int _threadCount;
+    private int _peakThreadCount;
+    private long _totalStartedThreadCount;
+    private long _openFileDescriptors;
+    private double _processCpuLoad;
+    private long _processCpuTime;
+    private long _totalLoadedClassCount;
+    private long _unloadedClassCount;
+
+    private static final int HEAP_POOLS = 3;
+    private static final double EDEN_FRACTION = 0.3;
+    private static final double SURVIVOR_FRACTION = 0.05;
+    private static final double OLD_FRACTION = 0.6;
+    private static final double LIVE_SET_FRACTION = 0.2;
+    private static final long NON_HEAP_POOL_CAPACITY = 256L * 1024 * 1024;
+    private static final long BUFFER_SIZE = 64L * 1024;
+    private static final long INITIAL_FILE_DESCRIPTORS = 64;
+    private static final int NON_DAEMON_THREADS = 16;
+    private static final int AVAILABLE_PROCESSORS = 8;
+    private static final long STEP_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long STEP_MILLIS = TimeUnit.NANOSECONDS.toMillis(STEP_NANOS);
+    private static final String[] GARBAGE_COLLECTOR_NAMES = {"G1 Young Generation", "G1 Old Generation"};
+    private static final String[] MEMORY_POOL_NAMES = {
+        "G1 Eden Space",
+        "G1 Survivor Space",
+        "G1 Old Gen",
+        "Metaspace",
+        "Compressed Class Space",
+        "CodeHeap 'non-nmethods'",
+        "CodeHeap 'profiled nmethods'",
+        "CodeHeap 'non-profiled nmethods'",
+    };
+    private static final String[] BUFFER_POOL_NAMES = {"direct", "mapped", "mapped - 'non-volatile memory'"};
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedManagementFactory.class);
+
+    private final class Beans {
+        private final SimulatedMemory _memory = new SimulatedMemory();
+        private final SimulatedThread _thread = new SimulatedThread();
+        private final SimulatedOperatingSystem _operatingSystem = new SimulatedOperatingSystem();
+        private final SimulatedClassLoading _classLoading = new SimulatedClassLoading();
+    }
+
+    private static final class MBeanServerHolder {
+        // Created on first use and never registered with the platform
+        private static final MBeanServer MBEAN_SERVER = MBeanServerFactory.newMBeanServer();
+    }
+
+    private static final class ObjectNamesHolder {
+        // Created once on first use
+        private static final ObjectName MEMORY =
+                SimulatedBeans.createObjectName(java.lang.management.ManagementFactory.MEMORY_MXBEAN_NAME);
+        private static final ObjectName THREAD =
+                SimulatedBeans.createObjectName(java.lang.management.ManagementFactory.THREAD_MXBEAN_NAME);
+        private static final ObjectName OPERATING_SYSTEM =
+                SimulatedBeans.createObjectName(java.lang.management.ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME);
+        private static final ObjectName CLASS_LOADING =
+                SimulatedBeans.createObjectName(java.lang.management.ManagementFactory.CLASS_LOADING_MXBEAN_NAME);
+    }
+
+    private final class SimulatedMemory implements MemoryMXBean {
+
+        @Override
+        public int getObjectPendingFinalizationCount() {
+            return 0;
+        }
+
+        @Override
+        public MemoryUsage getHeapMemoryUsage() {
+            return _heapUsage;
+        }
+
+        @Override
+        public MemoryUsage getNonHeapMemoryUsage() {
+            return _nonHeapUsage;
+        }
+
+        @Override
+        public boolean isVerbose() {
+            return false;
+        }
+
+        @Override
+        public void setVerbose(final boolean value) {
+            // Logging is not simulated
+        }
+
+        @Override
+        public void gc() {
+            // Explicit collections are not simulated
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return ObjectNamesHolder.MEMORY;
+        }
+    }
+
+    private final class SimulatedThread implements com.sun.management.ThreadMXBean {
+
+        @Override
+        public int getThreadCount() {
+            return _threadCount;
+        }
+
+        @Override
+        public int getPeakThreadCount() {
+            return _peakThreadCount;
+        }
+
+        @Override
+        public long getTotalStartedThreadCount() {
+            return _totalStartedThreadCount;
+        }
+
+        @Override
+        public int getDaemonThreadCount() {
+            return _threadCount - Math.min(_threadCount, NON_DAEMON_THREADS);
+        }
+
+        @Override
+        public long[] getAllThreadIds() {
+            return LongStream.rangeClosed(1, _threadCount).toArray();
+        }
+
+        @Override
+        @Nullable
+        public ThreadInfo getThreadInfo(final long id) {
+            // Simulated threads have no stacks
+            return null;
+        }
+
+        @Override
+        public ThreadInfo[] getThreadInfo(final long[] ids) {
+            return new ThreadInfo[ids.length];
+        }
+
+        @Override
+        @Nullable
+        public ThreadInfo getThreadInfo(final long id, final int maxDepth) {
+            // Simulated threads have no stacks
+            return null;
+        }
+
+        @Override
+        public ThreadInfo[] getThreadInfo(final long[] ids, final int maxDepth) {
+            return new ThreadInfo[ids.length];
+        }
+
+        @Override
+        public boolean isThreadContentionMonitoringSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadContentionMonitoringEnabled() {
+            return false;
+        }
+
+        @Override
+        public void setThreadContentionMonitoringEnabled(final boolean enable) {
+            // Not supported
+        }
+
+        @Override
+        public long getCurrentThreadCpuTime() {
+            // Not supported
+            return -1;
+        }
+
+        @Override
+        public long getCurrentThreadUserTime() {
+            // Not supported
+            return -1;
+        }
+
+        @Override
+        public long getThreadCpuTime(final long id) {
+            // Not supported
+            return -1;
+        }
+
+        @Override
+        public long getThreadUserTime(final long id) {
+            // Not supported
+            return -1;
+        }
+
+        @Override
+        public boolean isThreadCpuTimeSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isCurrentThreadCpuTimeSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadCpuTimeEnabled() {
+            return false;
+        }
+
+        @Override
+        public void setThreadCpuTimeEnabled(final boolean enable) {
+            // Not supported
+        }
+
+        @Override
+        public long[] findMonitorDeadlockedThreads() {
+            // Simulated threads never deadlock
+            return new long[0];
+        }
+
+        @Override
+        public void resetPeakThreadCount() {
+            _peakThreadCount = _threadCount;
+        }
+
+        @Override
+        public long[] findDeadlockedThreads() {
+            // Simulated threads never deadlock
+            return new long[0];
+        }
+
+        @Override
+        public boolean isObjectMonitorUsageSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isSynchronizerUsageSupported() {
+            return false;
+        }
+
+        @Override
+        public ThreadInfo[] getThreadInfo(final long[] ids, final boolean lockedMonitors, final boolean lockedSynchronizers) {
+            return new ThreadInfo[ids.length];
+        }
+
+        @Override
+        public ThreadInfo[] dumpAllThreads(final boolean lockedMonitors, final boolean lockedSynchronizers) {
+            return new ThreadInfo[0];
+        }
+
+        @Override
+        public ThreadInfo[] getThreadInfo(
+                final long[] ids,
+                final boolean lockedMonitors,
+                final boolean lockedSynchronizers,
+                final int maxDepth) {
+            return new ThreadInfo[ids.length];
+        }
+
+        @Override
+        public ThreadInfo[] dumpAllThreads(
+                final boolean lockedMonitors,
+                final boolean lockedSynchronizers,
+                final int maxDepth) {
+            return new ThreadInfo[0];
+        }
+
+        @Override
+        public long[] getThreadCpuTime(final long[] ids) {
+            final long[] times = new long[ids.length];
+            Arrays.fill(times, -1);
+            return times;
+        }
+
+        @Override
+        public long[] getThreadUserTime(final long[] ids) {
+            return getThreadCpuTime(ids);
+        }
+
+        @Override
+        public long getCurrentThreadAllocatedBytes() {
+            // The caller is treated as the first simulated thread
+            return getThreadAllocatedBytes(1);
+        }
+
+        @Override
+        public long getThreadAllocatedBytes(final long id) {
+            // The threads allocate evenly
+            return id > 0 && id <= _threadCount ? _allocatedBytes / _threadCount : -1;
+        }
+
+        @Override
+        public long[] getThreadAllocatedBytes(final long[] ids) {
+            final long[] bytes = new long[ids.length];
+            for (int i = 0; i < ids.length; ++i) {
+                bytes[i] = getThreadAllocatedBytes(ids[i]);
+            }
+            return bytes;
+        }
+
+        // Overrides the method added in JDK 21
+        public long getTotalThreadAllocatedBytes() {
+            return _allocatedBytes;
+        }
+
+        @Override
+        public boolean isThreadAllocatedMemorySupported() {
+            return true;
+        }
+
+        @Override
+        public boolean isThreadAllocatedMemoryEnabled() {
+            return true;
+        }
+
+        @Override
+        public void setThreadAllocatedMemoryEnabled(final boolean enable) {
+            // Always enabled
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return ObjectNamesHolder.THREAD;
+        }
+    }
+
+    private final class SimulatedOperatingSystem implements com.sun.management.UnixOperatingSystemMXBean {
+
+        @Override
+        public long getOpenFileDescriptorCount() {
+            return _openFileDescriptors;
+        }
+
+        @Override
+        public long getMaxFileDescriptorCount() {
+            return _maxFileDescriptors;
+        }
+
+        @Override
+        public long getCommittedVirtualMemorySize() {
+            return _heapUsage.getCommitted() + _nonHeapUsage.getCommitted();
+        }
+
+        @Override
+        public long getTotalSwapSpaceSize() {
+            return 0;
+        }
+
+        @Override
+        public long getFreeSwapSpaceSize() {
+            return 0;
+        }
+
+        @Override
+        public long getProcessCpuTime() {
+            return _processCpuTime;
+        }
+
+        @Override
+        public long getFreeMemorySize() {
+            return Math.max(0, getTotalMemorySize() - getCommittedVirtualMemorySize());
+        }
+
+        @Override
+        public long getTotalMemorySize() {
+            return 2 * _maxHeap;
+        }
+
+        @Override
+        public double getCpuLoad() {
+            return _processCpuLoad;
+        }
+
+        @Override
+        public double getProcessCpuLoad() {
+            return _processCpuLoad;
+        }
+
+        @Override
+        public String getName() {
+            return "Linux";
+        }
+
+        @Override
+        public String getArch() {
+            return "amd64";
+        }
+
+        @Override
+        public String getVersion() {
+            return "simulated";
+        }
+
+        @Override
+        public int getAvailableProcessors() {
+            return AVAILABLE_PROCESSORS;
+        }
+
+        @Override
+        public double getSystemLoadAverage() {
+            return _processCpuLoad * getAvailableProcessors();
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return ObjectNamesHolder.OPERATING_SYSTEM;
+        }
+    }
+
+    private final class SimulatedClassLoading implements ClassLoadingMXBean {
+
+        @Override
+        public long getTotalLoadedClassCount() {
+            return _totalLoadedClassCount;
+        }
+
+        @Override
+        public int getLoadedClassCount() {
+            return (int) (_totalLoadedClassCount - _unloadedClassCount);
+        }
+
+        @Override
+        public long getUnloadedClassCount() {
+            return _unloadedClassCount;
+        }
+
+        @Override
+        public boolean isVerbose() {
+            return false;
+        }
+
+        @Override
+        public void setVerbose(final boolean value) {
+            // Logging is not simulated
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            return ObjectNamesHolder.CLASS_LOADING;
+        }
+    }
+
+    /**
+     * Builder for {@link SimulatedManagementFactory}.
+     *
+     * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link SimulatedManagementFactory}. The
+         * instance has been advanced once.
+         *
+         * @return An instance of {@link SimulatedManagementFactory}.
+         */
+        public SimulatedManagementFactory build() {
+            if (_seed == null) {
+                _seed = DEFAULT_SEED;
+                LOGGER.debug(String.format("Defaulted null seed; seed=%s", _seed));
+            }
+            _memoryPools = defaultCount(_memoryPools, DEFAULT_MEMORY_POOLS, HEAP_POOLS, "memoryPools");
+            _garbageCollectors = defaultCount(_garbageCollectors, DEFAULT_GARBAGE_COLLECTORS, 1, "garbageCollectors");
+            _bufferPools = defaultCount(_bufferPools, DEFAULT_BUFFER_POOLS, 0, "bufferPools");
+            _threads = defaultCount(_threads, DEFAULT_THREADS, 1, "threads");
+            _threadChurn = defaultCount(_threadChurn, DEFAULT_THREAD_CHURN, 0, "threadChurn");
+            if (_maxHeap == null) {
+                _maxHeap = DEFAULT_MAX_HEAP;
+                LOGGER.debug(String.format("Defaulted null max heap; maxHeap=%s", _maxHeap));
+            }
+            if (_maxHeap < MIN_MAX_HEAP) {
+                throw new IllegalArgumentException("Max heap must be at least " + MIN_MAX_HEAP + "; maxHeap=" + _maxHeap);
+            }
+            if (_maxFileDescriptors == null) {
+                _maxFileDescriptors = DEFAULT_MAX_FILE_DESCRIPTORS;
+                LOGGER.debug(String.format("Defaulted null max file descriptors; maxFileDescriptors=%s", _maxFileDescriptors));
+            }
+            if (_maxFileDescriptors < 1) {
+                throw new IllegalArgumentException("Max file descriptors must be positive; maxFileDescriptors=" + _maxFileDescriptors);
+            }
+            return new SimulatedManagementFactory(this);
+        }
+
+        private static Integer defaultCount(
+                final Integer value,
+                final Integer defaultValue,
+                final int minimum,
+                final String name) {
+            Integer count = value;
+            if (count == null) {
+                count = defaultValue;
+                LOGGER.debug(String.format("Defaulted null %s; %s=%s", name, name, count));
+            }
+            if (count < minimum) {
+                throw new IllegalArgumentException(String.format("%s must be at least %d; %s=%s", name, minimum, name, count));
+            }
+            return count;
+        }
+
+        /**
+         * Set the seed of the simulation. Optional. Defaults to zero. Cannot
+         * be null.
+         *
+         * @param value The seed.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setSeed(final Long value) {
+            _seed = value;
+            return this;
+        }
+
+        /**
+         * Set the number of memory pools. The first three are the heap pools
+         * and the others are non-heap pools. Optional. Defaults to eight.
+         * Cannot be null. Must be at least three.
+         *
+         * @param value The number of memory pools.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMemoryPools(final Integer value) {
+            _memoryPools = value;
+            return this;
+        }
+
+        /**
+         * Set the number of garbage collectors. Optional. Defaults to two.
+         * Cannot be null. Must be positive.
+         *
+         * @param value The number of garbage collectors.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setGarbageCollectors(final Integer value) {
+            _garbageCollectors = value;
+            return this;
+        }
+
+        /**
+         * Set the number of buffer pools. Optional. Defaults to three.
+         * Cannot be null. Cannot be negative.
+         *
+         * @param value The number of buffer pools.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setBufferPools(final Integer value) {
+            _bufferPools = value;
+            return this;
+        }
+
+        /**
+         * Set the number of threads the thread count varies around.
+         * Optional. Defaults to 100. Cannot be null. Must be positive.
+         *
+         * @param value The number of threads.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setThreads(final Integer value) {
+            _threads = value;
+            return this;
+        }
+
+        /**
+         * Set the number of threads started each step. Optional. Defaults
+         * to ten. Cannot be null. Cannot be negative.
+         *
+         * @param value The number of threads started each step.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setThreadChurn(final Integer value) {
+            _threadChurn = value;
+            return this;
+        }
+
+        /**
+         * Set the maximum heap size in bytes. Optional. Defaults to one
+         * gibibyte. Cannot be null. Must be at least one mebibyte.
+         *
+         * @param value The maximum heap size in bytes.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMaxHeap(final Long value) {
+            _maxHeap = value;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of open file descriptors. Optional.
+         * Defaults to 65536. Cannot be null. Must be positive.
+         *
+         * @param value The maximum number of open file descriptors.
+         * @return This {@link Builder} instance.
+         */
+        public Builder setMaxFileDescriptors(final Long value) {
+            _maxFileDescriptors = value;
+            return this;
+        }
+
+        private Long _seed = DEFAULT_SEED;
+        private Integer _memoryPools = DEFAULT_MEMORY_POOLS;
+        private Integer _garbageCollectors = DEFAULT_GARBAGE_COLLECTORS;
+        private Integer _bufferPools = DEFAULT_BUFFER_POOLS;
+        private Integer _threads = DEFAULT_THREADS;
+        private Integer _threadChurn = DEFAULT_THREAD_CHURN;
+        private Long _maxHeap = DEFAULT_MAX_HEAP;
+        private Long _maxFileDescriptors = DEFAULT_MAX_FILE_DESCRIPTORS;
+
+        private static final Long DEFAULT_SEED = 0L;
+        private static final Integer DEFAULT_MEMORY_POOLS = 8;
+        private static final Integer DEFAULT_GARBAGE_COLLECTORS = 2;
+        private static final Integer DEFAULT_BUFFER_POOLS = 3;
+        private static final Integer DEFAULT_THREADS = 100;
+        private static final Integer DEFAULT_THREAD_CHURN = 10;
+        private static final Long DEFAULT_MAX_HEAP = 1024L * 1024 * 1024;
+        private static final Long DEFAULT_MAX_FILE_DESCRIPTORS = 65536L;
+        private static final long MIN_MAX_HEAP = 1024L * 1024;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ExecutorService} decorator which tracks the number of tasks
+ * submitted, running and completed. This is intended for executors that do
+ * not expose any introspection of their own; most notably the thread-per-task
+ * executor returned by {@code Executors.newVirtualThreadPerTaskExecutor()}.
+ *
+ * Tasks must be submitted through the decorator for them to be tracked. For
+ * example:
+ *
+ * <pre>{@code
+ * final TaskTrackingExecutorService executor = TaskTrackingExecutorService.newInstance(
+ *         Executors.newVirtualThreadPerTaskExecutor());
+ * }</pre>
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class TaskTrackingExecutorService extends AbstractExecutorService {
+
+    /**
+     * Creates a new instance of {@link TaskTrackingExecutorService}.
+     *
+     * @param delegate the {@link ExecutorService} to decorate
+     * @return An instance of {@link TaskTrackingExecutorService}
+     */
+    public static TaskTrackingExecutorService newInstance(final ExecutorService delegate) {
+        return new TaskTrackingExecutorService(delegate);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        _submitted.increment();
+        try {
+            _delegate.execute(new TrackedRunnable(command));
+        } catch (final RejectedExecutionException e) {
+            _submitted.decrement();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        _delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return _delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return _delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return _delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return _delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Gets the number of tasks accepted by the delegate for all time.
+     *
+     * @return the number of tasks submitted
+     */
+    public long getSubmittedTaskCount() {
+        return _submitted.sum();
+    }
+
+    /**
+     * Gets the number of tasks currently executing.
+     *
+     * @return the number of tasks running
+     */
+    public long getRunningTaskCount() {
+        return _running.sum();
+    }
+
+    /**
+     * Gets the number of tasks that finished executing, successfully or
+     * not, for all time.
+     *
+     * @return the number of tasks completed
+     */
+    public long getCompletedTaskCount() {
+        return _completed.sum();
+    }
+
+    private TaskTrackingExecutorService(final ExecutorService delegate) {
+        _delegate = delegate;
+    }
+
+    private final ExecutorService _delegate;
+    private final LongAdder _submitted = new LongAdder();
+    private final LongAdder _running = new LongAdder();
+    private final LongAdder _completed = new LongAdder();
+
+    private final class TrackedRunnable implements Runnable {
+
+        @Override
+        public void run() {
+            _running.increment();
+            try {
+                _runnable.run();
+            } finally {
+                _running.decrement();
+                _completed.increment();
+            }
+        }
+
+        private TrackedRunnable(final Runnable runnable) {
+            _runnable = runnable;
+        }
+
+        private final Runnable _runnable;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+
+import java.lang.management.ClassLoadingMXBean;
+
+/**
+ * Collector class for JVM class loading metrics. Uses the Java Management
+ * API to get the metrics data. The classes loaded and unloaded since the
+ * previous collection are reported as deltas.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class ClassLoadingMetricsCollector implements JvmMetricsCollector {
+// CHECKSTYLE.ON: FinalClass
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector}.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newInstance() {
+        return new ClassLoadingMetricsCollector();
+    }
+
+    @Override
+    public void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final ClassLoadingMXBean bean = managementFactory.getClassLoadingMXBean();
+        metrics.setGauge(LOADED_CLASS_COUNT, bean.getLoadedClassCount());
+        final long loadedClassCountDelta = _totalLoadedClassCount.update(bean.getTotalLoadedClassCount());
+        if (loadedClassCountDelta != DeltaTracker.UNDEFINED) {
+            metrics.incrementCounter(LOADED_CLASS_COUNT_DELTA, loadedClassCountDelta);
+        }
+        final long unloadedClassCountDelta = _unloadedClassCount.update(bean.getUnloadedClassCount());
+        if (unloadedClassCountDelta != DeltaTracker.UNDEFINED) {
+            metrics.incrementCounter(UNLOADED_CLASS_COUNT_DELTA, unloadedClassCountDelta);
+        }
+    }
+
+    /**
+     * Protected constructor.
+     */
+    protected ClassLoadingMetricsCollector() {}
+
+    private final DeltaTracker _totalLoadedClassCount = new DeltaTracker();
+    private final DeltaTracker _unloadedClassCount = new DeltaTracker();
+
+    private static final String LOADED_CLASS_COUNT = String.join("/", ROOT_NAMESPACE, "class_loading", "loaded_class_count");
+    private static final String LOADED_CLASS_COUNT_DELTA =
+            String.join("/", ROOT_NAMESPACE, "class_loading", "loaded_class_count_delta");
+    private static final String UNLOADED_CLASS_COUNT_DELTA =
+            String.join("/", ROOT_NAMESPACE, "class_loading", "unloaded_class_count_delta");
+}
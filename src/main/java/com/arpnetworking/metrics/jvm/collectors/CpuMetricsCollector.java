@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collector class for the CPU time consumed by the JVM process. Uses the
+ * HotSpot extension of the {@link OperatingSystemMXBean} to get the metrics
+ * data. The CPU time consumed since the previous collection is reported as a
+ * delta and as the average number of processors used over that interval.
+ * Nothing is reported if the JVM does not measure its CPU time.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class CpuMetricsCollector implements JvmMetricsCollector {
+// CHECKSTYLE.ON: FinalClass
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector}.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newInstance() {
+        return new CpuMetricsCollector();
+    }
+
+    @Override
+    public void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final OperatingSystemMXBean bean = managementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            // The CPU time is -1 if it is not measured
+            final long processCpuTime = ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+            final long processCpuTimeDelta = _processCpuTime.update(processCpuTime, _nanoTime.getAsLong());
+            if (processCpuTimeDelta != DeltaTracker.UNDEFINED) {
+                metrics.setTimer(PROCESS_CPU_TIME_DELTA, processCpuTimeDelta, TimeUnit.NANOSECONDS);
+                final double processorsUsed = _processCpuTime.toRate(processCpuTimeDelta, TimeUnit.NANOSECONDS);
+                if (!Double.isNaN(processorsUsed)) {
+                    metrics.setGauge(PROCESSORS_USED, processorsUsed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Protected constructor.
+     */
+    protected CpuMetricsCollector() {
+        this(System::nanoTime);
+    }
+
+    /* package private */ CpuMetricsCollector(final LongSupplier nanoTime) {
+        _nanoTime = nanoTime;
+    }
+
+    private final LongSupplier _nanoTime;
+    private final DeltaTracker _processCpuTime = new DeltaTracker();
+
+    private static final String PROCESS_CPU_TIME_DELTA = String.join("/", ROOT_NAMESPACE, "cpu", "process_cpu_time_delta");
+    private static final String PROCESSORS_USED = String.join("/", ROOT_NAMESPACE, "cpu", "processors_used");
+}
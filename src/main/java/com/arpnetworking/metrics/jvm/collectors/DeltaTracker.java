@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the change of a cumulative value, such as a collection count or a
+ * completed task count, between samples. As with the Java Management API
+ * a negative value is undefined. Samples taken with {@link #update(long, long)}
+ * also track the time elapsed between them so that the change may be
+ * reported as a rate.
+ *
+ * Safe for concurrent use without locking or boxing. Each sample replaces
+ * the previous one atomically, so the deltas returned across all callers
+ * sum to the total change even if samples race; a stale sample yields a
+ * negative delta which the next sample compensates for. The same holds for
+ * the elapsed times, although a racing sample may pair its delta with the
+ * elapsed time of another.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class DeltaTracker {
+
+    /**
+     * Record a sample of the cumulative value.
+     *
+     * @param value the current cumulative value; negative if undefined
+     * @return the change since the previous sample or {@link #UNDEFINED} if
+     * there is no previous sample or either sample is undefined
+     */
+    public long update(final long value) {
+        final long last = _last.getAndSet(value);
+        if (last < 0 || value < 0) {
+            return UNDEFINED;
+        }
+        return value - last;
+    }
+
+    /**
+     * Record a timed sample of the cumulative value.
+     *
+     * @param value the current cumulative value; negative if undefined
+     * @param nanoTime the time of the sample, for example from
+     * {@link System#nanoTime()}
+     * @return the change since the previous timed sample or {@link #UNDEFINED}
+     * if there is no previous sample or either sample is undefined
+     */
+    public long update(final long value, final long nanoTime) {
+        final long lastNanoTime = _lastNanoTime.getAndSet(nanoTime);
+        _elapsedNanos = lastNanoTime == UNDEFINED ? UNDEFINED : nanoTime - lastNanoTime;
+        return update(value);
+    }
+
+    /**
+     * The time elapsed between the last two timed samples.
+     *
+     * @return the elapsed time in nanoseconds or {@link #UNDEFINED} if fewer
+     * than two timed samples were recorded
+     */
+    public long getElapsedNanos() {
+        return _elapsedNanos;
+    }
+
+    /**
+     * Convert a delta returned by {@link #update(long, long)} to a rate.
+     *
+     * @param delta the delta returned by {@link #update(long, long)}
+     * @param unit the unit of time of the rate
+     * @return the change per unit of time or {@link Double#NaN} if the delta
+     * or the elapsed time is undefined or no time has elapsed
+     */
+    public double toRate(final long delta, final TimeUnit unit) {
+        final long elapsedNanos = _elapsedNanos;
+        // An undefined elapsed time is negative
+        if (delta == UNDEFINED || elapsedNanos <= 0) {
+            return Double.NaN;
+        }
+        return delta * (double) unit.toNanos(1) / elapsedNanos;
+    }
+
+    private final AtomicLong _last = new AtomicLong(UNDEFINED);
+    private final AtomicLong _lastNanoTime = new AtomicLong(UNDEFINED);
+    private volatile long _elapsedNanos = UNDEFINED;
+
+    /**
+     * The delta returned when no change can be computed. Distinct from any
+     * delta between defined samples.
+     */
+    public static final long UNDEFINED = Long.MIN_VALUE;
+}
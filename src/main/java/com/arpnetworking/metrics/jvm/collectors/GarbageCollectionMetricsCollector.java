@@ -16,17 +16,19 @@
 package com.arpnetworking.metrics.jvm.collectors;
 
 import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.Hsperfdata;
 import com.arpnetworking.metrics.jvm.ManagementFactory;
 
 import java.lang.management.GarbageCollectorMXBean;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Collector class for JVM garbage collection metrics. Uses the Java Management API to get the metrics data.
+ * Collector class for JVM garbage collection metrics. Uses the Java Management API to get the metrics data, or
+ * optionally the counters HotSpot publishes in {@link Hsperfdata}.
  *
  * @author Deepika Misra (deepika at groupon dot com)
  */
@@ -43,102 +45,115 @@ public class GarbageCollectionMetricsCollector implements JvmMetricsCollector {
         return new GarbageCollectionMetricsCollector();
     }
 
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector} which reads the
+     * garbage collection counters from {@link Hsperfdata} when it is
+     * available and otherwise from the Java Management API. The collectors
+     * in {@link Hsperfdata} are named after their implementation so the
+     * metric names differ from those of {@link #newInstance()}.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newHsperfdataInstance() {
+        return new GarbageCollectionMetricsCollector(true);
+    }
+
     @Override
     public void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final Optional<Hsperfdata> hsperfdata = _useHsperfdata ? managementFactory.getHsperfdata() : Optional.empty();
+        if (hsperfdata.isPresent()) {
+            for (final Hsperfdata.GarbageCollector collector : hsperfdata.get().getGarbageCollectors()) {
+                collect(metrics, collector.getName(), collector.getCollectionCount(), collector.getCollectionTime());
+            }
+            return;
+        }
         final List<GarbageCollectorMXBean> gcBeans = managementFactory.getGarbageCollectorMXBeans();
         for (final GarbageCollectorMXBean bean : gcBeans) {
-            final String beanName = bean.getName();
-            final long currentCollectionCount = bean.getCollectionCount();
-            // Collection count may be -1 if undefined
-            // http://docs.oracle.com/javase/8/docs/api/java/lang/management/GarbageCollectorMXBean.html#getCollectionCount--
-            if (currentCollectionCount != -1) {
-                metrics.setGauge(
-                        String.join(
-                                "/",
-                                ROOT_NAMESPACE,
-                                GARBAGE_COLLECTOR,
-                                MetricsUtil.convertToSnakeCase(beanName),
-                                COLLECTION_COUNT),
-                        currentCollectionCount
-                );
-            }
-            final Optional<Long> collectionCountDelta = getAndUpdateCollectionCountDelta(beanName, currentCollectionCount);
-            if (collectionCountDelta.isPresent()) {
-                metrics.incrementCounter(
-                        String.join(
-                                "/",
-                                ROOT_NAMESPACE,
-                                GARBAGE_COLLECTOR,
-                                MetricsUtil.convertToSnakeCase(beanName),
-                                COLLECTION_COUNT_DELTA),
-                        collectionCountDelta.get()
-                );
-            }
-            // Collection time may be -1 if undefined
-            // http://docs.oracle.com/javase/8/docs/api/java/lang/management/GarbageCollectorMXBean.html#getCollectionTime--
-            final long collectionTime = bean.getCollectionTime();
-            if (collectionTime != -1) {
-                metrics.setGauge(
-                        String.join(
-                                "/",
-                                ROOT_NAMESPACE,
-                                GARBAGE_COLLECTOR,
-                                MetricsUtil.convertToSnakeCase(beanName),
-                                COLLECTION_TIME),
-                        collectionTime
-                );
-            }
-            final Optional<Long> collectionTimeDelta = getAndUpdateCollectionTimeDelta(beanName, currentCollectionCount);
-            if (collectionTimeDelta.isPresent()) {
-                metrics.setTimer(
-                        String.join(
-                                "/",
-                                ROOT_NAMESPACE,
-                                GARBAGE_COLLECTOR,
-                                MetricsUtil.convertToSnakeCase(beanName),
-                                COLLECTION_TIME_DELTA),
-                        collectionTimeDelta.get(),
-                        TimeUnit.MILLISECONDS
-                );
-            }
+            collect(metrics, bean.getName(), bean.getCollectionCount(), bean.getCollectionTime());
         }
     }
 
-    private Optional<Long> getAndUpdateCollectionCountDelta(final String beanName, final long currentValue) {
-        final long lastValue = _lastCollectionCountMap.getOrDefault(beanName, -1L);
-        _lastCollectionCountMap.put(beanName, currentValue);
-        //-1 signifies undefined.
-        //If there is no previous value or the previous value is -1 or the current value is -1, return Optional.empty().
-        if (lastValue == -1 || currentValue == -1) {
-            return Optional.empty();
+    private void collect(
+            final Metrics metrics,
+            final String beanName,
+            final long currentCollectionCount,
+            final long collectionTime) {
+        final Deltas deltas = _deltas.computeIfAbsent(beanName, name -> new Deltas());
+        // Collection count may be -1 if undefined
+        // http://docs.oracle.com/javase/8/docs/api/java/lang/management/GarbageCollectorMXBean.html#getCollectionCount--
+        if (currentCollectionCount != -1) {
+            metrics.setGauge(
+                    String.join(
+                            "/",
+                            ROOT_NAMESPACE,
+                            GARBAGE_COLLECTOR,
+                            MetricsUtil.convertToSnakeCase(beanName),
+                            COLLECTION_COUNT),
+                    currentCollectionCount
+            );
         }
-        return Optional.of(currentValue - lastValue);
-    }
-
-    private Optional<Long> getAndUpdateCollectionTimeDelta(final String beanName, final long currentValue) {
-        final long lastValue = _lastCollectionTimeMap.getOrDefault(beanName, -1L);
-        _lastCollectionTimeMap.put(beanName, currentValue);
-        //-1 signifies undefined.
-        //If there is no previous value or the previous value is -1 or the current value is -1, return Optional.empty().
-        if (lastValue == -1 || currentValue == -1) {
-            return Optional.empty();
+        final long collectionCountDelta = deltas._collectionCount.update(currentCollectionCount);
+        if (collectionCountDelta != DeltaTracker.UNDEFINED) {
+            metrics.incrementCounter(
+                    String.join(
+                            "/",
+                            ROOT_NAMESPACE,
+                            GARBAGE_COLLECTOR,
+                            MetricsUtil.convertToSnakeCase(beanName),
+                            COLLECTION_COUNT_DELTA),
+                    collectionCountDelta
+            );
+        }
+        // Collection time may be -1 if undefined
+        // http://docs.oracle.com/javase/8/docs/api/java/lang/management/GarbageCollectorMXBean.html#getCollectionTime--
+        if (collectionTime != -1) {
+            metrics.setGauge(
+                    String.join(
+                            "/",
+                            ROOT_NAMESPACE,
+                            GARBAGE_COLLECTOR,
+                            MetricsUtil.convertToSnakeCase(beanName),
+                            COLLECTION_TIME),
+                    collectionTime
+            );
+        }
+        final long collectionTimeDelta = deltas._collectionTime.update(collectionTime);
+        if (collectionTimeDelta != DeltaTracker.UNDEFINED) {
+            metrics.setTimer(
+                    String.join(
+                            "/",
+                            ROOT_NAMESPACE,
+                            GARBAGE_COLLECTOR,
+                            MetricsUtil.convertToSnakeCase(beanName),
+                            COLLECTION_TIME_DELTA),
+                    collectionTimeDelta,
+                    TimeUnit.MILLISECONDS
+            );
         }
-        return Optional.of(currentValue - lastValue);
     }
 
     /**
      * Protected constructor.
      */
-    protected GarbageCollectionMetricsCollector() {}
+    protected GarbageCollectionMetricsCollector() {
+        this(false);
+    }
+
+    private GarbageCollectionMetricsCollector(final boolean useHsperfdata) {
+        _useHsperfdata = useHsperfdata;
+    }
 
-    // CHECKSTYLE.OFF: IllegalInstantiation - Needed, since we dont use Guava
-    private final Map<String, Long> _lastCollectionCountMap = new HashMap<>();
-    private final Map<String, Long> _lastCollectionTimeMap = new HashMap<>();
-    // CHECKSTYLE.ON: IllegalInstantiation
+    private final boolean _useHsperfdata;
+    private final ConcurrentMap<String, Deltas> _deltas = new ConcurrentHashMap<>();
 
     private static final String COLLECTION_COUNT = "collection_count";
     private static final String COLLECTION_TIME = "collection_time";
     private static final String COLLECTION_COUNT_DELTA = "collection_count_delta";
     private static final String COLLECTION_TIME_DELTA = "collection_time_delta";
     private static final String GARBAGE_COLLECTOR = "garbage_collector";
+
+    private static final class Deltas {
+        private final DeltaTracker _collectionCount = new DeltaTracker();
+        private final DeltaTracker _collectionTime = new DeltaTracker();
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import com.sun.management.GcInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collector class for the percentage of wall time spent in garbage
+ * collection over the last one, five and fifteen minutes. Samples of the
+ * total collection time are kept in a fixed size ring spaced so that it
+ * covers fifteen minutes; until then each window covers the samples
+ * available. Only the time of collectors which pause the application is
+ * counted; see {@link #isPause(GarbageCollectorMXBean)}.
+ *
+ * The percentage of the heap reclaimed by the least productive collector
+ * which collected since the previous collection is read from its last
+ * {@link GcInfo}. Thrashing, the pattern which precedes the JVM giving up
+ * with {@code GC overhead limit exceeded}, is flagged while the one minute
+ * overhead is at or above a threshold and that collector reclaimed less
+ * than a minimum.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class GarbageCollectionOverheadMetricsCollector implements JvmMetricsCollector {
+// CHECKSTYLE.ON: FinalClass
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector} which flags
+     * thrashing at 50% overhead while less than 5% of the heap is reclaimed.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newInstance() {
+        return newInstance(DEFAULT_THRASH_OVERHEAD, DEFAULT_THRASH_RECLAIMED);
+    }
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector}.
+     *
+     * @param thrashOverhead the fraction of wall time spent in garbage
+     * collection at or above which thrashing is possible
+     * @param thrashReclaimed the fraction of the heap reclaimed below which
+     * thrashing is flagged
+     * @return An instance of {@link JvmMetricsCollector}
+     * @throws IllegalArgumentException if either threshold is negative
+     */
+    public static JvmMetricsCollector newInstance(final double thrashOverhead, final double thrashReclaimed) {
+        if (!(thrashOverhead >= 0) || !(thrashReclaimed >= 0)) {
+            throw new IllegalArgumentException(String.format(
+                    "Thresholds cannot be negative; thrashOverhead=%s, thrashReclaimed=%s",
+                    thrashOverhead,
+                    thrashReclaimed));
+        }
+        return new GarbageCollectionOverheadMetricsCollector(thrashOverhead, thrashReclaimed);
+    }
+
+    /**
+     * Whether the collection time of a collector is time the application was
+     * paused. The concurrent cycles of G1 ({@code G1 Concurrent GC}), ZGC
+     * ({@code ZGC Cycles}, {@code ZGC Major Cycles} and
+     * {@code ZGC Minor Cycles}) and Shenandoah ({@code Shenandoah Cycles}) run
+     * alongside the application; their pauses are reported by separate
+     * collectors.
+     *
+     * @param bean the collector
+     * @return true if and only if the collector reports pauses
+     */
+    public static boolean isPause(final GarbageCollectorMXBean bean) {
+        final String name = bean.getName();
+        return !name.endsWith(" Cycles") && !name.contains(" Concurrent ");
+    }
+
+    @Override
+    public synchronized void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final long nowNanos = _nanoTime.getAsLong();
+        final List<GarbageCollectorMXBean> gcBeans = managementFactory.getGarbageCollectorMXBeans();
+        long collectionMillis = 0;
+        for (final GarbageCollectorMXBean bean : gcBeans) {
+            if (isPause(bean)) {
+                // The time is -1 if it is not available
+                collectionMillis += Math.max(0, bean.getCollectionTime());
+            }
+        }
+        final double reclaimed = findLeastReclaimed(managementFactory, gcBeans);
+        if (!Double.isNaN(reclaimed)) {
+            metrics.setGauge(RECLAIMED_PERCENT, reclaimed * 100);
+        }
+        if (_size > 0) {
+            // The shortest window is computed last and decides thrashing
+            double shortestOverhead = 0;
+            for (int i = WINDOWS.length - 1; i >= 0; --i) {
+                final int baseline = findBaseline(nowNanos - WINDOWS[i]);
+                final long elapsedNanos = Math.max(1, nowNanos - _times[baseline]);
+                shortestOverhead = TimeUnit.MILLISECONDS.toNanos(collectionMillis - _collectionMillis[baseline])
+                        / (double) elapsedNanos;
+                metrics.setGauge(WINDOW_NAMES[i], shortestOverhead * 100);
+            }
+            // An unknown (NaN) reclaimed fraction is never thrashing
+            final boolean thrashing = shortestOverhead >= _thrashOverhead && reclaimed < _thrashReclaimed;
+            metrics.setGauge(THRASHING, thrashing ? 1 : 0);
+        }
+        record(nowNanos, collectionMillis);
+    }
+
+    private double findLeastReclaimed(final ManagementFactory managementFactory, final List<GarbageCollectorMXBean> gcBeans) {
+        double leastReclaimed = Double.NaN;
+        for (final GarbageCollectorMXBean bean : gcBeans) {
+            final DeltaTracker collectionCount = _collectionCounts.computeIfAbsent(bean.getName(), name -> new DeltaTracker());
+            final long collections = collectionCount.update(bean.getCollectionCount());
+            if (collections > 0 && bean instanceof com.sun.management.GarbageCollectorMXBean) {
+                final GcInfo gcInfo = ((com.sun.management.GarbageCollectorMXBean) bean).getLastGcInfo();
+                if (gcInfo != null) {
+                    final double reclaimed = getReclaimed(managementFactory, gcInfo);
+                    leastReclaimed = Double.isNaN(leastReclaimed) ? reclaimed : Math.min(leastReclaimed, reclaimed);
+                }
+            }
+        }
+        return leastReclaimed;
+    }
+
+    private static double getReclaimed(final ManagementFactory managementFactory, final GcInfo gcInfo) {
+        final Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
+        final Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
+        long reclaimedBytes = 0;
+        for (final MemoryPoolMXBean pool : managementFactory.getMemoryPoolMXBeans()) {
+            final MemoryUsage poolBefore = before.get(pool.getName());
+            final MemoryUsage poolAfter = after.get(pool.getName());
+            if (pool.getType() == MemoryType.HEAP && poolBefore != null && poolAfter != null) {
+                reclaimedBytes += poolBefore.getUsed() - poolAfter.getUsed();
+            }
+        }
+        final MemoryUsage heap = managementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        // The maximum is -1 if it is not defined
+        final long heapBytes = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        return Math.max(0, reclaimedBytes) / (double) Math.max(1, heapBytes);
+    }
+
+    private int findBaseline(final long sinceNanos) {
+        // The newest sample at or before the start of the window; otherwise the oldest
+        int baseline = _oldest;
+        for (int i = 1; i < _size; ++i) {
+            final int index = (_oldest + i) % CAPACITY;
+            if (_times[index] - sinceNanos > 0) {
+                break;
+            }
+            baseline = index;
+        }
+        return baseline;
+    }
+
+    private void record(final long nowNanos, final long collectionMillis) {
+        if (_size > 0 && nowNanos - _times[(_oldest + _size - 1) % CAPACITY] < SAMPLE_SPACING_NANOS) {
+            return;
+        }
+        if (_size == CAPACITY) {
+            _oldest = (_oldest + 1) % CAPACITY;
+            --_size;
+        }
+        final int index = (_oldest + _size) % CAPACITY;
+        _times[index] = nowNanos;
+        _collectionMillis[index] = collectionMillis;
+        ++_size;
+    }
+
+    /**
+     * Protected constructor.
+     *
+     * @param thrashOverhead the fraction of wall time spent in garbage
+     * collection at or above which thrashing is possible
+     * @param thrashReclaimed the fraction of the heap reclaimed below which
+     * thrashing is flagged
+     */
+    protected GarbageCollectionOverheadMetricsCollector(final double thrashOverhead, final double thrashReclaimed) {
+        this(thrashOverhead, thrashReclaimed, System::nanoTime);
+    }
+
+    /* package private */ GarbageCollectionOverheadMetricsCollector(
+            final double thrashOverhead,
+            final double thrashReclaimed,
+            final LongSupplier nanoTime) {
+        _thrashOverhead = thrashOverhead;
+        _thrashReclaimed = thrashReclaimed;
+        _nanoTime = nanoTime;
+    }
+
+    private final double _thrashOverhead;
+    private final double _thrashReclaimed;
+    private final LongSupplier _nanoTime;
+    private final ConcurrentMap<String, DeltaTracker> _collectionCounts = new ConcurrentHashMap<>();
+    private final long[] _times = new long[CAPACITY];
+    private final long[] _collectionMillis = new long[CAPACITY];
+    private int _oldest;
+    private int _size;
+
+    private static final int CAPACITY = 1024;
+    private static final long[] WINDOWS = {
+        TimeUnit.MINUTES.toNanos(1),
+        TimeUnit.MINUTES.toNanos(5),
+        TimeUnit.MINUTES.toNanos(15),
+    };
+    private static final long SAMPLE_SPACING_NANOS = WINDOWS[WINDOWS.length - 1] / CAPACITY;
+    private static final String GC_OVERHEAD = "gc_overhead";
+    private static final String[] WINDOW_NAMES = {
+        String.join("/", ROOT_NAMESPACE, GC_OVERHEAD, "percent_1m"),
+        String.join("/", ROOT_NAMESPACE, GC_OVERHEAD, "percent_5m"),
+        String.join("/", ROOT_NAMESPACE, GC_OVERHEAD, "percent_15m"),
+    };
+    private static final String RECLAIMED_PERCENT = String.join("/", ROOT_NAMESPACE, GC_OVERHEAD, "reclaimed_percent");
+    private static final String THRASHING = String.join("/", ROOT_NAMESPACE, GC_OVERHEAD, "thrashing");
+    private static final double DEFAULT_THRASH_OVERHEAD = 0.5;
+    private static final double DEFAULT_THRASH_RECLAIMED = 0.05;
+}
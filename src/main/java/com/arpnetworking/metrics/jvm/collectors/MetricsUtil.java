@@ -15,6 +15,9 @@
  */
 package com.arpnetworking.metrics.jvm.collectors;
 
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
 /**
  * An utility class of JVM metrics.
  *
@@ -45,5 +48,20 @@ package com.arpnetworking.metrics.jvm.collectors;
         return builder.toString();
     }
 
+    /**
+     * Creates an {@link ObjectName} from a constant string.
+     *
+     * @param name the string representation of the {@link ObjectName}
+     * @return the {@link ObjectName}
+     * @throws IllegalArgumentException if the name is malformed
+     */
+    /* package private */ static ObjectName createObjectName(final String name) {
+        try {
+            return new ObjectName(name);
+        } catch (final MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Malformed object name: " + name, e);
+        }
+    }
+
     private MetricsUtil() {}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.Hsperfdata;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collector class for JVM safepoint metrics: the number of safepoints, the
+ * time spent in them and the part of that time spent waiting for threads
+ * to reach them. No MXBean exposes these so they are read from the counters
+ * HotSpot publishes in {@link Hsperfdata}; nothing is collected if those are
+ * not published. Each is emitted as its change since the previous
+ * collection.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class SafepointMetricsCollector implements JvmMetricsCollector {
+// CHECKSTYLE.ON: FinalClass
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector}.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newInstance() {
+        return new SafepointMetricsCollector();
+    }
+
+    @Override
+    public void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        final Optional<Hsperfdata> hsperfdata = managementFactory.getHsperfdata();
+        if (hsperfdata.isEmpty()) {
+            return;
+        }
+        Counters counters = _counters.get();
+        if (counters == null || counters._hsperfdata != hsperfdata.get()) {
+            // Resolved once per file rather than looked up by name on each collection
+            counters = new Counters(hsperfdata.get());
+            _counters.set(counters);
+        }
+        if (counters._count.isPresent()) {
+            final long delta = _count.update(counters._count.get().get());
+            if (delta != DeltaTracker.UNDEFINED) {
+                metrics.incrementCounter(COUNT_DELTA, delta);
+            }
+        }
+        collectTime(metrics, hsperfdata.get(), counters._time, _time, TIME_DELTA);
+        collectTime(metrics, hsperfdata.get(), counters._syncTime, _syncTime, SYNC_TIME_DELTA);
+    }
+
+    private static void collectTime(
+            final Metrics metrics,
+            final Hsperfdata hsperfdata,
+            final Optional<Hsperfdata.Counter> counter,
+            final DeltaTracker tracker,
+            final String name) {
+        if (counter.isPresent()) {
+            final long delta = tracker.update(hsperfdata.toNanos(counter.get().get()));
+            if (delta != DeltaTracker.UNDEFINED) {
+                metrics.setTimer(name, delta, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Protected constructor.
+     */
+    protected SafepointMetricsCollector() {}
+
+    private final DeltaTracker _count = new DeltaTracker();
+    private final DeltaTracker _time = new DeltaTracker();
+    private final DeltaTracker _syncTime = new DeltaTracker();
+    private final AtomicReference<Counters> _counters = new AtomicReference<>();
+
+    private static final String SAFEPOINTS = "sun.rt.safepoints";
+    private static final String SAFEPOINT_TIME = "sun.rt.safepointTime";
+    private static final String SAFEPOINT_SYNC_TIME = "sun.rt.safepointSyncTime";
+    private static final String COUNT_DELTA = String.join("/", ROOT_NAMESPACE, "safepoint", "count_delta");
+    private static final String TIME_DELTA = String.join("/", ROOT_NAMESPACE, "safepoint", "time_delta");
+    private static final String SYNC_TIME_DELTA = String.join("/", ROOT_NAMESPACE, "safepoint", "sync_time_delta");
+
+    private static final class Counters {
+
+        private Counters(final Hsperfdata hsperfdata) {
+            _hsperfdata = hsperfdata;
+            _count = hsperfdata.findCounter(SAFEPOINTS);
+            _time = hsperfdata.findCounter(SAFEPOINT_TIME);
+            _syncTime = hsperfdata.findCounter(SAFEPOINT_SYNC_TIME);
+        }
+
+        private final Hsperfdata _hsperfdata;
+        private final Optional<Hsperfdata.Counter> _count;
+        private final Optional<Hsperfdata.Counter> _time;
+        private final Optional<Hsperfdata.Counter> _syncTime;
+    }
+}
@@ -43,6 +43,10 @@ public class ThreadMetricsCollector implements JvmMetricsCollector {
         metrics.setGauge(THREAD_COUNT, threadBean.getThreadCount());
         metrics.setGauge(DAEMON_THREAD_COUNT, threadBean.getDaemonThreadCount());
         metrics.setGauge(PEAK_THREAD_COUNT, threadBean.getPeakThreadCount());
+        final long startedThreadCountDelta = _startedThreadCount.update(threadBean.getTotalStartedThreadCount());
+        if (startedThreadCountDelta != DeltaTracker.UNDEFINED) {
+            metrics.incrementCounter(STARTED_THREAD_COUNT_DELTA, startedThreadCountDelta);
+        }
     }
 
     /**
@@ -50,7 +54,11 @@ public class ThreadMetricsCollector implements JvmMetricsCollector {
      */
     protected ThreadMetricsCollector() {}
 
+    private final DeltaTracker _startedThreadCount = new DeltaTracker();
+
     private static final String THREAD_COUNT = String.join("/", ROOT_NAMESPACE, "threads", "thread_count");
     private static final String DAEMON_THREAD_COUNT = String.join("/", ROOT_NAMESPACE, "threads", "daemon_thread_count");
+    private static final String STARTED_THREAD_COUNT_DELTA =
+            String.join("/", ROOT_NAMESPACE, "threads", "started_thread_count_delta");
     private static final String PEAK_THREAD_COUNT = String.join("/", ROOT_NAMESPACE, "threads", "peak_thread_count");
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Collector class for JVM virtual thread metrics. The carrier scheduler
+ * metrics are read from the {@code jdk.management:type=VirtualThreadScheduler}
+ * MXBean which is available on JDK 24 and later; on older JDKs they are
+ * silently omitted. Pinning is measured by counting {@code jdk.VirtualThreadPinned}
+ * events (JDK 21 and later) from a JFR event stream which is started on the
+ * first collection and stopped by {@link #close()}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+// CHECKSTYLE.OFF: FinalClass - Allow clients to inherit from this.
+public class VirtualThreadMetricsCollector implements JvmMetricsCollector, AutoCloseable {
+// CHECKSTYLE.ON: FinalClass
+
+    /**
+     * Creates a new instance of {@link JvmMetricsCollector}.
+     *
+     * @return An instance of {@link JvmMetricsCollector}
+     */
+    public static JvmMetricsCollector newInstance() {
+        return new VirtualThreadMetricsCollector(RecordingStream::new);
+    }
+
+    @Override
+    public void collect(final Metrics metrics, final ManagementFactory managementFactory) {
+        collectScheduler(metrics, managementFactory.getMBeanServerConnection());
+        if (startPinnedEventStream()) {
+            metrics.incrementCounter(PINNED_COUNT, _pinnedCount.sumThenReset());
+            metrics.setTimer(PINNED_TIME, _pinnedNanos.sumThenReset(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops the pinned event stream if one was started. Pinned events are
+     * not recorded by this instance after it is closed.
+     */
+    @Override
+    public synchronized void close() {
+        _pinnedEventsEnabled = false;
+        if (_pinnedEventStream != null) {
+            _pinnedEventStream.close();
+            _pinnedEventStream = null;
+        }
+    }
+
+    private void collectScheduler(final Metrics metrics, final MBeanServerConnection connection) {
+        final AttributeList attributes;
+        try {
+            attributes = connection.getAttributes(SCHEDULER_OBJECT_NAME, SCHEDULER_ATTRIBUTES);
+        } catch (final InstanceNotFoundException e) {
+            // The scheduler MXBean is only registered on JDK 24 and later
+            return;
+        } catch (final ReflectionException | IOException e) {
+            throw new IllegalStateException("Unable to read virtual thread scheduler attributes", e);
+        }
+        for (final Attribute attribute : attributes.asList()) {
+            final Object value = attribute.getValue();
+            if (value instanceof Number) {
+                metrics.setGauge(
+                        String.join(
+                                "/",
+                                ROOT_NAMESPACE,
+                                VIRTUAL_THREADS,
+                                MetricsUtil.convertToSnakeCase(attribute.getName())),
+                        ((Number) value).longValue());
+            }
+        }
+    }
+
+    private synchronized boolean startPinnedEventStream() {
+        if (_pinnedEventStream == null && _pinnedEventsEnabled) {
+            try {
+                final RecordingStream stream = _recordingStreamFactory.get();
+                stream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD);
+                stream.onEvent(PINNED_EVENT, this::recordPinnedEvent);
+                stream.startAsync();
+                _pinnedEventStream = stream;
+            } catch (final IllegalStateException | SecurityException e) {
+                LOGGER.warn("Unable to stream virtual thread pinned events; pinning will not be reported", e);
+                _pinnedEventsEnabled = false;
+            }
+        }
+        return _pinnedEventStream != null;
+    }
+
+    private void recordPinnedEvent(final RecordedEvent event) {
+        _pinnedCount.increment();
+        _pinnedNanos.add(event.getDuration().toNanos());
+    }
+
+    /**
+     * Protected constructor.
+     *
+     * @param recordingStreamFactory factory for the JFR {@link RecordingStream}
+     */
+    protected VirtualThreadMetricsCollector(final Supplier<RecordingStream> recordingStreamFactory) {
+        _recordingStreamFactory = recordingStreamFactory;
+    }
+
+    private final Supplier<RecordingStream> _recordingStreamFactory;
+    private final LongAdder _pinnedCount = new LongAdder();
+    private final LongAdder _pinnedNanos = new LongAdder();
+    @Nullable
+    private RecordingStream _pinnedEventStream;
+    private boolean _pinnedEventsEnabled = true;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadMetricsCollector.class);
+    private static final String VIRTUAL_THREADS = "virtual_threads";
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // Matches the JDK's default threshold for the pinned event
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final String PINNED_COUNT = String.join("/", ROOT_NAMESPACE, VIRTUAL_THREADS, "pinned_count");
+    private static final String PINNED_TIME = String.join("/", ROOT_NAMESPACE, VIRTUAL_THREADS, "pinned_time");
+    private static final ObjectName SCHEDULER_OBJECT_NAME =
+            MetricsUtil.createObjectName("jdk.management:type=VirtualThreadScheduler");
+    private static final String[] SCHEDULER_ATTRIBUTES = {
+        "Parallelism",
+        "PoolSize",
+        "MountedVirtualThreadCount",
+        "QueuedVirtualThreadCount",
+    };
+}
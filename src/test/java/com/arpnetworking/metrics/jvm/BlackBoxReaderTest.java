@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link BlackBoxReader} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class BlackBoxReaderTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("black-box-reader-test");
+        _path = _directory.resolve("jvm.blackbox");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_path);
+        Files.delete(_directory);
+    }
+
+    @Test
+    public void testReadEmpty() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build().close();
+        Assert.assertEquals(List.of(), BlackBoxReader.open(_path).read());
+    }
+
+    @Test
+    public void testDump() throws IOException {
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build()) {
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/absent", 0L);
+            record(recorder, 0);
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/long", 1L);
+            _recorder.setGauge("jvm/double", 2.5);
+            _recorder.incrementCounter("jvm/counter", 3);
+            _recorder.setTimer("jvm/timer", 4, TimeUnit.MILLISECONDS);
+            record(recorder, 1000);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            BlackBoxReader.open(_path).dump(out);
+        }
+        Assert.assertEquals(
+                String.join(
+                        System.lineSeparator(),
+                        "1970-01-01T00:00:00Z jvm/absent 0",
+                        "1970-01-01T00:00:01Z jvm/long 1",
+                        "1970-01-01T00:00:01Z jvm/double 2.5",
+                        "1970-01-01T00:00:01Z jvm/counter 3",
+                        "1970-01-01T00:00:01Z jvm/timer 4 MILLISECONDS",
+                        ""),
+                bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMain() throws IOException {
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build()) {
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/long", 1L);
+            record(recorder, 0);
+        }
+        final PrintStream out = System.out;
+        final PrintStream err = System.err;
+        final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+        try (PrintStream capturedOut = new PrintStream(outBytes, true, StandardCharsets.UTF_8);
+             PrintStream capturedErr = new PrintStream(errBytes, true, StandardCharsets.UTF_8)) {
+            System.setOut(capturedOut);
+            System.setErr(capturedErr);
+            BlackBoxReader.main(new String[]{_path.toString()});
+            BlackBoxReader.main(new String[0]);
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+        Assert.assertEquals("1970-01-01T00:00:00Z jvm/long 1" + System.lineSeparator(), outBytes.toString(StandardCharsets.UTF_8));
+        Assert.assertTrue(errBytes.toString(StandardCharsets.UTF_8).startsWith("Usage"));
+    }
+
+    @Test
+    public void testTruncatedBlock() throws IOException {
+        final JvmSnapshot expected;
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build()) {
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/long", 1L);
+            expected = record(recorder, 0);
+        }
+        // Claim a second sample which was never written
+        writeInt(BlackBoxRecorder.blockOffset(0, 1024) + BlackBoxRecorder.BLOCK_SAMPLES_OFFSET, 2);
+        BlackBoxRecorderTest.assertSnapshotsEqual(List.of(expected), BlackBoxReader.open(_path).read());
+    }
+
+    @Test
+    public void testInvalidMetricCount() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build().close();
+        final int offset = BlackBoxRecorder.blockOffset(0, 1024);
+        writeInt(offset + BlackBoxRecorder.BLOCK_SAMPLES_OFFSET, 1);
+        writeInt(offset + BlackBoxRecorder.BLOCK_USED_OFFSET, 13);
+        // A timestamp of zero then a changed metric count of -1
+        try (FileChannel channel = FileChannel.open(_path, StandardOpenOption.WRITE)) {
+            channel.write(
+                    ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0x80}),
+                    offset + BlackBoxRecorder.BLOCK_HEADER_SIZE);
+        }
+        Assert.assertEquals(List.of(), BlackBoxReader.open(_path).read());
+    }
+
+    @Test(expected = IOException.class)
+    public void testFileTooSmall() throws IOException {
+        Files.write(_path, new byte[BlackBoxRecorder.HEADER_SIZE - 1]);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongMagic() throws IOException {
+        writeHeader(0, BlackBoxRecorder.VERSION, 1024, 0);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongVersion() throws IOException {
+        writeHeader(BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION + 1, 1024, 0);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testBlockSizeTooSmall() throws IOException {
+        writeHeader(BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION, BlackBoxRecorder.BLOCK_HEADER_SIZE - 1, 0);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeBlockCount() throws IOException {
+        writeHeader(BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION, 1024, -1);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testBlocksBeyondFile() throws IOException {
+        writeHeader(BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION, 1024, 1);
+        BlackBoxReader.open(_path);
+    }
+
+    @Test
+    public void testNoBlocks() throws IOException {
+        writeHeader(BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION, 1024, 0);
+        Assert.assertEquals(List.of(), BlackBoxReader.open(_path).read());
+    }
+
+    private JvmSnapshot record(final BlackBoxRecorder recorder, final long timestamp) {
+        final JvmSnapshot snapshot = _recorder.publish();
+        snapshot.setTimestamp(timestamp);
+        recorder.record(snapshot);
+        return snapshot.copy();
+    }
+
+    private void writeHeader(final int magic, final int version, final int blockSize, final int blockCount) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BlackBoxRecorder.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BlackBoxRecorder.MAGIC_OFFSET, magic);
+        buffer.putInt(BlackBoxRecorder.VERSION_OFFSET, version);
+        buffer.putInt(BlackBoxRecorder.BLOCK_SIZE_OFFSET, blockSize);
+        buffer.putInt(BlackBoxRecorder.BLOCK_COUNT_OFFSET, blockCount);
+        Files.write(_path, buffer.array());
+    }
+
+    private void writeInt(final int offset, final int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(_path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), offset);
+        }
+    }
+
+    private Path _directory;
+    private Path _path;
+    private final Metrics _passThrough = Mockito.mock(Metrics.class);
+    private final JvmSnapshotRecorder _recorder = new JvmSnapshotRecorder();
+}
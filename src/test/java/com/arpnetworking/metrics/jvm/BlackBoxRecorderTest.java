@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link BlackBoxRecorder} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class BlackBoxRecorderTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("black-box-recorder-test");
+        _path = _directory.resolve("jvm.blackbox");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_path);
+        Files.delete(_directory);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final List<JvmSnapshot> expected = new ArrayList<>();
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).build()) {
+            Assert.assertEquals(_path, recorder.getPath());
+            // Deltas of delta of zero and in each width
+            final long[] timestamps = {1000, 2000, 3000, 3050, 3300, 5000, 1_000_000_000, 1_000_001_000};
+            for (int i = 0; i < timestamps.length; ++i) {
+                _recorder.begin(_passThrough);
+                _recorder.setGauge("jvm/constant", 42L);
+                _recorder.setGauge("jvm/changing", i * 1_000_003L * (i % 2 == 0 ? 1 : -1));
+                _recorder.setGauge("jvm/ratio", i / 3.0);
+                _recorder.incrementCounter("jvm/counter", i);
+                _recorder.setTimer("jvm/timer", i, i % 2 == 0 ? TimeUnit.MILLISECONDS : TimeUnit.NANOSECONDS);
+                if (i % 3 == 0) {
+                    _recorder.setGauge("jvm/sometimes", Double.NaN);
+                }
+                // A gauge which changes between integral and floating point
+                if (i % 2 == 0) {
+                    _recorder.setGauge("jvm/either", i);
+                } else {
+                    _recorder.setGauge("jvm/either", i + 0.5);
+                }
+                if (i >= 4) {
+                    _recorder.setGauge("jvm/late", Long.MIN_VALUE + i);
+                }
+                expected.add(publish(timestamps[i], recorder));
+            }
+        }
+        assertSnapshotsEqual(expected, BlackBoxReader.open(_path).read());
+    }
+
+    @Test
+    public void testRingOverwritesOldest() throws IOException {
+        final List<JvmSnapshot> expected = new ArrayList<>();
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder()
+                .setPath(_path)
+                .setBlockSize(1024)
+                .setBlockCount(2)
+                .build()) {
+            for (int i = 0; i < 1000; ++i) {
+                _recorder.begin(_passThrough);
+                _recorder.setGauge("jvm/value", i * 7919L);
+                _recorder.setGauge("jvm/random", Double.doubleToRawLongBits(Math.sin(i)));
+                expected.add(publish(1000L * i, recorder));
+            }
+        }
+        final List<JvmSnapshot> actual = BlackBoxReader.open(_path).read();
+        Assert.assertTrue(actual.size() > 10);
+        Assert.assertTrue(actual.size() < expected.size());
+        assertSnapshotsEqual(expected.subList(expected.size() - actual.size(), expected.size()), actual);
+    }
+
+    @Test
+    public void testSnapshotDoesNotFit() throws IOException {
+        final String longName = "jvm/" + "x".repeat(1100);
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder()
+                .setPath(_path)
+                .setBlockSize(1024)
+                .build()) {
+            // Too large for an empty block
+            final JvmSnapshotRecorder large = new JvmSnapshotRecorder();
+            large.begin(_passThrough);
+            large.setGauge(longName, 1L);
+            recorder.record(large.publish());
+            Assert.assertEquals(0, BlackBoxReader.open(_path).read().size());
+        }
+        Files.delete(_path);
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder()
+                .setPath(_path)
+                .setBlockSize(1024)
+                .build()) {
+            // Too large for a block after one which had samples
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/small", 1L);
+            final JvmSnapshot expected = publish(0, recorder);
+            _recorder.begin(_passThrough);
+            _recorder.setGauge(longName, 1L);
+            publish(1000, recorder);
+            assertSnapshotsEqual(List.of(expected), BlackBoxReader.open(_path).read());
+        }
+    }
+
+    @Test
+    public void testResumesExistingFile() throws IOException {
+        final List<JvmSnapshot> expected = new ArrayList<>();
+        for (int run = 0; run < 2; ++run) {
+            try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).build()) {
+                _recorder.begin(_passThrough);
+                _recorder.setGauge("jvm/run", run);
+                expected.add(publish(1000L * run, recorder));
+            }
+        }
+        assertSnapshotsEqual(expected, BlackBoxReader.open(_path).read());
+    }
+
+    @Test
+    public void testRecreatesFileWithDifferentGeometry() throws IOException {
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(2048).setBlockCount(2).build()) {
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/gauge", 1L);
+            publish(1000, recorder);
+        }
+        // The same size in more, smaller blocks
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(4).build()) {
+            Assert.assertEquals(0, BlackBoxReader.open(recorder.getPath()).read().size());
+        }
+        // A smaller file
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build()) {
+            Assert.assertEquals(BlackBoxRecorder.blockOffset(2, 1024), Files.size(recorder.getPath()));
+        }
+    }
+
+    @Test
+    public void testRecreatesFileWithDifferentHeader() throws IOException {
+        final int size = BlackBoxRecorder.blockOffset(2, 1024);
+        writeHeader(size, 0, BlackBoxRecorder.VERSION, 1024, 2);
+        assertRecreated();
+        writeHeader(size, BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION + 1, 1024, 2);
+        assertRecreated();
+        writeHeader(size, BlackBoxRecorder.MAGIC, BlackBoxRecorder.VERSION, 1024, 3);
+        assertRecreated();
+    }
+
+    @Test
+    public void testRecordAfterClose() throws IOException {
+        final BlackBoxRecorder recorder = new BlackBoxRecorder.Builder().setPath(_path).build();
+        recorder.close();
+        recorder.close();
+        _recorder.begin(_passThrough);
+        _recorder.setGauge("jvm/gauge", 1L);
+        publish(1000, recorder);
+        Assert.assertEquals(0, BlackBoxReader.open(_path).read().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testBuildFailure() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_directory.resolve("missing").resolve("jvm.blackbox")).build();
+    }
+
+    @Test
+    public void testBuilderDefaults() throws IOException {
+        try (BlackBoxRecorder recorder = new BlackBoxRecorder.Builder()
+                .setPath(_path)
+                .setBlockSize(null)
+                .setBlockCount(null)
+                .build()) {
+            Assert.assertEquals(BlackBoxRecorder.blockOffset(64, 65536), Files.size(recorder.getPath()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullPath() throws IOException {
+        new BlackBoxRecorder.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderBlockSizeTooSmall() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1023).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderBlockSizeTooLarge() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize((1 << 24) + 1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderBlockCountTooSmall() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockCount(1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderFileTooLarge() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1 << 24).setBlockCount(65).build();
+    }
+
+    /* package private */ static void assertSnapshotsEqual(final List<JvmSnapshot> expected, final List<JvmSnapshot> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            final JvmSnapshot expectedSnapshot = expected.get(i);
+            final JvmSnapshot actualSnapshot = actual.get(i);
+            Assert.assertEquals(expectedSnapshot.getTimestamp(), actualSnapshot.getTimestamp());
+            Assert.assertEquals(expectedSnapshot.size(), actualSnapshot.size());
+            for (int j = 0; j < expectedSnapshot.size(); ++j) {
+                Assert.assertEquals(expectedSnapshot.getName(j), actualSnapshot.getName(j));
+                Assert.assertEquals(expectedSnapshot.getKind(j), actualSnapshot.getKind(j));
+                Assert.assertEquals(expectedSnapshot.getUnit(j), actualSnapshot.getUnit(j));
+                if (expectedSnapshot.isPresent(j)) {
+                    Assert.assertEquals(
+                            Double.doubleToRawLongBits(expectedSnapshot.getDouble(j)),
+                            Double.doubleToRawLongBits(actualSnapshot.getDouble(j)));
+                    Assert.assertEquals(expectedSnapshot.getLong(j), actualSnapshot.getLong(j));
+                }
+            }
+        }
+    }
+
+    private JvmSnapshot publish(final long timestamp, final BlackBoxRecorder recorder) {
+        final JvmSnapshot snapshot = _recorder.publish();
+        snapshot.setTimestamp(timestamp);
+        recorder.record(snapshot);
+        return snapshot.copy();
+    }
+
+    private void assertRecreated() throws IOException {
+        new BlackBoxRecorder.Builder().setPath(_path).setBlockSize(1024).setBlockCount(2).build().close();
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(_path)).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(BlackBoxRecorder.MAGIC, buffer.getInt(BlackBoxRecorder.MAGIC_OFFSET));
+        Assert.assertEquals(BlackBoxRecorder.VERSION, buffer.getInt(BlackBoxRecorder.VERSION_OFFSET));
+        Assert.assertEquals(2, buffer.getInt(BlackBoxRecorder.BLOCK_COUNT_OFFSET));
+        // Recording starts in the first block rather than after the existing one
+        Assert.assertEquals(0, buffer.getLong(BlackBoxRecorder.blockOffset(1, 1024) + BlackBoxRecorder.BLOCK_SEQUENCE_OFFSET));
+    }
+
+    private void writeHeader(final int size, final int magic, final int version, final int blockSize, final int blockCount)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BlackBoxRecorder.MAGIC_OFFSET, magic);
+        buffer.putInt(BlackBoxRecorder.VERSION_OFFSET, version);
+        buffer.putInt(BlackBoxRecorder.BLOCK_SIZE_OFFSET, blockSize);
+        buffer.putInt(BlackBoxRecorder.BLOCK_COUNT_OFFSET, blockCount);
+        // A block which would be decodable if the file were kept
+        buffer.putLong(BlackBoxRecorder.blockOffset(0, blockSize) + BlackBoxRecorder.BLOCK_SEQUENCE_OFFSET, 1);
+        Files.write(_path, buffer.array());
+    }
+
+    private Path _directory;
+    private Path _path;
+    private final Metrics _passThrough = Mockito.mock(Metrics.class);
+    private final JvmSnapshotRecorder _recorder = new JvmSnapshotRecorder();
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.Timer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link DeferredQuantities} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class DeferredQuantitiesTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _nanoTime = new AtomicLong();
+        _quantities = new DeferredQuantities(_metrics, _nanoTime::get);
+    }
+
+    @Test
+    public void testCounters() {
+        final Counter first = _quantities.createCounter("counter");
+        final Counter second = _quantities.createCounter("counter");
+        first.increment();
+        first.increment(4);
+        first.decrement();
+        second.decrement(2);
+        Assert.assertEquals(4L, first.getValue());
+        Mockito.verifyNoInteractions(_metrics);
+
+        _quantities.close();
+        Mockito.verify(_metrics).incrementCounter("counter", 4);
+        Mockito.verify(_metrics).incrementCounter("counter", -2);
+
+        // Counters are applied once
+        first.increment();
+        _quantities.close();
+        Mockito.verifyNoMoreInteractions(_metrics);
+    }
+
+    @Test
+    public void testTimer() {
+        final Timer timer = _quantities.createTimer("timer");
+        Assert.assertTrue(timer.isRunning());
+        _nanoTime.set(5);
+        Assert.assertEquals(5L, timer.getValue());
+        _nanoTime.set(10);
+        timer.close();
+        Assert.assertFalse(timer.isRunning());
+        Assert.assertFalse(timer.isAborted());
+        Assert.assertEquals(10L, timer.getValue());
+        Mockito.verify(_metrics).setTimer("timer", 10, TimeUnit.NANOSECONDS);
+
+        // A timer is applied once
+        _nanoTime.set(20);
+        timer.stop();
+        Assert.assertEquals(10L, timer.getValue());
+        Mockito.verifyNoMoreInteractions(_metrics);
+    }
+
+    @Test
+    public void testTimerAborted() {
+        final Timer timer = _quantities.createTimer("timer");
+        timer.abort();
+        Assert.assertFalse(timer.isRunning());
+        Assert.assertTrue(timer.isAborted());
+        timer.stop();
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testStartAndStopTimer() {
+        _nanoTime.set(100);
+        _quantities.startTimer("timer");
+        _nanoTime.set(150);
+        // Starting a running timer does not restart it
+        _quantities.startTimer("timer");
+        _nanoTime.set(200);
+        _quantities.stopTimer("timer");
+        Mockito.verify(_metrics).setTimer("timer", 100, TimeUnit.NANOSECONDS);
+
+        // Stopping a timer which is not running is ignored
+        _quantities.stopTimer("timer");
+        Mockito.verifyNoMoreInteractions(_metrics);
+    }
+
+    @Test
+    public void testDefaultNanoTime() {
+        final DeferredQuantities quantities = new DeferredQuantities(_metrics);
+        quantities.createTimer("timer").stop();
+        Mockito.verify(_metrics).setTimer(Mockito.eq("timer"), Mockito.longThat(t -> t >= 0), Mockito.eq(TimeUnit.NANOSECONDS));
+    }
+
+    private Metrics _metrics;
+    private AtomicLong _nanoTime;
+    private DeferredQuantities _quantities;
+}
@@ -30,9 +30,14 @@ import org.mockito.MockitoAnnotations;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -151,6 +156,251 @@ public final class ExecutorServiceMetricsRunnableTest {
         }
     }
 
+    @Test
+    public void testScheduledThreadPoolCollection() throws InterruptedException {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.schedule(() -> { }, 0, TimeUnit.MILLISECONDS);
+            executor.schedule(() -> { }, 1, TimeUnit.HOURS);
+            final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(Collections.singletonMap("scheduled", executor))
+                    .build();
+
+            Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+            runnable.run();
+
+            Mockito.verify(_metrics).setGauge("executor_services/scheduled/queued_tasks", 2L);
+            Mockito.verify(_metrics).setGauge("executor_services/scheduled/overdue_tasks", 1L);
+            Mockito.verify(_metrics, Mockito.never()).incrementCounter(Mockito.anyString(), Mockito.anyLong());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectionTrackingThreadPoolCollection() throws InterruptedException {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        RejectionTrackingHandler.install(executor);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(() -> { });
+            executor.execute(() -> { });
+            final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(Collections.singletonMap("rejecting", executor))
+                    .build();
+
+            Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+            runnable.run();
+
+            Mockito.verify(_metrics).incrementCounter("executor_services/rejecting/rejected_tasks", 2L);
+            Mockito.verify(_metrics).setTimer(
+                    Mockito.eq("executor_services/rejecting/saturated_time"),
+                    Mockito.longThat(nanos -> nanos > 0),
+                    Mockito.eq(TimeUnit.NANOSECONDS));
+            Mockito.verify(_metrics).setGauge(
+                    Mockito.eq("executor_services/rejecting/saturation_ratio"),
+                    Mockito.doubleThat(ratio -> ratio > 0 && ratio <= 1));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLagTrackingScheduledThreadPoolCollection() throws Exception {
+        final LagTrackingScheduledThreadPoolExecutor executor = new LagTrackingScheduledThreadPoolExecutor(1);
+        try {
+            final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(Collections.singletonMap("lag_tracking", executor))
+                    .build();
+            Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+            runnable.run();
+            Mockito.verify(_metrics).incrementCounter("executor_services/lag_tracking/scheduled_executions", 0L);
+            Mockito.verify(_metrics, Mockito.never()).setTimer(
+                    Mockito.anyString(),
+                    Mockito.anyLong(),
+                    Mockito.any(TimeUnit.class));
+
+            executor.schedule(() -> { }, 0, TimeUnit.MILLISECONDS).get();
+            runnable.run();
+            Mockito.verify(_metrics).incrementCounter("executor_services/lag_tracking/scheduled_executions", 1L);
+            Mockito.verify(_metrics).setTimer(
+                    Mockito.eq("executor_services/lag_tracking/scheduling_lag_median"),
+                    Mockito.anyLong(),
+                    Mockito.eq(TimeUnit.NANOSECONDS));
+            Mockito.verify(_metrics).setTimer(
+                    Mockito.eq("executor_services/lag_tracking/scheduling_lag_p99"),
+                    Mockito.anyLong(),
+                    Mockito.eq(TimeUnit.NANOSECONDS));
+            Mockito.verify(_metrics).setTimer(
+                    Mockito.eq("executor_services/lag_tracking/scheduling_lag_max"),
+                    Mockito.anyLong(),
+                    Mockito.eq(TimeUnit.NANOSECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompletedTasksDelta() {
+        final ThreadPoolExecutor executor = Mockito.mock(ThreadPoolExecutor.class);
+        Mockito.doReturn(new LinkedBlockingQueue<Runnable>()).when(executor).getQueue();
+        Mockito.doReturn(3L, 3L, 5L).when(executor).getCompletedTaskCount();
+        final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.singletonMap("thread_pool", executor))
+                .build();
+
+        Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+        runnable.run();
+        Mockito.verify(_metrics, Mockito.never())
+                .incrementCounter(Mockito.eq("executor_services/thread_pool/completed_tasks_delta"), Mockito.anyLong());
+        runnable.run();
+        Mockito.verify(_metrics).incrementCounter("executor_services/thread_pool/completed_tasks_delta", 2L);
+    }
+
+    @Test
+    public void testTaskTrackingExecutorServiceCollection() throws InterruptedException {
+        final TaskTrackingExecutorService executor = TaskTrackingExecutorService.newInstance(
+                Executors.newSingleThreadExecutor());
+        executor.execute(() -> { });
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.singletonMap("task_tracking", executor))
+                .build();
+
+        Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+        runnable.run();
+
+        Mockito.verify(_metricsFactory).create();
+        Mockito.verify(_metrics).setGauge("executor_services/task_tracking/submitted_tasks", 1L);
+        Mockito.verify(_metrics).setGauge("executor_services/task_tracking/running_tasks", 0L);
+        Mockito.verify(_metrics).setGauge("executor_services/task_tracking/completed_tasks", 1L);
+        Mockito.verify(_metrics).close();
+        Mockito.verifyNoMoreInteractions(_metrics);
+    }
+
+    @Test
+    public void testRoundRobinSampling() throws InterruptedException {
+        final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingDeque<>());
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(1);
+        final TaskTrackingExecutorService taskTracking = TaskTrackingExecutorService.newInstance(
+                Executors.newCachedThreadPool());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            threadPool.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            // CHECKSTYLE.OFF: IllegalInstantiation - No Guava here
+            final Map<String, ExecutorService> executorServices = new HashMap<>();
+            // CHECKSTYLE.ON: IllegalInstantiation
+            executorServices.put("thread_pool", threadPool);
+            executorServices.put("fork_join_pool", forkJoinPool);
+            executorServices.put("task_tracking", taskTracking);
+            final Runnable runnable = new ExecutorServiceMetricsRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(executorServices)
+                    .setExecutorsPerRun(2)
+                    .build();
+
+            Mockito.doReturn(_metrics).when(_metricsFactory).create();
+
+            runnable.run();
+            Mockito.verify(_metrics).setGauge("executor_services_rollup/executors", 3L);
+            runnable.run();
+            Mockito.verify(_metrics, Mockito.times(2)).setGauge("executor_services_rollup/executors", 3L);
+
+            // Each executor was sampled at least once over two runs
+            Mockito.verify(_metrics, Mockito.atLeastOnce()).setGauge(
+                    Mockito.eq("executor_services/thread_pool/active_threads"),
+                    Mockito.anyLong());
+            Mockito.verify(_metrics, Mockito.atLeastOnce()).setGauge(
+                    Mockito.eq("executor_services/fork_join_pool/active_threads"),
+                    Mockito.anyLong());
+            Mockito.verify(_metrics, Mockito.atLeastOnce()).setGauge(
+                    Mockito.eq("executor_services/task_tracking/running_tasks"),
+                    Mockito.anyLong());
+            Mockito.verify(_metrics, Mockito.times(2)).setGauge(
+                    Mockito.eq("executor_services_rollup/queued_tasks"),
+                    Mockito.eq(0L));
+            Mockito.verify(_metrics, Mockito.atLeastOnce()).setGauge("executor_services_rollup/active_threads", 1L);
+            Mockito.verify(_metrics, Mockito.atLeastOnce()).setGauge("executor_services_rollup/thread_pool_size", 1L);
+        } finally {
+            release.countDown();
+            threadPool.shutdownNow();
+            forkJoinPool.shutdownNow();
+            taskTracking.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBuilderExecutorsPerRunNullToDefault() {
+        new ExecutorServiceMetricsRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.emptyMap())
+                .setExecutorsPerRun(null)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidExecutorsPerRun() {
+        new ExecutorServiceMetricsRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.emptyMap())
+                .setExecutorsPerRun(0)
+                .build();
+    }
+
     @Test
     public void testBuild() {
         // CHECKSTYLE.OFF: IllegalInstantiation - No Guava here
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link ExecutorServiceSizingRunnable} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class ExecutorServiceSizingRunnableTest {
+
+    @Before
+    public void setUp() {
+        _mocks = MockitoAnnotations.openMocks(this);
+        Mockito.doReturn(_metrics).when(_metricsFactory).create();
+        _queue = new LinkedBlockingQueue<>();
+        Mockito.doReturn(_queue).when(_executor).getQueue();
+        _nanoTime = new AtomicLong();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _mocks.close();
+    }
+
+    @Test
+    public void testGrowFixedThreadPoolExecutor() {
+        Mockito.doReturn(2).when(_executor).getCorePoolSize();
+        Mockito.doReturn(2).when(_executor).getMaximumPoolSize();
+        final Runnable runnable = createBuilder().build();
+
+        // The first sample only establishes the baseline
+        runnable.run();
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.anyString(), Mockito.anyLong());
+
+        // Completing 100 tasks per second with 2 busy threads is a 20ms service
+        // time; the queue grows by 10 tasks per second and has 10 tasks waiting
+        Mockito.doReturn(100L).when(_executor).getCompletedTaskCount();
+        Mockito.doReturn(2).when(_executor).getActiveCount();
+        for (int i = 0; i < 10; ++i) {
+            _queue.add(() -> { });
+        }
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(1));
+        runnable.run();
+
+        Mockito.verify(_executor, Mockito.times(2)).setMaximumPoolSize(6);
+        Mockito.verify(_executor).setCorePoolSize(6);
+        Mockito.verify(_metrics).setGauge(
+                Mockito.eq("executor_services/pool/sizing/demand"),
+                Mockito.doubleThat(demand -> Math.abs(demand - 4.2) < 0.001));
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/desired_size", 6L);
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/size", 6L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/increases", 1L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/decreases", 0L);
+    }
+
+    @Test
+    public void testShrinkIdleThreadPoolExecutor() {
+        Mockito.doReturn(8).when(_executor).getCorePoolSize();
+        Mockito.doReturn(16).when(_executor).getMaximumPoolSize();
+        final Runnable runnable = createBuilder().setMinimumPoolSize(2).build();
+
+        runnable.run();
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(1));
+        runnable.run();
+
+        Mockito.verify(_executor).setCorePoolSize(2);
+        Mockito.verify(_executor, Mockito.never()).setMaximumPoolSize(Mockito.anyInt());
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/demand", 0.0);
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/size", 2L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/increases", 0L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/decreases", 1L);
+    }
+
+    @Test
+    public void testHysteresis() {
+        Mockito.doReturn(10).when(_executor).getCorePoolSize();
+        Mockito.doReturn(10).when(_executor).getMaximumPoolSize();
+        Mockito.doReturn(8).when(_executor).getActiveCount();
+        final Runnable runnable = createBuilder().setHysteresis(0.1).build();
+
+        runnable.run();
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(1));
+        runnable.run();
+
+        Mockito.verify(_executor, Mockito.never()).setCorePoolSize(Mockito.anyInt());
+        Mockito.verify(_executor, Mockito.never()).setMaximumPoolSize(Mockito.anyInt());
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/desired_size", 11L);
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/size", 10L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/increases", 0L);
+        Mockito.verify(_metrics).incrementCounter("executor_services/pool/sizing/decreases", 0L);
+    }
+
+    @Test
+    public void testBoundedByMaximumPoolSize() {
+        Mockito.doReturn(4).when(_executor).getCorePoolSize();
+        Mockito.doReturn(64).when(_executor).getMaximumPoolSize();
+        Mockito.doReturn(4).when(_executor).getActiveCount();
+        Mockito.doReturn(1000L).when(_executor).getCompletedTaskCount();
+        final Runnable runnable = createBuilder().setMaximumPoolSize(5).build();
+
+        runnable.run();
+        for (int i = 0; i < 1000; ++i) {
+            _queue.add(() -> { });
+        }
+        Mockito.doReturn(2000L).when(_executor).getCompletedTaskCount();
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(1));
+        runnable.run();
+
+        Mockito.verify(_executor).setCorePoolSize(5);
+        Mockito.verify(_executor, Mockito.never()).setMaximumPoolSize(Mockito.anyInt());
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/desired_size", 5L);
+    }
+
+    @Test
+    public void testResizeForkJoinPool() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final Runnable runnable = new ExecutorServiceSizingRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(Collections.singletonMap("fork_join", pool))
+                    .setMinimumPoolSize(4)
+                    .setMaximumPoolSize(4)
+                    .build();
+
+            runnable.run();
+            Assert.assertEquals(4, pool.getParallelism());
+            Mockito.verify(_metrics).setGauge("executor_services/fork_join/sizing/size", 4L);
+            Mockito.verify(_metrics).incrementCounter("executor_services/fork_join/sizing/increases", 1L);
+
+            runnable.run();
+            Mockito.verify(_metrics).incrementCounter("executor_services/fork_join/sizing/increases", 0L);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testResizeForkJoinPoolFailure() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new ExecutorServiceSizingRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setSwallowException(false)
+                    .setExecutorServices(Collections.singletonMap("fork_join", pool))
+                    .setMinimumPoolSize(Integer.MAX_VALUE)
+                    .setMaximumPoolSize(Integer.MAX_VALUE)
+                    .build()
+                    .run();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsolatedToExecutor() {
+        final ThreadPoolExecutor failing = Mockito.mock(ThreadPoolExecutor.class);
+        Mockito.doReturn(_queue).when(failing).getQueue();
+        Mockito.doReturn(8).when(_executor).getCorePoolSize();
+        Mockito.doReturn(8).when(_executor).getMaximumPoolSize();
+        final Map<String, ExecutorService> executorServices = new TreeMap<>();
+        executorServices.put("failing_a", failing);
+        executorServices.put("failing_b", failing);
+        executorServices.put("pool", _executor);
+        final Runnable runnable = createBuilder().setExecutorServices(executorServices).build();
+
+        runnable.run();
+        Mockito.doAnswer(invocation -> {
+            throw new IllegalStateException("failed");
+        }).when(failing).getQueue();
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(1));
+        try {
+            runnable.run();
+            Assert.fail("Expected exception");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+            Assert.assertEquals(1, e.getSuppressed().length);
+        }
+
+        // The failing executors do not prevent the other from being resized
+        Mockito.verify(_executor).setCorePoolSize(1);
+        Mockito.verify(_metrics).setGauge("executor_services/pool/sizing/size", 1L);
+        Mockito.verify(_metrics, Mockito.times(2)).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderCommonForkJoinPool() {
+        new ExecutorServiceSizingRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.singletonMap("common", ForkJoinPool.commonPool()))
+                .build();
+    }
+
+    @Test
+    public void testBuilderForkJoinPoolUnsupported() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new ExecutorServiceSizingRunnable.Builder()
+                    .setMetricsFactory(_metricsFactory)
+                    .setExecutorServices(Collections.singletonMap("fork_join", pool))
+                    .setSetParallelism(Optional.empty())
+                    .build();
+            Assert.fail("Expected exception");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertEquals("Resizing a ForkJoinPool requires JDK 19 or later.", e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBuilderNullDefaults() {
+        new ExecutorServiceSizingRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setSwallowException(null)
+                .setExecutorServices(null)
+                .setMinimumPoolSize(null)
+                .setMaximumPoolSize(null)
+                .setTargetUtilization(null)
+                .setTargetQueueWait(null)
+                .setHysteresis(null)
+                .build()
+                .run();
+        Mockito.verify(_metrics).close();
+        Mockito.verifyNoMoreInteractions(_metrics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullMetricsFactory() {
+        new ExecutorServiceSizingRunnable.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderUnsupportedExecutorService() {
+        new ExecutorServiceSizingRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setExecutorServices(Collections.singletonMap("unsupported", Executors.newSingleThreadExecutor()))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderMinimumPoolSizeTooSmall() {
+        createBuilder().setMinimumPoolSize(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderMaximumPoolSizeTooSmall() {
+        createBuilder().setMinimumPoolSize(4).setMaximumPoolSize(3).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderTargetUtilizationTooSmall() {
+        createBuilder().setTargetUtilization(0.0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderTargetUtilizationTooLarge() {
+        createBuilder().setTargetUtilization(1.5).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderTargetQueueWaitZero() {
+        createBuilder().setTargetQueueWait(Duration.ZERO).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderTargetQueueWaitNegative() {
+        createBuilder().setTargetQueueWait(Duration.ofMillis(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderHysteresisNegative() {
+        createBuilder().setHysteresis(-0.1).build();
+    }
+
+    private ExecutorServiceSizingRunnable.Builder createBuilder() {
+        return new ExecutorServiceSizingRunnable.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setSwallowException(false)
+                .setExecutorServices(Collections.singletonMap("pool", _executor))
+                .setNanoTime(_nanoTime::get);
+    }
+
+    @Mock
+    private MetricsFactory _metricsFactory;
+    @Mock
+    private Metrics _metrics;
+    @Mock
+    private ThreadPoolExecutor _executor;
+    private AutoCloseable _mocks;
+    private BlockingQueue<Runnable> _queue;
+    private AtomicLong _nanoTime;
+}
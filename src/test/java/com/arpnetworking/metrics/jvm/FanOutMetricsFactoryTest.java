@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.Timer;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link FanOutMetricsFactory} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class FanOutMetricsFactoryTest {
+
+    @Before
+    public void setUp() {
+        _mocks = MockitoAnnotations.openMocks(this);
+        Mockito.doReturn(_metrics1).when(_metricsFactory1).create();
+        Mockito.doReturn(_metrics2).when(_metricsFactory2).create();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _mocks.close();
+    }
+
+    @Test
+    public void testFanOut() {
+        try (FanOutMetricsFactory factory = createFactory()) {
+            final Metrics metrics = factory.create();
+            Assert.assertTrue(metrics.isOpen());
+            Assert.assertNotNull(metrics.getOpenTime());
+            Assert.assertNull(metrics.getCloseTime());
+            metrics.incrementCounter("counter");
+            metrics.incrementCounter("counter", 2);
+            metrics.decrementCounter("counter");
+            metrics.decrementCounter("counter", 3);
+            metrics.resetCounter("reset");
+            metrics.setTimer("timer", 4, TimeUnit.MILLISECONDS);
+            metrics.setGauge("gauge", 5L);
+            metrics.setGauge("gauge", 6.5);
+            metrics.addAnnotation("key", "value");
+            metrics.addAnnotations(Collections.singletonMap("other", "value"));
+            metrics.close();
+            Assert.assertFalse(metrics.isOpen());
+            Assert.assertNotNull(metrics.getCloseTime());
+
+            for (final Metrics sink : new Metrics[]{_metrics1, _metrics2}) {
+                Mockito.verify(sink, Mockito.timeout(TIMEOUT)).close();
+                Mockito.verify(sink).incrementCounter("counter", 1);
+                Mockito.verify(sink).incrementCounter("counter", 2);
+                Mockito.verify(sink).decrementCounter("counter", 1);
+                Mockito.verify(sink).decrementCounter("counter", 3);
+                Mockito.verify(sink).resetCounter("reset");
+                Mockito.verify(sink).setTimer("timer", 4, TimeUnit.MILLISECONDS);
+                Mockito.verify(sink).setGauge("gauge", 5L);
+                Mockito.verify(sink).setGauge("gauge", 6.5);
+                Mockito.verify(sink).addAnnotation("key", "value");
+                Mockito.verify(sink).addAnnotations(Collections.singletonMap("other", "value"));
+            }
+        }
+    }
+
+    @Test
+    public void testCloseTwice() {
+        try (FanOutMetricsFactory factory = createFactory()) {
+            final Metrics metrics = factory.create();
+            metrics.close();
+            metrics.setGauge("gauge", 1L);
+            metrics.close();
+            Mockito.verify(_metricsFactory1, Mockito.timeout(TIMEOUT)).create();
+            Mockito.verify(_metrics1, Mockito.timeout(TIMEOUT)).close();
+        }
+        Mockito.verify(_metricsFactory1).create();
+        Mockito.verify(_metrics1, Mockito.never()).setGauge("gauge", 1L);
+    }
+
+    @Test
+    public void testSlowSinkDoesNotDelayOthers() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(_metrics1).close();
+        try (FanOutMetricsFactory factory = createFactory()) {
+            factory.create().close();
+            factory.create().close();
+            Mockito.verify(_metrics2, Mockito.timeout(TIMEOUT).times(2)).close();
+            Mockito.verify(_metrics1, Mockito.timeout(TIMEOUT).times(1)).close();
+            release.countDown();
+            Mockito.verify(_metrics1, Mockito.timeout(TIMEOUT).times(2)).close();
+        }
+    }
+
+    @Test
+    public void testFailingSinkDoesNotAffectOthers() {
+        Mockito.doThrow(new IllegalStateException("Test exception")).when(_metricsFactory1).create();
+        try (FanOutMetricsFactory factory = createFactory()) {
+            final Metrics metrics = factory.create();
+            metrics.setGauge("gauge", 1L);
+            metrics.close();
+            Mockito.verify(_metrics2, Mockito.timeout(TIMEOUT)).close();
+            Mockito.verify(_metrics2).setGauge("gauge", 1L);
+        }
+    }
+
+    @Test
+    public void testFullQueueDropsRecordings() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(_metrics1).close();
+        try (FanOutMetricsFactory factory = new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setQueueCapacity(1)
+                .build()) {
+            factory.create().close();
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            factory.create().close();
+            factory.create().close();
+            release.countDown();
+            Mockito.verify(_metrics1, Mockito.timeout(TIMEOUT).times(2)).close();
+        }
+        Mockito.verify(_metricsFactory1, Mockito.times(2)).create();
+    }
+
+    @Test
+    public void testDelayedRecordingsDropped() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(_metrics1).close();
+        try (FanOutMetricsFactory factory = new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setMaximumDelay(Duration.ofMillis(500))
+                .build()) {
+            factory.create().close();
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            final Metrics delayed = factory.create();
+            delayed.setGauge("delayed", 1L);
+            delayed.close();
+            Thread.sleep(1000);
+            release.countDown();
+            final Metrics timely = factory.create();
+            timely.setGauge("timely", 1L);
+            timely.close();
+            Mockito.verify(_metrics1, Mockito.timeout(TIMEOUT)).setGauge("timely", 1L);
+        }
+        Mockito.verify(_metricsFactory1, Mockito.times(2)).create();
+        Mockito.verify(_metrics1, Mockito.never()).setGauge("delayed", 1L);
+    }
+
+    @Test
+    public void testCountersAndTimers() {
+        try (FanOutMetricsFactory factory = createFactory()) {
+            final Metrics metrics = factory.create();
+            final Counter counter = metrics.createCounter("counter");
+            counter.increment(3);
+            final Timer timer = metrics.createTimer("timer");
+            timer.stop();
+            metrics.startTimer("started");
+            metrics.stopTimer("started");
+            metrics.close();
+            for (final Metrics sink : List.of(_metrics1, _metrics2)) {
+                Mockito.verify(sink, Mockito.timeout(TIMEOUT)).close();
+                Mockito.verify(sink).incrementCounter("counter", 3);
+                Mockito.verify(sink).setTimer(Mockito.eq("timer"), Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+                Mockito.verify(sink).setTimer(Mockito.eq("started"), Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+            }
+        }
+    }
+
+    @Test
+    public void testBuilderNullQueueCapacity() {
+        new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setQueueCapacity(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroQueueCapacity() {
+        new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setQueueCapacity(0)
+                .build();
+    }
+
+    @Test
+    public void testBuilderNullMaximumDelay() {
+        new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setMaximumDelay(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroMaximumDelay() {
+        new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setMaximumDelay(Duration.ZERO)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeMaximumDelay() {
+        new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .setMaximumDelay(Duration.ofSeconds(-1))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNoMetricsFactory() {
+        new FanOutMetricsFactory.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullMetricsFactory() {
+        new FanOutMetricsFactory.Builder().addMetricsFactory(null);
+    }
+
+    private FanOutMetricsFactory createFactory() {
+        return new FanOutMetricsFactory.Builder()
+                .addMetricsFactory(_metricsFactory1)
+                .addMetricsFactory(_metricsFactory2)
+                .build();
+    }
+
+    @Mock
+    private MetricsFactory _metricsFactory1;
+    @Mock
+    private MetricsFactory _metricsFactory2;
+    @Mock
+    private Metrics _metrics1;
+    @Mock
+    private Metrics _metrics2;
+    private AutoCloseable _mocks;
+
+    private static final long TIMEOUT = 10000;
+}
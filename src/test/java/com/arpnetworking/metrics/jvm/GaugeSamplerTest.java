@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link GaugeSampler} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class GaugeSamplerTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+    }
+
+    @Test
+    public void testEmitSummaries() {
+        final AtomicLong value = new AtomicLong();
+        try (GaugeSampler sampler = new GaugeSampler.Builder().addGauge("gauge", value::incrementAndGet).build()) {
+            for (int i = 0; i < 200; ++i) {
+                sampler.sample();
+            }
+            sampler.emit(_metrics);
+        }
+        Mockito.verify(_metrics).setGauge("gauge/min", 1L);
+        Mockito.verify(_metrics).setGauge("gauge/max", 200L);
+        Mockito.verify(_metrics).setGauge("gauge/mean", 100.5);
+        Mockito.verify(_metrics).setGauge("gauge/p99", 198L);
+    }
+
+    @Test
+    public void testEmitDrains() {
+        try (GaugeSampler sampler = new GaugeSampler.Builder().addGauge("gauge", () -> 5).build()) {
+            sampler.sample();
+            sampler.emit(_metrics);
+            sampler.emit(_metrics);
+        }
+        Mockito.verify(_metrics).setGauge("gauge/max", 5L);
+    }
+
+    @Test
+    public void testEmitWithoutSamples() {
+        try (GaugeSampler sampler = new GaugeSampler.Builder().addGauge("gauge", () -> 5).build()) {
+            sampler.emit(_metrics);
+        }
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testRingOverwritesOldest() {
+        final AtomicLong value = new AtomicLong();
+        try (GaugeSampler sampler = new GaugeSampler.Builder()
+                .setCapacity(4)
+                .addGauge("gauge", value::incrementAndGet)
+                .build()) {
+            for (int i = 0; i < 10; ++i) {
+                sampler.sample();
+            }
+            sampler.emit(_metrics);
+        }
+        Mockito.verify(_metrics).setGauge("gauge/min", 7L);
+        Mockito.verify(_metrics).setGauge("gauge/max", 10L);
+    }
+
+    @Test
+    public void testFailingGaugeIsolated() {
+        try (GaugeSampler sampler = new GaugeSampler.Builder()
+                .addGauge("failing", () -> {
+                    throw new IllegalStateException("Test exception");
+                })
+                .addGauge("gauge", () -> 3)
+                .build()) {
+            sampler.sample();
+            sampler.emit(_metrics);
+        }
+        Mockito.verify(_metrics).setGauge("gauge/max", 3L);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.eq("failing/max"), Mockito.anyLong());
+    }
+
+    @Test
+    public void testBuiltInGauges() {
+        final ManagementFactory managementFactory = Mockito.mock(ManagementFactory.class);
+        final MemoryMXBean memoryMXBean = Mockito.mock(MemoryMXBean.class);
+        final ThreadMXBean threadMXBean = Mockito.mock(ThreadMXBean.class);
+        Mockito.doReturn(memoryMXBean).when(managementFactory).getMemoryMXBean();
+        Mockito.doReturn(threadMXBean).when(managementFactory).getThreadMXBean();
+        Mockito.doReturn(new MemoryUsage(0, 100, 200, 300)).when(memoryMXBean).getHeapMemoryUsage();
+        Mockito.doReturn(12).when(threadMXBean).getThreadCount();
+        try (GaugeSampler sampler = new GaugeSampler.Builder()
+                .setManagementFactory(managementFactory)
+                .setSampleHeapMemoryUsed(true)
+                .setSampleThreadCount(true)
+                .build()) {
+            sampler.sample();
+            sampler.emit(_metrics);
+        }
+        Mockito.verify(_metrics).setGauge("jvm/heap_memory/used/max", 100L);
+        Mockito.verify(_metrics).setGauge("jvm/threads/thread_count/max", 12L);
+    }
+
+    @Test
+    public void testStart() throws InterruptedException {
+        final CountDownLatch sampled = new CountDownLatch(3);
+        final AtomicLong daemon = new AtomicLong();
+        try (GaugeSampler sampler = new GaugeSampler.Builder()
+                .setSamplePeriod(Duration.ofMillis(1))
+                .addGauge("gauge", () -> {
+                    daemon.set(Thread.currentThread().isDaemon() ? 1 : 0);
+                    sampled.countDown();
+                    return 1;
+                })
+                .build()) {
+            sampler.start();
+            sampler.start();
+            Assert.assertTrue(sampled.await(10, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(1, daemon.get());
+    }
+
+    @Test
+    public void testStartAfterClose() {
+        final AtomicLong samples = new AtomicLong();
+        final GaugeSampler sampler = new GaugeSampler.Builder()
+                .setSamplePeriod(Duration.ofMillis(1))
+                .addGauge("gauge", samples::incrementAndGet)
+                .build();
+        sampler.close();
+        sampler.start();
+        Assert.assertEquals(0, samples.get());
+    }
+
+    @Test
+    public void testBuilderNullDefaults() {
+        new GaugeSampler.Builder()
+                .setManagementFactory(null)
+                .setSamplePeriod(null)
+                .setCapacity(null)
+                .setSampleHeapMemoryUsed(null)
+                .setSampleThreadCount(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroSamplePeriod() {
+        new GaugeSampler.Builder().setSamplePeriod(Duration.ZERO).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeSamplePeriod() {
+        new GaugeSampler.Builder().setSamplePeriod(Duration.ofMillis(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroCapacity() {
+        new GaugeSampler.Builder().setCapacity(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddGaugeNullName() {
+        new GaugeSampler.Builder().addGauge(null, () -> 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddGaugeNullGauge() {
+        new GaugeSampler.Builder().addGauge("gauge", null);
+    }
+
+    private Metrics _metrics;
+}
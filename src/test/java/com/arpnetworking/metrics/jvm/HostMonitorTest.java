@@ -0,0 +1,453 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the {@link HostMonitor} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class HostMonitorTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("hsperfdata");
+        Mockito.doReturn(_metrics).when(_metricsFactory).create();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(_directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testCollect() throws IOException {
+        Files.createFile(_directory.resolve("100"));
+        Files.copy(Hsperfdata.getPath(ProcessHandle.current().pid()), _directory.resolve("200"));
+        Files.createFile(_directory.resolve("not_a_pid"));
+        Files.createFile(_directory.resolve(Long.toString(ProcessHandle.current().pid())));
+        final RemoteManagementFactory first = Mockito.mock(RemoteManagementFactory.class);
+        final RemoteManagementFactory second = Mockito.mock(RemoteManagementFactory.class);
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doReturn(first).when(connector).connect(Mockito.eq(100L), Mockito.any());
+        Mockito.doReturn(second).when(connector).connect(Mockito.eq(200L), Mockito.any());
+        final JvmMetricsCollector collector = Mockito.mock(JvmMetricsCollector.class);
+
+        final HostMonitor monitor = createBuilder(connector)
+                .addCollector("mock", () -> collector)
+                .build();
+        monitor.tick();
+        Mockito.verify(collector, Mockito.timeout(TIMEOUT)).collect(_metrics, first);
+        Mockito.verify(collector, Mockito.timeout(TIMEOUT)).collect(_metrics, second);
+        Mockito.verify(connector, Mockito.timeout(TIMEOUT)).connect(100L, Optional.empty());
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT)).addAnnotation("pid", "100");
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT)).addAnnotation("pid", "200");
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT)).addAnnotation(Mockito.eq("command"), Mockito.anyString());
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT).times(2)).close();
+
+        // Connections are reused and vanished targets are disconnected
+        Files.delete(_directory.resolve("200"));
+        monitor.tick();
+        Mockito.verify(collector, Mockito.timeout(TIMEOUT).times(2)).collect(_metrics, first);
+        Mockito.verify(second, Mockito.timeout(TIMEOUT)).close();
+        Mockito.verify(connector).connect(Mockito.eq(100L), Mockito.any());
+        Mockito.verify(connector).connect(Mockito.eq(200L), Mockito.any());
+
+        monitor.close();
+        Mockito.verify(first, Mockito.timeout(TIMEOUT)).close();
+        Mockito.verify(_metrics, Mockito.never()).addAnnotation(
+                "pid",
+                Long.toString(ProcessHandle.current().pid()));
+    }
+
+    @Test
+    public void testRetry() throws IOException {
+        Files.createFile(_directory.resolve("100"));
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doThrow(new IOException("Not permitted")).when(connector).connect(Mockito.anyLong(), Mockito.any());
+
+        final HostMonitor monitor = createBuilder(connector).setRetryInterval(Duration.ofHours(1)).build();
+        monitor.tick();
+        Mockito.verify(connector, Mockito.timeout(TIMEOUT)).connect(Mockito.eq(100L), Mockito.any());
+        monitor.close();
+        Mockito.verify(_metricsFactory, Mockito.never()).create();
+
+        final HostMonitor retrying = createBuilder(connector).setRetryInterval(Duration.ZERO).build();
+        retrying.tick();
+        Mockito.verify(connector, Mockito.timeout(TIMEOUT).times(2)).connect(Mockito.eq(100L), Mockito.any());
+        // The first monitor would not retry for an hour
+        retrying.tick();
+        Mockito.verify(connector, Mockito.timeout(TIMEOUT).times(3)).connect(Mockito.eq(100L), Mockito.any());
+        retrying.close();
+    }
+
+    @Test
+    public void testRetryPending() throws IOException, InterruptedException {
+        Files.createFile(_directory.resolve("100"));
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doThrow(new IOException("Not permitted")).when(connector).connect(Mockito.anyLong(), Mockito.any());
+
+        final HostMonitor monitor = createBuilder(connector).setRetryInterval(Duration.ofHours(1)).build();
+        monitor.tick();
+        Mockito.verify(connector, Mockito.timeout(TIMEOUT)).connect(Mockito.eq(100L), Mockito.any());
+        awaitIdle(monitor);
+        monitor.tick();
+        awaitIdle(monitor);
+        Mockito.verify(connector).connect(Mockito.eq(100L), Mockito.any());
+        monitor.close();
+    }
+
+    @Test
+    public void testSkipWhileCollecting() throws IOException, InterruptedException {
+        Files.createFile(_directory.resolve("100"));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RemoteManagementFactory managementFactory = Mockito.mock(RemoteManagementFactory.class);
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return managementFactory;
+        }).when(connector).connect(Mockito.anyLong(), Mockito.any());
+
+        final HostMonitor monitor = createBuilder(connector).build();
+        monitor.tick();
+        started.await();
+        monitor.tick();
+        release.countDown();
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT)).close();
+        awaitIdle(monitor);
+        Mockito.verify(connector).connect(Mockito.anyLong(), Mockito.any());
+        Mockito.verify(_metricsFactory).create();
+        monitor.close();
+    }
+
+    @Test
+    public void testConnectionLost() throws IOException, InterruptedException {
+        Files.createFile(_directory.resolve("100"));
+        final RemoteManagementFactory first = Mockito.mock(RemoteManagementFactory.class);
+        final RemoteManagementFactory second = Mockito.mock(RemoteManagementFactory.class);
+        Mockito.doThrow(new IOException("Already closed")).when(first).close();
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doReturn(first, second).when(connector).connect(Mockito.anyLong(), Mockito.any());
+        final JvmMetricsCollector failing = Mockito.mock(JvmMetricsCollector.class);
+        Mockito.doThrow(new UndeclaredThrowableException(new IOException("Connection reset")))
+                .when(failing).collect(_metrics, first);
+        final JvmMetricsCollector skipped = Mockito.mock(JvmMetricsCollector.class);
+
+        final HostMonitor monitor = createBuilder(connector)
+                .addCollector("failing", () -> failing)
+                .addCollector("skipped", () -> skipped)
+                .build();
+        monitor.tick();
+        Mockito.verify(first, Mockito.timeout(TIMEOUT)).close();
+        Mockito.verify(skipped, Mockito.never()).collect(Mockito.any(), Mockito.any());
+
+        // The first collection may still be finishing after it disconnects
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        while (Mockito.mockingDetails(skipped).getInvocations().isEmpty() && System.nanoTime() < deadline) {
+            monitor.tick();
+            Thread.sleep(10);
+        }
+        Mockito.verify(skipped, Mockito.atLeastOnce()).collect(_metrics, second);
+        monitor.close();
+        Mockito.verify(second, Mockito.timeout(TIMEOUT)).close();
+    }
+
+    @Test
+    public void testCollectorFailure() throws IOException {
+        Files.createFile(_directory.resolve("100"));
+        final RemoteManagementFactory managementFactory = Mockito.mock(RemoteManagementFactory.class);
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doReturn(managementFactory).when(connector).connect(Mockito.anyLong(), Mockito.any());
+        final JvmMetricsCollector failing = Mockito.mock(JvmMetricsCollector.class);
+        Mockito.doThrow(new IllegalStateException("Failure")).when(failing).collect(Mockito.any(), Mockito.any());
+        final JvmMetricsCollector collector = Mockito.mock(JvmMetricsCollector.class);
+
+        final HostMonitor monitor = createBuilder(connector)
+                .addCollector("failing", () -> failing)
+                .addCollector("collector", () -> collector)
+                .build();
+        monitor.tick();
+        Mockito.verify(collector, Mockito.timeout(TIMEOUT)).collect(_metrics, managementFactory);
+        Mockito.verify(managementFactory, Mockito.never()).close();
+        monitor.close();
+    }
+
+    @Test
+    public void testMissingDirectory() throws IOException {
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        final HostMonitor monitor = createBuilder(connector)
+                .setDirectory(_directory.resolve("missing"))
+                .build();
+        monitor.tick();
+        monitor.close();
+        Mockito.verifyNoInteractions(connector);
+    }
+
+    @Test
+    public void testStartAndClose() throws IOException {
+        Files.createFile(_directory.resolve("100"));
+        final RemoteManagementFactory managementFactory = Mockito.mock(RemoteManagementFactory.class);
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doReturn(managementFactory).when(connector).connect(Mockito.anyLong(), Mockito.any());
+
+        final HostMonitor monitor = createBuilder(connector).setInterval(Duration.ofMillis(10)).build();
+        monitor.start();
+        monitor.start();
+        Mockito.verify(_metrics, Mockito.timeout(TIMEOUT).atLeast(2)).close();
+        monitor.close();
+        Mockito.verify(managementFactory, Mockito.timeout(TIMEOUT)).close();
+
+        // Closed monitors neither start nor collect
+        final HostMonitor closed = createBuilder(connector).build();
+        closed.close();
+        closed.start();
+        closed.tick();
+        Mockito.verify(connector).connect(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void testConnectAfterClose() throws IOException {
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        final HostMonitor.Target target = new HostMonitor.Target(100, Optional.empty(), List.of());
+        target.close();
+        Assert.assertFalse(target.connect(connector, 0).isPresent());
+        Mockito.verifyNoInteractions(connector);
+    }
+
+    @Test
+    public void testAttach() throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp",
+                System.getProperty("java.class.path"),
+                AttachTarget.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            Assert.assertEquals(AttachTarget.READY, reader.readLine());
+            final Optional<Hsperfdata> hsperfdata = Hsperfdata.openIfPresent(Hsperfdata.getPath(process.pid()));
+            try (RemoteManagementFactory managementFactory = HostMonitor.attach(process.pid(), hsperfdata)) {
+                Assert.assertTrue(managementFactory.getHsperfdata().isPresent());
+                Assert.assertTrue(managementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() > 0);
+                Assert.assertEquals(
+                        process.pid(),
+                        Long.parseLong(managementFactory.getMBeanServerConnection()
+                                .getAttribute(new javax.management.ObjectName("java.lang:type=Runtime"), "Pid")
+                                .toString()));
+            } catch (final javax.management.JMException e) {
+                throw new AssertionError(e);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAttachNoSuchProcess() throws IOException {
+        HostMonitor.attach(Integer.MAX_VALUE, Optional.empty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testAttachNotSupported() throws IOException {
+        // Process ids beyond the range of an int are not supported
+        HostMonitor.attach(1L << 40, Optional.empty());
+    }
+
+    @Test
+    public void testVanishedTargetExpired() throws IOException, InterruptedException {
+        Files.createFile(_directory.resolve("100"));
+        Files.createFile(_directory.resolve("200"));
+        final HostMonitor.Connector connector = Mockito.mock(HostMonitor.Connector.class);
+        Mockito.doReturn(Mockito.mock(RemoteManagementFactory.class)).when(connector).connect(Mockito.anyLong(), Mockito.any());
+        final AtomicLong nanos = new AtomicLong();
+        try (PrometheusExporter exporter = new PrometheusExporter.Builder()
+                .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .setExpiry(Duration.ofSeconds(30))
+                .setNanoTime(nanos::get)
+                .build();
+             HostMonitor monitor = createBuilder(connector)
+                .setMetricsFactory(exporter)
+                .addCollector("mock", () -> (metrics, managementFactory) -> metrics.setGauge("gauge", 1L))
+                .build()) {
+            exporter.start();
+            monitor.tick();
+            awaitIdle(monitor);
+            Assert.assertEquals(
+                    "# TYPE gauge gauge\ngauge{pid=\"100\"} 1\ngauge{pid=\"200\"} 1\n",
+                    scrape(exporter));
+
+            // The series of a target which exited are no longer served
+            Files.delete(_directory.resolve("200"));
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+            monitor.tick();
+            awaitIdle(monitor);
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+            monitor.tick();
+            awaitIdle(monitor);
+            Assert.assertEquals("# TYPE gauge gauge\ngauge{pid=\"100\"} 1\n", scrape(exporter));
+        }
+    }
+
+    @Test
+    public void testMain() throws IOException {
+        HostMonitor.main(new String[] {"0", _directory.toString()});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMainUsage() throws IOException {
+        HostMonitor.main(new String[] {"0", _directory.toString(), "extra"});
+    }
+
+    @Test
+    public void testBuilderDefaults() {
+        new HostMonitor.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setDirectory(null)
+                .setInterval(null)
+                .setRetryInterval(null)
+                .setParallelism(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderMetricsFactoryRequired() {
+        new HostMonitor.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroInterval() {
+        new HostMonitor.Builder().setMetricsFactory(_metricsFactory).setInterval(Duration.ZERO).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeInterval() {
+        new HostMonitor.Builder().setMetricsFactory(_metricsFactory).setInterval(Duration.ofSeconds(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeRetryInterval() {
+        new HostMonitor.Builder().setMetricsFactory(_metricsFactory).setRetryInterval(Duration.ofSeconds(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroParallelism() {
+        new HostMonitor.Builder().setMetricsFactory(_metricsFactory).setParallelism(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullCollectorName() {
+        new HostMonitor.Builder().addCollector(null, () -> Mockito.mock(JvmMetricsCollector.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullCollectorFactory() {
+        new HostMonitor.Builder().addCollector("mock", null);
+    }
+
+    private HostMonitor.Builder createBuilder(final HostMonitor.Connector connector) {
+        return new HostMonitor.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setDirectory(_directory)
+                .setParallelism(1)
+                .setConnector(connector);
+    }
+
+    private static void awaitIdle(final HostMonitor monitor) throws InterruptedException {
+        // A single worker runs tasks in order
+        final CountDownLatch latch = new CountDownLatch(1);
+        monitor.submit(latch::countDown);
+        latch.await();
+    }
+
+    private static String scrape(final PrometheusExporter exporter) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) URI.create(
+                "http://localhost:" + exporter.getAddress().get().getPort() + "/metrics").toURL().openConnection();
+        try (InputStream stream = connection.getInputStream()) {
+            return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(stream.readAllBytes())).toString();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private Path _directory;
+    private final MetricsFactory _metricsFactory = Mockito.mock(MetricsFactory.class);
+    private final Metrics _metrics = Mockito.mock(Metrics.class);
+
+    private static final long TIMEOUT = 10_000;
+
+    /**
+     * A JVM to attach to.
+     */
+    public static final class AttachTarget {
+
+        /**
+         * Signal readiness and wait to be destroyed.
+         *
+         * @param args unused
+         * @throws InterruptedException if interrupted
+         */
+        public static void main(final String[] args) throws InterruptedException {
+            System.out.println(READY);
+            System.out.flush();
+            Thread.sleep(Long.MAX_VALUE);
+        }
+
+        private AttachTarget() { }
+
+        private static final String READY = "ready";
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tests for the {@link Hsperfdata} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class HsperfdataTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _path = Files.createTempFile("hsperfdata", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_path);
+    }
+
+    @Test
+    public void testOpenCurrent() {
+        final Optional<Hsperfdata> hsperfdata = Hsperfdata.openCurrent();
+        Assert.assertTrue(hsperfdata.isPresent());
+        Assert.assertTrue(hsperfdata.get().findCounter("sun.rt.safepoints").isPresent());
+        Assert.assertTrue(hsperfdata.get().findCounter("sun.rt.safepointTime").isPresent());
+        Assert.assertTrue(hsperfdata.get().findCounter("sun.rt.safepointSyncTime").isPresent());
+        Assert.assertFalse(hsperfdata.get().getGarbageCollectors().isEmpty());
+        final Hsperfdata.GarbageCollector collector = hsperfdata.get().getGarbageCollectors().get(0);
+        Assert.assertFalse(collector.getName().isEmpty());
+        Assert.assertTrue(collector.getCollectionCount() >= 0);
+        Assert.assertTrue(collector.getCollectionTime() >= 0);
+    }
+
+    @Test
+    public void testGetPath() {
+        Assert.assertEquals(
+                Path.of(
+                        Hsperfdata.getTemporaryDirectory(System.getProperty("os.name"), System.getProperty("java.io.tmpdir")),
+                        "hsperfdata_" + System.getProperty("user.name"),
+                        "123"),
+                Hsperfdata.getPath(123));
+    }
+
+    @Test
+    public void testGetPathWithNonDefaultTmpdir() {
+        final String tmpdir = System.getProperty("java.io.tmpdir");
+        System.setProperty("java.io.tmpdir", "/var/tmp/application");
+        try {
+            final Path path = Hsperfdata.getPath(123);
+            if ("Linux".equals(System.getProperty("os.name"))) {
+                // HotSpot ignores java.io.tmpdir on Linux
+                Assert.assertEquals(Path.of("/tmp", "hsperfdata_" + System.getProperty("user.name"), "123"), path);
+            }
+        } finally {
+            System.setProperty("java.io.tmpdir", tmpdir);
+        }
+    }
+
+    @Test
+    public void testGetTemporaryDirectory() {
+        Assert.assertEquals("/tmp", Hsperfdata.getTemporaryDirectory("Linux", "/var/tmp"));
+        Assert.assertEquals("/tmp", Hsperfdata.getTemporaryDirectory("FreeBSD", "/var/tmp"));
+        Assert.assertEquals("/var/folders/T/", Hsperfdata.getTemporaryDirectory("Mac OS X", "/var/folders/T/"));
+        Assert.assertEquals("C:\\Temp\\", Hsperfdata.getTemporaryDirectory("Windows 11", "C:\\Temp\\"));
+    }
+
+    @Test
+    public void testOpenIfPresentMissing() {
+        Assert.assertFalse(Hsperfdata.openIfPresent(_path.resolveSibling(_path.getFileName() + ".missing")).isPresent());
+    }
+
+    @Test
+    public void testCounters() throws IOException {
+        for (final ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            new FileBuilder(order)
+                    .addLong(Hsperfdata.FREQUENCY, 1000)
+                    .addLong("sun.rt.safepoints", 7)
+                    .addString("java.property.java.vm.name", "HotSpot", 16)
+                    .addBytes("sun.bytes", (byte) 1, new byte[] {'a', 0})
+                    .write(_path);
+            final Hsperfdata hsperfdata = Hsperfdata.open(_path);
+            Assert.assertEquals(7, hsperfdata.findCounter("sun.rt.safepoints").get().get());
+            Assert.assertEquals("HotSpot", hsperfdata.findString("java.property.java.vm.name").get());
+            Assert.assertFalse(hsperfdata.findCounter("sun.missing").isPresent());
+            Assert.assertFalse(hsperfdata.findCounter("java.property.java.vm.name").isPresent());
+            Assert.assertFalse(hsperfdata.findString("sun.missing").isPresent());
+            Assert.assertFalse(hsperfdata.findString("sun.rt.safepoints").isPresent());
+            Assert.assertFalse(hsperfdata.findString("sun.bytes").isPresent());
+            Assert.assertEquals(2_000_000, hsperfdata.toNanos(2));
+            Assert.assertTrue(hsperfdata.getGarbageCollectors().isEmpty());
+        }
+    }
+
+    @Test
+    public void testUnterminatedString() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN)
+                .addLong(Hsperfdata.FREQUENCY, 1000)
+                .addString("sun.string", "full", 4)
+                .write(_path);
+        Assert.assertEquals("full", Hsperfdata.open(_path).findString("sun.string").get());
+    }
+
+    @Test
+    public void testGarbageCollectors() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN)
+                .addLong(Hsperfdata.FREQUENCY, 1_000_000_000)
+                .addString("sun.gc.collector.0.name", "Young", 16)
+                .addLong("sun.gc.collector.0.invocations", 3)
+                .addLong("sun.gc.collector.0.time", 5_000_000)
+                .addString("sun.gc.collector.1.name", "Old", 16)
+                .addLong("sun.gc.collector.1.invocations", 1)
+                .addLong("sun.gc.collector.1.time", 20_000_000)
+                .addString("sun.gc.collector.2.name", "No Time", 16)
+                .addLong("sun.gc.collector.2.invocations", 1)
+                .addString("sun.gc.collector.3.name", "Unreachable", 16)
+                .addLong("sun.gc.collector.3.invocations", 1)
+                .addLong("sun.gc.collector.3.time", 1)
+                .write(_path);
+        final List<Hsperfdata.GarbageCollector> collectors = Hsperfdata.open(_path).getGarbageCollectors();
+        Assert.assertEquals(2, collectors.size());
+        Assert.assertEquals("Young", collectors.get(0).getName());
+        Assert.assertEquals(3, collectors.get(0).getCollectionCount());
+        Assert.assertEquals(5, collectors.get(0).getCollectionTime());
+        Assert.assertEquals("Old", collectors.get(1).getName());
+        Assert.assertEquals(1, collectors.get(1).getCollectionCount());
+        Assert.assertEquals(20, collectors.get(1).getCollectionTime());
+    }
+
+    @Test
+    public void testGarbageCollectorWithoutInvocations() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN)
+                .addLong(Hsperfdata.FREQUENCY, 1000)
+                .addString("sun.gc.collector.0.name", "Young", 16)
+                .addLong("sun.gc.collector.0.time", 1)
+                .write(_path);
+        Assert.assertTrue(Hsperfdata.open(_path).getGarbageCollectors().isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTooSmall() throws IOException {
+        Files.write(_path, new byte[Hsperfdata.PROLOGUE_SIZE - 1]);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidMagic() throws IOException {
+        final byte[] bytes = new FileBuilder(ByteOrder.LITTLE_ENDIAN).addLong(Hsperfdata.FREQUENCY, 1000).toBytes();
+        bytes[Hsperfdata.MAGIC_OFFSET] = 0;
+        Files.write(_path, bytes);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidVersion() throws IOException {
+        final byte[] bytes = new FileBuilder(ByteOrder.LITTLE_ENDIAN).addLong(Hsperfdata.FREQUENCY, 1000).toBytes();
+        bytes[Hsperfdata.MAJOR_VERSION_OFFSET] = 1;
+        Files.write(_path, bytes);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptEntry() throws IOException {
+        final byte[] bytes = new FileBuilder(ByteOrder.LITTLE_ENDIAN).addLong(Hsperfdata.FREQUENCY, 1000).toBytes();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(Hsperfdata.NUM_ENTRIES_OFFSET, 2);
+        Files.write(_path, bytes);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingFrequency() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN).addLong("sun.rt.safepoints", 1).write(_path);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFrequencyNotLong() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN).addString(Hsperfdata.FREQUENCY, "1000", 8).write(_path);
+        Hsperfdata.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFrequencyNotPositive() throws IOException {
+        new FileBuilder(ByteOrder.LITTLE_ENDIAN).addLong(Hsperfdata.FREQUENCY, 0).write(_path);
+        Hsperfdata.open(_path);
+    }
+
+    private Path _path;
+
+    private static final class FileBuilder {
+
+        private FileBuilder(final ByteOrder order) {
+            _order = order;
+        }
+
+        private FileBuilder addLong(final String name, final long value) {
+            final ByteBuffer data = ByteBuffer.allocate(Long.BYTES).order(_order).putLong(value);
+            return addEntry(name, Hsperfdata.TYPE_LONG, (byte) 1, 0, data.array());
+        }
+
+        private FileBuilder addString(final String name, final String value, final int length) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            final byte[] data = new byte[length];
+            System.arraycopy(bytes, 0, data, 0, bytes.length);
+            return addEntry(name, Hsperfdata.TYPE_BYTE, Hsperfdata.UNITS_STRING, length, data);
+        }
+
+        private FileBuilder addBytes(final String name, final byte units, final byte[] data) {
+            return addEntry(name, Hsperfdata.TYPE_BYTE, units, data.length, data);
+        }
+
+        private FileBuilder addEntry(final String name, final byte type, final byte units, final int length, final byte[] data) {
+            final byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+            final int nameOffset = 20;
+            final int dataOffset = (nameOffset + nameBytes.length + 1 + 7) & ~7;
+            final ByteBuffer entry = ByteBuffer.allocate(dataOffset + ((data.length + 7) & ~7)).order(_order);
+            entry.putInt(entry.capacity());
+            entry.putInt(nameOffset);
+            entry.putInt(length);
+            entry.put(type);
+            entry.put((byte) 0);
+            entry.put(units);
+            entry.put((byte) 2);
+            entry.putInt(dataOffset);
+            entry.put(nameBytes);
+            entry.position(dataOffset);
+            entry.put(data);
+            _entries.write(entry.array(), 0, entry.capacity());
+            ++_count;
+            return this;
+        }
+
+        private byte[] toBytes() {
+            final ByteBuffer file = ByteBuffer.allocate(Hsperfdata.PROLOGUE_SIZE + _entries.size());
+            file.putInt(Hsperfdata.MAGIC);
+            file.put((byte) (_order == ByteOrder.BIG_ENDIAN ? 0 : 1));
+            file.put(Hsperfdata.MAJOR_VERSION);
+            file.order(_order);
+            file.putInt(Hsperfdata.ENTRY_OFFSET_OFFSET, Hsperfdata.PROLOGUE_SIZE);
+            file.putInt(Hsperfdata.NUM_ENTRIES_OFFSET, _count);
+            file.position(Hsperfdata.PROLOGUE_SIZE);
+            file.put(_entries.toByteArray());
+            return file.array();
+        }
+
+        private void write(final Path path) throws IOException {
+            Files.write(path, toBytes());
+        }
+
+        private final ByteOrder _order;
+        private final ByteArrayOutputStream _entries = new ByteArrayOutputStream();
+        private int _count;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link InstrumentedCollector} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class InstrumentedCollectorTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _collector = Mockito.mock(JvmMetricsCollector.class);
+        _nanoTime = new AtomicLong();
+        _instrumented = createInstrumented(java.lang.management.ManagementFactory.getThreadMXBean());
+    }
+
+    @Test
+    public void testCollect() {
+        Mockito.doAnswer(invocation -> {
+            _nanoTime.addAndGet(100);
+            return null;
+        }).when(_collector).collect(_metrics, _managementFactory);
+
+        _instrumented.collect(_metrics, _managementFactory);
+
+        Mockito.verify(_collector).collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setTimer("jvm/collector/test/time", 100, TimeUnit.NANOSECONDS);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/collector/test/allocated_bytes"), Mockito.longThat(b -> b >= 0));
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/test/failures", 0);
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/test/skipped", 0);
+        // The allocations are measured locally rather than through the management factory
+        Mockito.verifyNoInteractions(_managementFactory);
+    }
+
+    @Test
+    public void testDefaultThreadMXBean() {
+        new InstrumentedCollector("test", _collector, BUDGET_NANOS).collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/collector/test/allocated_bytes"), Mockito.longThat(b -> b >= 0));
+        Mockito.verifyNoInteractions(_managementFactory);
+    }
+
+    @Test
+    public void testAllocatedBytesNotSupported() {
+        _instrumented = createInstrumented(Mockito.mock(ThreadMXBean.class));
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.anyString(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testAllocatedBytesDisabled() {
+        final com.sun.management.ThreadMXBean threadMXBean = Mockito.mock(com.sun.management.ThreadMXBean.class);
+        Mockito.doReturn(10L, -1L).when(threadMXBean).getCurrentThreadAllocatedBytes();
+        _instrumented = createInstrumented(threadMXBean);
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.anyString(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testFailureRethrown() {
+        final IllegalStateException exception = new IllegalStateException("Test exception");
+        Mockito.doThrow(exception).when(_collector).collect(_metrics, _managementFactory);
+        try {
+            _instrumented.collect(_metrics, _managementFactory);
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            Assert.assertSame(exception, e);
+        }
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/test/failures", 1);
+        Mockito.verify(_metrics).setTimer("jvm/collector/test/time", 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        Mockito.doThrow(new IllegalStateException("Test exception")).when(_collector).collect(_metrics, _managementFactory);
+        for (int i = 0; i < InstrumentedCollector.FAILURE_THRESHOLD; ++i) {
+            collectIgnoringFailure();
+        }
+        Mockito.verify(_collector, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD))
+                .collect(_metrics, _managementFactory);
+
+        // The circuit is open
+        _nanoTime.set(InstrumentedCollector.OPEN_NANOS - 1);
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.verify(_collector, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD))
+                .collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/test/skipped", 1);
+
+        // A failed trial reopens the circuit
+        _nanoTime.set(InstrumentedCollector.OPEN_NANOS);
+        collectIgnoringFailure();
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.verify(_collector, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD + 1))
+                .collect(_metrics, _managementFactory);
+
+        // A successful trial closes the circuit
+        Mockito.doNothing().when(_collector).collect(_metrics, _managementFactory);
+        _nanoTime.set(2 * InstrumentedCollector.OPEN_NANOS);
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.doThrow(new IllegalStateException("Test exception")).when(_collector).collect(_metrics, _managementFactory);
+        collectIgnoringFailure();
+        collectIgnoringFailure();
+        Mockito.verify(_collector, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD + 4))
+                .collect(_metrics, _managementFactory);
+    }
+
+    @Test
+    public void testTimeBudgetExceeded() {
+        Mockito.doAnswer(invocation -> {
+            _nanoTime.addAndGet(BUDGET_NANOS + 1);
+            return null;
+        }).when(_collector).collect(_metrics, _managementFactory);
+        for (int i = 0; i < InstrumentedCollector.FAILURE_THRESHOLD; ++i) {
+            _instrumented.collect(_metrics, _managementFactory);
+        }
+        Mockito.verify(_metrics, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD))
+                .incrementCounter("jvm/collector/test/failures", 1);
+
+        _instrumented.collect(_metrics, _managementFactory);
+        Mockito.verify(_collector, Mockito.times(InstrumentedCollector.FAILURE_THRESHOLD))
+                .collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/test/skipped", 1);
+    }
+
+    private InstrumentedCollector createInstrumented(final ThreadMXBean threadMXBean) {
+        return new InstrumentedCollector("test", _collector, BUDGET_NANOS, _nanoTime::get, () -> threadMXBean);
+    }
+
+    private void collectIgnoringFailure() {
+        try {
+            _instrumented.collect(_metrics, _managementFactory);
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    private Metrics _metrics;
+    private ManagementFactory _managementFactory;
+    private JvmMetricsCollector _collector;
+    private AtomicLong _nanoTime;
+    private InstrumentedCollector _instrumented;
+
+    private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(1);
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.impl.NoOpMetricsFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the {@link JvmMetricsAgent} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmMetricsAgentTest {
+
+    @Test
+    public void testMetricsFactory() throws InterruptedException {
+        CountingMetricsFactory.reset(2);
+        final Optional<JvmMetricsAgent> agent = JvmMetricsAgent.run(
+                "metricsFactory=" + CountingMetricsFactory.class.getName() + ",interval=PT0.01S,collectThreadMetrics=false",
+                Duration.ZERO);
+        Assert.assertTrue(agent.isPresent());
+        try {
+            Assert.assertFalse(agent.get().getExporter().isPresent());
+            Assert.assertTrue(CountingMetricsFactory.await());
+        } finally {
+            agent.get().close();
+        }
+    }
+
+    @Test
+    public void testFailingCollectionsContinue() throws InterruptedException {
+        // Every run fails to emit; more runs than a circuit breaker allows still emit
+        FailingMetricsFactory.reset(5);
+        final Optional<JvmMetricsAgent> agent = JvmMetricsAgent.run(
+                "metricsFactory=" + FailingMetricsFactory.class.getName() + ",interval=PT0.01S",
+                Duration.ZERO);
+        Assert.assertTrue(agent.isPresent());
+        try {
+            Assert.assertTrue(FailingMetricsFactory.await());
+        } finally {
+            agent.get().close();
+        }
+    }
+
+    @Test
+    public void testPrometheus() throws IOException {
+        final Optional<JvmMetricsAgent> agent = JvmMetricsAgent.run("port=0, collectHeapMemoryMetrics = true", Duration.ZERO);
+        Assert.assertTrue(agent.isPresent());
+        try {
+            final InetSocketAddress address = agent.get().getExporter().get().getAddress().get();
+            final HttpURLConnection connection = (HttpURLConnection) URI.create(
+                    "http://localhost:" + address.getPort() + "/metrics").toURL().openConnection();
+            try (InputStream stream = connection.getInputStream()) {
+                Assert.assertEquals(200, connection.getResponseCode());
+                stream.readAllBytes();
+            } finally {
+                connection.disconnect();
+            }
+        } finally {
+            agent.get().close();
+        }
+    }
+
+    @Test
+    public void testDefaultPort() {
+        // The default port may be in use on the host; either outcome exercises the default
+        JvmMetricsAgent.run(null, Duration.ZERO).ifPresent(JvmMetricsAgent::close);
+    }
+
+    @Test
+    public void testConfigFile() throws IOException, InterruptedException {
+        final Path config = Files.createTempFile("jvm-metrics-agent", ".properties");
+        try {
+            Files.write(
+                    config,
+                    ("metricsFactory=" + CountingMetricsFactory.class.getName() + "\n"
+                            + "interval=PT1H\n"
+                            + "collectGarbageCollectionMetrics=false\n").getBytes(StandardCharsets.UTF_8));
+            final Map<String, String> options = JvmMetricsAgent.parse("config=" + config + ",interval=PT0.01S");
+            Assert.assertEquals("PT0.01S", options.get("interval"));
+            Assert.assertEquals("false", options.get("collectGarbageCollectionMetrics"));
+            Assert.assertEquals(CountingMetricsFactory.class.getName(), options.get("metricsFactory"));
+
+            CountingMetricsFactory.reset(2);
+            final Optional<JvmMetricsAgent> agent = JvmMetricsAgent.run("config=" + config + ",interval=PT0.01S", Duration.ZERO);
+            Assert.assertTrue(agent.isPresent());
+            try {
+                Assert.assertTrue(CountingMetricsFactory.await());
+            } finally {
+                agent.get().close();
+            }
+        } finally {
+            Files.deleteIfExists(config);
+        }
+    }
+
+    @Test
+    public void testParseEmpty() throws IOException {
+        Assert.assertTrue(JvmMetricsAgent.parse(null).isEmpty());
+        Assert.assertTrue(JvmMetricsAgent.parse("").isEmpty());
+    }
+
+    @Test
+    public void testMissingConfigFile() {
+        Assert.assertFalse(JvmMetricsAgent.run("config=/does/not/exist.properties", Duration.ZERO).isPresent());
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        final String factory = "metricsFactory=" + CountingMetricsFactory.class.getName() + ",";
+        assertNotStarted("port");
+        assertNotStarted("unknown=true");
+        assertNotStarted("delay=10s");
+        assertNotStarted(factory + "interval=PT0S");
+        assertNotStarted(factory + "interval=-PT1S");
+        assertNotStarted(factory + "collectThreadMetrics=yes");
+        assertNotStarted("port=http");
+        assertNotStarted("metricsFactory=com.example.DoesNotExist");
+        assertNotStarted("metricsFactory=java.lang.String");
+    }
+
+    @Test
+    public void testFailedInitialization() {
+        // The metrics factory class fails to initialize with an ExceptionInInitializerError
+        assertNotStarted("metricsFactory=" + UninitializableMetricsFactory.class.getName());
+    }
+
+    @Test
+    public void testInterrupted() throws InterruptedException {
+        final Thread thread = JvmMetricsAgent.start("delay=PT1H", Duration.ZERO);
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void testPremain() {
+        // The application continues even if the options are invalid
+        JvmMetricsAgent.premain("unknown=true");
+    }
+
+    @Test
+    public void testPremainDefersInitialization() throws ReflectiveOperationException, InterruptedException {
+        // A fresh copy of the agent shows which classes premain itself loads
+        final RecordingClassLoader loader = new RecordingClassLoader();
+        final Class<?> agentClass = loader.loadClass(JvmMetricsAgent.class.getName());
+        agentClass.getMethod("premain", String.class).invoke(null, "unknown=true");
+        final Optional<Thread> premain = Optional.of(Thread.currentThread());
+        Assert.assertNotEquals(premain, loader.getLoadingThread(JvmMetricsAgent.class.getName() + "$LoggerHolder"));
+        Assert.assertNotEquals(premain, loader.getLoadingThread(JvmMetricsAgent.class.getName() + "$TogglesHolder"));
+        Assert.assertNotEquals(premain, loader.getLoadingThread(JvmMetricsRunnable.class.getName()));
+        Assert.assertNotEquals(premain, loader.getLoadingThread(JvmMetricsRunnable.Builder.class.getName()));
+        // The agent thread initializes them while it fails on the invalid options
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (loader.getLoadingThread(JvmMetricsAgent.class.getName() + "$LoggerHolder").isEmpty()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(
+                Optional.of("jvm-metrics-agent"),
+                loader.getLoadingThread(JvmMetricsAgent.class.getName() + "$LoggerHolder").map(Thread::getName));
+    }
+
+    @Test
+    public void testAgentmain() {
+        // The agent cannot be closed once started; only the failure to start is observable
+        JvmMetricsAgent.agentmain("unknown=true");
+    }
+
+    private static void assertNotStarted(final String args) {
+        Assert.assertFalse(args, JvmMetricsAgent.run(args, Duration.ZERO).isPresent());
+    }
+
+    /**
+     * Defines its own copy of each class of this package and records the
+     * thread which first loaded it.
+     */
+    private static final class RecordingClassLoader extends ClassLoader {
+
+        RecordingClassLoader() {
+            super(JvmMetricsAgentTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    _loadingThreads.put(name, Thread.currentThread());
+                    final byte[] bytes;
+                    try (InputStream stream = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                        if (stream == null) {
+                            throw new ClassNotFoundException(name);
+                        }
+                        bytes = stream.readAllBytes();
+                    } catch (final IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                    clazz = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+
+        Optional<Thread> getLoadingThread(final String name) {
+            return Optional.ofNullable(_loadingThreads.get(name));
+        }
+
+        private final Map<String, Thread> _loadingThreads = new ConcurrentHashMap<>();
+
+        private static final String PACKAGE = JvmMetricsAgent.class.getPackageName() + ".";
+    }
+
+    /**
+     * Metrics factory created reflectively by the agent.
+     */
+    public static final class CountingMetricsFactory implements MetricsFactory {
+
+        @Override
+        public Metrics create() {
+            LATCH.get().countDown();
+            return DELEGATE.create();
+        }
+
+        static void reset(final int count) {
+            LATCH.set(new CountDownLatch(count));
+        }
+
+        static boolean await() throws InterruptedException {
+            return LATCH.get().await(10, TimeUnit.SECONDS);
+        }
+
+        private static final AtomicReference<CountDownLatch> LATCH = new AtomicReference<>(new CountDownLatch(0));
+        private static final MetricsFactory DELEGATE = new NoOpMetricsFactory();
+    }
+
+    /**
+     * Metrics factory whose metrics fail every operation; each run which
+     * emits is counted.
+     */
+    public static final class FailingMetricsFactory implements MetricsFactory {
+
+        @Override
+        public Metrics create() {
+            return Mockito.mock(Metrics.class, invocation -> {
+                if (!"close".equals(invocation.getMethod().getName())) {
+                    LATCH.get().countDown();
+                }
+                throw new IllegalStateException("Test exception");
+            });
+        }
+
+        static void reset(final int count) {
+            LATCH.set(new CountDownLatch(count));
+        }
+
+        static boolean await() throws InterruptedException {
+            return LATCH.get().await(10, TimeUnit.SECONDS);
+        }
+
+        private static final AtomicReference<CountDownLatch> LATCH = new AtomicReference<>(new CountDownLatch(0));
+    }
+
+    /**
+     * Metrics factory whose class fails to initialize.
+     */
+    public static final class UninitializableMetricsFactory implements MetricsFactory {
+
+        @Override
+        public Metrics create() {
+            return DELEGATE.create();
+        }
+
+        private static MetricsFactory createDelegate() {
+            throw new IllegalStateException("Failed to initialize");
+        }
+
+        private static final MetricsFactory DELEGATE = createDelegate();
+    }
+}
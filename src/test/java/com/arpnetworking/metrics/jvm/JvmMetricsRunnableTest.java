@@ -17,15 +17,36 @@ package com.arpnetworking.metrics.jvm;
 
 import com.arpnetworking.metrics.Metrics;
 import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.impl.NoOpMetricsFactory;
 import com.arpnetworking.metrics.jvm.collectors.BufferPoolMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.FileDescriptorMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.GarbageCollectionOverheadMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.HeapMemoryMetricsCollector;
 import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.SafepointMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.ThreadMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.VirtualThreadMetricsCollector;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests the {@link JvmMetricsRunnable} class.
@@ -46,6 +67,11 @@ public final class JvmMetricsRunnableTest {
         _threadCollector = Mockito.mock(JvmMetricsCollector.class);
         _bufferPoolCollector = Mockito.mock(BufferPoolMetricsCollector.class);
         _fileDescriptorCollector = Mockito.mock(FileDescriptorMetricsCollector.class);
+        _virtualThreadCollector = Mockito.mock(JvmMetricsCollector.class);
+        _gcOverheadCollector = Mockito.mock(JvmMetricsCollector.class);
+        _safepointCollector = Mockito.mock(JvmMetricsCollector.class);
+        _classLoadingCollector = Mockito.mock(JvmMetricsCollector.class);
+        _cpuCollector = Mockito.mock(JvmMetricsCollector.class);
         Mockito.doReturn(_metrics).when(_metricsFactory).create();
     }
 
@@ -56,6 +82,9 @@ public final class JvmMetricsRunnableTest {
         _threadCollector = null;
         _bufferPoolCollector = null;
         _fileDescriptorCollector = null;
+        _virtualThreadCollector = null;
+        _gcOverheadCollector = null;
+        _safepointCollector = null;
         _poolMemoryCollector = null;
     }
 
@@ -69,6 +98,31 @@ public final class JvmMetricsRunnableTest {
         createJvmMetricsRunnableBuilder().setSwallowException(null).build();
     }
 
+    @Test
+    public void testCreateRunnableCollectorTimeBudgetNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectorTimeBudget(null).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateRunnableCollectorTimeBudgetZero() {
+        createJvmMetricsRunnableBuilder().setCollectorTimeBudget(Duration.ZERO).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateRunnableCollectorTimeBudgetNegative() {
+        createJvmMetricsRunnableBuilder().setCollectorTimeBudget(Duration.ofSeconds(-1)).build();
+    }
+
+    @Test
+    public void testCreateRunnableGovernOverheadNullToDefault() {
+        createJvmMetricsRunnableBuilder().setGovernOverhead(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableOverheadGovernorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setOverheadGovernor(null).build();
+    }
+
     @Test
     public void testCreateRunnableCollectHeapMemoryMetricsNullToDefault() {
         createJvmMetricsRunnableBuilder().setCollectHeapMemoryMetrics(null).build();
@@ -99,6 +153,16 @@ public final class JvmMetricsRunnableTest {
         createJvmMetricsRunnableBuilder().setCollectFileDescriptorMetrics(null).build();
     }
 
+    @Test
+    public void testCreateRunnableCollectVirtualThreadNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectVirtualThreadMetrics(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCollectGarbageCollectionOverheadNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectGarbageCollectionOverheadMetrics(null).build();
+    }
+
     @Test
     public void testCreateRunnableManagementFactoryNullToDefault() {
         createJvmMetricsRunnableBuilder().setManagementFactory(null).build();
@@ -134,6 +198,51 @@ public final class JvmMetricsRunnableTest {
         createJvmMetricsRunnableBuilder().setFileDescriptorMetricsCollector(null).build();
     }
 
+    @Test
+    public void testCreateRunnableVirtualThreadMetricsCollectorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setVirtualThreadMetricsCollector(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableGarbageCollectionOverheadMetricsCollectorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setGarbageCollectionOverheadMetricsCollector(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCollectSafepointNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectSafepointMetrics(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCollectGarbageCollectionFromHsperfdataNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectGarbageCollectionMetricsFromHsperfdata(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableSafepointMetricsCollectorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setSafepointMetricsCollector(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCollectClassLoadingNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectClassLoadingMetrics(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCollectCpuNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectCpuMetrics(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableClassLoadingMetricsCollectorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectClassLoadingMetrics(true).setClassLoadingMetricsCollector(null).build();
+    }
+
+    @Test
+    public void testCreateRunnableCpuMetricsCollectorNullToDefault() {
+        createJvmMetricsRunnableBuilder().setCollectCpuMetrics(true).setCpuMetricsCollector(null).build();
+    }
+
     @Test
     public void testRunDefaultCollectorsEnabledCase() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
@@ -144,6 +253,71 @@ public final class JvmMetricsRunnableTest {
         Mockito.verify(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
         Mockito.verify(_bufferPoolCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
         Mockito.verify(_fileDescriptorCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+        Mockito.verifyNoInteractions(_virtualThreadCollector);
+        Mockito.verifyNoInteractions(_gcOverheadCollector);
+        Mockito.verifyNoInteractions(_safepointCollector);
+        Mockito.verifyNoInteractions(_classLoadingCollector);
+        Mockito.verifyNoInteractions(_cpuCollector);
+    }
+
+    @Test
+    public void testRunClassLoadingAndCpuCollectorsEnabled() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setCollectClassLoadingMetrics(true)
+                .setCollectCpuMetrics(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_classLoadingCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+        Mockito.verify(_cpuCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+    }
+
+    @Test
+    public void testRunGarbageCollectionOverheadCollectorEnabled() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setCollectGarbageCollectionOverheadMetrics(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_gcOverheadCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+    }
+
+    @Test
+    public void testRunSafepointCollectorEnabled() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setCollectSafepointMetrics(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_safepointCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+    }
+
+    @Test
+    public void testRunGarbageCollectionFromHsperfdata() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setGarbageCollectionMetricsCollector(null)
+                .setCollectGarbageCollectionMetricsFromHsperfdata(true)
+                .build();
+        runnable.run();
+        Mockito.verifyNoInteractions(_gcCollector);
+        Mockito.verify(_managementFactory).getHsperfdata();
+    }
+
+    @Test
+    public void testRunGarbageCollectionFromHsperfdataWithCollector() {
+        // The collector set on the builder is used rather than the hsperfdata collector
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setCollectGarbageCollectionMetricsFromHsperfdata(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
+        Mockito.verify(_managementFactory, Mockito.never()).getHsperfdata();
+    }
+
+    @Test
+    public void testRunVirtualThreadCollectorEnabled() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setCollectVirtualThreadMetrics(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_virtualThreadCollector).collect(Mockito.any(Metrics.class), Mockito.any(ManagementFactory.class));
     }
 
     @Test
@@ -277,42 +451,207 @@ public final class JvmMetricsRunnableTest {
     @Test
     public void testRunWithExceptionOnGcCollect() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
-        Mockito.doThrow(RuntimeException.class).when(_gcCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class).when(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
     @Test
     public void testRunWithExceptionOnHeapMemoryCollect() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
-        Mockito.doThrow(RuntimeException.class).when(_heapMemoryCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class)
+                .when(_heapMemoryCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
     @Test
     public void testRunWithExceptionOnPoolMemoryCollect() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
-        Mockito.doThrow(RuntimeException.class).when(_poolMemoryCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class)
+                .when(_poolMemoryCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
     @Test
     public void testRunWithExceptionOnBufferPoolCollect() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
-        Mockito.doThrow(RuntimeException.class).when(_bufferPoolCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class)
+                .when(_bufferPoolCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
     @Test
     public void testRunWithExceptionOnFileDescriptorCollect() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
-        Mockito.doThrow(RuntimeException.class).when(_fileDescriptorCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class)
+                .when(_fileDescriptorCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        runnable.run();
+    }
+
+    @Test
+    public void testRunWithExceptionsContinuesCollection() {
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setSwallowException(false)
+                .build();
+        final IllegalStateException gcException = new IllegalStateException("gc");
+        final IllegalStateException heapException = new IllegalStateException("heap");
+        Mockito.doThrow(gcException).when(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.doThrow(heapException).when(_heapMemoryCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        try {
+            runnable.run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            Assert.assertSame(gcException, e);
+            Assert.assertArrayEquals(new Throwable[]{heapException}, e.getSuppressed());
+        }
+        Mockito.verify(_poolMemoryCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_bufferPoolCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_fileDescriptorCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/garbage_collection/failures", 1);
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/heap_memory/failures", 1);
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/thread/failures", 0);
+    }
+
+    @Test
+    public void testRunGovernedUnderLoad() {
+        final com.sun.management.OperatingSystemMXBean operatingSystemMXBean =
+                Mockito.mock(com.sun.management.OperatingSystemMXBean.class);
+        Mockito.doReturn(operatingSystemMXBean).when(_managementFactory).getOperatingSystemMXBean();
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setGovernOverhead(true)
+                .setCollectVirtualThreadMetrics(true)
+                .build();
+
+        Mockito.doReturn(1.0).when(operatingSystemMXBean).getProcessCpuLoad();
+        runnable.run();
+        Mockito.verify(_metrics).setGauge("jvm/governor/mode", OverheadGovernor.Mode.MINIMAL.ordinal());
+        Mockito.verify(_metrics).incrementCounter("jvm/governor/mode_changes", 1);
+        Mockito.verify(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_heapMemoryCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verifyNoInteractions(_poolMemoryCollector);
+        Mockito.verifyNoInteractions(_threadCollector);
+        Mockito.verifyNoInteractions(_bufferPoolCollector);
+        Mockito.verifyNoInteractions(_fileDescriptorCollector);
+        Mockito.verifyNoInteractions(_virtualThreadCollector);
+
+        Mockito.doReturn(0.0).when(operatingSystemMXBean).getProcessCpuLoad();
+        runnable.run();
+        Mockito.verify(_metrics).setGauge("jvm/governor/mode", OverheadGovernor.Mode.NORMAL.ordinal());
+        Mockito.verify(_metrics, Mockito.times(2)).incrementCounter("jvm/governor/mode_changes", 1);
+        Mockito.verify(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        Mockito.verify(_virtualThreadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+    }
+
+    @Test
+    public void testRunGovernedWithOverheadGovernor() {
+        final com.sun.management.OperatingSystemMXBean operatingSystemMXBean =
+                Mockito.mock(com.sun.management.OperatingSystemMXBean.class);
+        Mockito.doReturn(operatingSystemMXBean).when(_managementFactory).getOperatingSystemMXBean();
+        Mockito.doReturn(0.6).when(operatingSystemMXBean).getProcessCpuLoad();
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setGovernOverhead(true)
+                .setOverheadGovernor(new OverheadGovernor.Builder()
+                        .setReducedCpuThreshold(0.3)
+                        .setMinimalCpuThreshold(0.5)
+                        .build())
+                .build();
+        runnable.run();
+        // The default governor would not shed collectors at this load
+        Mockito.verify(_metrics).setGauge("jvm/governor/mode", OverheadGovernor.Mode.MINIMAL.ordinal());
+        Mockito.verifyNoInteractions(_threadCollector);
+    }
+
+    @Test
+    public void testRunGovernedWithoutProcessCpuLoad() {
+        Mockito.doReturn(Mockito.mock(java.lang.management.OperatingSystemMXBean.class))
+                .when(_managementFactory).getOperatingSystemMXBean();
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setGovernOverhead(true)
+                .build();
+        runnable.run();
+        Mockito.verify(_metrics).setGauge("jvm/governor/mode", OverheadGovernor.Mode.NORMAL.ordinal());
+        Mockito.verify(_metrics).incrementCounter("jvm/governor/mode_changes", 0);
+        Mockito.verify(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+    }
+
+    @Test
+    public void testRunWithGaugeSampler() {
+        try (GaugeSampler sampler = new GaugeSampler.Builder().addGauge("sampled", () -> 7).build()) {
+            final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                    .setGaugeSampler(sampler)
+                    .build();
+            sampler.sample();
+            runnable.run();
+            Mockito.verify(_metrics).setGauge("sampled/max", 7L);
+        }
+    }
+
+    @Test
+    public void testLatestSnapshot() {
+        Mockito.doAnswer(invocation -> {
+            invocation.<Metrics>getArgument(0).setGauge("gauge", 3L);
+            return null;
+        }).when(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().build();
+        Assert.assertEquals(0, runnable.getLatestSnapshot().size());
         runnable.run();
+        final JvmSnapshot snapshot = runnable.getLatestSnapshot();
+        Assert.assertEquals(3L, snapshot.getLong(snapshot.indexOf("gauge")));
+        Mockito.verify(_metrics).setGauge("gauge", 3L);
+    }
+
+    @Test
+    public void testSnapshotPublisher() {
+        final JvmSnapshotPublisher publisher = new JvmSnapshotPublisher.Builder().setExecutor(Runnable::run).build();
+        @SuppressWarnings("unchecked")
+        final Flow.Subscriber<JvmSnapshot> subscriber = Mockito.mock(Flow.Subscriber.class);
+        Mockito.doAnswer(invocation -> {
+            invocation.<Flow.Subscription>getArgument(0).request(Long.MAX_VALUE);
+            return null;
+        }).when(subscriber).onSubscribe(Mockito.any());
+        publisher.subscribe(subscriber);
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setSnapshotPublisher(publisher)
+                .build();
+        runnable.run();
+        Mockito.verify(subscriber).onNext(Mockito.same(runnable.getLatestSnapshot()));
+    }
+
+    @Test
+    public void testSharedMetricsFile() {
+        final SharedMetricsFile file = Mockito.mock(SharedMetricsFile.class);
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setSharedMetricsFile(file)
+                .build();
+        runnable.run();
+        Mockito.verify(file).update(Mockito.same(runnable.getLatestSnapshot()));
+    }
+
+    @Test
+    public void testBlackBoxRecorder() {
+        final BlackBoxRecorder recorder = Mockito.mock(BlackBoxRecorder.class);
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setBlackBoxRecorder(recorder)
+                .build();
+        runnable.run();
+        Mockito.verify(recorder).record(Mockito.same(runnable.getLatestSnapshot()));
+    }
+
+    @Test
+    public void testMemoryPressureMonitor() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder().build();
+        final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
+                .setMemoryPressureMonitor(monitor)
+                .build();
+        runnable.run();
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/level", 0L);
     }
 
     @Test
     public void testRunWithExceptionThrownWithSwallowExceptionEnabled() {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder().setSwallowException(true).build();
-        Mockito.doThrow(RuntimeException.class).when(_threadCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(RuntimeException.class).when(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
@@ -321,7 +660,7 @@ public final class JvmMetricsRunnableTest {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
                 .setSwallowException(false)
                 .build();
-        Mockito.doThrow(Exception.class).when(_threadCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(Exception.class).when(_threadCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         runnable.run();
     }
 
@@ -348,7 +687,7 @@ public final class JvmMetricsRunnableTest {
         final JvmMetricsRunnable runnable = createJvmMetricsRunnableBuilder()
                 .setSwallowException(false)
                 .build();
-        Mockito.doThrow(Exception.class).when(_gcCollector).collect(_metrics, _managementFactory);
+        Mockito.doThrow(Exception.class).when(_gcCollector).collect(Mockito.any(Metrics.class), Mockito.eq(_managementFactory));
         Mockito.doThrow(Exception.class).when(_metrics).close();
         runnable.run();
     }
@@ -392,6 +731,58 @@ public final class JvmMetricsRunnableTest {
         runnable.handleException(new RuntimeException());
     }
     
+    @Test
+    public void testStartupCost() throws IOException, InterruptedException {
+        // Measured in a fresh JVM since this one has already loaded everything
+        final Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xlog:class+load=info:stderr:none",
+                "-cp",
+                System.getProperty("java.class.path"),
+                StartupProbe.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        // Classes loaded by each phase are logged between the markers of the probe
+        final Map<String, List<String>> loaded = new TreeMap<>();
+        final Map<String, Long> nanos = new TreeMap<>();
+        List<String> phase = loaded.computeIfAbsent("boot", k -> new ArrayList<>());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(StartupProbe.MARKER)) {
+                    final String[] marker = line.split(" ");
+                    phase = loaded.computeIfAbsent(marker[1], k -> new ArrayList<>());
+                    nanos.put(marker[1], Long.parseLong(marker[2]));
+                } else {
+                    phase.add(line.split(" ")[0]);
+                }
+            }
+        }
+        Assert.assertEquals(0, process.waitFor());
+        final List<String> build = loaded.get("build");
+        final List<String> firstRun = loaded.get("run");
+        LOGGER.info(String.format(
+                "Startup cost; build=%dus, firstRun=%dus, classesLoadedByBuild=%d, classesLoadedByFirstRun=%d",
+                TimeUnit.NANOSECONDS.toMicros(nanos.get("run")),
+                TimeUnit.NANOSECONDS.toMicros(nanos.get("done")),
+                build.size(),
+                firstRun.size()));
+
+        // Building does not touch the platform MXBeans
+        Assert.assertFalse(build.contains("java.lang.management.ManagementFactory"));
+        Assert.assertTrue(firstRun.contains("java.lang.management.ManagementFactory"));
+        // Enabled collectors are loaded by the build and disabled ones never
+        Assert.assertTrue(build.contains(HeapMemoryMetricsCollector.class.getName()));
+        for (final Class<?> disabled : List.of(
+                ThreadMetricsCollector.class,
+                VirtualThreadMetricsCollector.class,
+                GarbageCollectionOverheadMetricsCollector.class,
+                SafepointMetricsCollector.class)) {
+            for (final List<String> classes : loaded.values()) {
+                Assert.assertFalse(disabled.getName(), classes.contains(disabled.getName()));
+            }
+        }
+    }
+
     private JvmMetricsRunnable.Builder createJvmMetricsRunnableBuilder() {
         return new JvmMetricsRunnable.Builder()
                 .setMetricsFactory(_metricsFactory)
@@ -401,7 +792,12 @@ public final class JvmMetricsRunnableTest {
                 .setPoolMemoryMetricsCollector(_poolMemoryCollector)
                 .setThreadMetricsCollector(_threadCollector)
                 .setBufferPoolMetricsCollector(_bufferPoolCollector)
-                .setFileDescriptorMetricsCollector(_fileDescriptorCollector);
+                .setFileDescriptorMetricsCollector(_fileDescriptorCollector)
+                .setVirtualThreadMetricsCollector(_virtualThreadCollector)
+                .setGarbageCollectionOverheadMetricsCollector(_gcOverheadCollector)
+                .setSafepointMetricsCollector(_safepointCollector)
+                .setClassLoadingMetricsCollector(_classLoadingCollector)
+                .setCpuMetricsCollector(_cpuCollector);
     }
 
     private MetricsFactory _metricsFactory = null;
@@ -413,4 +809,45 @@ public final class JvmMetricsRunnableTest {
     private JvmMetricsCollector _threadCollector = null;
     private JvmMetricsCollector _bufferPoolCollector = null;
     private JvmMetricsCollector _fileDescriptorCollector = null;
+    private JvmMetricsCollector _virtualThreadCollector = null;
+    private JvmMetricsCollector _gcOverheadCollector = null;
+    private JvmMetricsCollector _safepointCollector = null;
+    private JvmMetricsCollector _classLoadingCollector = null;
+    private JvmMetricsCollector _cpuCollector = null;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JvmMetricsRunnableTest.class);
+
+    /**
+     * Builds and runs a runnable with the defaults, marking the start of
+     * each phase with the elapsed time of the previous one.
+     */
+    public static final class StartupProbe {
+
+        /**
+         * Build and run once.
+         *
+         * @param args unused
+         */
+        public static void main(final String[] args) {
+            mark("build", 0);
+            final long start = System.nanoTime();
+            final JvmMetricsRunnable runnable = new JvmMetricsRunnable.Builder()
+                    .setMetricsFactory(new NoOpMetricsFactory())
+                    .setCollectThreadMetrics(false)
+                    .build();
+            mark("run", System.nanoTime() - start);
+            final long run = System.nanoTime();
+            runnable.run();
+            mark("done", System.nanoTime() - run);
+        }
+
+        private static void mark(final String phase, final long previousNanos) {
+            System.out.println(MARKER + " " + phase + " " + previousNanos);
+            System.out.flush();
+        }
+
+        private StartupProbe() { }
+
+        private static final String MARKER = "startup-probe";
+    }
 }
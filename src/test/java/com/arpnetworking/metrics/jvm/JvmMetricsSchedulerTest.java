@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the {@link JvmMetricsScheduler} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class JvmMetricsSchedulerTest {
+
+    @Before
+    public void setUp() {
+        _mocks = MockitoAnnotations.openMocks(this);
+        Mockito.doReturn(_metrics).when(_metricsFactory).create();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _mocks.close();
+    }
+
+    @Test
+    public void testCollectorIntervals() throws InterruptedException {
+        final CountDownLatch fast = new CountDownLatch(5);
+        final CountDownLatch slow = new CountDownLatch(1);
+        final AtomicBoolean daemon = new AtomicBoolean();
+        try (JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setManagementFactory(_managementFactory)
+                .setJitter(false)
+                .addCollector("fast", (metrics, managementFactory) -> {
+                    daemon.set(Thread.currentThread().isDaemon());
+                    fast.countDown();
+                }, Duration.ofMillis(5))
+                .addCollector("slow", (metrics, managementFactory) -> slow.countDown(), Duration.ofHours(1))
+                .build()) {
+            scheduler.start();
+            scheduler.start();
+            Assert.assertTrue(fast.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(slow.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(daemon.get());
+        }
+        Mockito.verify(_metrics, Mockito.atLeast(5))
+                .incrementCounter(Mockito.eq("jvm/collector/fast/overruns"), Mockito.anyLong());
+        Mockito.verify(_metrics).incrementCounter("jvm/collector/slow/overruns", 0L);
+    }
+
+    @Test
+    public void testPhase() throws InterruptedException {
+        final CountDownLatch collected = new CountDownLatch(1);
+        try (JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .addCollector("collector", (metrics, managementFactory) -> collected.countDown(), Duration.ofHours(1))
+                .setPhase(interval -> TimeUnit.MILLISECONDS.toNanos(50))
+                .build()) {
+            final long start = System.nanoTime();
+            scheduler.start();
+            Assert.assertTrue(collected.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    @Test
+    public void testDefaultPhase() {
+        try (JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .addCollector("collector", _collector, Duration.ofDays(1))
+                .build()) {
+            scheduler.start();
+        }
+        Mockito.verifyNoInteractions(_collector);
+    }
+
+    @Test
+    public void testOverrunSkipped() throws InterruptedException {
+        final CountDownLatch collected = new CountDownLatch(2);
+        final AtomicBoolean first = new AtomicBoolean(true);
+        try (JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setJitter(false)
+                .addCollector("collector", (metrics, managementFactory) -> {
+                    if (first.getAndSet(false)) {
+                        try {
+                            Thread.sleep(70);
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    collected.countDown();
+                }, Duration.ofMillis(20))
+                .build()) {
+            scheduler.start();
+            Assert.assertTrue(collected.await(10, TimeUnit.SECONDS));
+        }
+        final ArgumentCaptor<Long> overruns = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(_metrics, Mockito.atLeast(2))
+                .incrementCounter(Mockito.eq("jvm/collector/collector/overruns"), overruns.capture());
+        Assert.assertEquals(0L, (long) overruns.getAllValues().get(0));
+        Assert.assertTrue(overruns.getAllValues().get(1) >= 3);
+    }
+
+    @Test
+    public void testCollectorExceptionSwallowed() throws InterruptedException {
+        final CountDownLatch collected = new CountDownLatch(3);
+        try (JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setJitter(false)
+                .addCollector("collector", (metrics, managementFactory) -> {
+                    collected.countDown();
+                    throw new IllegalStateException("Test exception");
+                }, Duration.ofMillis(5))
+                .build()) {
+            scheduler.start();
+            Assert.assertTrue(collected.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testStartAfterClose() {
+        final JvmMetricsScheduler scheduler = new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .addCollector("collector", _collector, Duration.ofMillis(1))
+                .build();
+        scheduler.close();
+        scheduler.start();
+        Mockito.verifyNoInteractions(_collector);
+    }
+
+    @Test
+    public void testBuilderNullDefaults() {
+        new JvmMetricsScheduler.Builder()
+                .setMetricsFactory(_metricsFactory)
+                .setManagementFactory(null)
+                .setJitter(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullMetricsFactory() {
+        new JvmMetricsScheduler.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCollectorNullName() {
+        new JvmMetricsScheduler.Builder().addCollector(null, _collector, Duration.ofSeconds(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCollectorNullCollector() {
+        new JvmMetricsScheduler.Builder().addCollector("collector", null, Duration.ofSeconds(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCollectorNullInterval() {
+        new JvmMetricsScheduler.Builder().addCollector("collector", _collector, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCollectorZeroInterval() {
+        new JvmMetricsScheduler.Builder().addCollector("collector", _collector, Duration.ZERO);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddCollectorNegativeInterval() {
+        new JvmMetricsScheduler.Builder().addCollector("collector", _collector, Duration.ofSeconds(-1));
+    }
+
+    @Mock
+    private MetricsFactory _metricsFactory;
+    @Mock
+    private Metrics _metrics;
+    @Mock
+    private ManagementFactory _managementFactory;
+    @Mock
+    private JvmMetricsCollector _collector;
+    private AutoCloseable _mocks;
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link JvmSnapshotPublisher} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class JvmSnapshotPublisherTest {
+
+    @Test
+    public void testSlowSubscriberReceivesLatest() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+        final JvmSnapshot first = new JvmSnapshot();
+        final JvmSnapshot second = new JvmSnapshot();
+        final JvmSnapshot third = new JvmSnapshot();
+        publisher.publish(first);
+        publisher.publish(second);
+        publisher.publish(third);
+        Assert.assertEquals(Collections.singletonList(first), subscriber._items);
+
+        subscriber._subscription.request(1);
+        Assert.assertEquals(Arrays.asList(first, third), subscriber._items);
+        subscriber._subscription.request(1);
+        Assert.assertEquals(2, subscriber._items.size());
+    }
+
+    @Test
+    public void testStaleSnapshotDropped() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0) {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                _subscription = subscription;
+            }
+        };
+        publisher.subscribe(subscriber);
+        final JvmSnapshot reused = new JvmSnapshot();
+        publisher.publish(reused);
+        // The recorder reuses the buffers before the snapshot is requested
+        reused.beginUpdate();
+        reused.endUpdate();
+        subscriber._subscription.request(1);
+        Assert.assertTrue(subscriber._items.isEmpty());
+
+        final JvmSnapshot latest = new JvmSnapshot();
+        publisher.publish(latest);
+        Assert.assertEquals(Collections.singletonList(latest), subscriber._items);
+    }
+
+    @Test
+    public void testNewSubscriberReceivesLatest() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final JvmSnapshot snapshot = new JvmSnapshot();
+        publisher.publish(snapshot);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+        Assert.assertEquals(Collections.singletonList(snapshot), subscriber._items);
+    }
+
+    @Test
+    public void testRequestFromOnSubscribe() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final JvmSnapshot snapshot = new JvmSnapshot();
+        publisher.publish(snapshot);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1) {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                _subscribing = true;
+                super.onSubscribe(subscription);
+                _subscribing = false;
+            }
+
+            @Override
+            public void onNext(final JvmSnapshot item) {
+                // Nothing is signalled before onSubscribe returns
+                Assert.assertFalse(_subscribing);
+                super.onNext(item);
+            }
+
+            private boolean _subscribing;
+        };
+        publisher.subscribe(subscriber);
+        Assert.assertEquals(Collections.singletonList(snapshot), subscriber._items);
+    }
+
+    @Test
+    public void testRequestFromOnNext() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1) {
+            @Override
+            public void onNext(final JvmSnapshot item) {
+                super.onNext(item);
+                _subscription.request(1);
+            }
+        };
+        publisher.subscribe(subscriber);
+        publisher.publish(new JvmSnapshot());
+        publisher.publish(new JvmSnapshot());
+        Assert.assertEquals(2, subscriber._items.size());
+    }
+
+    @Test
+    public void testUnboundedDemand() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        subscriber._subscription.request(Long.MAX_VALUE);
+        for (int i = 0; i < 3; ++i) {
+            publisher.publish(new JvmSnapshot());
+        }
+        Assert.assertEquals(3, subscriber._items.size());
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+        Assert.assertEquals(IllegalArgumentException.class, subscriber._error.getClass());
+        publisher.publish(new JvmSnapshot());
+        subscriber._subscription.request(1);
+        Assert.assertTrue(subscriber._items.isEmpty());
+    }
+
+    @Test
+    public void testCancel() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+        final RecordingSubscriber cancelled = new RecordingSubscriber(1);
+        publisher.subscribe(cancelled);
+        cancelled._subscription.cancel();
+        publisher.publish(new JvmSnapshot());
+        cancelled._subscription.request(1);
+        Assert.assertTrue(cancelled._items.isEmpty());
+        Assert.assertEquals(1, subscriber._items.size());
+    }
+
+    @Test
+    public void testFailingSubscriberCancelled() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(final JvmSnapshot item) {
+                super.onNext(item);
+                throw new IllegalStateException("Test exception");
+            }
+        };
+        publisher.subscribe(subscriber);
+        publisher.publish(new JvmSnapshot());
+        publisher.publish(new JvmSnapshot());
+        Assert.assertEquals(1, subscriber._items.size());
+    }
+
+    @Test
+    public void testClose() {
+        final JvmSnapshotPublisher publisher = createPublisher();
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0) {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                _subscription = subscription;
+            }
+        };
+        publisher.subscribe(subscriber);
+        publisher.close();
+        Assert.assertTrue(subscriber._completed);
+
+        final RecordingSubscriber late = new RecordingSubscriber(1);
+        publisher.subscribe(late);
+        Assert.assertTrue(late._completed);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSubscribeNull() {
+        createPublisher().subscribe(null);
+    }
+
+    @Test
+    public void testDefaultExecutor() throws InterruptedException {
+        final JvmSnapshotPublisher publisher = new JvmSnapshotPublisher.Builder().setExecutor(null).build();
+        final CountDownLatch received = new CountDownLatch(1);
+        publisher.subscribe(new RecordingSubscriber(1) {
+            @Override
+            public void onNext(final JvmSnapshot item) {
+                received.countDown();
+            }
+        });
+        publisher.publish(new JvmSnapshot());
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+    }
+
+    private static JvmSnapshotPublisher createPublisher() {
+        return new JvmSnapshotPublisher.Builder().setExecutor(Runnable::run).build();
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<JvmSnapshot> {
+
+        RecordingSubscriber(final long initialRequest) {
+            _initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            _subscription = subscription;
+            subscription.request(_initialRequest);
+        }
+
+        @Override
+        public void onNext(final JvmSnapshot item) {
+            _items.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            _error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            _completed = true;
+        }
+
+        private final long _initialRequest;
+        protected Flow.Subscription _subscription;
+        private final List<JvmSnapshot> _items = new ArrayList<>();
+        private Throwable _error;
+        private boolean _completed;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link JvmSnapshotRecorder} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmSnapshotRecorderTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _recorder = new JvmSnapshotRecorder();
+    }
+
+    @Test
+    public void testRecord() {
+        _recorder.begin(_metrics);
+        _recorder.setGauge("long", 1L);
+        _recorder.setGauge("double", 2.5);
+        _recorder.setTimer("timer", 3, TimeUnit.MILLISECONDS);
+        _recorder.incrementCounter("counter");
+        _recorder.incrementCounter("counter", 5);
+        _recorder.decrementCounter("counter");
+        _recorder.decrementCounter("counter", 2);
+        _recorder.incrementCounter("reset", 7);
+        _recorder.resetCounter("reset");
+        final JvmSnapshot snapshot = _recorder.publish();
+
+        Assert.assertSame(snapshot, _recorder.getLatest());
+        Assert.assertEquals(5, snapshot.size());
+        Assert.assertEquals(1L, snapshot.getLong(snapshot.indexOf("long")));
+        Assert.assertEquals(2.5, snapshot.getDouble(snapshot.indexOf("double")), 0.0);
+        Assert.assertEquals(3L, snapshot.getLong(snapshot.indexOf("timer")));
+        Assert.assertEquals(TimeUnit.MILLISECONDS, snapshot.getUnit(snapshot.indexOf("timer")));
+        Assert.assertEquals(3L, snapshot.getLong(snapshot.indexOf("counter")));
+        Assert.assertEquals(0L, snapshot.getLong(snapshot.indexOf("reset")));
+        Assert.assertEquals(JvmSnapshot.Kind.COUNTER, snapshot.getKind(snapshot.indexOf("reset")));
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testStableIndicesAndDoubleBuffering() {
+        _recorder.begin(_metrics);
+        _recorder.setGauge("first", 1L);
+        _recorder.setGauge("second", 2L);
+        final JvmSnapshot first = _recorder.publish();
+
+        _recorder.begin(_metrics);
+        _recorder.setGauge("second", 3L);
+        final JvmSnapshot second = _recorder.publish();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, second.indexOf("second"));
+        Assert.assertFalse(second.isPresent(second.indexOf("first")));
+        Assert.assertEquals(3L, second.getLong(1));
+        Assert.assertEquals(2L, first.getLong(1));
+    }
+
+    @Test
+    public void testVersion() {
+        _recorder.begin(_metrics);
+        _recorder.setGauge("gauge", 1L);
+        final JvmSnapshot first = _recorder.publish();
+        final long version = first.getVersion();
+        final JvmSnapshot copy = first.copy();
+        Assert.assertTrue(first.validate(version));
+
+        // Unchanged while the next snapshot is filled and published
+        _recorder.begin(_metrics);
+        _recorder.setGauge("gauge", 2L);
+        _recorder.publish();
+        Assert.assertTrue(first.validate(version));
+        Assert.assertEquals(1L, first.getLong(0));
+
+        // Reused once the collection after that begins
+        _recorder.begin(_metrics);
+        Assert.assertFalse(first.validate(version));
+        Assert.assertFalse(first.validate(first.getVersion()));
+        _recorder.setGauge("gauge", 3L);
+        Assert.assertSame(first, _recorder.publish());
+        Assert.assertFalse(first.validate(version));
+        Assert.assertTrue(first.validate(first.getVersion()));
+
+        // Copies are never reused
+        Assert.assertTrue(copy.validate(copy.getVersion()));
+        Assert.assertEquals(1L, copy.getLong(0));
+    }
+
+    @Test
+    public void testManyMetrics() {
+        _recorder.begin(_metrics);
+        for (int i = 0; i < 200; ++i) {
+            _recorder.setGauge("gauge_" + i, i);
+        }
+        final JvmSnapshot snapshot = _recorder.publish();
+        Assert.assertEquals(200, snapshot.size());
+        Assert.assertEquals(199L, snapshot.getLong(snapshot.indexOf("gauge_199")));
+    }
+
+    @Test
+    public void testPassThrough() {
+        _recorder.begin(_metrics);
+        _recorder.createCounter("counter");
+        _recorder.createTimer("timer");
+        _recorder.startTimer("timer");
+        _recorder.stopTimer("timer");
+        _recorder.addAnnotation("key", "value");
+        _recorder.addAnnotations(Collections.singletonMap("key", "value"));
+        _recorder.isOpen();
+        _recorder.getOpenTime();
+        _recorder.getCloseTime();
+        _recorder.close();
+        Mockito.verify(_metrics).createCounter("counter");
+        Mockito.verify(_metrics).createTimer("timer");
+        Mockito.verify(_metrics).startTimer("timer");
+        Mockito.verify(_metrics).stopTimer("timer");
+        Mockito.verify(_metrics).addAnnotation("key", "value");
+        Mockito.verify(_metrics).addAnnotations(Collections.singletonMap("key", "value"));
+        Mockito.verify(_metrics).isOpen();
+        Mockito.verify(_metrics).getOpenTime();
+        Mockito.verify(_metrics).getCloseTime();
+        Mockito.verify(_metrics).close();
+    }
+
+    @Test
+    public void testLatestBeforePublish() {
+        Assert.assertEquals(0, _recorder.getLatest().size());
+    }
+
+    private Metrics _metrics;
+    private JvmSnapshotRecorder _recorder;
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link JvmSnapshot} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class JvmSnapshotTest {
+
+    @Before
+    public void setUp() {
+        final JvmSnapshotRecorder recorder = new JvmSnapshotRecorder();
+        recorder.begin(Mockito.mock(Metrics.class));
+        recorder.setGauge("long", 1L);
+        recorder.setGauge("double", 2.5);
+        recorder.incrementCounter("counter", 3);
+        recorder.setTimer("timer", 4, TimeUnit.SECONDS);
+        recorder.publish();
+        // Register an absent metric in the next snapshot
+        recorder.begin(Mockito.mock(Metrics.class));
+        recorder.setGauge("long", 1L);
+        recorder.setGauge("double", 2.5);
+        recorder.incrementCounter("counter", 3);
+        recorder.setTimer("timer", 4, TimeUnit.SECONDS);
+        recorder.setGauge("absent", 5L);
+        recorder.publish();
+        recorder.begin(Mockito.mock(Metrics.class));
+        recorder.setGauge("long", 1L);
+        recorder.setGauge("double", 2.5);
+        recorder.incrementCounter("counter", 3);
+        recorder.setTimer("timer", 4, TimeUnit.SECONDS);
+        _snapshot = recorder.publish();
+    }
+
+    @Test
+    public void testAccessors() {
+        Assert.assertEquals(5, _snapshot.size());
+        Assert.assertTrue(_snapshot.getTimestamp() > 0);
+        Assert.assertEquals(-1, _snapshot.indexOf("unknown"));
+        Assert.assertEquals("double", _snapshot.getName(1));
+        Assert.assertEquals(JvmSnapshot.Kind.LONG_GAUGE, _snapshot.getKind(0));
+        Assert.assertEquals(JvmSnapshot.Kind.DOUBLE_GAUGE, _snapshot.getKind(1));
+        Assert.assertEquals(JvmSnapshot.Kind.COUNTER, _snapshot.getKind(2));
+        Assert.assertEquals(JvmSnapshot.Kind.TIMER, _snapshot.getKind(3));
+        Assert.assertNull(_snapshot.getKind(4));
+        Assert.assertTrue(_snapshot.isPresent(0));
+        Assert.assertFalse(_snapshot.isPresent(4));
+        Assert.assertEquals(1.0, _snapshot.getDouble(0), 0.0);
+        Assert.assertEquals(2L, _snapshot.getLong(1));
+        Assert.assertEquals(2.5, _snapshot.getDouble(1), 0.0);
+        Assert.assertNull(_snapshot.getUnit(0));
+        Assert.assertEquals(TimeUnit.SECONDS, _snapshot.getUnit(3));
+    }
+
+    @Test
+    public void testEmit() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        _snapshot.emit(metrics);
+        Mockito.verify(metrics).setGauge("long", 1L);
+        Mockito.verify(metrics).setGauge("double", 2.5);
+        Mockito.verify(metrics).incrementCounter("counter", 3L);
+        Mockito.verify(metrics).setTimer("timer", 4L, TimeUnit.SECONDS);
+        Mockito.verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    public void testCopy() {
+        final JvmSnapshot copy = _snapshot.copy();
+        Assert.assertNotSame(_snapshot, copy);
+        Assert.assertEquals(_snapshot.size(), copy.size());
+        Assert.assertEquals(_snapshot.getTimestamp(), copy.getTimestamp());
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        copy.emit(metrics);
+        Mockito.verify(metrics).setGauge("long", 1L);
+        Mockito.verify(metrics).setTimer("timer", 4L, TimeUnit.SECONDS);
+        Assert.assertFalse(copy.isPresent(4));
+    }
+
+    @Test
+    public void testCopyClampsToShortNames() {
+        // A racing reader may see names from an earlier update than the size
+        final JvmSnapshot snapshot = new JvmSnapshot();
+        snapshot.extend(new String[]{"long"}, 3);
+        snapshot.setLong(0, JvmSnapshot.Kind.LONG_GAUGE, 1L, null);
+        final JvmSnapshot copy = snapshot.copy();
+        Assert.assertEquals(1, copy.size());
+        Assert.assertEquals(-1, snapshot.indexOf("unknown"));
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        snapshot.emit(metrics);
+        Mockito.verify(metrics).setGauge("long", 1L);
+        Mockito.verifyNoMoreInteractions(metrics);
+    }
+
+    private JvmSnapshot _snapshot;
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link LagTrackingScheduledThreadPoolExecutor} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class LagTrackingScheduledThreadPoolExecutorTest {
+
+    @Test
+    public void testMeasuresLateness() throws Exception {
+        final LagTrackingScheduledThreadPoolExecutor executor = new LagTrackingScheduledThreadPoolExecutor(1);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                sleep(100);
+            });
+            started.await();
+            final ScheduledFuture<String> late = executor.schedule(() -> "late", 0, TimeUnit.MILLISECONDS);
+            Assert.assertEquals("late", late.get(10, TimeUnit.SECONDS));
+            Assert.assertTrue(late.isDone());
+            Assert.assertFalse(late.isCancelled());
+
+            final LatencyHistogram.Snapshot snapshot = executor.drainSchedulingLag();
+            Assert.assertEquals(2, snapshot.getCount());
+            Assert.assertTrue(snapshot.getMax() >= TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPeriodicTaskMeasuredEachExecution() throws Exception {
+        final LagTrackingScheduledThreadPoolExecutor executor = new LagTrackingScheduledThreadPoolExecutor(
+                1,
+                Executors.defaultThreadFactory());
+        try {
+            final CountDownLatch executions = new CountDownLatch(3);
+            final ScheduledFuture<?> periodic = executor.scheduleAtFixedRate(
+                    executions::countDown,
+                    0,
+                    1,
+                    TimeUnit.MILLISECONDS);
+            Assert.assertTrue(((RunnableScheduledFuture<?>) periodic).isPeriodic());
+            executions.await();
+            Assert.assertTrue(periodic.cancel(false));
+            Assert.assertTrue(periodic.isCancelled());
+            Assert.assertTrue(executor.drainSchedulingLag().getCount() >= 3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTaskOrdering() throws Exception {
+        final LagTrackingScheduledThreadPoolExecutor executor = new LagTrackingScheduledThreadPoolExecutor(
+                1,
+                Executors.defaultThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        try {
+            final ScheduledFuture<?> first = executor.schedule(() -> { }, 1, TimeUnit.HOURS);
+            final ScheduledFuture<?> second = executor.schedule(() -> { }, 2, TimeUnit.HOURS);
+            Assert.assertTrue(first.compareTo(second) < 0);
+            Assert.assertTrue(second.compareTo(first) > 0);
+            Assert.assertTrue(first.getDelay(TimeUnit.MINUTES) <= 60);
+
+            final Delayed other = Mockito.mock(Delayed.class);
+            Mockito.doReturn(TimeUnit.HOURS.toNanos(3)).when(other).getDelay(TimeUnit.NANOSECONDS);
+            Assert.assertTrue(first.compareTo(other) < 0);
+            Assert.assertEquals(0, first.compareTo(first));
+            Assert.assertEquals(first, first);
+            Assert.assertNotEquals(first, second);
+            Assert.assertEquals(System.identityHashCode(first), first.hashCode());
+
+            first.cancel(true);
+            second.cancel(true);
+            Assert.assertNull(executor.schedule(() -> null, 0, TimeUnit.MILLISECONDS).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRemoveOnCancel() throws Exception {
+        final LagTrackingScheduledThreadPoolExecutor executor = new LagTrackingScheduledThreadPoolExecutor(1);
+        try {
+            executor.setRemoveOnCancelPolicy(true);
+            final ScheduledFuture<?> future = executor.schedule(() -> { }, 1, TimeUnit.HOURS);
+            Assert.assertEquals(1, executor.getQueue().size());
+            Assert.assertTrue(future.cancel(false));
+            Assert.assertEquals(0, executor.getQueue().size());
+            Assert.assertFalse(future.cancel(false));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
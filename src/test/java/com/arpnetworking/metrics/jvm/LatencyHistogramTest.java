@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link LatencyHistogram} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().drain();
+        Assert.assertEquals(0, snapshot.getCount());
+        Assert.assertEquals(0, snapshot.getMedian());
+        Assert.assertEquals(0, snapshot.getP99());
+        Assert.assertEquals(0, snapshot.getMax());
+    }
+
+    @Test
+    public void testRecordAndDrain() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+        final LatencyHistogram.Snapshot snapshot = histogram.drain();
+        Assert.assertEquals(101, snapshot.getCount());
+        Assert.assertEquals(100000, snapshot.getMax());
+        assertWithinError(50000, snapshot.getMedian());
+        assertWithinError(99000, snapshot.getP99());
+
+        final LatencyHistogram.Snapshot drained = histogram.drain();
+        Assert.assertEquals(0, drained.getCount());
+        Assert.assertEquals(0, drained.getMax());
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 16; ++value) {
+            Assert.assertEquals(value, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value)));
+        }
+        for (long value = 16; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            final long upper = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+            Assert.assertTrue(upper >= value);
+            Assert.assertTrue(upper <= value + value / 8);
+        }
+        Assert.assertEquals(
+                Long.MAX_VALUE,
+                LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    private static void assertWithinError(final long expected, final long actual) {
+        Assert.assertTrue("Expected " + expected + " but was " + actual, actual >= expected);
+        Assert.assertTrue("Expected " + expected + " but was " + actual, actual <= expected + expected / 8);
+    }
+}
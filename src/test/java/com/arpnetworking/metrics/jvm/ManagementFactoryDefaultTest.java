@@ -18,13 +18,17 @@ package com.arpnetworking.metrics.jvm;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.ThreadMXBean;
 import java.util.List;
+import java.util.Optional;
+import javax.management.MBeanServerConnection;
 
 /**
  * Tests {@link ManagementFactoryDefault} class.
@@ -80,5 +84,26 @@ public class ManagementFactoryDefaultTest {
         Assert.assertNotNull(bean);
     }
 
-    private static final ManagementFactory MANAGEMENT_FACTORY = JvmMetricsRunnable.ManagementFactoryDefault.newInstance();
+    @Test
+    public void testGetClassLoadingMXBean() {
+        final ClassLoadingMXBean bean = MANAGEMENT_FACTORY.getClassLoadingMXBean();
+        Assert.assertNotNull(bean);
+        Assert.assertTrue(bean.getTotalLoadedClassCount() > 0);
+    }
+
+    @Test
+    public void testGetMBeanServerConnection() throws IOException {
+        final MBeanServerConnection connection = MANAGEMENT_FACTORY.getMBeanServerConnection();
+        Assert.assertNotNull(connection);
+        Assert.assertTrue(connection.getMBeanCount() > 0);
+    }
+
+    @Test
+    public void testGetHsperfdata() {
+        final Optional<Hsperfdata> hsperfdata = MANAGEMENT_FACTORY.getHsperfdata();
+        Assert.assertTrue(hsperfdata.isPresent());
+        Assert.assertSame(hsperfdata.get(), MANAGEMENT_FACTORY.getHsperfdata().get());
+    }
+
+    private static final ManagementFactory MANAGEMENT_FACTORY = ManagementFactoryDefault.newInstance();
 }
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.sun.management.GcInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.ObjectName;
+
+/**
+ * Tests the {@link ManagementTrace} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class ManagementTraceTest {
+
+    @Test
+    public void testKey() throws NoSuchMethodException {
+        final Method getAttributes = javax.management.MBeanServerConnection.class.getMethod(
+                "getAttributes",
+                ObjectName.class,
+                String[].class);
+        Assert.assertEquals(
+                "connection.getAttributes(null, [a, b])",
+                ManagementTrace.key("connection", getAttributes, new Object[] {null, new String[] {"a", "b"}}));
+        final Method getThreadAllocatedBytes = com.sun.management.ThreadMXBean.class.getMethod(
+                "getThreadAllocatedBytes",
+                long[].class);
+        Assert.assertEquals(
+                "thread.getThreadAllocatedBytes(long[])",
+                ManagementTrace.key("thread", getThreadAllocatedBytes, new Object[] {new long[] {1, 2}}));
+        final Method getThreadCpuTime = ThreadMXBean.class.getMethod("getThreadCpuTime", long.class);
+        Assert.assertEquals("thread.getThreadCpuTime(7)", ManagementTrace.key("thread", getThreadCpuTime, new Object[] {7L}));
+        final Method getThreadCount = ThreadMXBean.class.getMethod("getThreadCount");
+        Assert.assertEquals("thread.getThreadCount()", ManagementTrace.key("thread", getThreadCount, null));
+        final Method isThreadCpuTimeSupported = ThreadMXBean.class.getMethod("isThreadCpuTimeSupported");
+        Assert.assertEquals("thread.isThreadCpuTimeSupported()", ManagementTrace.key("thread", isThreadCpuTimeSupported, new Object[0]));
+        final Method getThreadInfo = ThreadMXBean.class.getMethod("getThreadInfo", long[].class, int.class);
+        Assert.assertEquals(
+                "thread.getThreadInfo(long[], 3)",
+                ManagementTrace.key("thread", getThreadInfo, new Object[] {new long[0], 3}));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final AttributeList attributes = new AttributeList();
+        attributes.add(new Attribute("ParallelismLevel", 8));
+        attributes.add(new Attribute("QueuedVirtualThreadCount", 12L));
+        final Object[] values = {
+            null,
+            Boolean.TRUE,
+            Boolean.FALSE,
+            -3,
+            Integer.MAX_VALUE,
+            Long.MIN_VALUE,
+            Long.MAX_VALUE,
+            -1L,
+            0.25,
+            "value",
+            new String[] {"a", null},
+            new long[] {-1, 0, Long.MAX_VALUE},
+            new MemoryUsage(-1, 10, 20, -1),
+            MemoryType.HEAP,
+            ObjectName.getInstance("jdk.management:type=VirtualThreadScheduler"),
+            attributes,
+        };
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ManagementTrace.Writer writer = new ManagementTrace.Writer(bytes)) {
+            writer.bean("bean", List.of(ThreadMXBean.class, com.sun.management.ThreadMXBean.class));
+            for (final Object value : values) {
+                writer.call("bean.get()", value);
+            }
+            writer.fail("bean.fail()", new InstanceNotFoundException("missing"));
+            writer.fail("bean.fail()", new IllegalStateException());
+            writer.call("bean.other()", Thread.currentThread());
+            writer.flush();
+        }
+
+        final ManagementTrace.Trace trace = read(bytes.toByteArray());
+        Assert.assertEquals(
+                Map.of("bean", List.of(ThreadMXBean.class.getName(), com.sun.management.ThreadMXBean.class.getName())),
+                trace.getBeans());
+        final List<Object> read = trace.getCalls().get("bean.get()");
+        Assert.assertEquals(values.length, read.size());
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] instanceof String[]) {
+                Assert.assertArrayEquals((String[]) values[i], (String[]) read.get(i));
+            } else if (values[i] instanceof long[]) {
+                Assert.assertArrayEquals((long[]) values[i], (long[]) read.get(i));
+            } else if (values[i] instanceof MemoryUsage) {
+                Assert.assertEquals(values[i].toString(), read.get(i).toString());
+            } else if (values[i] instanceof AttributeList) {
+                Assert.assertEquals(((AttributeList) values[i]).asList(), ((AttributeList) read.get(i)).asList());
+            } else {
+                Assert.assertEquals(values[i], read.get(i));
+            }
+        }
+
+        final List<Object> failures = trace.getCalls().get("bean.fail()");
+        final Throwable notFound = ((ManagementTrace.Failure) failures.get(0)).toThrowable();
+        Assert.assertEquals(InstanceNotFoundException.class, notFound.getClass());
+        Assert.assertEquals("missing", notFound.getMessage());
+        final Throwable illegalState = ((ManagementTrace.Failure) failures.get(1)).toThrowable();
+        Assert.assertEquals(IllegalStateException.class, illegalState.getClass());
+        Assert.assertNull(illegalState.getMessage());
+        Assert.assertEquals(
+                Thread.class.getName(),
+                ((ManagementTrace.Unsupported) trace.getCalls().get("bean.other()").get(0)).getType());
+    }
+
+    @Test
+    public void testGcInfo() throws IOException {
+        System.gc();
+        final Optional<GcInfo> gcInfo = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .map(bean -> ((com.sun.management.GarbageCollectorMXBean) bean).getLastGcInfo())
+                .filter(info -> info != null)
+                .findFirst();
+        Assert.assertTrue(gcInfo.isPresent());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ManagementTrace.Writer writer = new ManagementTrace.Writer(bytes)) {
+            writer.call("gc.getLastGcInfo()", gcInfo.get());
+        }
+        final GcInfo read = (GcInfo) read(bytes.toByteArray()).getCalls().get("gc.getLastGcInfo()").get(0);
+        Assert.assertEquals(gcInfo.get().getId(), read.getId());
+        Assert.assertEquals(gcInfo.get().getDuration(), read.getDuration());
+        Assert.assertEquals(gcInfo.get().getMemoryUsageBeforeGc().keySet(), read.getMemoryUsageBeforeGc().keySet());
+        Assert.assertEquals(
+                gcInfo.get().getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum(),
+                read.getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum());
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ManagementTrace.Writer writer = new ManagementTrace.Writer(bytes)) {
+            writer.call("gc:G1 Young Generation.getCollectionCount()", 0L);
+            writer.flush();
+            final int header = bytes.size();
+            for (long count = 1; count <= 1000; ++count) {
+                writer.call("gc:G1 Young Generation.getCollectionCount()", count);
+            }
+            writer.flush();
+            // Record, call number, type and a one byte difference
+            Assert.assertEquals(4000, bytes.size() - header);
+        }
+    }
+
+    @Test
+    public void testManyCalls() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ManagementTrace.Writer writer = new ManagementTrace.Writer(bytes)) {
+            for (int i = 0; i < 1000; ++i) {
+                writer.call("pool:" + i + ".getUsage()", (long) i);
+                writer.call("pool:" + i + ".getUsage()", (long) i * 2);
+            }
+        }
+        final ManagementTrace.Trace trace = read(bytes.toByteArray());
+        Assert.assertEquals(1000, trace.getCalls().size());
+        Assert.assertEquals(List.of(999L, 1998L), trace.getCalls().get("pool:999.getUsage()"));
+    }
+
+    @Test
+    public void testFailureWithoutMessageConstructor() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ManagementTrace.Writer writer = new ManagementTrace.Writer(bytes)) {
+            writer.fail("bean.fail()", new NoMessageException());
+        }
+        final Object failure = read(bytes.toByteArray()).getCalls().get("bean.fail()").get(0);
+        Assert.assertEquals(IllegalStateException.class, ((ManagementTrace.Failure) failure).toThrowable().getClass());
+    }
+
+    @Test
+    public void testFailureNotAnException() throws IOException {
+        final Object failure = read(call(out -> {
+            out.writeByte(14);
+            out.writeUTF(String.class.getName());
+            out.writeBoolean(false);
+        })).getCalls().get("bean.get()").get(0);
+        Assert.assertEquals(IllegalStateException.class, ((ManagementTrace.Failure) failure).toThrowable().getClass());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotATrace() throws IOException {
+        ManagementTrace.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedVersion() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x4A564D54);
+        out.writeByte(2);
+        read(bytes.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownRecord() throws IOException {
+        read(trace(out -> out.writeByte(9)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUndefinedCall() throws IOException {
+        read(trace(out -> {
+            out.writeByte(3);
+            out.writeByte(0);
+            out.writeByte(0);
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownValue() throws IOException {
+        read(call(out -> out.writeByte(99)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        read(call(out -> out.writeByte(4)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedVarLong() throws IOException {
+        read(call(out -> {
+            out.writeByte(4);
+            for (int i = 0; i < 10; ++i) {
+                out.writeByte(0xFF);
+            }
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidLength() throws IOException {
+        read(call(out -> {
+            out.writeByte(7);
+            out.write(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08});
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownEnumType() throws IOException {
+        read(call(out -> {
+            out.writeByte(10);
+            out.writeUTF("com.example.DoesNotExist");
+            out.writeUTF("HEAP");
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnEnum() throws IOException {
+        read(call(out -> {
+            out.writeByte(10);
+            out.writeUTF(String.class.getName());
+            out.writeUTF("HEAP");
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownEnumConstant() throws IOException {
+        read(call(out -> {
+            out.writeByte(10);
+            out.writeUTF(MemoryType.class.getName());
+            out.writeUTF("STACK");
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidObjectName() throws IOException {
+        read(call(out -> {
+            out.writeByte(11);
+            out.writeUTF("not an object name");
+        }));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidGcInfo() throws IOException {
+        read(call(out -> writeSerialized(out, "not composite data")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectedGcInfo() throws IOException {
+        read(call(out -> writeSerialized(out, URI.create("http://localhost"))));
+    }
+
+    private static ManagementTrace.Trace read(final byte[] bytes) throws IOException {
+        return ManagementTrace.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void writeSerialized(final DataOutputStream out, final Object value) throws IOException {
+        final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+            objects.writeObject(value);
+        }
+        out.writeByte(13);
+        out.writeByte(serialized.size() & 0x7F | 0x80);
+        out.writeByte(serialized.size() >>> 7);
+        serialized.writeTo(out);
+    }
+
+    private static byte[] call(final Records value) throws IOException {
+        return trace(out -> {
+            out.writeByte(2);
+            out.writeUTF("bean.get()");
+            out.writeByte(3);
+            out.writeByte(0);
+            value.write(out);
+        });
+    }
+
+    private static byte[] trace(final Records records) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x4A564D54);
+        out.writeByte(1);
+        records.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface Records {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class NoMessageException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link MemoryPressureMonitor} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class MemoryPressureMonitorTest {
+
+    @Before
+    public void setUp() {
+        _mocks = MockitoAnnotations.openMocks(this);
+        Mockito.doReturn(MemoryType.HEAP).when(_oldPool).getType();
+        Mockito.doReturn(new MemoryUsage(0, 50, 100, 100)).when(_oldPool).getCollectionUsage();
+        Mockito.doReturn(MemoryType.HEAP).when(_edenPool).getType();
+        Mockito.doReturn(new MemoryUsage(0, 0, 100, -1)).when(_edenPool).getCollectionUsage();
+        Mockito.doReturn(MemoryType.HEAP).when(_uncollectedPool).getType();
+        Mockito.doReturn(MemoryType.NON_HEAP).when(_metaspacePool).getType();
+        Mockito.doReturn(Arrays.asList(_oldPool, _edenPool, _uncollectedPool, _metaspacePool))
+                .when(_managementFactory).getMemoryPoolMXBeans();
+        Mockito.doReturn("G1 Young Generation").when(_gcBean).getName();
+        Mockito.doReturn(Collections.singletonList(_gcBean)).when(_managementFactory).getGarbageCollectorMXBeans();
+        Mockito.doReturn(_threadBean).when(_managementFactory).getThreadMXBean();
+        Mockito.doReturn(new long[0]).when(_threadBean).getAllThreadIds();
+        Mockito.doReturn(new long[0]).when(_threadBean).getThreadAllocatedBytes(Mockito.any(long[].class));
+        _start = System.nanoTime() + SECOND;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _mocks.close();
+    }
+
+    @Test
+    public void testUpdate() {
+        // Before JDK 21 the allocated bytes of the live threads are summed
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setTotalAllocatedBytes(Optional.empty())
+                .setLiveThreadSampleInterval(Duration.ZERO)
+                .build();
+        final MemoryPressureMonitor.Listener listener = Mockito.mock(MemoryPressureMonitor.Listener.class);
+        monitor.registerListener(listener);
+        Mockito.doReturn(1000L, 1300L, 1350L).when(_gcBean).getCollectionTime();
+        Mockito.doReturn(new long[]{1, 2}).when(_threadBean).getAllThreadIds();
+        Mockito.doReturn(new long[]{0, -1}, new long[]{400, 600}, new long[]{2000, 500})
+                .when(_threadBean).getThreadAllocatedBytes(Mockito.any(long[].class));
+
+        monitor.update(_metrics, _managementFactory, _start);
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/live_set_ratio", 0.5);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/gc_overhead", 0.0);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/allocation_rate", 0.0);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/level", 0L);
+
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.getLevel());
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/gc_overhead", 0.3);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/allocation_rate", 1000.0);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/level", 2L);
+        Mockito.verify(listener).onTransition(MemoryPressureMonitor.Level.NORMAL, MemoryPressureMonitor.Level.CRITICAL);
+
+        monitor.update(_metrics, _managementFactory, _start + 2 * SECOND);
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+        Mockito.verify(listener).onTransition(MemoryPressureMonitor.Level.CRITICAL, MemoryPressureMonitor.Level.NORMAL);
+    }
+
+    @Test
+    public void testTotalAllocatedBytes() throws ReflectiveOperationException {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder().build();
+        // The live threads allocated less than before because one exited
+        Mockito.doReturn(new long[]{1, 2}).when(_threadBean).getAllThreadIds();
+        Mockito.doReturn(new long[]{400, 600}, new long[]{500, 0})
+                .when(_threadBean).getThreadAllocatedBytes(Mockito.any(long[].class));
+        TOTAL_ALLOCATED_BYTES.invoke(Mockito.doReturn(1000L, 3000L).when(_threadBean));
+
+        monitor.update(_metrics, _managementFactory, _start);
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/allocation_rate", 2000.0);
+    }
+
+    @Test
+    public void testTotalAllocatedBytesUnsupported() throws ReflectiveOperationException {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setLiveThreadSampleInterval(Duration.ZERO)
+                .build();
+        Mockito.doReturn(new long[]{1}).when(_threadBean).getAllThreadIds();
+        Mockito.doReturn(new long[]{400}, new long[]{900})
+                .when(_threadBean).getThreadAllocatedBytes(Mockito.any(long[].class));
+        TOTAL_ALLOCATED_BYTES.invoke(Mockito.doThrow(new UnsupportedOperationException()).when(_threadBean));
+
+        monitor.update(_metrics, _managementFactory, _start);
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/allocation_rate", 500.0);
+        // The total is not attempted again once it is unsupported
+        TOTAL_ALLOCATED_BYTES.invoke(Mockito.verify(_threadBean));
+    }
+
+    @Test
+    public void testLiveThreadsSampledAtInterval() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setTotalAllocatedBytes(Optional.empty())
+                .setLiveThreadSampleInterval(Duration.ofSeconds(2))
+                .build();
+        Mockito.doReturn(new long[]{1}).when(_threadBean).getAllThreadIds();
+        Mockito.doReturn(new long[]{0}, new long[]{4000})
+                .when(_threadBean).getThreadAllocatedBytes(Mockito.any(long[].class));
+
+        monitor.update(_metrics, _managementFactory, _start);
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(_threadBean, Mockito.times(1)).getAllThreadIds();
+        Mockito.verify(_metrics, Mockito.times(2)).setGauge("jvm/memory_pressure/allocation_rate", 0.0);
+
+        monitor.update(_metrics, _managementFactory, _start + 2 * SECOND);
+        monitor.update(_metrics, _managementFactory, _start + 3 * SECOND);
+        Mockito.verify(_threadBean, Mockito.times(2)).getAllThreadIds();
+        Mockito.verify(_metrics, Mockito.times(2)).setGauge("jvm/memory_pressure/allocation_rate", 2000.0);
+    }
+
+    @Test
+    public void testConcurrentCollectorsExcluded() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder().build();
+        final GarbageCollectorMXBean concurrent = Mockito.mock(GarbageCollectorMXBean.class);
+        Mockito.doReturn("ZGC Cycles").when(concurrent).getName();
+        Mockito.doReturn(0L, 900L).when(concurrent).getCollectionTime();
+        Mockito.doReturn(Arrays.asList(_gcBean, concurrent)).when(_managementFactory).getGarbageCollectorMXBeans();
+        Mockito.doReturn(0L, 50L).when(_gcBean).getCollectionTime();
+
+        monitor.update(_metrics, _managementFactory, _start);
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(_metrics).setGauge("jvm/memory_pressure/gc_overhead", 0.05);
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+    }
+
+    @Test
+    public void testUpdateWithoutAllocatedBytes() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setElevatedAllocationRate(0.0)
+                .setCriticalAllocationRate(0.0)
+                .build();
+        Mockito.doReturn(Mockito.mock(ThreadMXBean.class)).when(_managementFactory).getThreadMXBean();
+        monitor.update(_metrics, _managementFactory, _start);
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(_metrics, Mockito.times(2)).setGauge("jvm/memory_pressure/allocation_rate", 0.0);
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.getLevel());
+    }
+
+    @Test
+    public void testListeners() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder().setElevatedLiveSetRatio(0.5).build();
+        final MemoryPressureMonitor.Listener failing = Mockito.mock(MemoryPressureMonitor.Listener.class);
+        Mockito.doThrow(new IllegalStateException("Test exception")).when(failing).onTransition(
+                Mockito.any(MemoryPressureMonitor.Level.class),
+                Mockito.any(MemoryPressureMonitor.Level.class));
+        final MemoryPressureMonitor.Listener listener = Mockito.mock(MemoryPressureMonitor.Listener.class);
+        final MemoryPressureMonitor.Listener removed = Mockito.mock(MemoryPressureMonitor.Listener.class);
+        monitor.registerListener(failing);
+        monitor.registerListener(listener);
+        monitor.registerListener(removed);
+        monitor.unregisterListener(removed);
+
+        monitor.update(_metrics, _managementFactory, _start);
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.getLevel());
+        Mockito.verify(listener).onTransition(MemoryPressureMonitor.Level.NORMAL, MemoryPressureMonitor.Level.ELEVATED);
+        Mockito.verifyNoInteractions(removed);
+
+        monitor.update(_metrics, _managementFactory, _start + SECOND);
+        Mockito.verify(listener, Mockito.times(1)).onTransition(
+                Mockito.any(MemoryPressureMonitor.Level.class),
+                Mockito.any(MemoryPressureMonitor.Level.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNullListener() {
+        new MemoryPressureMonitor.Builder().build().registerListener(null);
+    }
+
+    @Test
+    public void testEvaluateRaise() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setElevatedAllocationRate(100.0)
+                .setCriticalAllocationRate(200.0)
+                .build();
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0.7, 0.05, 50));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0.8, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0, 0.15, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0, 0, 150));
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0.95, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.ELEVATED, 0, 0.3, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.ELEVATED, 0, 0, 250));
+    }
+
+    @Test
+    public void testEvaluateHysteresis() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setElevatedAllocationRate(100.0)
+                .setCriticalAllocationRate(200.0)
+                .build();
+        // Critical is held while any signal is within 10% of its critical threshold
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.CRITICAL, 0.85, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.CRITICAL, 0, 0.24, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.CRITICAL, monitor.evaluate(MemoryPressureMonitor.Level.CRITICAL, 0, 0, 190));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.CRITICAL, 0.8, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.evaluate(MemoryPressureMonitor.Level.CRITICAL, 0.5, 0.05, 50));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.ELEVATED, 0.7, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.evaluate(MemoryPressureMonitor.Level.ELEVATED, 0.6, 0, 0));
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.ELEVATED, 0.8, 0, 0));
+    }
+
+    @Test
+    public void testBuilderNullValues() {
+        final MemoryPressureMonitor monitor = new MemoryPressureMonitor.Builder()
+                .setElevatedLiveSetRatio(null)
+                .setCriticalLiveSetRatio(null)
+                .setElevatedGcOverhead(null)
+                .setCriticalGcOverhead(null)
+                .setElevatedAllocationRate(null)
+                .setCriticalAllocationRate(null)
+                .setHysteresis(null)
+                .setLiveThreadSampleInterval(null)
+                .build();
+        Assert.assertEquals(MemoryPressureMonitor.Level.NORMAL, monitor.getLevel());
+        Assert.assertEquals(MemoryPressureMonitor.Level.ELEVATED, monitor.evaluate(MemoryPressureMonitor.Level.NORMAL, 0.75, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidLiveSetRatio() {
+        new MemoryPressureMonitor.Builder().setElevatedLiveSetRatio(0.95).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidGcOverhead() {
+        new MemoryPressureMonitor.Builder().setElevatedGcOverhead(0.5).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidAllocationRate() {
+        new MemoryPressureMonitor.Builder().setCriticalAllocationRate(1.0).setElevatedAllocationRate(2.0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeHysteresis() {
+        new MemoryPressureMonitor.Builder().setHysteresis(-0.1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeLiveThreadSampleInterval() {
+        new MemoryPressureMonitor.Builder().setLiveThreadSampleInterval(Duration.ofSeconds(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderHysteresisTooLarge() {
+        new MemoryPressureMonitor.Builder().setHysteresis(1.0).build();
+    }
+
+    @Mock
+    private ManagementFactory _managementFactory;
+    @Mock
+    private Metrics _metrics;
+    @Mock
+    private MemoryPoolMXBean _oldPool;
+    @Mock
+    private MemoryPoolMXBean _edenPool;
+    @Mock
+    private MemoryPoolMXBean _uncollectedPool;
+    @Mock
+    private MemoryPoolMXBean _metaspacePool;
+    @Mock
+    private GarbageCollectorMXBean _gcBean;
+    @Mock
+    private com.sun.management.ThreadMXBean _threadBean;
+    private AutoCloseable _mocks;
+    private long _start;
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Not in the JDK 17 API the tests are compiled against
+    private static final Method TOTAL_ALLOCATED_BYTES = ReflectionUtil.findMethod(
+            com.sun.management.ThreadMXBean.class,
+            "getTotalThreadAllocatedBytes").orElseThrow();
+}
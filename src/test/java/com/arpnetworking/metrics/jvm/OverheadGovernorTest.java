@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link OverheadGovernor} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class OverheadGovernorTest {
+
+    @Test
+    public void testEvaluateEscalates() {
+        final OverheadGovernor governor = new OverheadGovernor.Builder().build();
+        Assert.assertEquals(OverheadGovernor.Mode.NORMAL, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.5, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.8, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.MINIMAL, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.95, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.MINIMAL, governor.evaluate(OverheadGovernor.Mode.REDUCED, 1.0, 0.0));
+    }
+
+    @Test
+    public void testEvaluateHysteresis() {
+        final OverheadGovernor governor = new OverheadGovernor.Builder().build();
+        Assert.assertEquals(OverheadGovernor.Mode.MINIMAL, governor.evaluate(OverheadGovernor.Mode.MINIMAL, 0.9, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.MINIMAL, 0.84, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.NORMAL, governor.evaluate(OverheadGovernor.Mode.MINIMAL, 0.1, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.REDUCED, 0.75, 0.0));
+        Assert.assertEquals(OverheadGovernor.Mode.NORMAL, governor.evaluate(OverheadGovernor.Mode.REDUCED, 0.69, 0.0));
+    }
+
+    @Test
+    public void testEvaluateCollectionCost() {
+        final OverheadGovernor governor = new OverheadGovernor.Builder()
+                .setCollectionCostBudget(0.01)
+                .build();
+        Assert.assertEquals(OverheadGovernor.Mode.NORMAL, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.0, 0.01));
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.0, 0.02));
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.REDUCED, 0.0, 0.02));
+    }
+
+    @Test
+    public void testShouldCollect() {
+        final OverheadGovernor governor = new OverheadGovernor.Builder().setIntervalMultiplier(2).build();
+        for (final OverheadGovernor.Priority priority : OverheadGovernor.Priority.values()) {
+            Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.NORMAL, priority, 1));
+        }
+        Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.REDUCED, OverheadGovernor.Priority.ESSENTIAL, 1));
+        Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.REDUCED, OverheadGovernor.Priority.NORMAL, 1));
+        Assert.assertFalse(governor.shouldCollect(OverheadGovernor.Mode.REDUCED, OverheadGovernor.Priority.OPTIONAL, 1));
+        Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.REDUCED, OverheadGovernor.Priority.OPTIONAL, 2));
+        Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.MINIMAL, OverheadGovernor.Priority.ESSENTIAL, 1));
+        Assert.assertFalse(governor.shouldCollect(OverheadGovernor.Mode.MINIMAL, OverheadGovernor.Priority.NORMAL, 1));
+        Assert.assertTrue(governor.shouldCollect(OverheadGovernor.Mode.MINIMAL, OverheadGovernor.Priority.NORMAL, 2));
+        Assert.assertFalse(governor.shouldCollect(OverheadGovernor.Mode.MINIMAL, OverheadGovernor.Priority.OPTIONAL, 2));
+    }
+
+    @Test
+    public void testBuilderNullDefaults() {
+        final OverheadGovernor governor = new OverheadGovernor.Builder()
+                .setReducedCpuThreshold(null)
+                .setMinimalCpuThreshold(null)
+                .setHysteresis(null)
+                .setCollectionCostBudget(null)
+                .setIntervalMultiplier(null)
+                .build();
+        Assert.assertEquals(OverheadGovernor.Mode.REDUCED, governor.evaluate(OverheadGovernor.Mode.NORMAL, 0.8, 0.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderReducedAboveMinimal() {
+        new OverheadGovernor.Builder().setReducedCpuThreshold(0.9).setMinimalCpuThreshold(0.8).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeHysteresis() {
+        new OverheadGovernor.Builder().setHysteresis(-0.1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroIntervalMultiplier() {
+        new OverheadGovernor.Builder().setIntervalMultiplier(0).build();
+    }
+}
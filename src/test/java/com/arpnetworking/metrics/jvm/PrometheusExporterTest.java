@@ -0,0 +1,447 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Counter;
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tests the {@link PrometheusExporter} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class PrometheusExporterTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _exporter = new PrometheusExporter.Builder()
+                .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .build();
+        _exporter.start();
+    }
+
+    @After
+    public void tearDown() {
+        _exporter.close();
+    }
+
+    @Test
+    public void testScrapeEmpty() throws IOException {
+        final Response response = scrape("GET", Collections.emptyMap());
+        Assert.assertEquals(200, response._code);
+        Assert.assertEquals("text/plain; version=0.0.4; charset=utf-8", response._connection.getContentType());
+        Assert.assertEquals("\"0\"", response._connection.getHeaderField("ETag"));
+        Assert.assertEquals("", response.getText());
+    }
+
+    @Test
+    public void testScrapeValues() throws IOException {
+        final Metrics metrics = _exporter.create();
+        Assert.assertTrue(metrics.isOpen());
+        Assert.assertNotNull(metrics.getOpenTime());
+        Assert.assertNull(metrics.getCloseTime());
+        metrics.setGauge("jvm/heap_memory/used", 123L);
+        metrics.setGauge("jvm/ratio", 0.5);
+        metrics.setGauge("jvm/nan", Double.NaN);
+        metrics.setGauge("jvm/positive", Double.POSITIVE_INFINITY);
+        metrics.setGauge("jvm/negative", Double.NEGATIVE_INFINITY);
+        metrics.incrementCounter("jvm/counter");
+        metrics.incrementCounter("jvm/counter", 4);
+        metrics.decrementCounter("jvm/counter");
+        metrics.decrementCounter("jvm/counter", 2);
+        metrics.resetCounter("jvm/reset");
+        metrics.setTimer("jvm/timer", 250, TimeUnit.MILLISECONDS);
+        metrics.setTimer("jvm/timer", 1, TimeUnit.SECONDS);
+        metrics.addAnnotation("key", "value");
+        metrics.addAnnotations(Collections.singletonMap("other", "value"));
+        metrics.close();
+        Assert.assertFalse(metrics.isOpen());
+        Assert.assertNotNull(metrics.getCloseTime());
+
+        final Response response = scrape("GET", Collections.emptyMap());
+        Assert.assertEquals(200, response._code);
+        Assert.assertEquals(
+                "# TYPE jvm_counter_total counter\n"
+                        + "jvm_counter_total 5\n"
+                        + "# TYPE jvm_heap_memory_used gauge\n"
+                        + "jvm_heap_memory_used 123\n"
+                        + "# TYPE jvm_nan gauge\n"
+                        + "jvm_nan NaN\n"
+                        + "# TYPE jvm_negative gauge\n"
+                        + "jvm_negative -Inf\n"
+                        + "# TYPE jvm_positive gauge\n"
+                        + "jvm_positive +Inf\n"
+                        + "# TYPE jvm_ratio gauge\n"
+                        + "jvm_ratio 0.5\n"
+                        + "# TYPE jvm_reset_total counter\n"
+                        + "jvm_reset_total 0\n"
+                        + "# TYPE jvm_timer_seconds summary\n"
+                        + "jvm_timer_seconds_sum 1.25\n"
+                        + "jvm_timer_seconds_count 2\n",
+                response.getText());
+    }
+
+    @Test
+    public void testLatestValues() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 1L);
+            metrics.incrementCounter("counter", 1);
+        }
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 2.5);
+            metrics.incrementCounter("counter", 2);
+        }
+        Assert.assertEquals(
+                "# TYPE counter_total counter\ncounter_total 3\n# TYPE gauge gauge\ngauge 2.5\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test
+    public void testLabels() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.addAnnotation("pid", "2");
+            metrics.setGauge("gauge", 2L);
+            metrics.setTimer("timer", 1, TimeUnit.SECONDS);
+        }
+        try (Metrics metrics = _exporter.create()) {
+            metrics.addAnnotations(Collections.singletonMap("pid", "1"));
+            metrics.addAnnotation("1st key", "a\\b\"c\nd");
+            metrics.addAnnotation("", "empty");
+            metrics.addAnnotation("aZ0_~-:", "sanitized");
+            metrics.setGauge("gauge", 1L);
+        }
+        try (Metrics metrics = _exporter.create()) {
+            metrics.addAnnotations(Collections.emptyMap());
+            metrics.setGauge("gauge", 0L);
+        }
+        Assert.assertEquals(
+                "# TYPE gauge gauge\n"
+                        + "gauge 0\n"
+                        + "gauge{_=\"empty\",_1st_key=\"a\\\\b\\\"c\\nd\",aZ0____=\"sanitized\",pid=\"1\"} 1\n"
+                        + "gauge{pid=\"2\"} 2\n"
+                        + "# TYPE timer_seconds summary\n"
+                        + "timer_seconds_sum{pid=\"2\"} 1.0\n"
+                        + "timer_seconds_count{pid=\"2\"} 1\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test
+    public void testTypeChange() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("value", 1L);
+            metrics.incrementCounter("value", 2);
+        }
+        Assert.assertEquals(
+                "# TYPE value_total counter\nvalue_total 2\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test
+    public void testNameSanitized() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("jvm/Heap-9_x:y{[", 1L);
+            metrics.setGauge("1st", 2L);
+            metrics.setGauge("", 3L);
+        }
+        Assert.assertEquals(
+                "# TYPE _ gauge\n_ 3\n# TYPE _1st gauge\n_1st 2\n# TYPE jvm_Heap_9_x:y__ gauge\njvm_Heap_9_x:y__ 1\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            for (int i = 0; i < 1000; ++i) {
+                metrics.setGauge("gauge/" + i, i);
+            }
+        }
+        final Response plain = scrape("GET", Map.of("Accept-Encoding", "identity"));
+        Assert.assertNull(plain._connection.getHeaderField("Content-Encoding"));
+        final Response compressed = scrape("GET", Map.of("Accept-Encoding", "gzip, deflate"));
+        Assert.assertEquals("gzip", compressed._connection.getHeaderField("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", compressed._connection.getHeaderField("Vary"));
+        Assert.assertTrue(compressed._body.length < plain._body.length);
+        try (InputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed._body))) {
+            Assert.assertEquals(plain.getText(), StandardCharsets.UTF_8.decode(ByteBuffer.wrap(stream.readAllBytes())).toString());
+        }
+    }
+
+    @Test
+    public void testConditional() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 1L);
+        }
+        final String etag = scrape("GET", Collections.emptyMap())._connection.getHeaderField("ETag");
+        Assert.assertNotEquals("\"0\"", etag);
+
+        final Response notModified = scrape("GET", Map.of("If-None-Match", etag));
+        Assert.assertEquals(304, notModified._code);
+        Assert.assertEquals(0, notModified._body.length);
+        Assert.assertEquals(304, scrape("GET", Map.of("If-None-Match", "\"other\", " + etag))._code);
+        Assert.assertEquals(200, scrape("GET", Map.of("If-None-Match", "\"other\""))._code);
+
+        // Unchanged content keeps the same tag
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 1L);
+        }
+        Assert.assertEquals(304, scrape("GET", Map.of("If-None-Match", etag))._code);
+
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 2L);
+        }
+        final Response modified = scrape("GET", Map.of("If-None-Match", etag));
+        Assert.assertEquals(200, modified._code);
+        Assert.assertNotEquals(etag, modified._connection.getHeaderField("ETag"));
+    }
+
+    @Test
+    public void testHead() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("gauge", 1L);
+        }
+        final Response response = scrape("HEAD", Collections.emptyMap());
+        Assert.assertEquals(200, response._code);
+        Assert.assertNotNull(response._connection.getHeaderField("ETag"));
+        Assert.assertEquals(0, response._body.length);
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws IOException {
+        final Response response = scrape("DELETE", Collections.emptyMap());
+        Assert.assertEquals(405, response._code);
+        Assert.assertEquals("GET, HEAD", response._connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    public void testClosedMetrics() throws IOException {
+        final Metrics metrics = _exporter.create();
+        metrics.close();
+        final String etag = scrape("GET", Collections.emptyMap())._connection.getHeaderField("ETag");
+        metrics.setGauge("gauge", 1L);
+        metrics.setGauge("gauge", 1.5);
+        metrics.incrementCounter("counter");
+        metrics.setTimer("timer", 1, TimeUnit.SECONDS);
+        metrics.close();
+        final Response response = scrape("GET", Collections.emptyMap());
+        Assert.assertEquals("", response.getText());
+        Assert.assertEquals(etag, response._connection.getHeaderField("ETag"));
+    }
+
+    @Test
+    public void testCountersAndTimers() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            final Counter counter = metrics.createCounter("counter");
+            counter.increment(3);
+            counter.decrement();
+            metrics.createTimer("timer").stop();
+            metrics.startTimer("started");
+            metrics.stopTimer("started");
+            metrics.createTimer("running");
+        }
+        final String text = scrape("GET", Collections.emptyMap()).getText();
+        Assert.assertTrue(text, text.startsWith("# TYPE counter_total counter\ncounter_total 2\n"));
+        Assert.assertTrue(text, text.contains("# TYPE started_seconds summary\nstarted_seconds_sum "));
+        Assert.assertTrue(text, text.contains("\nstarted_seconds_count 1\n# TYPE timer_seconds summary\ntimer_seconds_sum "));
+        Assert.assertTrue(text, text.endsWith("\ntimer_seconds_count 1\n"));
+        Assert.assertFalse(text, text.contains("running"));
+    }
+
+    @Test
+    public void testNegativeCounter() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.incrementCounter("counter", 2);
+            metrics.incrementCounter("counter", -5);
+            metrics.decrementCounter("declared");
+        }
+        Assert.assertEquals(
+                "# TYPE counter_total counter\ncounter_total 2\n# TYPE declared_total counter\ndeclared_total 0\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test
+    public void testFamiliesContiguous() throws IOException {
+        try (Metrics metrics = _exporter.create()) {
+            metrics.setGauge("x", 1L);
+            metrics.setGauge("x/y", 2L);
+            metrics.setGauge("x_z", 3L);
+            metrics.setGauge("a.b", 4L);
+            metrics.setGauge("a/b", 5L);
+        }
+        try (Metrics metrics = _exporter.create()) {
+            metrics.addAnnotation("pid", "1");
+            metrics.setGauge("x", 6L);
+        }
+        // One type line per name with all of its series after it
+        Assert.assertEquals(
+                "# TYPE a_b gauge\n"
+                        + "a_b 5\n"
+                        + "# TYPE x gauge\n"
+                        + "x 1\n"
+                        + "x{pid=\"1\"} 6\n"
+                        + "# TYPE x_y gauge\n"
+                        + "x_y 2\n"
+                        + "# TYPE x_z gauge\n"
+                        + "x_z 3\n",
+                scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwice() throws IOException {
+        _exporter.start();
+    }
+
+    @Test
+    public void testAddress() {
+        Assert.assertEquals(InetAddress.getLoopbackAddress(), _exporter.getAddress().get().getAddress());
+        Assert.assertNotEquals(0, _exporter.getAddress().get().getPort());
+        _exporter.close();
+        Assert.assertFalse(_exporter.getAddress().isPresent());
+        _exporter.close();
+    }
+
+    @Test
+    public void testPath() throws IOException {
+        try (PrometheusExporter exporter = new PrometheusExporter.Builder()
+                .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .setPath("/custom")
+                .build()) {
+            Assert.assertFalse(exporter.getAddress().isPresent());
+            exporter.start();
+            final HttpURLConnection connection = (HttpURLConnection) URI.create(
+                    "http://localhost:" + exporter.getAddress().get().getPort() + "/custom").toURL().openConnection();
+            Assert.assertEquals(200, connection.getResponseCode());
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testBuilderDefaults() {
+        try (PrometheusExporter exporter = new PrometheusExporter.Builder()
+                .setAddress(null)
+                .setPath(null)
+                .setExpiry(null)
+                .build()) {
+            Assert.assertFalse(exporter.getAddress().isPresent());
+        }
+    }
+
+    @Test
+    public void testExpiry() throws IOException {
+        final AtomicLong nanos = new AtomicLong();
+        _exporter.close();
+        _exporter = new PrometheusExporter.Builder()
+                .setAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .setExpiry(Duration.ofSeconds(30))
+                .setNanoTime(nanos::get)
+                .build();
+        _exporter.start();
+        for (final String pid : new String[] {"1", "2"}) {
+            try (Metrics metrics = _exporter.create()) {
+                metrics.addAnnotation("pid", pid);
+                metrics.setGauge("gauge", 1L);
+            }
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        try (Metrics metrics = _exporter.create()) {
+            metrics.addAnnotation("pid", "1");
+            metrics.setGauge("gauge", 2L);
+            metrics.setGauge("other", 3L);
+        }
+        Assert.assertEquals(
+                "# TYPE gauge gauge\ngauge{pid=\"1\"} 2\ngauge{pid=\"2\"} 1\n# TYPE other gauge\nother{pid=\"1\"} 3\n",
+                scrape("GET", Collections.emptyMap()).getText());
+
+        // Series expire on a scrape even when nothing is recorded
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        Assert.assertEquals(
+                "# TYPE gauge gauge\ngauge{pid=\"1\"} 2\n# TYPE other gauge\nother{pid=\"1\"} 3\n",
+                scrape("GET", Collections.emptyMap()).getText());
+        Assert.assertEquals(
+                "# TYPE gauge gauge\ngauge{pid=\"1\"} 2\n# TYPE other gauge\nother{pid=\"1\"} 3\n",
+                scrape("GET", Collections.emptyMap()).getText());
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        Assert.assertEquals("", scrape("GET", Collections.emptyMap()).getText());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeExpiry() {
+        new PrometheusExporter.Builder().setExpiry(Duration.ofSeconds(-1)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidPath() {
+        new PrometheusExporter.Builder().setPath("metrics").build();
+    }
+
+    private Response scrape(final String method, final Map<String, String> headers) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) URI.create(
+                "http://localhost:" + _exporter.getAddress().get().getPort() + "/metrics").toURL().openConnection();
+        connection.setRequestMethod(method);
+        headers.forEach(connection::setRequestProperty);
+        final int code = connection.getResponseCode();
+        final byte[] body;
+        if (code == 200) {
+            try (InputStream stream = connection.getInputStream()) {
+                body = stream.readAllBytes();
+            }
+        } else {
+            body = new byte[0];
+        }
+        connection.disconnect();
+        return new Response(connection, code, body);
+    }
+
+    private PrometheusExporter _exporter;
+
+    private static final class Response {
+
+        private Response(final HttpURLConnection connection, final int code, final byte[] body) {
+            _connection = connection;
+            _code = code;
+            _body = body;
+        }
+
+        private String getText() {
+            return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(_body)).toString();
+        }
+
+        private final HttpURLConnection _connection;
+        private final int _code;
+        private final byte[] _body;
+    }
+}
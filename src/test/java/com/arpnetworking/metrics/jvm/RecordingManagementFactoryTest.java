@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests the {@link RecordingManagementFactory} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class RecordingManagementFactoryTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _trace = Files.createTempFile("recording-management-factory", ".trace");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_trace);
+    }
+
+    @Test
+    public void testPlatform() throws IOException {
+        final ManagementFactory platform = ManagementFactoryDefault.newInstance();
+        try (RecordingManagementFactory recording = new RecordingManagementFactory.Builder().setPath(_trace).build()) {
+            // The recorders implement the HotSpot extensions the platform beans implement
+            Assert.assertTrue(UnixOperatingSystemMXBean.class.isInstance(recording.getOperatingSystemMXBean()));
+            Assert.assertTrue(com.sun.management.ThreadMXBean.class.isInstance(recording.getThreadMXBean()));
+            final List<GarbageCollectorMXBean> garbageCollectors = recording.getGarbageCollectorMXBeans();
+            Assert.assertEquals(platform.getGarbageCollectorMXBeans().size(), garbageCollectors.size());
+            Assert.assertTrue(com.sun.management.GarbageCollectorMXBean.class.isInstance(garbageCollectors.get(0)));
+            Assert.assertEquals(platform.getGarbageCollectorMXBeans().get(0).getName(), garbageCollectors.get(0).getName());
+            Assert.assertEquals(platform.getMemoryPoolMXBeans().size(), recording.getMemoryPoolMXBeans().size());
+            Assert.assertEquals(platform.getBufferPoolMXBeans().size(), recording.getBufferPoolMXBeans().size());
+            Assert.assertTrue(recording.getClassLoadingMXBean().getTotalLoadedClassCount() > 0);
+            Assert.assertTrue(recording.getMemoryMXBean().getHeapMemoryUsage().getUsed() > 0);
+            Assert.assertEquals(
+                    platform.getMBeanServerConnection().getMBeanCount(),
+                    recording.getMBeanServerConnection().getMBeanCount());
+            Assert.assertEquals(platform.getHsperfdata().isPresent(), recording.getHsperfdata().isPresent());
+            Assert.assertEquals("Recorder{key=memory}", recording.getMemoryMXBean().toString());
+            recording.flush();
+            Assert.assertTrue(Files.size(_trace) > 0);
+        }
+    }
+
+    @Test
+    public void testReplacedBean() throws IOException {
+        final ManagementFactory managementFactory = Mockito.mock(ManagementFactory.class);
+        final MemoryMXBean first = Mockito.mock(MemoryMXBean.class);
+        Mockito.doReturn(new MemoryUsage(0, 1, 2, 3)).when(first).getHeapMemoryUsage();
+        final MemoryMXBean second = Mockito.mock(MemoryMXBean.class);
+        Mockito.doReturn(new MemoryUsage(0, 4, 5, 6)).when(second).getHeapMemoryUsage();
+        Mockito.doReturn(first, second).when(managementFactory).getMemoryMXBean();
+        try (RecordingManagementFactory recording = new RecordingManagementFactory.Builder()
+                .setManagementFactory(managementFactory)
+                .setPath(_trace)
+                .build()) {
+            final MemoryMXBean recorder = recording.getMemoryMXBean();
+            Assert.assertEquals(1, recorder.getHeapMemoryUsage().getUsed());
+            // The delegate replaced the bean; the recorder reads the new one
+            Assert.assertSame(recorder, recording.getMemoryMXBean());
+            Assert.assertEquals(4, recorder.getHeapMemoryUsage().getUsed());
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final ManagementFactory managementFactory = Mockito.mock(ManagementFactory.class);
+        final MemoryMXBean memoryMXBean = Mockito.mock(MemoryMXBean.class);
+        Mockito.doThrow(new IllegalStateException()).when(memoryMXBean).getNonHeapMemoryUsage();
+        Mockito.doReturn(memoryMXBean).when(managementFactory).getMemoryMXBean();
+        Mockito.doReturn(Mockito.mock(com.sun.management.ThreadMXBean.class)).when(managementFactory).getThreadMXBean();
+        final RecordingManagementFactory recording = new RecordingManagementFactory.Builder()
+                .setManagementFactory(managementFactory)
+                .setPath(_trace)
+                .build();
+        final MemoryMXBean recorder = recording.getMemoryMXBean();
+        recording.close();
+        assertUnchecked(recording::getMemoryMXBean);
+        assertUnchecked(recording::getThreadMXBean);
+        assertUnchecked(recorder::getHeapMemoryUsage);
+        assertUnchecked(recorder::getNonHeapMemoryUsage);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullPath() throws IOException {
+        new RecordingManagementFactory.Builder().build();
+    }
+
+    private static void assertUnchecked(final Runnable runnable) {
+        try {
+            runnable.run();
+            Assert.fail("Expected exception");
+        } catch (final UncheckedIOException e) {
+            // Expected exception
+        }
+    }
+
+    private Path _trace;
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the {@link ReflectionUtil} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class ReflectionUtilTest {
+
+    @Test
+    public void testFindMethod() {
+        Assert.assertTrue(ReflectionUtil.findMethod(ForkJoinPool.class, "getParallelism").isPresent());
+        Assert.assertTrue(ReflectionUtil.findMethod(ForkJoinPool.class, "submit", Runnable.class).isPresent());
+        Assert.assertFalse(ReflectionUtil.findMethod(ForkJoinPool.class, "doesNotExist").isPresent());
+    }
+}
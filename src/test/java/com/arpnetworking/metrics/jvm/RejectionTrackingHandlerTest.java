@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link RejectionTrackingHandler} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class RejectionTrackingHandlerTest {
+
+    @Before
+    public void setUp() {
+        _executor = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        _started = new CountDownLatch(1);
+        _release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        _release.countDown();
+        _executor.shutdownNow();
+        _executor = null;
+        _started = null;
+        _release = null;
+    }
+
+    @Test
+    public void testInstall() {
+        final RejectedExecutionHandler original = _executor.getRejectedExecutionHandler();
+        final RejectionTrackingHandler handler = RejectionTrackingHandler.install(_executor);
+        Assert.assertNotSame(original, handler);
+        Assert.assertSame(handler, _executor.getRejectedExecutionHandler());
+        Assert.assertSame(handler, RejectionTrackingHandler.install(_executor));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testDelegates() throws InterruptedException {
+        _executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        RejectionTrackingHandler.install(_executor);
+        block();
+        _executor.execute(() -> { });
+    }
+
+    @Test
+    public void testSaturatedAtDrain() throws InterruptedException {
+        final RejectionTrackingHandler handler = RejectionTrackingHandler.install(_executor);
+        block();
+        _executor.execute(() -> { });
+        Thread.sleep(5);
+
+        RejectionTrackingHandler.Snapshot snapshot = handler.drain(_executor);
+        Assert.assertEquals(1, snapshot.getRejections());
+        Assert.assertTrue(snapshot.getSaturatedNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        Assert.assertTrue(snapshot.getSaturationRatio() > 0);
+        Assert.assertTrue(snapshot.getSaturationRatio() <= 1);
+
+        // Still saturated without any further rejections
+        Thread.sleep(5);
+        snapshot = handler.drain(_executor);
+        Assert.assertEquals(0, snapshot.getRejections());
+        Assert.assertTrue(snapshot.getSaturatedNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+
+        // No longer saturated; the episode ended at the previous drain
+        unblock();
+        snapshot = handler.drain(_executor);
+        Assert.assertEquals(0, snapshot.getSaturatedNanos());
+        Assert.assertEquals(0.0, snapshot.getSaturationRatio(), 0.0);
+
+        snapshot = handler.drain(_executor);
+        Assert.assertEquals(0, snapshot.getSaturatedNanos());
+        Assert.assertEquals(1, handler.getRejectionCount());
+    }
+
+    @Test
+    public void testSaturationEndedBeforeDrain() throws InterruptedException {
+        final RejectionTrackingHandler handler = RejectionTrackingHandler.install(_executor);
+        block();
+        _executor.execute(() -> { });
+        Thread.sleep(5);
+        _executor.execute(() -> { });
+        unblock();
+
+        final RejectionTrackingHandler.Snapshot snapshot = handler.drain(_executor);
+        Assert.assertEquals(2, snapshot.getRejections());
+        Assert.assertTrue(snapshot.getSaturatedNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        Assert.assertEquals(2, handler.getRejectionCount());
+    }
+
+    @Test
+    public void testQueueNotFull() throws InterruptedException {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                new ThreadPoolExecutor.DiscardPolicy());
+        try {
+            final RejectionTrackingHandler handler = RejectionTrackingHandler.install(executor);
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> { });
+            executor.execute(() -> { });
+            release.countDown();
+            while (executor.getCompletedTaskCount() < 2) {
+                Thread.sleep(1);
+            }
+
+            final RejectionTrackingHandler.Snapshot snapshot = handler.drain(executor);
+            Assert.assertEquals(1, snapshot.getRejections());
+            Assert.assertEquals(0, snapshot.getSaturatedNanos());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedAfterShutdown() {
+        final RejectionTrackingHandler handler = RejectionTrackingHandler.install(_executor);
+        _executor.shutdown();
+        _executor.execute(() -> { });
+
+        final RejectionTrackingHandler.Snapshot snapshot = handler.drain(_executor);
+        Assert.assertEquals(1, snapshot.getRejections());
+        Assert.assertEquals(0, snapshot.getSaturatedNanos());
+    }
+
+    private void block() throws InterruptedException {
+        _executor.execute(() -> {
+            _started.countDown();
+            try {
+                _release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        _started.await();
+    }
+
+    private void unblock() throws InterruptedException {
+        _release.countDown();
+        while (_executor.getActiveCount() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    private ThreadPoolExecutor _executor;
+    private CountDownLatch _started;
+    private CountDownLatch _release;
+}
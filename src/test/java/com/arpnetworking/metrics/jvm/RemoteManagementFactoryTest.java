@@ -0,0 +1,506 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.collectors.BufferPoolMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.FileDescriptorMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.HeapMemoryMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.JvmMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.PoolMemoryMetricsCollector;
+import com.arpnetworking.metrics.jvm.collectors.ThreadMetricsCollector;
+import com.sun.management.UnixOperatingSystemMXBean;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.PlatformManagedObject;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+import javax.management.remote.MBeanServerForwarder;
+
+/**
+ * Tests for the {@link RemoteManagementFactory} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class RemoteManagementFactoryTest {
+
+    @After
+    public void tearDown() throws IOException {
+        for (final JMXConnectorServer server : _servers) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testPlatform() throws IOException {
+        final Hsperfdata hsperfdata = Hsperfdata.openCurrent().get();
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .setHsperfdata(hsperfdata)
+                .build()) {
+            Assert.assertSame(hsperfdata, factory.getHsperfdata().get());
+            Assert.assertEquals(
+                    ManagementFactory.getGarbageCollectorMXBeans().size(),
+                    factory.getGarbageCollectorMXBeans().size());
+            Assert.assertNotNull(((com.sun.management.GarbageCollectorMXBean) factory.getGarbageCollectorMXBeans().get(0)).getName());
+            Assert.assertEquals(
+                    ManagementFactory.getMemoryPoolMXBeans().size(),
+                    factory.getMemoryPoolMXBeans().size());
+            Assert.assertEquals(
+                    ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).size(),
+                    factory.getBufferPoolMXBeans().size());
+            Assert.assertTrue(factory.getMemoryMXBean().getHeapMemoryUsage().getUsed() > 0);
+            Assert.assertTrue(((com.sun.management.ThreadMXBean) factory.getThreadMXBean()).isThreadAllocatedMemorySupported());
+            Assert.assertTrue(factory.getThreadMXBean().getThreadCount() > 0);
+            Assert.assertTrue(((UnixOperatingSystemMXBean) factory.getOperatingSystemMXBean()).getOpenFileDescriptorCount() > 0);
+            Assert.assertTrue(factory.getClassLoadingMXBean().getTotalLoadedClassCount() > 0);
+            Assert.assertTrue(factory.getMBeanServerConnection().getMBeanCount() > 0);
+
+            final Metrics metrics = Mockito.mock(Metrics.class);
+            HeapMemoryMetricsCollector.newInstance().collect(metrics, factory);
+            FileDescriptorMetricsCollector.newInstance().collect(metrics, factory);
+            Mockito.verify(metrics).setGauge(Mockito.eq("jvm/heap_memory/used"), Mockito.anyLong());
+            Mockito.verify(metrics).setGauge(Mockito.eq("jvm/file_descriptor/open_count"), Mockito.anyLong());
+        }
+    }
+
+    @Test
+    public void testNotUnix() throws IOException, JMException {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        registerPlatformMXBeans(server);
+        final com.sun.management.OperatingSystemMXBean operatingSystem = Mockito.mock(com.sun.management.OperatingSystemMXBean.class);
+        Mockito.doReturn(3).when(operatingSystem).getAvailableProcessors();
+        server.registerMBean(operatingSystem, new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME));
+
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(server))
+                .build()) {
+            Assert.assertFalse(factory.getHsperfdata().isPresent());
+            Assert.assertFalse(UnixOperatingSystemMXBean.class.isInstance(factory.getOperatingSystemMXBean()));
+            Assert.assertEquals(0, ((com.sun.management.OperatingSystemMXBean) factory.getOperatingSystemMXBean()).getFreeMemorySize());
+            Assert.assertEquals(3, factory.getOperatingSystemMXBean().getAvailableProcessors());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPlatformMXBeans() throws IOException {
+        new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(MBeanServerFactory.newMBeanServer()))
+                .build();
+    }
+
+    @Test
+    public void testBatchedAttributes() throws IOException, InterruptedException {
+        final CountingForwarder forwarder = new CountingForwarder();
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer(), forwarder.create()))
+                .setMaxAge(Duration.ofMillis(500))
+                .build()) {
+            final Metrics metrics = Mockito.mock(Metrics.class);
+            final List<JvmMetricsCollector> collectors = List.of(
+                    HeapMemoryMetricsCollector.newInstance(),
+                    PoolMemoryMetricsCollector.newInstance(),
+                    ThreadMetricsCollector.newInstance(),
+                    BufferPoolMetricsCollector.newInstance());
+            for (final JvmMetricsCollector collector : collectors) {
+                collector.collect(metrics, factory);
+            }
+            Thread.sleep(600);
+            forwarder.reset();
+            for (final JvmMetricsCollector collector : collectors) {
+                collector.collect(metrics, factory);
+            }
+            // One read per MBean: memory, each pool, threads and each buffer pool
+            Assert.assertEquals(0, forwarder.get("getAttribute"));
+            Assert.assertEquals(
+                    2 + factory.getMemoryPoolMXBeans().size() + factory.getBufferPoolMXBeans().size(),
+                    forwarder.get("getAttributes"));
+
+            // Reads within the maximum age are answered from the batch
+            forwarder.reset();
+            factory.getThreadMXBean().getThreadCount();
+            factory.getThreadMXBean().getPeakThreadCount();
+            Assert.assertEquals(0, forwarder.get("getAttributes"));
+        }
+    }
+
+    @Test
+    public void testUnbatched() throws IOException {
+        final CountingForwarder forwarder = new CountingForwarder();
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer(), forwarder.create()))
+                .setMaxAge(Duration.ZERO)
+                .build()) {
+            forwarder.reset();
+            factory.getThreadMXBean().getThreadCount();
+            factory.getThreadMXBean().getThreadCount();
+            Assert.assertEquals(2, forwarder.get("getAttribute"));
+            Assert.assertEquals(0, forwarder.get("getAttributes"));
+        }
+    }
+
+    @Test
+    public void testAttributeFailsInBatch() throws IOException {
+        final MemoryPoolMXBean unsupported = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> !pool.isUsageThresholdSupported())
+                .findFirst()
+                .get();
+        final CountingForwarder forwarder = new CountingForwarder();
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer(), forwarder.create()))
+                .setMaxAge(Duration.ofHours(1))
+                .build()) {
+            final MemoryPoolMXBean pool = factory.getMemoryPoolMXBeans()
+                    .stream()
+                    .filter(remote -> remote.getName().equals(unsupported.getName()))
+                    .findFirst()
+                    .get();
+            forwarder.reset();
+            for (int i = 0; i < 2; ++i) {
+                try {
+                    pool.getUsageThreshold();
+                    Assert.fail("Expected exception");
+                } catch (final UnsupportedOperationException e) {
+                    // Expected exception
+                }
+            }
+            Assert.assertEquals(1, forwarder.get("getAttributes"));
+            Assert.assertEquals(2, forwarder.get("getAttribute"));
+            Assert.assertEquals(unsupported.getName(), pool.getName());
+        }
+    }
+
+    @Test
+    public void testReconnect() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final Registry registry = LocateRegistry.createRegistry(port);
+        try {
+            final JMXServiceURL url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:" + port + "/jmxrmi");
+            final JMXConnectorServer first = JMXConnectorServerFactory.newJMXConnectorServer(
+                    url,
+                    null,
+                    ManagementFactory.getPlatformMBeanServer());
+            first.start();
+            try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                    .setServiceUrl(url)
+                    .setMaxAge(Duration.ofNanos(1))
+                    .build()) {
+                Assert.assertTrue(factory.getThreadMXBean().getThreadCount() > 0);
+
+                // Batched reads
+                first.stop();
+                try {
+                    factory.getThreadMXBean().getThreadCount();
+                    Assert.fail("Expected exception");
+                    // CHECKSTYLE.OFF: IllegalCatch - The proxy wraps the IOException
+                } catch (final RuntimeException e) {
+                    // CHECKSTYLE.ON: IllegalCatch
+                    // Expected exception
+                }
+                try {
+                    factory.getThreadMXBean().getThreadCount();
+                    Assert.fail("Expected exception");
+                    // CHECKSTYLE.OFF: IllegalCatch - The proxy wraps the IOException
+                } catch (final RuntimeException e) {
+                    // CHECKSTYLE.ON: IllegalCatch
+                    // Expected exception
+                }
+                final JMXConnectorServer second = JMXConnectorServerFactory.newJMXConnectorServer(
+                        url,
+                        null,
+                        ManagementFactory.getPlatformMBeanServer());
+                second.start();
+                Assert.assertTrue(factory.getThreadMXBean().getThreadCount() > 0);
+
+                // Other calls
+                second.stop();
+                try {
+                    factory.getMBeanServerConnection().getMBeanCount();
+                    Assert.fail("Expected exception");
+                } catch (final IOException e) {
+                    // Expected exception
+                }
+                final JMXConnectorServer third = JMXConnectorServerFactory.newJMXConnectorServer(
+                        url,
+                        null,
+                        ManagementFactory.getPlatformMBeanServer());
+                third.start();
+                try {
+                    Assert.assertTrue(factory.getMBeanServerConnection().getMBeanCount() > 0);
+                } finally {
+                    third.stop();
+                }
+            }
+        } finally {
+            UnicastRemoteObject.unexportObject(registry, true);
+        }
+    }
+
+    @Test
+    public void testDisconnect() throws IOException, JMException {
+        final RemoteManagementFactory.Connection connection = new RemoteManagementFactory.Connection(
+                startServer(ManagementFactory.getPlatformMBeanServer()),
+                Duration.ZERO,
+                JMXConnectorFactory::connect);
+        final MBeanServerConnection first = connection.connect();
+        Assert.assertSame(first, connection.connect());
+        // A failure of an earlier connection does not drop the current one
+        connection.disconnect(Mockito.mock(MBeanServerConnection.class));
+        Assert.assertSame(first, connection.connect());
+        connection.disconnect(first);
+        final MBeanServerConnection second = connection.connect();
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(connection.call(MBeanServerConnection::getMBeanCount) > 0);
+        connection.disconnect(second);
+        connection.close();
+        connection.close();
+        Assert.assertTrue(connection.toString().contains("serviceUrl"));
+    }
+
+    @Test
+    public void testDisconnectFailure() throws IOException {
+        final JMXConnector connector = Mockito.mock(JMXConnector.class);
+        final MBeanServerConnection remote = Mockito.mock(MBeanServerConnection.class);
+        Mockito.doReturn(remote).when(connector).getMBeanServerConnection();
+        Mockito.doThrow(new IOException("Already closed")).when(connector).close();
+        final RemoteManagementFactory.Connection connection = new RemoteManagementFactory.Connection(
+                new JMXServiceURL("service:jmx:rmi://localhost"),
+                Duration.ZERO,
+                url -> connector);
+        connection.disconnect(connection.connect());
+        Mockito.verify(connector).close();
+    }
+
+    @Test
+    public void testAttributeRecovers() throws IOException, JMException {
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        registerPlatformMXBeans(server);
+        register(server, ManagementFactory.getPlatformMXBeans(java.lang.management.OperatingSystemMXBean.class));
+        final ObjectName name = new ObjectName("test:type=Flaky");
+        server.registerMBean(new Flaky(), name);
+        final CountingForwarder forwarder = new CountingForwarder();
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(server, forwarder.create()))
+                .setMaxAge(Duration.ofHours(1))
+                .build()) {
+            forwarder.reset();
+            // The value fails in the batch and is then read individually
+            Assert.assertEquals(2, factory.getMBeanServerConnection().getAttribute(name, "Value"));
+            Assert.assertEquals(3, factory.getMBeanServerConnection().getAttribute(name, "Value"));
+            Assert.assertEquals(1, forwarder.get("getAttributes"));
+            Assert.assertEquals(2, forwarder.get("getAttribute"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosed() throws IOException {
+        final RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .build();
+        factory.close();
+        factory.getMBeanServerConnection().getMBeanCount();
+    }
+
+    @Test
+    public void testObjectMethods() throws IOException {
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .build()) {
+            final MBeanServerConnection connection = factory.getMBeanServerConnection();
+            Assert.assertTrue(connection.toString().startsWith("RemoteConnection"));
+            Assert.assertEquals(connection.hashCode(), connection.hashCode());
+        }
+    }
+
+    @Test(expected = InstanceNotFoundException.class)
+    public void testOperationFailure() throws IOException, JMException {
+        try (RemoteManagementFactory factory = new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .build()) {
+            factory.getMBeanServerConnection().getMBeanInfo(new ObjectName("test:type=Missing"));
+        }
+    }
+
+    @Test
+    public void testDefaultMaxAge() throws IOException {
+        new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .setMaxAge(null)
+                .build()
+                .close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxAge() throws IOException {
+        new RemoteManagementFactory.Builder()
+                .setServiceUrl(startServer(ManagementFactory.getPlatformMBeanServer()))
+                .setMaxAge(Duration.ofSeconds(-1))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServiceUrlRequired() throws IOException {
+        new RemoteManagementFactory.Builder().build();
+    }
+
+    private JMXServiceURL startServer(final MBeanServer server) throws IOException {
+        final JMXConnectorServer connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+                new JMXServiceURL("service:jmx:rmi://localhost"),
+                null,
+                server);
+        connectorServer.start();
+        _servers.add(connectorServer);
+        return connectorServer.getAddress();
+    }
+
+    private JMXServiceURL startServer(final MBeanServer server, final MBeanServerForwarder forwarder) throws IOException {
+        final JMXConnectorServer connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+                new JMXServiceURL("service:jmx:rmi://localhost"),
+                null,
+                server);
+        connectorServer.setMBeanServerForwarder(forwarder);
+        connectorServer.start();
+        _servers.add(connectorServer);
+        return connectorServer.getAddress();
+    }
+
+    private static void registerPlatformMXBeans(final MBeanServer server) throws JMException {
+        register(server, ManagementFactory.getPlatformMXBeans(GarbageCollectorMXBean.class));
+        register(server, ManagementFactory.getPlatformMXBeans(MemoryMXBean.class));
+        register(server, ManagementFactory.getPlatformMXBeans(MemoryPoolMXBean.class));
+        register(server, ManagementFactory.getPlatformMXBeans(ThreadMXBean.class));
+        register(server, ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class));
+        register(server, ManagementFactory.getPlatformMXBeans(ClassLoadingMXBean.class));
+    }
+
+    private static void register(final MBeanServer server, final List<? extends PlatformManagedObject> beans) throws JMException {
+        for (final PlatformManagedObject bean : beans) {
+            server.registerMBean(bean, bean.getObjectName());
+        }
+    }
+
+    private final List<JMXConnectorServer> _servers = new ArrayList<>();
+
+    /**
+     * An MBean whose value cannot be read the first time.
+     */
+    public interface FlakyMBean {
+
+        /**
+         * The number of reads.
+         *
+         * @return the number of reads
+         */
+        int getValue();
+    }
+
+    /**
+     * Implementation of {@link FlakyMBean}.
+     */
+    public static final class Flaky implements FlakyMBean {
+
+        @Override
+        public int getValue() {
+            if (_reads.incrementAndGet() == 1) {
+                throw new IllegalStateException("Not ready");
+            }
+            return _reads.get();
+        }
+
+        private final AtomicInteger _reads = new AtomicInteger();
+    }
+
+    /**
+     * Counts the calls which reach the MBean server by method name.
+     */
+    private static final class CountingForwarder implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getName().equals("setMBeanServer")) {
+                _server = (MBeanServer) args[0];
+                return null;
+            }
+            if (method.getName().equals("getMBeanServer")) {
+                return _server;
+            }
+            _counts.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+            try {
+                return method.invoke(_server, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private MBeanServerForwarder create() {
+            return (MBeanServerForwarder) Proxy.newProxyInstance(
+                    MBeanServerForwarder.class.getClassLoader(),
+                    new Class<?>[] {MBeanServerForwarder.class},
+                    this);
+        }
+
+        private int get(final String method) {
+            return _counts.getOrDefault(method, new AtomicInteger()).get();
+        }
+
+        private void reset() {
+            _counts.clear();
+        }
+
+        private volatile MBeanServer _server;
+        private final Map<String, AtomicInteger> _counts = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+/**
+ * Tests the {@link ReplayManagementFactory} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class ReplayManagementFactoryTest {
+
+    @Test
+    public void testReplaySimulated() throws IOException {
+        final Path trace = Files.createTempFile("replay-management-factory", ".trace");
+        try {
+            final SimulatedManagementFactory simulated = simulate();
+            final List<String> recorded;
+            try (RecordingManagementFactory recording = new RecordingManagementFactory.Builder()
+                    .setManagementFactory(simulated)
+                    .setPath(trace)
+                    .build()) {
+                recorded = collect(recording, STEPS, i -> simulated.advance());
+            }
+            // Recording does not change what the collectors observe
+            final SimulatedManagementFactory unrecorded = simulate();
+            Assert.assertEquals(recorded, collect(unrecorded, STEPS, i -> unrecorded.advance()));
+
+            final ReplayManagementFactory replay = new ReplayManagementFactory.Builder().setPath(trace).build();
+            Assert.assertEquals(recorded, collect(replay, STEPS, i -> { }));
+            replay.rewind();
+            Assert.assertEquals(recorded, collect(replay, STEPS, i -> { }));
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    @Test
+    public void testReplayPlatform() throws IOException {
+        final Path trace = Files.createTempFile("replay-management-factory", ".trace");
+        try {
+            final List<String> recorded;
+            try (RecordingManagementFactory recording = new RecordingManagementFactory.Builder().setPath(trace).build()) {
+                recorded = collect(recording, 3, ReplayManagementFactoryTest::collectGarbage);
+            }
+            final ReplayManagementFactory replay = new ReplayManagementFactory.Builder().setPath(trace).build();
+            Assert.assertEquals(recorded, collect(replay, 3, i -> { }));
+            Assert.assertFalse(replay.getHsperfdata().isPresent());
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    @Test
+    public void testReplayBeans() throws Exception {
+        final ManagementFactory managementFactory = Mockito.mock(ManagementFactory.class);
+        final MemoryMXBean memoryMXBean = Mockito.mock(MemoryMXBean.class);
+        Mockito.doReturn(new MemoryUsage(0, 1, 2, 3), new MemoryUsage(0, 4, 5, 6)).when(memoryMXBean).getHeapMemoryUsage();
+        Mockito.doThrow(new IllegalStateException("failed")).when(memoryMXBean).getNonHeapMemoryUsage();
+        Mockito.doReturn(memoryMXBean).when(managementFactory).getMemoryMXBean();
+        final ThreadMXBean threadMXBean = Mockito.mock(ThreadMXBean.class);
+        Mockito.doReturn(Mockito.mock(ThreadInfo.class)).when(threadMXBean).getThreadInfo(1L);
+        Mockito.doReturn(threadMXBean).when(managementFactory).getThreadMXBean();
+        final MBeanServerConnection connection = Mockito.mock(MBeanServerConnection.class);
+        Mockito.doThrow(new InstanceNotFoundException("missing"))
+                .when(connection)
+                .getAttribute(Mockito.any(ObjectName.class), Mockito.anyString());
+        Mockito.doReturn(connection).when(managementFactory).getMBeanServerConnection();
+
+        final ReplayManagementFactory replay = replay(managementFactory, recording -> {
+            recording.getMemoryMXBean().getHeapMemoryUsage();
+            recording.getMemoryMXBean().getHeapMemoryUsage();
+            try {
+                recording.getMemoryMXBean().getNonHeapMemoryUsage();
+            } catch (final IllegalStateException e) {
+                Assert.assertEquals("failed", e.getMessage());
+            }
+            recording.getThreadMXBean().getThreadInfo(1L);
+            try {
+                recording.getMBeanServerConnection().getAttribute(ObjectName.getInstance("a:type=b"), "C");
+            } catch (final InstanceNotFoundException e) {
+                Assert.assertEquals("missing", e.getMessage());
+            }
+            Mockito.doReturn(null).when(managementFactory).getMemoryMXBean();
+            recording.getMemoryMXBean();
+        });
+
+        final MemoryMXBean replayMemoryMXBean = replay.getMemoryMXBean();
+        Assert.assertEquals(1, replayMemoryMXBean.getHeapMemoryUsage().getUsed());
+        Assert.assertEquals(4, replayMemoryMXBean.getHeapMemoryUsage().getUsed());
+        // Exhausted calls repeat the last value
+        Assert.assertEquals(4, replayMemoryMXBean.getHeapMemoryUsage().getUsed());
+        Assert.assertEquals(4, replay.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        try {
+            replayMemoryMXBean.getNonHeapMemoryUsage();
+            Assert.fail("Expected exception");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+        // The beans are replayed in the order they were obtained
+        Assert.assertSame(replayMemoryMXBean, replay.getMemoryMXBean());
+        Assert.assertNull(replay.getMemoryMXBean());
+        Assert.assertEquals("Replayer{key=memory}", replayMemoryMXBean.toString());
+
+        final ThreadMXBean replayThreadMXBean = replay.getThreadMXBean();
+        try {
+            replayThreadMXBean.getThreadInfo(1L);
+            Assert.fail("Expected exception");
+        } catch (final UnsupportedOperationException e) {
+            // ThreadInfo is not recorded
+        }
+        try {
+            replayThreadMXBean.getThreadCount();
+            Assert.fail("Expected exception");
+        } catch (final IllegalStateException e) {
+            // Never recorded
+        }
+        try {
+            replay.getMBeanServerConnection().getAttribute(ObjectName.getInstance("a:type=b"), "C");
+            Assert.fail("Expected exception");
+        } catch (final InstanceNotFoundException e) {
+            Assert.assertEquals("missing", e.getMessage());
+        }
+        try {
+            replay.getGarbageCollectorMXBeans();
+            Assert.fail("Expected exception");
+        } catch (final IllegalStateException e) {
+            // Never recorded
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        final Path trace = Files.createTempFile("replay-management-factory", ".trace");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(trace))) {
+                out.writeInt(0x4A564D54);
+                out.writeByte(1);
+                out.writeByte(2);
+                out.writeUTF("factory.getGarbageCollectorMXBeans()");
+            }
+            final ReplayManagementFactory replay = new ReplayManagementFactory.Builder().setPath(trace).build();
+            try {
+                replay.getGarbageCollectorMXBeans();
+                Assert.fail("Expected exception");
+            } catch (final IllegalStateException e) {
+                // Defined but never recorded
+            }
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownInterface() throws IOException {
+        final Path trace = Files.createTempFile("replay-management-factory", ".trace");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(trace))) {
+                out.writeInt(0x4A564D54);
+                out.writeByte(1);
+                out.writeByte(1);
+                out.writeUTF("bean");
+                out.writeByte(1);
+                out.writeUTF("com.example.DoesNotExistMXBean");
+            }
+            new ReplayManagementFactory.Builder().setPath(trace).build();
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullPath() throws IOException {
+        new ReplayManagementFactory.Builder().build();
+    }
+
+    private static SimulatedManagementFactory simulate() {
+        return new SimulatedManagementFactory.Builder()
+                .setSeed(17L)
+                .setMemoryPools(12)
+                .setGarbageCollectors(3)
+                .setThreads(500)
+                .build();
+    }
+
+    private static ReplayManagementFactory replay(
+            final ManagementFactory managementFactory,
+            final ThrowingConsumer<ManagementFactory> calls) throws Exception {
+        final Path trace = Files.createTempFile("replay-management-factory", ".trace");
+        try {
+            try (RecordingManagementFactory recording = new RecordingManagementFactory.Builder()
+                    .setManagementFactory(managementFactory)
+                    .setPath(trace)
+                    .build()) {
+                calls.accept(recording);
+            }
+            return new ReplayManagementFactory.Builder().setPath(trace).build();
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+
+    /**
+     * Runs the collectors against the management factory and returns the
+     * values they emitted, excluding those which depend on the wall clock or
+     * on the collecting thread rather than on the beans.
+     */
+    private static List<String> collect(
+            final ManagementFactory managementFactory,
+            final int steps,
+            final Consumer<Integer> beforeStep) {
+        final MetricsFactory metricsFactory = Mockito.mock(MetricsFactory.class);
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        Mockito.doReturn(metrics).when(metricsFactory).create();
+        final JvmMetricsRunnable runnable = new JvmMetricsRunnable.Builder()
+                .setMetricsFactory(metricsFactory)
+                .setManagementFactory(managementFactory)
+                .setSwallowException(false)
+                .setCollectVirtualThreadMetrics(true)
+                .setCollectGarbageCollectionOverheadMetrics(true)
+                .setCollectClassLoadingMetrics(true)
+                .setCollectCpuMetrics(true)
+                .build();
+        for (int i = 0; i < steps; ++i) {
+            beforeStep.accept(i);
+            runnable.run();
+        }
+        return Mockito.mockingDetails(metrics).getInvocations().stream()
+                .filter(invocation -> !TIMED.contains(invocation.getMethod().getName()))
+                .filter(invocation -> !isUnreplayed(invocation.getArguments()[0].toString()))
+                .map(invocation -> invocation.getMethod().getName() + List.of(invocation.getArguments()))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressFBWarnings("DM_GC")
+    private static void collectGarbage(final Integer step) {
+        // Record the last collection of each collector between runs
+        System.gc();
+    }
+
+    private static boolean isUnreplayed(final String name) {
+        return name.startsWith("jvm/gc_overhead/percent_")
+                || name.endsWith("/allocated_bytes")
+                || name.equals("jvm/cpu/processors_used")
+                || name.equals("jvm/gc_overhead/thrashing")
+                || name.endsWith("/failures")
+                || name.endsWith("/skipped");
+    }
+
+    private static final int STEPS = 20;
+    private static final Set<String> TIMED = Set.of("setTimer", "close", "addAnnotation", "addAnnotations");
+
+    private interface ThrowingConsumer<T> {
+
+        void accept(T value) throws Exception;
+    }
+}
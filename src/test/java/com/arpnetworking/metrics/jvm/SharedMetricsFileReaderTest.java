@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the {@link SharedMetricsFileReader} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SharedMetricsFileReaderTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("shared-metrics-file-reader-test");
+        _path = _directory.resolve("jvm.metrics");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_path);
+        Files.delete(_directory);
+    }
+
+    @Test
+    public void testReadEmpty() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            final JvmSnapshot read = SharedMetricsFileReader.open(file.getPath()).read().get();
+            Assert.assertEquals(0, read.size());
+            Assert.assertEquals(0, read.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testReadRepeatedly() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            final SharedMetricsFileReader reader = SharedMetricsFileReader.open(_path);
+            file.update(record("jvm/gauge", 1L));
+            final JvmSnapshot first = reader.read().get();
+            file.update(record("jvm/gauge", 2L));
+            final JvmSnapshot second = reader.read().get();
+            Assert.assertEquals(1L, first.getLong(0));
+            Assert.assertEquals("jvm/gauge", second.getName(0));
+            Assert.assertEquals(2L, second.getLong(0));
+        }
+    }
+
+    @Test
+    public void testUpdateInProgress() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            final SharedMetricsFileReader reader = SharedMetricsFileReader.open(file.getPath());
+            // A writer which died mid update leaves the sequence odd
+            writeLong(SharedMetricsFile.SEQUENCE_OFFSET, 1);
+            Assert.assertFalse(reader.read().isPresent());
+            writeLong(SharedMetricsFile.SEQUENCE_OFFSET, 2);
+            Assert.assertTrue(reader.read().isPresent());
+        }
+    }
+
+    @Test
+    public void testConsistentWhileWriting() throws Exception {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            final SharedMetricsFileReader reader = SharedMetricsFileReader.open(_path);
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final Thread writer = new Thread(() -> {
+                final JvmSnapshotRecorder recorder = new JvmSnapshotRecorder();
+                for (long value = 0; running.get(); ++value) {
+                    recorder.begin(_passThrough);
+                    for (int i = 0; i < GAUGES; ++i) {
+                        recorder.setGauge("jvm/gauge/" + i, value);
+                    }
+                    file.update(recorder.publish());
+                }
+            });
+            writer.start();
+            try {
+                for (int read = 0; read < READS; ++read) {
+                    reader.read().ifPresent(snapshot -> {
+                        for (int i = 1; i < snapshot.size(); ++i) {
+                            Assert.assertEquals(snapshot.getLong(0), snapshot.getLong(i));
+                        }
+                    });
+                }
+            } finally {
+                running.set(false);
+                writer.join();
+            }
+        }
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void testMissingFile() throws IOException {
+        SharedMetricsFileReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFileTooSmall() throws IOException {
+        Files.write(_path, new byte[SharedMetricsFile.HEADER_SIZE - 1]);
+        SharedMetricsFileReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongMagic() throws IOException {
+        writeHeader(0, SharedMetricsFile.VERSION, 0);
+        SharedMetricsFileReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongVersion() throws IOException {
+        writeHeader(SharedMetricsFile.MAGIC, SharedMetricsFile.VERSION + 1, 0);
+        SharedMetricsFileReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNegativeCapacity() throws IOException {
+        writeHeader(SharedMetricsFile.MAGIC, SharedMetricsFile.VERSION, -1);
+        SharedMetricsFileReader.open(_path);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCapacityBeyondFile() throws IOException {
+        writeHeader(SharedMetricsFile.MAGIC, SharedMetricsFile.VERSION, 1);
+        SharedMetricsFileReader.open(_path);
+    }
+
+    private JvmSnapshot record(final String name, final long value) {
+        _recorder.begin(_passThrough);
+        _recorder.setGauge(name, value);
+        return _recorder.publish();
+    }
+
+    private void writeHeader(final int magic, final int version, final int capacity) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(SharedMetricsFile.HEADER_SIZE).order(ByteOrder.nativeOrder());
+        header.putInt(SharedMetricsFile.MAGIC_OFFSET, magic);
+        header.putInt(SharedMetricsFile.VERSION_OFFSET, version);
+        header.putInt(SharedMetricsFile.CAPACITY_OFFSET, capacity);
+        Files.write(_path, header.array());
+    }
+
+    private void writeLong(final int offset, final long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(_path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.nativeOrder()).putLong(0, value), offset);
+        }
+    }
+
+    private Path _directory;
+    private Path _path;
+    private final Metrics _passThrough = Mockito.mock(Metrics.class);
+    private final JvmSnapshotRecorder _recorder = new JvmSnapshotRecorder();
+
+    private static final int GAUGES = 16;
+    private static final int READS = 10000;
+}
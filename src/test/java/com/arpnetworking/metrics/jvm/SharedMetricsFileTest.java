@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link SharedMetricsFile} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class SharedMetricsFileTest {
+
+    @Before
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("shared-metrics-file-test");
+        _path = _directory.resolve("jvm.metrics");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(_directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            Assert.assertEquals(_path, file.getPath());
+            final SharedMetricsFileReader reader = SharedMetricsFileReader.open(_path);
+
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/long", 123L);
+            _recorder.setGauge("jvm/double", 1.5);
+            _recorder.incrementCounter("jvm/counter", 3);
+            _recorder.setTimer("jvm/timer", 7, TimeUnit.MILLISECONDS);
+            final JvmSnapshot written = _recorder.publish();
+            file.update(written);
+
+            final JvmSnapshot read = reader.read().get();
+            Assert.assertEquals(written.getTimestamp(), read.getTimestamp());
+            Assert.assertEquals(4, read.size());
+            Assert.assertEquals(JvmSnapshot.Kind.LONG_GAUGE, read.getKind(read.indexOf("jvm/long")));
+            Assert.assertEquals(123L, read.getLong(read.indexOf("jvm/long")));
+            Assert.assertEquals(JvmSnapshot.Kind.DOUBLE_GAUGE, read.getKind(read.indexOf("jvm/double")));
+            Assert.assertEquals(1.5, read.getDouble(read.indexOf("jvm/double")), 0.0);
+            Assert.assertEquals(JvmSnapshot.Kind.COUNTER, read.getKind(read.indexOf("jvm/counter")));
+            Assert.assertEquals(3L, read.getLong(read.indexOf("jvm/counter")));
+            Assert.assertNull(read.getUnit(read.indexOf("jvm/counter")));
+            Assert.assertEquals(JvmSnapshot.Kind.TIMER, read.getKind(read.indexOf("jvm/timer")));
+            Assert.assertEquals(7L, read.getLong(read.indexOf("jvm/timer")));
+            Assert.assertEquals(TimeUnit.MILLISECONDS, read.getUnit(read.indexOf("jvm/timer")));
+
+            // A metric not recorded in the next collection is not present
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/long", 456L);
+            file.update(_recorder.publish());
+            final JvmSnapshot next = reader.read().get();
+            Assert.assertEquals(456L, next.getLong(next.indexOf("jvm/long")));
+            Assert.assertFalse(next.isPresent(next.indexOf("jvm/double")));
+        }
+        Assert.assertFalse(Files.exists(_path));
+    }
+
+    @Test
+    public void testCapacityExceeded() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).setCapacity(1).build()) {
+            for (int i = 0; i < 2; ++i) {
+                _recorder.begin(_passThrough);
+                _recorder.setGauge("jvm/first", 1L);
+                _recorder.setGauge("jvm/second", 2L);
+                file.update(_recorder.publish());
+            }
+            final JvmSnapshot read = SharedMetricsFileReader.open(_path).read().get();
+            Assert.assertEquals(1, read.size());
+            Assert.assertEquals("jvm/first", read.getName(0));
+        }
+    }
+
+    @Test
+    public void testNameDoesNotFit() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            _recorder.begin(_passThrough);
+            _recorder.setGauge("jvm/" + "x".repeat(SharedMetricsFile.MAX_NAME_BYTES), 1L);
+            _recorder.setGauge("", 2L);
+            _recorder.setGauge("jvm/fits", 3L);
+            file.update(_recorder.publish());
+            final JvmSnapshot read = SharedMetricsFileReader.open(_path).read().get();
+            Assert.assertEquals(3, read.size());
+            Assert.assertFalse(read.isPresent(0));
+            Assert.assertEquals("", read.getName(0));
+            Assert.assertFalse(read.isPresent(1));
+            Assert.assertEquals(3L, read.getLong(read.indexOf("jvm/fits")));
+        }
+    }
+
+    @Test
+    public void testReplacesExistingFile() throws IOException {
+        Files.writeString(_path, "existing");
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build()) {
+            Assert.assertEquals(0, SharedMetricsFileReader.open(file.getPath()).read().get().size());
+            Assert.assertFalse(Files.exists(Path.of(_path + ".tmp")));
+        }
+    }
+
+    @Test
+    public void testWriteAfterClose() throws IOException {
+        final SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build();
+        final SharedMetricsFileReader reader = SharedMetricsFileReader.open(_path);
+        file.close();
+        file.close();
+        _recorder.begin(_passThrough);
+        _recorder.setGauge("jvm/gauge", 1L);
+        file.update(_recorder.publish());
+        Assert.assertEquals(0, reader.read().get().size());
+    }
+
+    @Test
+    public void testCloseFailure() throws IOException {
+        final SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).build();
+        Files.delete(_path);
+        Files.createDirectory(_path);
+        Files.createFile(_path.resolve("child"));
+        file.close();
+        Assert.assertTrue(Files.isDirectory(_path));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBuildFailure() throws IOException {
+        new SharedMetricsFile.Builder().setPath(_directory.resolve("missing").resolve("jvm.metrics")).build();
+    }
+
+    @Test
+    public void testBuilderDefaultCapacity() throws IOException {
+        try (SharedMetricsFile file = new SharedMetricsFile.Builder().setPath(_path).setCapacity(null).build()) {
+            Assert.assertEquals(SharedMetricsFile.slotOffset(512), Files.size(file.getPath()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullPath() throws IOException {
+        new SharedMetricsFile.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderCapacityTooSmall() throws IOException {
+        new SharedMetricsFile.Builder().setPath(_path).setCapacity(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderCapacityTooLarge() throws IOException {
+        new SharedMetricsFile.Builder().setPath(_path).setCapacity((1 << 20) + 1).build();
+    }
+
+    private Path _directory;
+    private Path _path;
+    private final Metrics _passThrough = Mockito.mock(Metrics.class);
+    private final JvmSnapshotRecorder _recorder = new JvmSnapshotRecorder();
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.Test;
+
+import javax.management.openmbean.OpenDataException;
+
+/**
+ * Tests the {@link SimulatedBeans} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SimulatedBeansTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedObjectName() {
+        SimulatedBeans.createObjectName("malformed");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOpenData() {
+        SimulatedBeans.createOpenData(() -> {
+            throw new OpenDataException("invalid");
+        });
+    }
+}
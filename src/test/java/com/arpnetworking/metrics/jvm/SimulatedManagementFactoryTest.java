@@ -0,0 +1,456 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.sun.management.GcInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the {@link SimulatedManagementFactory} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+@SuppressFBWarnings("NP_NONNULL_PARAM_VIOLATION")
+public final class SimulatedManagementFactoryTest {
+
+    @Test
+    public void testDeterministic() {
+        final SimulatedManagementFactory first = new SimulatedManagementFactory.Builder().setSeed(42L).build();
+        final SimulatedManagementFactory second = new SimulatedManagementFactory.Builder().setSeed(42L).build();
+        final SimulatedManagementFactory other = new SimulatedManagementFactory.Builder().setSeed(43L).build();
+        final List<List<Long>> otherValues = new ArrayList<>();
+        final List<List<Long>> firstValues = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            final List<Long> values = values(first);
+            Assert.assertEquals(values, values(second));
+            firstValues.add(values);
+            otherValues.add(values(other));
+            first.advance();
+            second.advance();
+            other.advance();
+        }
+        Assert.assertNotEquals(firstValues, otherValues);
+        Assert.assertEquals(1001, first.getSteps());
+    }
+
+    @Test
+    public void testHeapSawtooth() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder().build();
+        final GarbageCollectorMXBean young = managementFactory.getGarbageCollectorMXBeans().get(0);
+        final GarbageCollectorMXBean old = managementFactory.getGarbageCollectorMXBeans().get(1);
+        Assert.assertEquals("G1 Young Generation", young.getName());
+        Assert.assertEquals("G1 Old Generation", old.getName());
+        Assert.assertTrue(young.isValid());
+        int drops = 0;
+        long previous = managementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        for (int i = 0; i < 2000; ++i) {
+            final long youngCount = young.getCollectionCount();
+            final long oldCount = old.getCollectionCount();
+            managementFactory.advance();
+            final MemoryUsage heap = managementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            Assert.assertTrue(heap.getUsed() <= heap.getMax());
+            if (heap.getUsed() < previous) {
+                ++drops;
+                Assert.assertTrue(young.getCollectionCount() > youngCount || old.getCollectionCount() > oldCount);
+            }
+            previous = heap.getUsed();
+        }
+        Assert.assertTrue(drops > 100);
+        Assert.assertTrue(old.getCollectionCount() > 0);
+        Assert.assertTrue(old.getCollectionTime() > young.getCollectionTime() / young.getCollectionCount());
+    }
+
+    @Test
+    public void testMemoryPools() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setMemoryPools(10)
+                .build();
+        final List<MemoryPoolMXBean> pools = managementFactory.getMemoryPoolMXBeans();
+        Assert.assertEquals(10, pools.size());
+        Assert.assertEquals("G1 Eden Space", pools.get(0).getName());
+        Assert.assertEquals("Metaspace", pools.get(3).getName());
+        Assert.assertEquals("Synthetic Pool 9", pools.get(9).getName());
+        Assert.assertEquals(MemoryType.HEAP, pools.get(2).getType());
+        Assert.assertEquals(MemoryType.NON_HEAP, pools.get(3).getType());
+        Assert.assertSame(pools.get(2).getUsage(), pools.get(2).getCollectionUsage());
+        Assert.assertNull(pools.get(3).getCollectionUsage());
+        Assert.assertTrue(pools.get(3).isValid());
+        Assert.assertFalse(pools.get(3).isUsageThresholdSupported());
+        Assert.assertFalse(pools.get(3).isCollectionUsageThresholdSupported());
+
+        // Values are computed once per step
+        final MemoryUsage usage = pools.get(3).getUsage();
+        Assert.assertSame(usage, pools.get(3).getUsage());
+        for (int i = 0; i < 1000; ++i) {
+            managementFactory.advance();
+        }
+        Assert.assertTrue(pools.get(3).getUsage().getUsed() > usage.getUsed());
+        final MemoryMXBean memory = managementFactory.getMemoryMXBean();
+        Assert.assertEquals(0, memory.getObjectPendingFinalizationCount());
+        Assert.assertFalse(memory.isVerbose());
+        long nonHeapUsed = 0;
+        for (final MemoryPoolMXBean pool : pools.subList(3, 10)) {
+            nonHeapUsed += pool.getUsage().getUsed();
+        }
+        Assert.assertEquals(nonHeapUsed, memory.getNonHeapMemoryUsage().getUsed());
+    }
+
+    @Test
+    public void testThreadChurn() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setThreads(50_000)
+                .setThreadChurn(500)
+                .build();
+        final ThreadMXBean thread = managementFactory.getThreadMXBean();
+        for (int i = 0; i < 1000; ++i) {
+            final long started = thread.getTotalStartedThreadCount();
+            managementFactory.advance();
+            Assert.assertTrue(thread.getTotalStartedThreadCount() >= started + 500);
+            Assert.assertTrue(Math.abs(thread.getThreadCount() - 50_000) < 5_000);
+            Assert.assertTrue(thread.getPeakThreadCount() >= thread.getThreadCount());
+            Assert.assertTrue(thread.getDaemonThreadCount() < thread.getThreadCount());
+        }
+        Assert.assertEquals(thread.getThreadCount(), thread.getAllThreadIds().length);
+        thread.resetPeakThreadCount();
+        Assert.assertEquals(thread.getThreadCount(), thread.getPeakThreadCount());
+    }
+
+    @Test
+    public void testFileDescriptorGrowth() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setMaxFileDescriptors(100L)
+                .build();
+        final UnixOperatingSystemMXBean operatingSystem =
+                (UnixOperatingSystemMXBean) managementFactory.getOperatingSystemMXBean();
+        long previous = operatingSystem.getOpenFileDescriptorCount();
+        for (int i = 0; i < 1000; ++i) {
+            managementFactory.advance();
+            Assert.assertTrue(operatingSystem.getOpenFileDescriptorCount() >= previous);
+            previous = operatingSystem.getOpenFileDescriptorCount();
+            Assert.assertTrue(operatingSystem.getProcessCpuLoad() > 0);
+        }
+        Assert.assertEquals(100, operatingSystem.getOpenFileDescriptorCount());
+        Assert.assertEquals(100, operatingSystem.getMaxFileDescriptorCount());
+    }
+
+    @Test
+    public void testBufferPools() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setBufferPools(4)
+                .build();
+        final List<BufferPoolMXBean> pools = managementFactory.getBufferPoolMXBeans();
+        Assert.assertEquals("direct", pools.get(0).getName());
+        Assert.assertEquals("synthetic 3", pools.get(3).getName());
+        long maxCount = 0;
+        for (int i = 0; i < 100; ++i) {
+            managementFactory.advance();
+            Assert.assertEquals(pools.get(0).getTotalCapacity(), pools.get(0).getMemoryUsed());
+            maxCount = Math.max(maxCount, pools.get(0).getCount());
+        }
+        Assert.assertTrue(maxCount > 0);
+    }
+
+    @Test
+    public void testSingleGarbageCollector() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setGarbageCollectors(1)
+                .build();
+        for (int i = 0; i < 2000; ++i) {
+            managementFactory.advance();
+        }
+        final MemoryUsage heap = managementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Assert.assertTrue(heap.getUsed() <= heap.getMax());
+    }
+
+    @Test
+    public void testScale() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setMemoryPools(200)
+                .setGarbageCollectors(20)
+                .setBufferPools(10)
+                .setThreads(50_000)
+                .build();
+        final MetricsFactory metricsFactory = Mockito.mock(MetricsFactory.class);
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        Mockito.doReturn(metrics).when(metricsFactory).create();
+        final JvmMetricsRunnable runnable = new JvmMetricsRunnable.Builder()
+                .setMetricsFactory(metricsFactory)
+                .setManagementFactory(managementFactory)
+                .setSwallowException(false)
+                .setGovernOverhead(true)
+                .setCollectVirtualThreadMetrics(true)
+                .setCollectGarbageCollectionOverheadMetrics(true)
+                .setCollectSafepointMetrics(true)
+                .build();
+        for (int i = 0; i < 10; ++i) {
+            managementFactory.advance();
+            runnable.run();
+        }
+        Assert.assertEquals(20, managementFactory.getGarbageCollectorMXBeans().size());
+        Assert.assertTrue(managementFactory.getGarbageCollectorMXBeans().get(19).getName().startsWith("Synthetic"));
+        Assert.assertFalse(managementFactory.getHsperfdata().isPresent());
+        Assert.assertNotNull(managementFactory.getMBeanServerConnection());
+        Mockito.verify(metrics, Mockito.atLeast(10 * 200)).setGauge(Mockito.anyString(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testClassLoadingAndCpuTime() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder().build();
+        final ClassLoadingMXBean classLoading = managementFactory.getClassLoadingMXBean();
+        final com.sun.management.OperatingSystemMXBean operatingSystem =
+                (com.sun.management.OperatingSystemMXBean) managementFactory.getOperatingSystemMXBean();
+        long previousLoaded = classLoading.getTotalLoadedClassCount();
+        long previousCpuTime = operatingSystem.getProcessCpuTime();
+        for (int i = 0; i < 1000; ++i) {
+            managementFactory.advance();
+            Assert.assertTrue(classLoading.getTotalLoadedClassCount() > previousLoaded);
+            Assert.assertTrue(operatingSystem.getProcessCpuTime() > previousCpuTime);
+            previousLoaded = classLoading.getTotalLoadedClassCount();
+            previousCpuTime = operatingSystem.getProcessCpuTime();
+        }
+        Assert.assertTrue(classLoading.getUnloadedClassCount() > 0);
+        Assert.assertEquals(
+                classLoading.getTotalLoadedClassCount() - classLoading.getUnloadedClassCount(),
+                classLoading.getLoadedClassCount());
+    }
+
+    @Test
+    public void testNeutralOperations() throws ReflectiveOperationException {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder().build();
+        // No operation throws, including the settings which are ignored
+        invokeAll(com.sun.management.GarbageCollectorMXBean.class, managementFactory.getGarbageCollectorMXBeans().get(0));
+        invokeAll(MemoryPoolMXBean.class, managementFactory.getMemoryPoolMXBeans().get(0));
+        invokeAll(BufferPoolMXBean.class, managementFactory.getBufferPoolMXBeans().get(0));
+        invokeAll(MemoryMXBean.class, managementFactory.getMemoryMXBean());
+        invokeAll(com.sun.management.ThreadMXBean.class, managementFactory.getThreadMXBean());
+        invokeAll(UnixOperatingSystemMXBean.class, managementFactory.getOperatingSystemMXBean());
+        invokeAll(ClassLoadingMXBean.class, managementFactory.getClassLoadingMXBean());
+
+        Assert.assertEquals(
+                "java.lang:type=GarbageCollector,name=G1 Young Generation",
+                managementFactory.getGarbageCollectorMXBeans().get(0).getObjectName().toString());
+        Assert.assertArrayEquals(
+                new String[]{"G1 Eden Space", "G1 Survivor Space", "G1 Old Gen"},
+                managementFactory.getGarbageCollectorMXBeans().get(1).getMemoryPoolNames());
+        final MemoryPoolMXBean old = managementFactory.getMemoryPoolMXBeans().get(2);
+        Assert.assertEquals("java.lang:type=MemoryPool,name=G1 Old Gen", old.getObjectName().toString());
+        Assert.assertArrayEquals(new String[]{"G1 Young Generation", "G1 Old Generation"}, old.getMemoryManagerNames());
+        Assert.assertEquals(0, managementFactory.getMemoryPoolMXBeans().get(3).getMemoryManagerNames().length);
+        old.setUsageThreshold(1);
+        Assert.assertEquals(0, old.getUsageThreshold());
+        Assert.assertFalse(old.isUsageThresholdExceeded());
+        Assert.assertEquals(
+                "java.nio:type=BufferPool,name=direct",
+                managementFactory.getBufferPoolMXBeans().get(0).getObjectName().toString());
+        Assert.assertEquals("java.lang:type=Memory", managementFactory.getMemoryMXBean().getObjectName().toString());
+        Assert.assertEquals("java.lang:type=ClassLoading", managementFactory.getClassLoadingMXBean().getObjectName().toString());
+
+        final ThreadMXBean thread = managementFactory.getThreadMXBean();
+        Assert.assertEquals("java.lang:type=Threading", thread.getObjectName().toString());
+        Assert.assertNull(thread.getThreadInfo(1L));
+        Assert.assertArrayEquals(new ThreadInfo[2], thread.getThreadInfo(new long[]{1, 2}));
+        Assert.assertEquals(0, thread.dumpAllThreads(false, false).length);
+        Assert.assertEquals(0, thread.findDeadlockedThreads().length);
+        Assert.assertEquals(-1, thread.getThreadCpuTime(1L));
+        Assert.assertArrayEquals(new long[]{-1, -1}, ((com.sun.management.ThreadMXBean) thread).getThreadCpuTime(new long[]{1, 2}));
+
+        final UnixOperatingSystemMXBean operatingSystem =
+                (UnixOperatingSystemMXBean) managementFactory.getOperatingSystemMXBean();
+        Assert.assertEquals("java.lang:type=OperatingSystem", operatingSystem.getObjectName().toString());
+        Assert.assertTrue(operatingSystem.getTotalMemorySize() > operatingSystem.getFreeMemorySize());
+    }
+
+    @Test
+    public void testLastGcInfo() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder().build();
+        final com.sun.management.GarbageCollectorMXBean young =
+                (com.sun.management.GarbageCollectorMXBean) managementFactory.getGarbageCollectorMXBeans().get(0);
+        Assert.assertNull(young.getLastGcInfo());
+        while (young.getCollectionCount() == 0) {
+            managementFactory.advance();
+        }
+        final GcInfo gcInfo = young.getLastGcInfo();
+        // Created once per collection
+        Assert.assertSame(gcInfo, young.getLastGcInfo());
+        Assert.assertEquals(1, gcInfo.getId());
+        Assert.assertEquals(young.getCollectionTime(), gcInfo.getDuration());
+        Assert.assertEquals(gcInfo.getStartTime() + gcInfo.getDuration(), gcInfo.getEndTime());
+        Assert.assertTrue(gcInfo.getMemoryUsageBeforeGc().get("G1 Eden Space").getUsed() > 0);
+        Assert.assertEquals(0, gcInfo.getMemoryUsageAfterGc().get("G1 Eden Space").getUsed());
+        Assert.assertEquals(
+                managementFactory.getMemoryPoolMXBeans().get(2).getUsage().getUsed(),
+                gcInfo.getMemoryUsageAfterGc().get("G1 Old Gen").getUsed());
+
+        // The synthetic collectors reclaim nothing
+        final SimulatedManagementFactory syntheticFactory = new SimulatedManagementFactory.Builder()
+                .setGarbageCollectors(3)
+                .build();
+        final com.sun.management.GarbageCollectorMXBean other =
+                (com.sun.management.GarbageCollectorMXBean) syntheticFactory.getGarbageCollectorMXBeans().get(2);
+        while (other.getCollectionCount() == 0) {
+            syntheticFactory.advance();
+        }
+        final GcInfo otherInfo = other.getLastGcInfo();
+        for (final String pool : other.getMemoryPoolNames()) {
+            Assert.assertEquals(
+                    otherInfo.getMemoryUsageBeforeGc().get(pool).getUsed(),
+                    otherInfo.getMemoryUsageAfterGc().get(pool).getUsed());
+        }
+    }
+
+    @Test
+    public void testAllocatedBytes() throws ReflectiveOperationException {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setThreads(100)
+                .setThreadChurn(0)
+                .build();
+        final com.sun.management.ThreadMXBean thread = (com.sun.management.ThreadMXBean) managementFactory.getThreadMXBean();
+        Assert.assertTrue(thread.isThreadAllocatedMemorySupported());
+        Assert.assertTrue(thread.isThreadAllocatedMemoryEnabled());
+        final Method totalAllocatedBytes = com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+        long previous = (long) totalAllocatedBytes.invoke(thread);
+        for (int i = 0; i < 100; ++i) {
+            managementFactory.advance();
+            final long total = (long) totalAllocatedBytes.invoke(thread);
+            Assert.assertTrue(total > previous);
+            previous = total;
+        }
+        final long[] threadIds = thread.getAllThreadIds();
+        long sum = 0;
+        for (final long bytes : thread.getThreadAllocatedBytes(threadIds)) {
+            sum += bytes;
+        }
+        Assert.assertTrue(previous - sum < threadIds.length);
+        Assert.assertEquals(thread.getThreadAllocatedBytes(1), thread.getCurrentThreadAllocatedBytes());
+        Assert.assertEquals(-1, thread.getThreadAllocatedBytes(0));
+        Assert.assertEquals(-1, thread.getThreadAllocatedBytes(threadIds.length + 1));
+    }
+
+    @Test
+    public void testPeakUsage() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder().build();
+        final MemoryPoolMXBean eden = managementFactory.getMemoryPoolMXBeans().get(0);
+        for (int i = 0; i < 100; ++i) {
+            managementFactory.advance();
+            Assert.assertTrue(eden.getPeakUsage().getUsed() >= eden.getUsage().getUsed());
+        }
+        Assert.assertTrue(eden.getPeakUsage().getUsed() > eden.getUsage().getUsed());
+        eden.resetPeakUsage();
+        Assert.assertSame(eden.getUsage(), eden.getPeakUsage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewMemoryPools() {
+        new SimulatedManagementFactory.Builder().setMemoryPools(2).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewGarbageCollectors() {
+        new SimulatedManagementFactory.Builder().setGarbageCollectors(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreadChurn() {
+        new SimulatedManagementFactory.Builder().setThreadChurn(-1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooSmallMaxHeap() {
+        new SimulatedManagementFactory.Builder().setMaxHeap(1024L).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewFileDescriptors() {
+        new SimulatedManagementFactory.Builder().setMaxFileDescriptors(0L).build();
+    }
+
+    @Test
+    public void testNullToDefault() {
+        final SimulatedManagementFactory managementFactory = new SimulatedManagementFactory.Builder()
+                .setSeed(null)
+                .setMemoryPools(null)
+                .setGarbageCollectors(null)
+                .setBufferPools(null)
+                .setThreads(null)
+                .setThreadChurn(null)
+                .setMaxHeap(null)
+                .setMaxFileDescriptors(null)
+                .build();
+        Assert.assertEquals(values(new SimulatedManagementFactory.Builder().build()), values(managementFactory));
+        Assert.assertEquals(8, managementFactory.getMemoryPoolMXBeans().size());
+        Assert.assertEquals(3, managementFactory.getBufferPoolMXBeans().size());
+    }
+
+    private static List<Long> values(final SimulatedManagementFactory managementFactory) {
+        final List<Long> values = new ArrayList<>();
+        values.add(managementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        values.add(managementFactory.getMemoryMXBean().getNonHeapMemoryUsage().getUsed());
+        for (final GarbageCollectorMXBean bean : managementFactory.getGarbageCollectorMXBeans()) {
+            values.add(bean.getCollectionCount());
+            values.add(bean.getCollectionTime());
+        }
+        for (final MemoryPoolMXBean bean : managementFactory.getMemoryPoolMXBeans()) {
+            values.add(bean.getUsage().getUsed());
+        }
+        for (final BufferPoolMXBean bean : managementFactory.getBufferPoolMXBeans()) {
+            values.add(bean.getCount());
+        }
+        values.add((long) managementFactory.getThreadMXBean().getThreadCount());
+        values.add(managementFactory.getThreadMXBean().getTotalStartedThreadCount());
+        values.add(((UnixOperatingSystemMXBean) managementFactory.getOperatingSystemMXBean()).getOpenFileDescriptorCount());
+        return values;
+    }
+
+    private static void invokeAll(final Class<?> beanInterface, final Object bean) throws ReflectiveOperationException {
+        for (final Method method : beanInterface.getMethods()) {
+            final Object[] args = new Object[method.getParameterCount()];
+            for (int i = 0; i < args.length; ++i) {
+                args[i] = argument(method.getParameterTypes()[i]);
+            }
+            method.invoke(bean, args);
+        }
+    }
+
+    private static Object argument(final Class<?> type) {
+        if (type == long.class) {
+            return 1L;
+        } else if (type == int.class) {
+            return 1;
+        } else if (type == boolean.class) {
+            return false;
+        }
+        return new long[]{1};
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link TaskTrackingExecutorService} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class TaskTrackingExecutorServiceTest {
+
+    @Test
+    public void testTracksTasks() throws InterruptedException, ExecutionException {
+        final TaskTrackingExecutorService executor = TaskTrackingExecutorService.newInstance(
+                Executors.newCachedThreadPool());
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<?> future = executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            });
+            started.await();
+            Assert.assertEquals(1, executor.getSubmittedTaskCount());
+            Assert.assertEquals(1, executor.getRunningTaskCount());
+            Assert.assertEquals(0, executor.getCompletedTaskCount());
+
+            release.countDown();
+            future.get();
+            executor.submit(() -> {
+                throw new IllegalStateException("Test exception");
+            });
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            Assert.assertTrue(executor.isShutdown());
+            Assert.assertTrue(executor.isTerminated());
+            Assert.assertEquals(2, executor.getSubmittedTaskCount());
+            Assert.assertEquals(0, executor.getRunningTaskCount());
+            Assert.assertEquals(2, executor.getCompletedTaskCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedNotCounted() {
+        final ExecutorService delegate = Mockito.mock(ExecutorService.class);
+        Mockito.doThrow(new RejectedExecutionException()).when(delegate).execute(Mockito.any(Runnable.class));
+        final TaskTrackingExecutorService executor = TaskTrackingExecutorService.newInstance(delegate);
+        try {
+            executor.execute(() -> { });
+            Assert.fail("Expected exception not thrown");
+        } catch (final RejectedExecutionException e) {
+            Assert.assertEquals(0, executor.getSubmittedTaskCount());
+        }
+    }
+
+    @Test
+    public void testShutdownNowDelegates() {
+        final ExecutorService delegate = Mockito.mock(ExecutorService.class);
+        Mockito.doReturn(Collections.emptyList()).when(delegate).shutdownNow();
+        final TaskTrackingExecutorService executor = TaskTrackingExecutorService.newInstance(delegate);
+        Assert.assertTrue(executor.shutdownNow().isEmpty());
+        Mockito.verify(delegate).shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.ClassLoadingMXBean;
+
+/**
+ * Tests {@link ClassLoadingMetricsCollector}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class ClassLoadingMetricsCollectorTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _bean = Mockito.mock(ClassLoadingMXBean.class);
+        Mockito.doReturn(_bean).when(_managementFactory).getClassLoadingMXBean();
+    }
+
+    @Test
+    public void testCollect() {
+        final JvmMetricsCollector collector = ClassLoadingMetricsCollector.newInstance();
+        createMockBean(100, 100, 0);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/class_loading/loaded_class_count", 100);
+        Mockito.verify(_metrics, Mockito.never()).incrementCounter(Mockito.anyString(), Mockito.anyLong());
+
+        createMockBean(110, 120, 10);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/class_loading/loaded_class_count", 110);
+        Mockito.verify(_metrics).incrementCounter("jvm/class_loading/loaded_class_count_delta", 20);
+        Mockito.verify(_metrics).incrementCounter("jvm/class_loading/unloaded_class_count_delta", 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCollectWithException() {
+        Mockito.doThrow(new IllegalStateException()).when(_managementFactory).getClassLoadingMXBean();
+        ClassLoadingMetricsCollector.newInstance().collect(_metrics, _managementFactory);
+    }
+
+    private void createMockBean(final int loaded, final long totalLoaded, final long unloaded) {
+        Mockito.doReturn(loaded).when(_bean).getLoadedClassCount();
+        Mockito.doReturn(totalLoaded).when(_bean).getTotalLoadedClassCount();
+        Mockito.doReturn(unloaded).when(_bean).getUnloadedClassCount();
+    }
+
+    private Metrics _metrics;
+    private ManagementFactory _managementFactory;
+    private ClassLoadingMXBean _bean;
+}
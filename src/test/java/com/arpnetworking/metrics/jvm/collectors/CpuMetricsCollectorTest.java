@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests {@link CpuMetricsCollector}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class CpuMetricsCollectorTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _bean = Mockito.mock(com.sun.management.OperatingSystemMXBean.class);
+        Mockito.doReturn(_bean).when(_managementFactory).getOperatingSystemMXBean();
+        _nanoTime = new AtomicLong();
+    }
+
+    @Test
+    public void testCollect() {
+        final JvmMetricsCollector collector = new CpuMetricsCollector(_nanoTime::get);
+        Mockito.doReturn(TimeUnit.SECONDS.toNanos(5)).when(_bean).getProcessCpuTime();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+
+        // Two processors busy for ten seconds
+        Mockito.doReturn(TimeUnit.SECONDS.toNanos(25)).when(_bean).getProcessCpuTime();
+        _nanoTime.set(TimeUnit.SECONDS.toNanos(10));
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setTimer(
+                "jvm/cpu/process_cpu_time_delta",
+                TimeUnit.SECONDS.toNanos(20),
+                TimeUnit.NANOSECONDS);
+        Mockito.verify(_metrics).setGauge("jvm/cpu/processors_used", 2.0);
+    }
+
+    @Test
+    public void testCollectNoTimeElapsed() {
+        final JvmMetricsCollector collector = new CpuMetricsCollector(_nanoTime::get);
+        Mockito.doReturn(5L, 10L).when(_bean).getProcessCpuTime();
+        collector.collect(_metrics, _managementFactory);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setTimer("jvm/cpu/process_cpu_time_delta", 5L, TimeUnit.NANOSECONDS);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.anyString(), Mockito.anyDouble());
+    }
+
+    @Test
+    public void testCollectNotMeasured() {
+        final JvmMetricsCollector collector = CpuMetricsCollector.newInstance();
+        Mockito.doReturn(-1L).when(_bean).getProcessCpuTime();
+        collector.collect(_metrics, _managementFactory);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testCollectWhenNotInstanceOfHotSpotOperatingSystemMXBean() {
+        Mockito.doReturn(Mockito.mock(OperatingSystemMXBean.class)).when(_managementFactory).getOperatingSystemMXBean();
+        final JvmMetricsCollector collector = CpuMetricsCollector.newInstance();
+        collector.collect(_metrics, _managementFactory);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    private Metrics _metrics;
+    private ManagementFactory _managementFactory;
+    private com.sun.management.OperatingSystemMXBean _bean;
+    private AtomicLong _nanoTime;
+}
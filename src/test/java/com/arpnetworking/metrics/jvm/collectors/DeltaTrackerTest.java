@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link DeltaTracker} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class DeltaTrackerTest {
+
+    @Test
+    public void testUpdate() {
+        final DeltaTracker tracker = new DeltaTracker();
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.update(5));
+        Assert.assertEquals(3, tracker.update(8));
+        Assert.assertEquals(0, tracker.update(8));
+        Assert.assertEquals(-2, tracker.update(6));
+    }
+
+    @Test
+    public void testUndefined() {
+        final DeltaTracker tracker = new DeltaTracker();
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.update(-1));
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.update(5));
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.update(-1));
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.update(7));
+        Assert.assertEquals(1, tracker.update(8));
+    }
+
+    @Test
+    public void testRate() {
+        final DeltaTracker tracker = new DeltaTracker();
+        final long first = tracker.update(100, 1000);
+        Assert.assertEquals(DeltaTracker.UNDEFINED, first);
+        Assert.assertEquals(DeltaTracker.UNDEFINED, tracker.getElapsedNanos());
+        Assert.assertTrue(Double.isNaN(tracker.toRate(first, TimeUnit.SECONDS)));
+
+        final long second = tracker.update(150, 1000 + TimeUnit.MILLISECONDS.toNanos(500));
+        Assert.assertEquals(50, second);
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(500), tracker.getElapsedNanos());
+        Assert.assertEquals(100.0, tracker.toRate(second, TimeUnit.SECONDS), 0.001);
+        Assert.assertEquals(6000.0, tracker.toRate(second, TimeUnit.MINUTES), 0.001);
+    }
+
+    @Test
+    public void testRateUndefined() {
+        final DeltaTracker tracker = new DeltaTracker();
+        tracker.update(-1, 0);
+        final long undefined = tracker.update(5, 10);
+        Assert.assertEquals(DeltaTracker.UNDEFINED, undefined);
+        Assert.assertTrue(Double.isNaN(tracker.toRate(undefined, TimeUnit.SECONDS)));
+
+        // No time elapsed
+        final long delta = tracker.update(8, 10);
+        Assert.assertEquals(3, delta);
+        Assert.assertTrue(Double.isNaN(tracker.toRate(delta, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testConcurrentUpdatesSumToTotal() throws InterruptedException {
+        final DeltaTracker tracker = new DeltaTracker();
+        final AtomicLong counter = new AtomicLong();
+        final AtomicLong total = new AtomicLong();
+        tracker.update(0);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; ++j) {
+                    total.addAndGet(tracker.update(counter.incrementAndGet()));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        total.addAndGet(tracker.update(counter.get()));
+        Assert.assertEquals(counter.get(), total.get());
+    }
+}
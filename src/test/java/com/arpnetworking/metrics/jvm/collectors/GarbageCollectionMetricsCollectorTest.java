@@ -17,6 +17,7 @@
 package com.arpnetworking.metrics.jvm.collectors;
 
 import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.Hsperfdata;
 import com.arpnetworking.metrics.jvm.ManagementFactory;
 import org.junit.After;
 import org.junit.Before;
@@ -26,6 +27,8 @@ import org.mockito.Mockito;
 import java.lang.management.GarbageCollectorMXBean;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests the {@link GarbageCollectionMetricsCollector} class.
@@ -223,12 +226,58 @@ public final class GarbageCollectionMetricsCollectorTest {
         Mockito.verify(_metrics).incrementCounter("jvm/garbage_collector/my_bean/collection_count_delta", -2L);
     }
 
+    @Test
+    public void testCollectCollectionTimeDelta() {
+        createMockBean(_gcBean1, "My Bean", 3L, 10L);
+        Mockito.doReturn(Collections.singletonList(_gcBean1)).when(_managementFactory).getGarbageCollectorMXBeans();
+        final GarbageCollectionMetricsCollector collector =
+                (GarbageCollectionMetricsCollector) GarbageCollectionMetricsCollector.newInstance();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never())
+                .setTimer(Mockito.eq("jvm/garbage_collector/my_bean/collection_time_delta"), Mockito.anyLong(), Mockito.any());
+        createMockBean(_gcBean1, "My Bean", 5L, 25L);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setTimer("jvm/garbage_collector/my_bean/collection_time_delta", 15L, TimeUnit.MILLISECONDS);
+    }
+
     @Test(expected = Exception.class)
     public void testCollectWithExceptionWithGettingBeans() {
         Mockito.doThrow(Exception.class).when(_managementFactory).getGarbageCollectorMXBeans();
         GarbageCollectionMetricsCollector.newInstance().collect(_metrics, _managementFactory);
     }
 
+    @Test
+    public void testCollectFromHsperfdata() {
+        final Hsperfdata hsperfdata = Mockito.mock(Hsperfdata.class);
+        final Hsperfdata.GarbageCollector gcCollector = Mockito.mock(Hsperfdata.GarbageCollector.class);
+        Mockito.doReturn("Young Collection").when(gcCollector).getName();
+        Mockito.doReturn(3L).when(gcCollector).getCollectionCount();
+        Mockito.doReturn(10L).when(gcCollector).getCollectionTime();
+        Mockito.doReturn(Collections.singletonList(gcCollector)).when(hsperfdata).getGarbageCollectors();
+        Mockito.doReturn(Optional.of(hsperfdata)).when(_managementFactory).getHsperfdata();
+        final JvmMetricsCollector collector = GarbageCollectionMetricsCollector.newHsperfdataInstance();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.doReturn(5L).when(gcCollector).getCollectionCount();
+        Mockito.doReturn(25L).when(gcCollector).getCollectionTime();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/garbage_collector/young_collection/collection_count", 3L);
+        Mockito.verify(_metrics).setGauge("jvm/garbage_collector/young_collection/collection_count", 5L);
+        Mockito.verify(_metrics).setGauge("jvm/garbage_collector/young_collection/collection_time", 25L);
+        Mockito.verify(_metrics).incrementCounter("jvm/garbage_collector/young_collection/collection_count_delta", 2L);
+        Mockito.verify(_metrics).setTimer("jvm/garbage_collector/young_collection/collection_time_delta", 15L, TimeUnit.MILLISECONDS);
+        Mockito.verify(_managementFactory, Mockito.never()).getGarbageCollectorMXBeans();
+    }
+
+    @Test
+    public void testCollectFromHsperfdataNotPublished() {
+        createMockBean(_gcBean1, "My Bean", 5L, 100L);
+        Mockito.doReturn(Collections.singletonList(_gcBean1)).when(_managementFactory).getGarbageCollectorMXBeans();
+        Mockito.doReturn(Optional.empty()).when(_managementFactory).getHsperfdata();
+        GarbageCollectionMetricsCollector.newHsperfdataInstance().collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/garbage_collector/my_bean/collection_count", 5L);
+        Mockito.verify(_metrics).setGauge("jvm/garbage_collector/my_bean/collection_time", 100L);
+    }
+
     private void createMockBean(
             final GarbageCollectorMXBean gcBean,
             final String name,
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import com.sun.management.GcInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+import org.mockito.Mockito;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the {@link GarbageCollectionOverheadMetricsCollector} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class GarbageCollectionOverheadMetricsCollectorTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _gcBean = Mockito.mock(com.sun.management.GarbageCollectorMXBean.class);
+        _gcInfo = Mockito.mock(GcInfo.class);
+        _memoryBean = Mockito.mock(MemoryMXBean.class);
+        Mockito.doReturn("Old").when(_gcBean).getName();
+        Mockito.doReturn(_gcInfo).when(_gcBean).getLastGcInfo();
+        Mockito.doReturn(Collections.singletonList(_gcBean)).when(_managementFactory).getGarbageCollectorMXBeans();
+        Mockito.doReturn(_memoryBean).when(_managementFactory).getMemoryMXBean();
+        Mockito.doReturn(new MemoryUsage(0, 0, 1000, 1000)).when(_memoryBean).getHeapMemoryUsage();
+        Mockito.doReturn(Arrays.asList(
+                createPool("Old", MemoryType.HEAP),
+                createPool("Eden", MemoryType.HEAP),
+                createPool("Survivor", MemoryType.HEAP),
+                createPool("Metaspace", MemoryType.NON_HEAP)))
+                .when(_managementFactory).getMemoryPoolMXBeans();
+        setGcInfo(900, 880);
+        _nanos = new AtomicLong(System.nanoTime());
+        _collector = new GarbageCollectionOverheadMetricsCollector(0.5, 0.05, _nanos::get);
+    }
+
+    @After
+    public void tearDown() {
+        _metrics = null;
+        _managementFactory = null;
+        _gcBean = null;
+        _gcInfo = null;
+        _memoryBean = null;
+        _nanos = null;
+        _collector = null;
+    }
+
+    @Test
+    public void testFirstCollection() {
+        Mockito.doReturn(1L).when(_gcBean).getCollectionCount();
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testOverheadWindows() {
+        Mockito.doReturn(0L, 3000L, 27000L).when(_gcBean).getCollectionTime();
+        _collector.collect(_metrics, _managementFactory);
+        advance(30);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/percent_1m"), AdditionalMatchers.eq(10.0, DELTA));
+        advance(120);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/percent_1m"), AdditionalMatchers.eq(20.0, DELTA));
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/percent_5m"), AdditionalMatchers.eq(18.0, DELTA));
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/percent_15m"), AdditionalMatchers.eq(18.0, DELTA));
+        Mockito.verify(_metrics, Mockito.times(2)).setGauge("jvm/gc_overhead/thrashing", 0L);
+    }
+
+    @Test
+    public void testConcurrentCollectorsExcluded() {
+        final GarbageCollectorMXBean concurrent = Mockito.mock(GarbageCollectorMXBean.class);
+        Mockito.doReturn("G1 Concurrent GC").when(concurrent).getName();
+        Mockito.doReturn(0L, 20000L).when(concurrent).getCollectionTime();
+        final GarbageCollectorMXBean cycles = Mockito.mock(GarbageCollectorMXBean.class);
+        Mockito.doReturn("ZGC Major Cycles").when(cycles).getName();
+        Mockito.doReturn(0L, 20000L).when(cycles).getCollectionTime();
+        Mockito.doReturn(Arrays.asList(_gcBean, concurrent, cycles)).when(_managementFactory).getGarbageCollectorMXBeans();
+        Mockito.doReturn(0L, 3000L).when(_gcBean).getCollectionTime();
+        _collector.collect(_metrics, _managementFactory);
+        advance(30);
+        _collector.collect(_metrics, _managementFactory);
+        // Only the pauses count as overhead
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/percent_1m"), AdditionalMatchers.eq(10.0, DELTA));
+    }
+
+    @Test
+    public void testIsPause() {
+        Assert.assertTrue(GarbageCollectionOverheadMetricsCollector.isPause(createBean("G1 Young Generation")));
+        Assert.assertTrue(GarbageCollectionOverheadMetricsCollector.isPause(createBean("ZGC Major Pauses")));
+        Assert.assertTrue(GarbageCollectionOverheadMetricsCollector.isPause(createBean("ConcurrentMarkSweep")));
+        Assert.assertFalse(GarbageCollectionOverheadMetricsCollector.isPause(createBean("G1 Concurrent GC")));
+        Assert.assertFalse(GarbageCollectionOverheadMetricsCollector.isPause(createBean("ZGC Cycles")));
+        Assert.assertFalse(GarbageCollectionOverheadMetricsCollector.isPause(createBean("Shenandoah Cycles")));
+    }
+
+    @Test
+    public void testSamplesSpaced() {
+        Mockito.doReturn(0L, 100L, 200L).when(_gcBean).getCollectionTime();
+        _collector.collect(_metrics, _managementFactory);
+        _nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        _collector.collect(_metrics, _managementFactory);
+        _nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        _collector.collect(_metrics, _managementFactory);
+        // The second sample is too close to the first to be kept
+        Mockito.verify(_metrics, Mockito.times(2))
+                .setGauge(Mockito.eq("jvm/gc_overhead/percent_1m"), AdditionalMatchers.eq(20.0, DELTA));
+    }
+
+    @Test
+    public void testSamplesWrap() {
+        final AtomicLong collectionTime = new AtomicLong();
+        Mockito.doAnswer(invocation -> collectionTime.getAndAdd(100)).when(_gcBean).getCollectionTime();
+        for (int i = 0; i < 1100; ++i) {
+            _collector.collect(_metrics, _managementFactory);
+            advance(1);
+        }
+        Mockito.verify(_metrics, Mockito.atLeastOnce())
+                .setGauge(Mockito.eq("jvm/gc_overhead/percent_15m"), AdditionalMatchers.eq(10.0, DELTA));
+    }
+
+    @Test
+    public void testThrashing() {
+        Mockito.doReturn(0L, 1000L).when(_gcBean).getCollectionTime();
+        Mockito.doReturn(1L, 2L).when(_gcBean).getCollectionCount();
+        _collector.collect(_metrics, _managementFactory);
+        advance(1);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/reclaimed_percent"), AdditionalMatchers.eq(2.0, DELTA));
+        Mockito.verify(_metrics).setGauge("jvm/gc_overhead/thrashing", 1L);
+    }
+
+    @Test
+    public void testNotThrashingWhenReclaiming() {
+        setGcInfo(900, 500);
+        Mockito.doReturn(new MemoryUsage(0, 0, 2000, -1)).when(_memoryBean).getHeapMemoryUsage();
+        Mockito.doReturn(0L, 1000L).when(_gcBean).getCollectionTime();
+        Mockito.doReturn(1L, 2L).when(_gcBean).getCollectionCount();
+        _collector.collect(_metrics, _managementFactory);
+        advance(1);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/reclaimed_percent"), AdditionalMatchers.eq(20.0, DELTA));
+        Mockito.verify(_metrics).setGauge("jvm/gc_overhead/thrashing", 0L);
+    }
+
+    @Test
+    public void testNotThrashingWithLowOverhead() {
+        Mockito.doReturn(0L, 100L).when(_gcBean).getCollectionTime();
+        Mockito.doReturn(1L, 2L).when(_gcBean).getCollectionCount();
+        _collector.collect(_metrics, _managementFactory);
+        advance(1);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/gc_overhead/thrashing", 0L);
+    }
+
+    @Test
+    public void testLeastReclaimedCollector() {
+        final com.sun.management.GarbageCollectorMXBean youngBean = Mockito.mock(com.sun.management.GarbageCollectorMXBean.class);
+        final GcInfo youngInfo = Mockito.mock(GcInfo.class);
+        Mockito.doReturn("Young").when(youngBean).getName();
+        Mockito.doReturn(youngInfo).when(youngBean).getLastGcInfo();
+        Mockito.doReturn(Collections.singletonMap("Eden", new MemoryUsage(0, 500, 500, -1))).when(youngInfo).getMemoryUsageBeforeGc();
+        Mockito.doReturn(Collections.singletonMap("Eden", new MemoryUsage(0, 0, 500, -1))).when(youngInfo).getMemoryUsageAfterGc();
+        Mockito.doReturn(1L, 2L).when(youngBean).getCollectionCount();
+        Mockito.doReturn(1L, 2L).when(_gcBean).getCollectionCount();
+        Mockito.doReturn(Arrays.asList(youngBean, _gcBean)).when(_managementFactory).getGarbageCollectorMXBeans();
+        _collector.collect(_metrics, _managementFactory);
+        advance(1);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge(Mockito.eq("jvm/gc_overhead/reclaimed_percent"), AdditionalMatchers.eq(2.0, DELTA));
+    }
+
+    @Test
+    public void testReclaimedUnknown() {
+        final GarbageCollectorMXBean plainBean = Mockito.mock(GarbageCollectorMXBean.class);
+        final com.sun.management.GarbageCollectorMXBean idleBean = Mockito.mock(com.sun.management.GarbageCollectorMXBean.class);
+        Mockito.doReturn("Plain").when(plainBean).getName();
+        Mockito.doReturn(1L, 2L).when(plainBean).getCollectionCount();
+        Mockito.doReturn(0L, 1000L).when(plainBean).getCollectionTime();
+        Mockito.doReturn("Idle").when(idleBean).getName();
+        Mockito.doReturn(1L).when(idleBean).getCollectionCount();
+        Mockito.doReturn(1L, 2L).when(_gcBean).getCollectionCount();
+        Mockito.doReturn(null).when(_gcBean).getLastGcInfo();
+        Mockito.doReturn(Arrays.asList(plainBean, idleBean, _gcBean)).when(_managementFactory).getGarbageCollectorMXBeans();
+        _collector.collect(_metrics, _managementFactory);
+        advance(1);
+        _collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.eq("jvm/gc_overhead/reclaimed_percent"), Mockito.anyDouble());
+        Mockito.verify(_metrics).setGauge("jvm/gc_overhead/thrashing", 0L);
+    }
+
+    @Test
+    public void testNewInstance() {
+        Assert.assertNotNull(GarbageCollectionOverheadMetricsCollector.newInstance());
+        Assert.assertNotNull(GarbageCollectionOverheadMetricsCollector.newInstance(0.9, 0.02));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThrashOverhead() {
+        GarbageCollectionOverheadMetricsCollector.newInstance(-0.1, 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThrashReclaimed() {
+        GarbageCollectionOverheadMetricsCollector.newInstance(0.9, -0.1);
+    }
+
+    private void advance(final long seconds) {
+        _nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private void setGcInfo(final long usedBefore, final long usedAfter) {
+        final Map<String, MemoryUsage> before = Map.of(
+                "Old", new MemoryUsage(0, usedBefore, 1000, 1000),
+                "Survivor", new MemoryUsage(0, 10, 100, -1),
+                "Metaspace", new MemoryUsage(0, 100, 100, -1));
+        final Map<String, MemoryUsage> after = Map.of(
+                "Old", new MemoryUsage(0, usedAfter, 1000, 1000),
+                "Metaspace", new MemoryUsage(0, 50, 100, -1));
+        Mockito.doReturn(before).when(_gcInfo).getMemoryUsageBeforeGc();
+        Mockito.doReturn(after).when(_gcInfo).getMemoryUsageAfterGc();
+    }
+
+    private static GarbageCollectorMXBean createBean(final String name) {
+        final GarbageCollectorMXBean bean = Mockito.mock(GarbageCollectorMXBean.class);
+        Mockito.doReturn(name).when(bean).getName();
+        return bean;
+    }
+
+    private static MemoryPoolMXBean createPool(final String name, final MemoryType type) {
+        final MemoryPoolMXBean pool = Mockito.mock(MemoryPoolMXBean.class);
+        Mockito.doReturn(name).when(pool).getName();
+        Mockito.doReturn(type).when(pool).getType();
+        return pool;
+    }
+
+    private Metrics _metrics;
+    private ManagementFactory _managementFactory;
+    private com.sun.management.GarbageCollectorMXBean _gcBean;
+    private GcInfo _gcInfo;
+    private MemoryMXBean _memoryBean;
+    private AtomicLong _nanos;
+    private GarbageCollectionOverheadMetricsCollector _collector;
+
+    private static final double DELTA = 0.0001;
+}
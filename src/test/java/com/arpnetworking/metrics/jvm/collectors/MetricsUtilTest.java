@@ -82,6 +82,18 @@ public final class MetricsUtilTest {
         Assert.assertEquals("ps_mark_sweep", snakeCased);
     }
 
+    @Test
+    public void testCreateObjectName() {
+        Assert.assertEquals(
+                "java.lang:type=Memory",
+                MetricsUtil.createObjectName("java.lang:type=Memory").getCanonicalName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateObjectNameMalformed() {
+        MetricsUtil.createObjectName("malformed");
+    }
+
     @Test
     public void testPrivateConstructor() throws NoSuchMethodException,
             IllegalAccessException, InvocationTargetException, InstantiationException {
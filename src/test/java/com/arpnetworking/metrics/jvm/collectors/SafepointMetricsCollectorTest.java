@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.Hsperfdata;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link SafepointMetricsCollector} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class SafepointMetricsCollectorTest {
+
+    @Before
+    public void setUp() {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _hsperfdata = Mockito.mock(Hsperfdata.class);
+        _count = Mockito.mock(Hsperfdata.Counter.class);
+        _time = Mockito.mock(Hsperfdata.Counter.class);
+        _syncTime = Mockito.mock(Hsperfdata.Counter.class);
+        Mockito.doReturn(Optional.of(_hsperfdata)).when(_managementFactory).getHsperfdata();
+        Mockito.doReturn(Optional.of(_count)).when(_hsperfdata).findCounter("sun.rt.safepoints");
+        Mockito.doReturn(Optional.of(_time)).when(_hsperfdata).findCounter("sun.rt.safepointTime");
+        Mockito.doReturn(Optional.of(_syncTime)).when(_hsperfdata).findCounter("sun.rt.safepointSyncTime");
+        Mockito.doAnswer(invocation -> (Long) invocation.getArgument(0) * 10).when(_hsperfdata).toNanos(Mockito.anyLong());
+    }
+
+    @Test
+    public void testCollectDeltas() {
+        final JvmMetricsCollector collector = SafepointMetricsCollector.newInstance();
+        setCounters(10, 100, 20);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+        setCounters(13, 150, 22);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).incrementCounter("jvm/safepoint/count_delta", 3);
+        Mockito.verify(_metrics).setTimer("jvm/safepoint/time_delta", 500, TimeUnit.NANOSECONDS);
+        Mockito.verify(_metrics).setTimer("jvm/safepoint/sync_time_delta", 20, TimeUnit.NANOSECONDS);
+        // The counters are resolved once
+        Mockito.verify(_hsperfdata).findCounter("sun.rt.safepoints");
+    }
+
+    @Test
+    public void testCollectResolvesNewHsperfdata() {
+        final JvmMetricsCollector collector = SafepointMetricsCollector.newInstance();
+        setCounters(10, 100, 20);
+        collector.collect(_metrics, _managementFactory);
+        final Hsperfdata other = Mockito.mock(Hsperfdata.class);
+        Mockito.doReturn(Optional.of(other)).when(_managementFactory).getHsperfdata();
+        Mockito.doReturn(Optional.of(_count)).when(other).findCounter("sun.rt.safepoints");
+        setCounters(11, 100, 20);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(other).findCounter("sun.rt.safepoints");
+        Mockito.verify(_metrics).incrementCounter("jvm/safepoint/count_delta", 1);
+        Mockito.verify(_metrics, Mockito.never())
+                .setTimer(Mockito.anyString(), Mockito.anyLong(), Mockito.any(TimeUnit.class));
+    }
+
+    @Test
+    public void testCollectMissingCounters() {
+        Mockito.doReturn(Optional.empty()).when(_hsperfdata).findCounter(Mockito.anyString());
+        final JvmMetricsCollector collector = SafepointMetricsCollector.newInstance();
+        collector.collect(_metrics, _managementFactory);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    @Test
+    public void testCollectNotPublished() {
+        Mockito.doReturn(Optional.empty()).when(_managementFactory).getHsperfdata();
+        SafepointMetricsCollector.newInstance().collect(_metrics, _managementFactory);
+        Mockito.verifyNoInteractions(_metrics);
+    }
+
+    private void setCounters(final long count, final long time, final long syncTime) {
+        Mockito.doReturn(count).when(_count).get();
+        Mockito.doReturn(time).when(_time).get();
+        Mockito.doReturn(syncTime).when(_syncTime).get();
+    }
+
+    private Metrics _metrics;
+    private ManagementFactory _managementFactory;
+    private Hsperfdata _hsperfdata;
+    private Hsperfdata.Counter _count;
+    private Hsperfdata.Counter _time;
+    private Hsperfdata.Counter _syncTime;
+}
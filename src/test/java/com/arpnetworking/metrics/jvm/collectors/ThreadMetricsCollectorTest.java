@@ -55,6 +55,19 @@ public final class ThreadMetricsCollectorTest {
         Mockito.verify(_metrics).setGauge("jvm/threads/peak_thread_count", 4);
     }
 
+    @Test
+    public void testCollectStartedThreadCountDelta() {
+        createMockBean(10, 3, 4);
+        final JvmMetricsCollector collector = ThreadMetricsCollector.newInstance();
+        Mockito.doReturn(100L).when(_threadMXBean).getTotalStartedThreadCount();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never())
+                .incrementCounter(Mockito.eq("jvm/threads/started_thread_count_delta"), Mockito.anyLong());
+        Mockito.doReturn(107L).when(_threadMXBean).getTotalStartedThreadCount();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).incrementCounter("jvm/threads/started_thread_count_delta", 7L);
+    }
+
     @Test(expected = Exception.class)
     public void testCollectWithException() {
         Mockito.doThrow(Exception.class).when(_managementFactory).getThreadMXBean();
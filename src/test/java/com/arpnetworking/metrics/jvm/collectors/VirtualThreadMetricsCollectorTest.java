@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Inscope Metrics Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.jvm.collectors;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.jvm.ManagementFactory;
+import jdk.jfr.EventSettings;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Tests the {@link VirtualThreadMetricsCollector} class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot io)
+ */
+public final class VirtualThreadMetricsCollectorTest {
+
+    @Before
+    public void setUp() throws Exception {
+        _metrics = Mockito.mock(Metrics.class);
+        _managementFactory = Mockito.mock(ManagementFactory.class);
+        _connection = Mockito.mock(MBeanServerConnection.class);
+        _stream = Mockito.mock(RecordingStream.class);
+        _settings = Mockito.mock(EventSettings.class);
+        Mockito.doReturn(_connection).when(_managementFactory).getMBeanServerConnection();
+        Mockito.doReturn(_settings).when(_stream).enable(Mockito.anyString());
+        Mockito.doThrow(new InstanceNotFoundException())
+                .when(_connection).getAttributes(Mockito.any(ObjectName.class), Mockito.any(String[].class));
+    }
+
+    @After
+    public void tearDown() {
+        _metrics = null;
+        _managementFactory = null;
+        _connection = null;
+        _stream = null;
+        _settings = null;
+    }
+
+    @Test
+    public void testCollectSchedulerAttributes() throws Exception {
+        Mockito.doReturn(new AttributeList(Arrays.asList(
+                new Attribute("Parallelism", 8),
+                new Attribute("PoolSize", 6),
+                new Attribute("MountedVirtualThreadCount", 5L),
+                new Attribute("QueuedVirtualThreadCount", 3L),
+                new Attribute("Unexpected", "foo"))))
+                .when(_connection).getAttributes(Mockito.any(ObjectName.class), Mockito.any(String[].class));
+        final VirtualThreadMetricsCollector collector = new VirtualThreadMetricsCollector(() -> _stream);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics).setGauge("jvm/virtual_threads/parallelism", 8L);
+        Mockito.verify(_metrics).setGauge("jvm/virtual_threads/pool_size", 6L);
+        Mockito.verify(_metrics).setGauge("jvm/virtual_threads/mounted_virtual_thread_count", 5L);
+        Mockito.verify(_metrics).setGauge("jvm/virtual_threads/queued_virtual_thread_count", 3L);
+        Mockito.verify(_metrics, Mockito.never())
+                .setGauge(Mockito.eq("jvm/virtual_threads/unexpected"), Mockito.anyLong());
+    }
+
+    @Test
+    public void testCollectSchedulerNotAvailable() {
+        final VirtualThreadMetricsCollector collector = new VirtualThreadMetricsCollector(() -> _stream);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never()).setGauge(Mockito.anyString(), Mockito.anyLong());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCollectSchedulerReflectionException() throws Exception {
+        Mockito.doThrow(new ReflectionException(new Exception()))
+                .when(_connection).getAttributes(Mockito.any(ObjectName.class), Mockito.any(String[].class));
+        new VirtualThreadMetricsCollector(() -> _stream).collect(_metrics, _managementFactory);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCollectSchedulerIOException() throws Exception {
+        Mockito.doThrow(new IOException())
+                .when(_connection).getAttributes(Mockito.any(ObjectName.class), Mockito.any(String[].class));
+        new VirtualThreadMetricsCollector(() -> _stream).collect(_metrics, _managementFactory);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCollectPinnedEvents() {
+        final VirtualThreadMetricsCollector collector = new VirtualThreadMetricsCollector(() -> _stream);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_stream).enable("jdk.VirtualThreadPinned");
+        Mockito.verify(_settings).withThreshold(Duration.ofMillis(20));
+        Mockito.verify(_stream).startAsync();
+        Mockito.verify(_metrics).incrementCounter("jvm/virtual_threads/pinned_count", 0L);
+        Mockito.verify(_metrics).setTimer("jvm/virtual_threads/pinned_time", 0L, TimeUnit.NANOSECONDS);
+
+        final ArgumentCaptor<Consumer<RecordedEvent>> captor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(_stream).onEvent(Mockito.eq("jdk.VirtualThreadPinned"), captor.capture());
+        final RecordedEvent event = Mockito.mock(RecordedEvent.class);
+        Mockito.doReturn(Duration.ofMillis(25)).when(event).getDuration();
+        captor.getValue().accept(event);
+        captor.getValue().accept(event);
+
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_stream).startAsync();
+        Mockito.verify(_metrics).incrementCounter("jvm/virtual_threads/pinned_count", 2L);
+        Mockito.verify(_metrics).setTimer(
+                "jvm/virtual_threads/pinned_time",
+                TimeUnit.MILLISECONDS.toNanos(50),
+                TimeUnit.NANOSECONDS);
+
+        collector.close();
+        Mockito.verify(_stream).close();
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.times(2))
+                .incrementCounter(Mockito.eq("jvm/virtual_threads/pinned_count"), Mockito.anyLong());
+    }
+
+    @Test
+    public void testCollectPinnedEventsUnavailable() {
+        final VirtualThreadMetricsCollector collector = new VirtualThreadMetricsCollector(() -> {
+            throw new IllegalStateException("Flight recorder unavailable");
+        });
+        collector.collect(_metrics, _managementFactory);
+        collector.collect(_metrics, _managementFactory);
+        Mockito.verify(_metrics, Mockito.never())
+                .incrementCounter(Mockito.anyString(), Mockito.anyLong());
+        collector.close();
+    }
+
+    @Test
+    public void testCollectWithDefaultInstance() throws Exception {
+        final VirtualThreadMetricsCollector collector =
+                (VirtualThreadMetricsCollector) VirtualThreadMetricsCollector.newInstance();
+        Mockito.doReturn(java.lang.management.ManagementFactory.getPlatformMBeanServer())
+                .when(_managementFactory).getMBeanServerConnection();
+        try {
+            collector.collect(_metrics, _managementFactory);
+            Mockito.verify(_metrics).incrementCounter(
+                    Mockito.eq("jvm/virtual_threads/pinned_count"),
+                    Mockito.anyLong());
+        } finally {
+            collector.close();
+        }
+    }
+
+    private Metrics _metrics = null;
+    private ManagementFactory _managementFactory = null;
+    private MBeanServerConnection _connection = null;
+    private RecordingStream _stream = null;
+    private EventSettings _settings = null;
+}